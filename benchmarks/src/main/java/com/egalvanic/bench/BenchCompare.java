@@ -0,0 +1,64 @@
+package com.egalvanic.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two {@link BenchRunner} TSV files: per benchmark, the score and allocation
+ * change in percent. A change whose score moved by less than both runs' error bars is
+ * marked "~" (noise).
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.egalvanic.bench.BenchCompare results/a1b2c3d.tsv results/e4f5a6b.tsv
+ * </pre>
+ */
+public final class BenchCompare {
+
+    private record Row(double score, double error, double alloc) {}
+
+    private BenchCompare() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BenchCompare <before.tsv> <after.tsv>");
+            System.exit(2);
+        }
+        Map<String, Row> before = read(Path.of(args[0]));
+        Map<String, Row> after = read(Path.of(args[1]));
+        System.out.printf(Locale.ROOT, "%-60s %14s %14s %9s %10s%n", "benchmark", "before", "after", "score", "alloc");
+        for (Map.Entry<String, Row> e : after.entrySet()) {
+            Row a = e.getValue();
+            Row b = before.get(e.getKey());
+            if (b == null) {
+                System.out.printf(Locale.ROOT, "%-60s %14s %14.3f %9s %10s%n", e.getKey(), "(new)", a.score(), "", "");
+                continue;
+            }
+            boolean noise = Math.abs(a.score() - b.score()) <= a.error() + b.error();
+            System.out.printf(Locale.ROOT, "%-60s %14.3f %14.3f %9s %10s%n", e.getKey(), b.score(), a.score(),
+                    (noise ? "~" : "") + percent(b.score(), a.score()),
+                    Double.isNaN(a.alloc()) || Double.isNaN(b.alloc()) ? "-" : percent(b.alloc(), a.alloc()));
+        }
+        before.keySet().stream().filter(k -> !after.containsKey(k))
+                .forEach(k -> System.out.printf(Locale.ROOT, "%-60s %14s%n", k, "(removed)"));
+    }
+
+    private static String percent(double before, double after) {
+        return before == 0 ? (after == 0 ? "0%" : "+inf") : String.format(Locale.ROOT, "%+.1f%%", (after - before) * 100 / before);
+    }
+
+    private static Map<String, Row> read(Path tsv) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(tsv, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] f = line.split("\t");
+            rows.put(f[0] + ("-".equals(f[1]) ? "" : " [" + f[1] + "]"), new Row(Double.parseDouble(f[2]),
+                    Double.parseDouble(f[3]), "-".equals(f[5]) ? Double.NaN : Double.parseDouble(f[5])));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,101 @@
+package com.egalvanic.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC (allocation) profiler and writes two result files per
+ * run into {@code benchmarks/results/} (override: {@code -Dbench.results}), named by the
+ * commit ({@code git rev-parse --short HEAD}, override: {@code -Dbench.label}):
+ * <ul>
+ *   <li>{@code <label>.json} — JMH's full output, for tooling;</li>
+ *   <li>{@code <label>.tsv} — one sorted line per benchmark+params: score, error, unit and
+ *       allocated bytes per op. Stable ordering, so {@code diff a.tsv b.tsv} or
+ *       {@link BenchCompare} shows what a change moved.</li>
+ * </ul>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.egalvanic.bench.BenchRunner [regex...]
+ * </pre>
+ */
+public final class BenchRunner {
+
+    private BenchRunner() {}
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String label = System.getProperty("bench.label", gitLabel());
+        Path dir = Path.of(System.getProperty("bench.results", "benchmarks/results"));
+        Files.createDirectories(dir);
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(dir.resolve(label + ".json").toString());
+        if (args.length == 0) {
+            options.include("com\\.egalvanic\\..*Benchmark\\..*");
+        }
+        for (String regex : args) {
+            options.include(regex);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        Path tsv = dir.resolve(label + ".tsv");
+        Files.write(tsv, toTsv(results), StandardCharsets.UTF_8);
+        System.out.println("📊 Results: " + tsv + " (+ .json)");
+    }
+
+    static List<String> toTsv(Collection<RunResult> results) {
+        List<String> rows = new ArrayList<>();
+        for (RunResult r : results) {
+            var params = r.getParams();
+            StringBuilder p = new StringBuilder();
+            for (String key : params.getParamsKeys()) {
+                p.append(p.length() == 0 ? "" : ",").append(key).append('=').append(params.getParam(key));
+            }
+            Result primary = r.getPrimaryResult();
+            Result alloc = allocation(r.getSecondaryResults());
+            rows.add(String.join("\t",
+                    params.getBenchmark().replaceFirst("^com\\.egalvanic\\.\\w+\\.", ""),
+                    p.length() == 0 ? "-" : p.toString(),
+                    String.format(Locale.ROOT, "%.3f", primary.getScore()),
+                    String.format(Locale.ROOT, "%.3f", primary.getScoreError()),
+                    primary.getScoreUnit(),
+                    alloc == null ? "-" : String.format(Locale.ROOT, "%.0f", alloc.getScore())));
+        }
+        rows.sort(null);
+        rows.add(0, "# benchmark\tparams\tscore\terror\tunit\talloc_B/op");
+        return rows;
+    }
+
+    // JMH 1.37 names it "gc.alloc.rate.norm"; older releases prefix a middle dot.
+    private static Result allocation(Map<String, Result> secondary) {
+        Result r = secondary.get("gc.alloc.rate.norm");
+        return r != null ? r : secondary.get("·gc.alloc.rate.norm");
+    }
+
+    private static String gitLabel() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String sha = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !sha.isEmpty() ? sha : "local";
+        } catch (IOException | InterruptedException e) {
+            return "local";
+        }
+    }
+}
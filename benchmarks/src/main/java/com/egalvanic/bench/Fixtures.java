@@ -0,0 +1,182 @@
+package com.egalvanic.bench;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark inputs: the committed fixtures, or a synthetic stand-in when a fixture
+ * directory is missing (a benchmark run from outside the repository root).
+ *
+ * <p>Each kind reads every matching file from a directory named by a system property
+ * (paths relative to the repository root, where the benchmarks are run from):
+ * <ul>
+ *   <li>{@code bench.screenshots} (benchmarks/fixtures/screenshots, *.png) — device-resolution screens;</li>
+ *   <li>{@code bench.pagesources} (benchmarks/fixtures/pagesources, *.xml) — driver.getPageSource() dumps;</li>
+ *   <li>{@code bench.api} (benchmarks/fixtures/api, *.json) — GET /sld/v3 responses;</li>
+ *   <li>{@code bench.policies} (baselines, *.json, recursive) — the committed S3 policy baselines.</li>
+ * </ul>
+ * A benchmark's {@code fixture} parameter picks one file (modulo the count), so a fixed
+ * {@code -p fixture=N} keeps runs comparable across commits. benchmarks/fixtures/README.md
+ * says where each committed fixture comes from.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    public static byte[] screenshot(int index) throws IOException {
+        List<Path> files = list("bench.screenshots", "benchmarks/fixtures/screenshots", ".png", false);
+        return files.isEmpty() ? syntheticScreen() : Files.readAllBytes(pick(files, index));
+    }
+
+    public static String pageSource(int index) throws IOException {
+        List<Path> files = list("bench.pagesources", "benchmarks/fixtures/pagesources", ".xml", false);
+        return files.isEmpty() ? syntheticPageSource() : Files.readString(pick(files, index), StandardCharsets.UTF_8);
+    }
+
+    public static String apiResponse(int index) throws IOException {
+        List<Path> files = list("bench.api", "benchmarks/fixtures/api", ".json", false);
+        return files.isEmpty() ? syntheticSldNodes() : Files.readString(pick(files, index), StandardCharsets.UTF_8);
+    }
+
+    public static List<String> policies() throws IOException {
+        List<Path> files = list("bench.policies", "baselines", ".json", true);
+        if (files.isEmpty()) {
+            throw new IllegalStateException("no policy baselines under -Dbench.policies (run from the repository root)");
+        }
+        return files.stream().map(p -> {
+            try {
+                return Files.readString(p, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).toList();
+    }
+
+    /** The {@code nodes} of an /sld/v3 response from {@link #apiResponse}, in response order. */
+    public static List<JsonObject> sldNodes(int index) throws IOException {
+        JsonObject root = JsonParser.parseString(apiResponse(index)).getAsJsonObject();
+        if (root.has("data")) {
+            root = root.getAsJsonObject("data");
+        }
+        List<JsonObject> nodes = new ArrayList<>();
+        for (JsonElement node : root.getAsJsonArray("nodes")) {
+            nodes.add(node.getAsJsonObject());
+        }
+        return nodes;
+    }
+
+    private static Path pick(List<Path> files, int index) {
+        return files.get(Math.floorMod(index, files.size()));
+    }
+
+    private static List<Path> list(String property, String defaultDir, String suffix, boolean recursive)
+            throws IOException {
+        Path dir = Path.of(System.getProperty(property, defaultDir));
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = recursive ? Files.walk(dir) : Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    // ================================================================
+    // SYNTHETIC STAND-INS
+    // ================================================================
+
+    /** Header, 14 list rows with text-like runs, a tab bar — about what an iPhone 15 Pro Max capture holds. */
+    static byte[] syntheticScreen() throws IOException {
+        BufferedImage img = new BufferedImage(1290, 2796, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(0xF2F2F7));
+        g.fillRect(0, 0, 1290, 2796);
+        g.setColor(new Color(0x1C4E80));
+        g.fillRect(0, 0, 1290, 300);
+        Random r = new Random(42);
+        for (int row = 0; row < 14; row++) {
+            int y = 340 + row * 160;
+            g.setColor(Color.WHITE);
+            g.fillRect(40, y, 1210, 140);
+            for (int x = 80; x < 80 + 300 + r.nextInt(700); x += 18) {
+                g.setColor(new Color(20 + r.nextInt(60), 20 + r.nextInt(60), 20 + r.nextInt(60)));
+                g.fillRect(x, y + 40 + r.nextInt(6), 14, 28 + r.nextInt(10));
+            }
+        }
+        g.setColor(new Color(0xF9F9F9));
+        g.fillRect(0, 2560, 1290, 236);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * An asset-list screen as XCUITest serializes it: nested Other/Cell containers, about
+     * 600 elements, composite "Name, Class" row labels, most off-screen (visible="false").
+     */
+    static String syntheticPageSource() {
+        StringBuilder sb = new StringBuilder(256 * 1024);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<XCUIElementTypeApplication type=\"XCUIElementTypeApplication\" "
+                + "name=\"Egalvanic PZ\" label=\"Egalvanic PZ\" enabled=\"true\" visible=\"true\" accessible=\"false\" "
+                + "x=\"0\" y=\"0\" width=\"430\" height=\"932\" index=\"0\">\n");
+        element(sb, "NavigationBar", "Assets", 0, 47, 430, 44, true, true);
+        element(sb, "Button", "Back", 8, 51, 60, 36, true, false);
+        element(sb, "SearchField", "Search assets", 16, 100, 398, 36, true, false);
+        String[] classes = {"Panelboard", "Switchboard", "Transformer", "Circuit Breaker", "Motor", "ATS", "Busway"};
+        for (int i = 0; i < 150; i++) {
+            int y = 150 + i * 64;
+            boolean visible = y < 860;
+            String composite = "Asset " + (1000 + i) + " &amp; Feeder, " + classes[i % classes.length];
+            element(sb, "Cell", composite, 0, y, 430, 64, visible, true);
+            element(sb, "StaticText", composite, 16, y + 8, 300, 22, visible, false);
+            element(sb, "StaticText", "Room " + (i % 12 + 1) + " › Floor " + (i % 3 + 1), 16, y + 34, 300, 18, visible, false);
+            element(sb, "Image", "chevron.right", 400, y + 24, 12, 16, visible, false);
+            sb.append("</XCUIElementTypeCell>\n");
+        }
+        element(sb, "TabBar", "Tab Bar", 0, 849, 430, 83, true, false);
+        sb.append("</XCUIElementTypeNavigationBar>\n</XCUIElementTypeApplication>\n");
+        return sb.toString();
+    }
+
+    private static void element(StringBuilder sb, String type, String name, int x, int y, int w, int h,
+                                boolean visible, boolean open) {
+        sb.append("<XCUIElementType").append(type).append(" type=\"XCUIElementType").append(type)
+                .append("\" name=\"").append(name).append("\" label=\"").append(name)
+                .append("\" enabled=\"true\" visible=\"").append(visible).append("\" accessible=\"true\" x=\"")
+                .append(x).append("\" y=\"").append(y).append("\" width=\"").append(w).append("\" height=\"")
+                .append(h).append("\" index=\"0\"").append(open ? ">" : "/>").append('\n');
+    }
+
+    /** A site's SLD node list as the API returns it: 2000 nodes, the sought one last. */
+    static String syntheticSldNodes() {
+        StringBuilder sb = new StringBuilder(1024 * 1024);
+        sb.append("{\"success\":true,\"data\":{\"nodes\":[");
+        String[] types = {"electricalPanel", "circuitBreaker", "transformer", "busway", "fuse", "motor", "ats"};
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"").append(String.format("%08x-1f2e-4c3d-9b8a-%012d", i * 7919, i))
+                    .append("\",\"name\":\"Node ").append(i).append("\",\"node_type\":\"").append(types[i % types.length])
+                    .append("\",\"properties\":{\"voltage\":\"480V\",\"amperage\":\"").append(100 + i % 900)
+                    .append("A\",\"manufacturer\":\"Square D\"},\"location_id\":\"loc-").append(i % 40)
+                    .append("\",\"created_at\":\"2026-07-01T12:00:00Z\"}");
+        }
+        sb.append("]}}");
+        return sb.toString();
+    }
+}
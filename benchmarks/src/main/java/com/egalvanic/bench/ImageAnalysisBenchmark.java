@@ -0,0 +1,120 @@
+package com.egalvanic.bench;
+
+import com.egalvanic.verify.ImageAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The render-check path a crawl step pays for: decode a simulator screenshot, then
+ * analyse it. {@code legacy*} benchmarks are the pre-raster implementation (full ImageIO
+ * decode, {@code getRGB} per sample, boxed colour set) kept as the baseline.
+ *
+ * <p>Fixtures: {@link Fixtures#screenshot} — real captures from
+ * benchmarks/fixtures/screenshots, else a synthetic 1290×2796 list screen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageAnalysisBenchmark {
+
+    @Param({"0"})
+    public int fixture;
+
+    private byte[] png;
+    private BufferedImage full;
+    private BufferedImage small;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        png = Fixtures.screenshot(fixture);
+        full = ImageIO.read(new ByteArrayInputStream(png));
+        small = ImageAnalysis.decodeScreenshot(png);
+    }
+
+    @Benchmark
+    public BufferedImage legacyDecode() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    @Benchmark
+    public BufferedImage subsampledDecode() throws IOException {
+        return ImageAnalysis.decodeScreenshot(png);
+    }
+
+    @Benchmark
+    public ImageAnalysis.Result legacyAnalyzeFull() {
+        return legacyAnalyze(full);
+    }
+
+    @Benchmark
+    public ImageAnalysis.Result analyzeFull() {
+        return ImageAnalysis.analyzeFull(full);
+    }
+
+    @Benchmark
+    public ImageAnalysis.Result analyzeSubsampled() {
+        return ImageAnalysis.analyzeFull(small);
+    }
+
+    @Benchmark
+    public int[] lumaHistogram() {
+        return ImageAnalysis.lumaHistogram(small, 0, 0, small.getWidth(), small.getHeight(), 32);
+    }
+
+    @Benchmark
+    public long dHash() {
+        return ImageAnalysis.dHash(small);
+    }
+
+    /** End to end, before: what screenshotLooksRendered cost per call. */
+    @Benchmark
+    public boolean legacyRenderCheck() throws IOException {
+        return legacyAnalyze(ImageIO.read(new ByteArrayInputStream(png))).looksBlank();
+    }
+
+    /** End to end, after. */
+    @Benchmark
+    public boolean renderCheck() throws IOException {
+        return ImageAnalysis.analyzeFull(ImageAnalysis.decodeScreenshot(png)).looksBlank();
+    }
+
+    private static ImageAnalysis.Result legacyAnalyze(BufferedImage img) {
+        Set<Integer> colors = new HashSet<>();
+        double sum = 0, sumSq = 0;
+        int n = 0;
+        int w = img.getWidth(), h = img.getHeight();
+        for (int i = 0; i < w; i += Math.max(1, w / 64)) {
+            for (int j = 0; j < h; j += Math.max(1, h / 64)) {
+                int rgb = img.getRGB(i, j);
+                colors.add(rgb & 0xF8F8F8);
+                double lum = 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                sum += lum;
+                sumSq += lum * lum;
+                n++;
+            }
+        }
+        double mean = sum / n;
+        return new ImageAnalysis.Result(colors.size(), Math.sqrt(Math.max(0, sumSq / n - mean * mean)));
+    }
+}
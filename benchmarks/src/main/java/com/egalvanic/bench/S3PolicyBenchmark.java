@@ -0,0 +1,114 @@
+package com.egalvanic.bench;
+
+import com.egalvanic.utils.S3PolicyChecker;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The drift check S3PolicyChecker.checkBucket runs per bucket. {@code driftDiff*} is the
+ * current path (cached baseline Merkle tree, hash the live policy, compare roots, walk
+ * only differing subtrees); {@code normalize}/{@code check*} are the normalized-text
+ * compare and line diff it replaced, kept as the baseline.
+ *
+ * <p>Fixtures: the committed baselines/ policies ({@link Fixtures#policies}). The "live"
+ * policy is the baseline re-serialized with its statements reversed (what AWS returns)
+ * and, for the drift case, the first statement's first action dropped (or its Effect
+ * flipped when it has a single action).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3PolicyBenchmark {
+
+    @Param({"0"})
+    public int fixture;
+
+    private String baseline;
+    private String live;
+    private String drifted;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        List<String> policies = Fixtures.policies();
+        baseline = policies.get(Math.floorMod(fixture, policies.size()));
+        live = reorderStatements(baseline);
+        drifted = dropFirstAction(live);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return S3PolicyChecker.normalizeJson(baseline);
+    }
+
+    /** The common case: no drift. */
+    @Benchmark
+    public boolean checkMatching() {
+        return S3PolicyChecker.normalizeJson(baseline).equals(S3PolicyChecker.normalizeJson(live));
+    }
+
+    /** Drift: normalize both, then the structured diff for the report. */
+    @Benchmark
+    public String checkDrifted() {
+        String expected = S3PolicyChecker.normalizeJson(baseline);
+        String actual = S3PolicyChecker.normalizeJson(drifted);
+        return expected.equals(actual) ? "" : S3PolicyChecker.generateStructuredDiff(expected, actual);
+    }
+
+    @Benchmark
+    public String driftDiffMatching() {
+        return S3PolicyChecker.driftDiff(baseline, live);
+    }
+
+    @Benchmark
+    public String driftDiffDrifted() {
+        return S3PolicyChecker.driftDiff(baseline, drifted);
+    }
+
+    private static String reorderStatements(String policy) {
+        JsonObject root = JsonParser.parseString(policy).getAsJsonObject();
+        JsonElement statements = root.get("Statement");
+        if (statements != null && statements.isJsonArray()) {
+            JsonArray reversed = new JsonArray();
+            JsonArray original = statements.getAsJsonArray();
+            for (int i = original.size() - 1; i >= 0; i--) {
+                reversed.add(original.get(i));
+            }
+            root.add("Statement", reversed);
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static String dropFirstAction(String policy) {
+        JsonObject root = JsonParser.parseString(policy).getAsJsonObject();
+        JsonObject first = root.getAsJsonArray("Statement").get(0).getAsJsonObject();
+        JsonElement action = first.get("Action");
+        if (action != null && action.isJsonArray() && action.getAsJsonArray().size() > 1) {
+            action.getAsJsonArray().remove(0);
+        } else {
+            first.addProperty("Effect", "Deny".equals(first.get("Effect").getAsString()) ? "Allow" : "Deny");
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+}
@@ -0,0 +1,55 @@
+package com.egalvanic.bench;
+
+import com.egalvanic.utils.ScreenshotUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The report-screenshot encode: what getScreenshotAsBase64Compressed spends after the
+ * bytes arrive (PNG decode, scale, JPEG encode, Base64), and what the flight recorder
+ * spends per frame of a failed test. {@code rawBase64} is the uncompressed fallback.
+ *
+ * <p>Fixtures: {@link Fixtures#screenshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotCompressBenchmark {
+
+    @Param({"0"})
+    public int fixture;
+
+    private byte[] png;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        png = Fixtures.screenshot(fixture);
+    }
+
+    @Benchmark
+    public String compressToBase64() throws IOException {
+        return ScreenshotUtil.compressToBase64(png);
+    }
+
+    @Benchmark
+    public String rawBase64() {
+        return Base64.getEncoder().encodeToString(png);
+    }
+}
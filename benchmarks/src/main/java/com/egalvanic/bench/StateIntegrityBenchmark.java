@@ -0,0 +1,79 @@
+package com.egalvanic.bench;
+
+import com.egalvanic.verify.StateIntegrityChecker;
+import com.egalvanic.verify.StateIntegrityChecker.Snapshot;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StateIntegrityChecker's before/after assertions at list sizes the suites capture:
+ * a room's assets (100) up to a whole site's asset list (1500, every node of the
+ * committed /sld/v3 fixture). Rows are "name, room" as the asset list shows them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateIntegrityBenchmark {
+
+    @Param({"100", "1500"})
+    public int size;
+
+    private final StateIntegrityChecker checker = new StateIntegrityChecker();
+    private List<String> before;
+    private List<String> afterCreate;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        List<JsonObject> nodes = Fixtures.sldNodes(0);
+        before = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JsonObject node = nodes.get(i % nodes.size());
+            String location = node.has("location") && node.get("location").isJsonPrimitive()
+                    ? node.get("location").getAsString() : "";
+            String row = node.get("name").getAsString() + ", " + location.substring(location.lastIndexOf('>') + 1).trim();
+            before.add(i < nodes.size() ? row : row + " (" + i / nodes.size() + ")");
+        }
+        afterCreate = new ArrayList<>(before);
+        afterCreate.add(size / 2, "Asset NEW, Transformer");
+    }
+
+    @Benchmark
+    public Snapshot capture() {
+        return checker.capture(() -> before);
+    }
+
+    @Benchmark
+    public Snapshot createdExactlyOne() {
+        Snapshot b = checker.capture(() -> before);
+        Snapshot a = checker.capture(() -> afterCreate);
+        checker.assertCreatedExactlyOne(b, a, "Asset NEW, Transformer");
+        return a;
+    }
+
+    @Benchmark
+    public Snapshot noLossOrDup() {
+        Snapshot b = checker.capture(() -> before);
+        Snapshot a = checker.capture(() -> afterCreate);
+        checker.assertNoLossOrDup(b, a);
+        return a;
+    }
+}
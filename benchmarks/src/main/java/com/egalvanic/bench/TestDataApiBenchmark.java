@@ -0,0 +1,71 @@
+package com.egalvanic.bench;
+
+import com.egalvanic.api.TestDataApi;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestDataApi's regex field extractors over a real-sized API response: the seeding and
+ * lookup helpers call them on every node list a test fetches.
+ *
+ * <p>Fixtures: {@link Fixtures#apiResponse} — /sld/v3 responses from benchmarks/fixtures/api.
+ * The sought value is the LAST node's {@code "name"}, so the sibling lookup pays for the
+ * full node scan, as a freshly created node does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestDataApiBenchmark {
+
+    @Param({"0"})
+    public int fixture;
+
+    private String json;
+    private String lastName;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        json = Fixtures.apiResponse(fixture);
+        List<JsonObject> nodes = Fixtures.sldNodes(fixture);
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("fixture has no nodes");
+        }
+        lastName = nodes.get(nodes.size() - 1).get("name").getAsString();
+    }
+
+    /** First match near the start: the common "id of the response" call. */
+    @Benchmark
+    public String extractFirst() {
+        return TestDataApi.extract(json, "id");
+    }
+
+    /** A field that is absent: the whole response is scanned. */
+    @Benchmark
+    public String extractMissing() {
+        return TestDataApi.extract(json, "no_such_field");
+    }
+
+    /** Find the node by name, then its id — brace-balanced slice of the enclosing object. */
+    @Benchmark
+    public String extractSiblingField() {
+        return TestDataApi.extractSiblingField(json, "name", lastName, "id");
+    }
+}
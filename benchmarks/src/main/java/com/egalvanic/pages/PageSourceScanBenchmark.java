@@ -0,0 +1,53 @@
+package com.egalvanic.pages;
+
+import com.egalvanic.bench.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The page-source scan behind AssetPage's list reads (firstVisibleAssetOfClass, the
+ * end-of-list signature): {@link AssetPage#assetRowComposites} over one snapshot, as
+ * the page object runs it. In this package because the scan is package-private.
+ *
+ * <p>Fixtures: {@link Fixtures#pageSource} — 0 is the asset-details form, 1 the asset
+ * list. {@code maxY} is assetListContentMaxY() on an iPhone 17 Pro (874 - 90).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSourceScanBenchmark {
+
+    private static final int MAX_Y = 874 - 90;
+
+    @Param({"0", "1"})
+    public int fixture;
+
+    private String src;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        src = Fixtures.pageSource(fixture);
+    }
+
+    @Benchmark
+    public List<String> assetRowComposites() {
+        return AssetPage.assetRowComposites(src, MAX_Y);
+    }
+}
@@ -0,0 +1,4 @@
+package com.egalvanic.bench.jmh_generated;
+public class ImageAnalysisBenchmark_jmhType extends ImageAnalysisBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.egalvanic.bench.jmh_generated;
+public class S3PolicyBenchmark_jmhType extends S3PolicyBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.egalvanic.bench.jmh_generated;
+public class ScreenshotCompressBenchmark_jmhType extends ScreenshotCompressBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.egalvanic.bench.jmh_generated;
+public class StateIntegrityBenchmark_jmhType extends StateIntegrityBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.egalvanic.bench.jmh_generated;
+public class TestDataApiBenchmark_jmhType extends TestDataApiBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.egalvanic.pages.jmh_generated;
+public class PageSourceScanBenchmark_jmhType extends PageSourceScanBenchmark_jmhType_B3 {
+}
+
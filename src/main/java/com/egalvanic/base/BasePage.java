@@ -2,6 +2,7 @@ package com.egalvanic.base;
 
 import com.egalvanic.constants.AppConstants;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.Log;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 import org.openqa.selenium.By;
@@ -24,6 +25,11 @@ import java.util.function.Function;
  * Base Page - Parent class for all Page Objects
  * Implements PageFactory with AjaxElementLocatorFactory for lazy loading
  * Enhanced with better wait strategies for CI environments
+ *
+ * Element lookups (PageFactory proxies and raw driver.findElement alike) are
+ * served from the session's screen-epoch cache (utils/ElementCache): repeated
+ * singular lookups on an unchanged screen cost nothing, and every tap, type,
+ * swipe or navigation issued through the driver starts a new epoch.
  */
 public abstract class BasePage {
 
@@ -123,7 +129,7 @@ public abstract class BasePage {
                     return true;
                 }
             } catch (Exception e) {
-                System.out.println("⚠️ Attempt " + (i + 1) + " failed, retrying...");
+                Log.debug("⚠️ Attempt " + (i + 1) + " failed, retrying...");
             }
             sleep(waitBetweenAttempts);
         }
@@ -163,11 +169,11 @@ public abstract class BasePage {
                 return; // Success
             } catch (StaleElementReferenceException e) {
                 lastException = e;
-                System.out.println("⚠️ Stale element on click attempt " + attempt + ", retrying...");
+                Log.debug("⚠️ Stale element on click attempt " + attempt + ", retrying...");
                 sleep(500);
             } catch (Exception e) {
                 lastException = e;
-                System.out.println("⚠️ Click failed on attempt " + attempt + ": " + e.getMessage());
+                Log.debug("⚠️ Click failed on attempt " + attempt + ": " + e.getMessage());
                 sleep(500);
             }
         }
@@ -178,11 +184,11 @@ public abstract class BasePage {
             int y = element.getLocation().getY() + element.getSize().getHeight() / 2;
             if (y > 120) { // Avoid nav bar zone
                 driver.executeScript("mobile: tap", java.util.Map.of("x", x, "y", y));
-                System.out.println("✅ Click succeeded via coordinate tap at (" + x + ", " + y + ")");
+                Log.info("✅ Click succeeded via coordinate tap at (" + x + ", " + y + ")");
                 return;
             }
         } catch (Exception e) {
-            System.out.println("⚠️ Coordinate tap fallback also failed");
+            Log.warn("⚠️ Coordinate tap fallback also failed");
         }
 
         throw new RuntimeException("Failed to click element after " + maxRetries + " attempts + coordinate fallback", lastException);
@@ -331,20 +337,23 @@ public abstract class BasePage {
      * Issues/Connections lists — at the global depth (40) a single findElements
      * issued mid-rebuild can wedge or kill WDA (TC_ATS_ST_* family). Clamping
      * to ~20 bounds every tree walk the action performs; controls on these
-     * forms all sit well above that depth.
+     * forms all sit well above that depth. The explicit clamp pins the depth:
+     * SnapshotProfiles stops applying learned per-screen profiles until it ends.
      */
     protected <T> T withShallowSnapshots(int depth, java.util.function.Supplier<T> action) {
         boolean clamped = false;
+        com.egalvanic.utils.SnapshotProfiles.pin();
         try {
             ((io.appium.java_client.HasSettings) driver)
                 .setSetting("snapshotMaxDepth", depth);
             clamped = true;
         } catch (Exception e) {
-            System.out.println("⚠️ withShallowSnapshots: could not clamp depth: " + e.getMessage());
+            Log.warn("⚠️ withShallowSnapshots: could not clamp depth: " + e.getMessage());
         }
         try {
             return action.get();
         } finally {
+            com.egalvanic.utils.SnapshotProfiles.unpin();
             if (clamped) {
                 try {
                     ((io.appium.java_client.HasSettings) driver)
@@ -365,29 +374,33 @@ public abstract class BasePage {
      * The polling loop owns the timeout, so the implicit wait is dropped to 0 for
      * its duration — otherwise every findElement miss inside the condition burns
      * the global 5s implicit wait and a "10s" wait polls at most twice. The
-     * caller-supplied timeoutSeconds cap is unchanged.
+     * caller-supplied timeoutSeconds cap is unchanged, and also bounds every
+     * driver command the condition issues (utils/CommandDeadline).
      */
     protected boolean waitForCondition(java.util.function.Supplier<Boolean> condition, int timeoutSeconds) {
         return withImplicitWait(0, () -> {
             long deadline = System.currentTimeMillis() + (timeoutSeconds * 1000L);
-            while (System.currentTimeMillis() < deadline) {
-                try {
-                    if (Boolean.TRUE.equals(condition.get())) {
-                        return true;
+            try (com.egalvanic.utils.CommandDeadline.Scope budget =
+                     com.egalvanic.utils.CommandDeadline.within(timeoutSeconds * 1000L)) {
+                while (System.currentTimeMillis() < deadline) {
+                    try {
+                        if (Boolean.TRUE.equals(condition.get())) {
+                            return true;
+                        }
+                    } catch (Exception ignored) {
+                        // Element may not exist yet — keep polling
+                    }
+                    // Real pause between probes — sleep() below is an intentional no-op,
+                    // and a WebDriverWait-on-no-op delay busy-spins the loop.
+                    try {
+                        Thread.sleep(250);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
                     }
-                } catch (Exception ignored) {
-                    // Element may not exist yet — keep polling
-                }
-                // Real pause between probes — sleep() below is an intentional no-op,
-                // and a WebDriverWait-on-no-op delay busy-spins the loop.
-                try {
-                    Thread.sleep(250);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
                 }
+                return false;
             }
-            return false;
         });
     }
 
@@ -470,9 +483,9 @@ public abstract class BasePage {
             press.addAction(new org.openqa.selenium.interactions.Pause(finger, Duration.ofMillis(120)));
             press.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
             driver.perform(Arrays.asList(press));
-            System.out.println("   toggled via right-edge press at (" + cx + "," + cy + ")");
+            Log.debug("   toggled via right-edge press at (" + cx + "," + cy + ")");
         } catch (Exception e) {
-            System.out.println("   right-edge press failed (" + e.getMessage() + ") — falling back to click()");
+            Log.debug("   right-edge press failed (" + e.getMessage() + ") — falling back to click()");
             try { toggle.click(); } catch (Exception ignored) { }
         }
     }
@@ -492,9 +505,9 @@ public abstract class BasePage {
             scroll.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
             
             driver.perform(Arrays.asList(scroll));
-            System.out.println("📜 Scrolled down");
+            Log.info("📜 Scrolled down");
         } catch (Exception e) {
-            System.out.println("⚠️ Scroll down failed: " + e.getMessage());
+            Log.warn("⚠️ Scroll down failed: " + e.getMessage());
         }
     }
 
@@ -516,9 +529,9 @@ public abstract class BasePage {
             scroll.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
             
             driver.perform(Arrays.asList(scroll));
-            System.out.println("📜 Scrolled up");
+            Log.info("📜 Scrolled up");
         } catch (Exception e) {
-            System.out.println("⚠️ Scroll up failed: " + e.getMessage());
+            Log.warn("⚠️ Scroll up failed: " + e.getMessage());
         }
     }
 
@@ -540,9 +553,9 @@ public abstract class BasePage {
             
             // Accept the alert (for "Save Password" etc.)
             driver.switchTo().alert().accept();
-            System.out.println("✅ Alert handled successfully");
+            Log.info("✅ Alert handled successfully");
         } catch (Exception e) {
-            System.out.println("⚠️ No alert to handle");
+            Log.warn("⚠️ No alert to handle");
         }
     }
     
@@ -551,12 +564,12 @@ public abstract class BasePage {
      * Tries multiple approaches to dismiss the popup
      */
     protected void handleSavePasswordAlert() {
-        System.out.println("🔍 Looking for Save Password popup...");
+        Log.debug("🔍 Looking for Save Password popup...");
         
         // Quick check - try alert first (fastest path)
         try {
             driver.switchTo().alert().dismiss();
-            System.out.println("✅ Alert dismissed");
+            Log.info("✅ Alert dismissed");
             return;
         } catch (Exception e) {
             // No system alert - continue with other checks
@@ -576,7 +589,7 @@ public abstract class BasePage {
                     io.appium.java_client.AppiumBy.accessibilityId(btnName)
                 );
                 btn.click();
-                System.out.println("✅ Clicked: " + btnName);
+                Log.info("✅ Clicked: " + btnName);
                 return;
             } catch (Exception e) {}
         }
@@ -589,13 +602,13 @@ public abstract class BasePage {
                 )
             );
             btn.click();
-            System.out.println("✅ Clicked button containing 'Not'");
+            Log.info("✅ Clicked button containing 'Not'");
             return;
         } catch (Exception e) {
             // No popup found - this is normal
         }
         
-        System.out.println("⚠️ No Save Password popup found");
+        Log.warn("⚠️ No Save Password popup found");
     }
 
     /**
@@ -603,19 +616,19 @@ public abstract class BasePage {
      * Tries multiple strategies to dismiss the popup
      */
     public void handleSavePasswordAlertFast() {
-        System.out.println("🔍 Checking for Save Password popup...");
+        Log.debug("🔍 Checking for Save Password popup...");
         
         // Strategy 1: Try system alert dismiss
         try {
             driver.switchTo().alert().dismiss();
-            System.out.println("✅ System alert dismissed");
+            Log.info("✅ System alert dismissed");
             return;
         } catch (Exception e) {}
         
         // Strategy 2: Try system alert accept (sometimes works better)
         try {
             driver.switchTo().alert().accept();
-            System.out.println("✅ System alert accepted");
+            Log.info("✅ System alert accepted");
             return;
         } catch (Exception e) {}
         
@@ -625,7 +638,7 @@ public abstract class BasePage {
                 io.appium.java_client.AppiumBy.accessibilityId("Not Now")
             );
             btn.click();
-            System.out.println("✅ Clicked: Not Now");
+            Log.info("✅ Clicked: Not Now");
             return;
         } catch (Exception e) {}
         
@@ -637,7 +650,7 @@ public abstract class BasePage {
                     io.appium.java_client.AppiumBy.accessibilityId(btnName)
                 );
                 btn.click();
-                System.out.println("✅ Clicked: " + btnName);
+                Log.info("✅ Clicked: " + btnName);
                 return;
             } catch (Exception e) {}
         }
@@ -650,12 +663,12 @@ public abstract class BasePage {
                 )
             );
             btn.click();
-            System.out.println("✅ Clicked dismiss button via predicate");
+            Log.info("✅ Clicked dismiss button via predicate");
             return;
         } catch (Exception e) {}
         
         // No popup found - this is normal
-        System.out.println("ℹ️ No Save Password popup detected");
+        Log.info("ℹ️ No Save Password popup detected");
     }
 
     /**
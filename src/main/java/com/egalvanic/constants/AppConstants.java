@@ -30,6 +30,10 @@ public class AppConstants {
     // Bundle ID is auto-detected from the app's Info.plist at APP_PATH.
     // Can be overridden via -DAPP_BUNDLE_ID or APP_BUNDLE_ID env var.
     public static final String APP_BUNDLE_ID = detectBundleId();
+    public static final String APP_BUILD = detectAppBuild();
+    // The app's process name in the device log (CFBundleExecutable, else the
+    // bundle's file name). Override via -DAPP_PROCESS_NAME.
+    public static final String APP_PROCESS_NAME = detectAppProcessName();
 
     // ============================================
     // TEST DATA - AUTHENTICATION
@@ -69,6 +73,24 @@ public class AppConstants {
     // this app's deepest SwiftUI screens but trims predicate-query/page-source
     // cost on complex screens (Connections, SiteVisit). Set 50 to restore default.
     public static final int SNAPSHOT_MAX_DEPTH = getEnvInt("SNAPSHOT_MAX_DEPTH", 40);
+    // Screen-epoch element cache (utils/ElementCache). A singular findElement for
+    // the same locator on an UNCHANGED screen returns the previously resolved
+    // element instead of paying another WDA snapshot; any tap/type/swipe/script/
+    // navigation advances the epoch and drops every entry. Set false to send
+    // every lookup to WDA again (pre-cache behaviour).
+    public static final boolean ELEMENT_CACHE = Boolean.parseBoolean(
+        getEnv("ELEMENT_CACHE", "true"));
+    // Per-screen snapshot settings (utils/SnapshotProfiles). Each page-object
+    // method learns the shallowest snapshotMaxDepth that still finds what it
+    // looks for (never below SNAPSHOT_PROFILE_MIN_DEPTH) and a
+    // customSnapshotTimeout sized to its measured latency (never below
+    // SNAPSHOT_PROFILE_MIN_TIMEOUT_SEC, never above CUSTOM_SNAPSHOT_TIMEOUT).
+    // A clamped miss of a known element is re-checked at the global depth
+    // before the caller sees it. Set false to run every query at the globals.
+    public static final boolean SNAPSHOT_PROFILES = Boolean.parseBoolean(
+        getEnv("SNAPSHOT_PROFILES", "true"));
+    public static final int SNAPSHOT_PROFILE_MIN_DEPTH = getEnvInt("SNAPSHOT_PROFILE_MIN_DEPTH", 15);
+    public static final int SNAPSHOT_PROFILE_MIN_TIMEOUT_SEC = getEnvInt("SNAPSHOT_PROFILE_MIN_TIMEOUT_SEC", 3);
     public static final int PAGE_LOAD_TIMEOUT = 45; // Increased for page loads
     public static final int AJAX_TIMEOUT = 10; // Page Factory element lookup timeout
     public static final int SITE_LOAD_TIMEOUT = 90; // Increased for site loading
@@ -100,12 +122,133 @@ public class AppConstants {
     // marks the run "WDA hopeless" and BaseTest skips remaining tests in ~0s; they
     // land in failed-suites/ for the fresh-simulator rerun. Env/-D overridable.
     public static final int WDA_HOPELESS_AFTER = getEnvInt("WDA_HOPELESS_AFTER", 4);
+    // Half-open recovery for the two gates above (utils/HalfOpenBreaker). Instead
+    // of skipping the REST of the run, an open gate cools down, then one canary
+    // test runs after a recovery step (WDA rebuild; simulator reset on later
+    // attempts). Healthy canary => gate closes and throughput returns; dead
+    // canary => cool-down doubles (capped). After BREAKER_MAX_RECOVERIES failed
+    // canaries the gate stays open for the run. BREAKER_MAX_RECOVERIES=0 restores
+    // the old skip-the-rest behaviour.
+    public static final int BREAKER_COOLDOWN_SEC = getEnvInt("BREAKER_COOLDOWN_SEC", 120);
+    public static final int BREAKER_COOLDOWN_MAX_SEC = getEnvInt("BREAKER_COOLDOWN_MAX_SEC", 1200);
+    public static final int BREAKER_MAX_RECOVERIES = getEnvInt("BREAKER_MAX_RECOVERIES", 4);
     // Per-suite wall-clock backstop (minutes). A last-resort cap so a single module
     // job can NEVER reach the 6h GitHub cap (which CANCELS the job and truncates the
     // report). The breaker + WDA-hopeless triggers normally fire long before this;
     // this only catches a slow-but-not-cascading suite. Kept well below the 360-min
     // job cap and above a healthy heavy suite's runtime (~170 min). 0 = disabled.
     public static final int SUITE_WALL_MINUTES = getEnvInt("SUITE_WALL_MINUTES", 240);
+    // Cancellable per-command deadlines (utils/CommandDeadline). A single wedged
+    // WDA command used to outlive every wall-clock budget around it (90s HTTP
+    // readTimeout, 150s WDA commandTimeouts) — the test timeout fired but the
+    // worker stayed parked in the HTTP client. With deadlines on, the command is
+    // aborted at the tightest enclosing budget and the session marked suspect.
+    // COMMAND_MIN_MS floors budget-scope deadlines so a short probe inside a 1s
+    // wait doesn't abort a normal snapshot. Set COMMAND_DEADLINES=false to
+    // restore inline, unbounded-until-readTimeout commands.
+    public static final boolean COMMAND_DEADLINES = Boolean.parseBoolean(
+        getEnv("COMMAND_DEADLINES", "true"));
+    public static final int COMMAND_MIN_MS = getEnvInt("COMMAND_MIN_MS", 3000);
+    // Proactive WDA health monitor (utils/WdaHealthMonitor). A daemon heartbeat
+    // times a cheap status call + one bounded probe query every N seconds and
+    // flags a session whose latency is climbing toward WDA_WEDGE_MS (default:
+    // the snapshot timeout — past it, queries start failing and WDA wedges).
+    // BaseTest recycles a flagged session at the next test boundary instead of
+    // letting it die mid-test. 0 = heartbeat off.
+    public static final int WDA_HEALTH_INTERVAL_SEC = getEnvInt("WDA_HEALTH_INTERVAL_SEC", 20);
+    public static final int WDA_WEDGE_MS = getEnvInt("WDA_WEDGE_MS", CUSTOM_SNAPSHOT_TIMEOUT * 1000);
+    // App-liveness watchdog (utils/AppLivenessWatchdog). While a @Test body runs,
+    // a daemon samples the app state every N ms; a crash (or an unexplained trip
+    // to the background) fails the test within ~one interval instead of letting
+    // it poll for elements until every wait and the 360s test timeout run out.
+    // One read-only state query per 2s is noise next to a test's own traffic.
+    // 0 = watchdog off (end-of-test check in BaseTest still applies).
+    public static final int APP_WATCHDOG_INTERVAL_MS = getEnvInt("APP_WATCHDOG_INTERVAL_MS", 2000);
+    // Device log collector (utils/DeviceLogCollector). A daemon drains the
+    // session's syslog + crashlog incrementally every N ms into a bounded ring
+    // (per-test markers); a failing test gets its own slice attached, and crash
+    // signatures (EXC_*, "Terminating app", watchdog kills) on lines naming the
+    // app's process or bundle id print the moment they arrive. Replaces fetching the whole log at crash time. 0 = collector off
+    // (forensics fall back to one full fetch).
+    public static final int DEVICE_LOG_POLL_MS = getEnvInt("DEVICE_LOG_POLL_MS", 3000);
+    public static final int DEVICE_LOG_RING_LINES = getEnvInt("DEVICE_LOG_RING_LINES", 5000);
+    // Failure-only flight recorder (utils/FlightRecorder). Step screenshots are
+    // kept as raw PNG bytes in a ring of the last N steps — and only re-taken
+    // when a screen-changing command ran since the previous one — then
+    // JPEG-encoded into the report only when the test fails (or keeps them
+    // explicitly). Passing tests get a compact text timeline instead of 8-40
+    // encoded shots. FLIGHT_RECORDER=false restores a screenshot per step.
+    public static final boolean FLIGHT_RECORDER = Boolean.parseBoolean(
+        getEnv("FLIGHT_RECORDER", "true"));
+    public static final int FLIGHT_RECORDER_FRAMES = getEnvInt("FLIGHT_RECORDER_FRAMES", 15);
+    // Wire recording (utils/WireRecorder). When set to a file path, every HTTP
+    // exchange with Appium/WDA — request, response, latency — is appended there
+    // as JSON lines. A recording of a real simulator session is what the
+    // driver-free replay server (verify/FakeWdaServer) serves back, so page
+    // objects can be regression-tested for round trips on a plain Linux JVM.
+    // Empty (default) = off; recordings include screenshots, so keep them local.
+    public static final String WIRE_RECORDING = getEnv("WIRE_RECORDING", "");
+    // Console logging (utils/Log). Every System.out line and Log.* call is kept
+    // in the running test's capture (last LOG_TEST_LINES lines, all levels),
+    // attached to the Extent report only when the test fails; the console gets
+    // LOG_LEVEL and above (DEBUG | INFO | WARN | ERROR — indented detail lines
+    // and retry chatter are DEBUG). Console writes go through a bounded queue
+    // drained by one thread, so a page object never blocks on stdout; when the
+    // queue is full the line is dropped from the console (never from the test's
+    // capture) and the drop is counted. LOG_ASYNC=false writes synchronously.
+    public static final String LOG_LEVEL = getEnv("LOG_LEVEL", "INFO");
+    public static final boolean LOG_ASYNC = Boolean.parseBoolean(getEnv("LOG_ASYNC", "true"));
+    public static final int LOG_TEST_LINES = getEnvInt("LOG_TEST_LINES", 4000);
+    public static final int LOG_QUEUE_LINES = getEnvInt("LOG_QUEUE_LINES", 16384);
+    // Run telemetry (utils/Telemetry). Driver init time and failures, WDA
+    // rebuilds, breaker trips, retries, per-test setup/body/teardown durations
+    // and Appium command latency are recorded as counters/gauges/histograms
+    // and exported at suite end to TELEMETRY_DIR as OpenMetrics text
+    // (openmetrics.txt) and OTLP-JSON (otlp-metrics.json) for the dashboards.
+    // TELEMETRY_INTERVAL_SEC > 0 also re-exports on that interval, so a job
+    // cancelled at the 6h cap still leaves a recent snapshot behind.
+    public static final boolean TELEMETRY = Boolean.parseBoolean(getEnv("TELEMETRY", "true"));
+    public static final String TELEMETRY_DIR = getEnv("TELEMETRY_DIR", "reports/telemetry/");
+    public static final int TELEMETRY_INTERVAL_SEC = getEnvInt("TELEMETRY_INTERVAL_SEC", 0);
+    // Trace timeline (utils/TraceTimeline). A Chrome trace-event JSON of the
+    // run — setup/body/teardown, page-object calls, Appium commands, driver
+    // init, login, screenshots, report flush; instants for WDA rebuilds,
+    // retries, breaker trips and crashes — one track per device and thread.
+    // Open it in chrome://tracing or ui.perfetto.dev. Streamed as events close,
+    // so a job cancelled at the 6h cap still leaves a loadable trace. Empty = off.
+    public static final String TRACE_FILE = getEnv("TRACE_FILE", "reports/trace/timeline.json");
+    // Budget-aware scheduling (utils/TestScheduler via RunHealth). Each test's
+    // duration is estimated from past runs' results-summary.tsv (TEST_HISTORY:
+    // comma-separated files or directories; unseen tests get
+    // SCHEDULE_DEFAULT_TEST_SEC) and scaled by this run's observed pace. When
+    // the remaining queue projects past SUITE_WALL_MINUTES, the least valuable
+    // per minute (SCHEDULE_HIGH_VALUE_GROUPS, history failures, short) among the
+    // last tests of each class are skipped up front, instead of whatever happens
+    // to be left at the cap. TestNG's order is never changed, so a class is only
+    // trimmed from its end. A run that fits its budget is never cut.
+    // SCHEDULER=false disables it.
+    public static final boolean SCHEDULER = Boolean.parseBoolean(getEnv("SCHEDULER", "true"));
+    public static final String TEST_HISTORY = getEnv("TEST_HISTORY", "");
+    public static final int SCHEDULE_DEFAULT_TEST_SEC = getEnvInt("SCHEDULE_DEFAULT_TEST_SEC", 90);
+    public static final String SCHEDULE_HIGH_VALUE_GROUPS = getEnv("SCHEDULE_HIGH_VALUE_GROUPS", "smoke");
+    // Test-result cache (utils/ResultCache), opt-in with RESULT_CACHE=true (the
+    // ios-tests workflow sets it; by default every test runs). A test class whose
+    // inputs — the app bundle (APP_BUILD + a digest of APP_PATH), its own bytecode
+    // plus every com.egalvanic class it transitively references (page objects,
+    // BaseTest, utils), and the RESULT_CACHE_CONFIG settings — are unchanged since
+    // a run where ALL its tests passed is not re-run: its PASSes are reused, with
+    // provenance (run, time, app build) in both reports. Whole classes only —
+    // tests in a class share app state. CI must persist RESULT_CACHE_FILE
+    // between runs (actions/cache) for hits; a fresh checkout runs everything.
+    // RESULT_CACHE_FORCE=true runs everything (and still records). A PASS older
+    // than RESULT_CACHE_MAX_AGE_HOURS is re-proven: backend changes are not
+    // fingerprinted.
+    public static final boolean RESULT_CACHE = Boolean.parseBoolean(getEnv("RESULT_CACHE", "false"));
+    public static final boolean RESULT_CACHE_FORCE = Boolean.parseBoolean(getEnv("RESULT_CACHE_FORCE", "false"));
+    public static final String RESULT_CACHE_FILE = getEnv("RESULT_CACHE_FILE", "result-cache/results.tsv");
+    public static final int RESULT_CACHE_MAX_AGE_HOURS = getEnvInt("RESULT_CACHE_MAX_AGE_HOURS", 168);
+    public static final String RESULT_CACHE_CONFIG = getEnv("RESULT_CACHE_CONFIG",
+        "DEVICE_NAME,PLATFORM_VERSION,APP_BUNDLE_ID,RERUN_LOGIN_FIRST,ACCEPT_POLICY_UPDATE,IMPLICIT_WAIT");
     // Rerun mode: a failure suite mixes classes from many modules, so each class
     // starts from whatever screen the PREVIOUS class died on (run 28666174784:
     // rerun classes inherited dead/foreign screens and failed in setup-adjacent
@@ -142,6 +285,20 @@ public class AppConstants {
         getEnv("USE_PREBUILT_WDA", "false"));
     public static final String WDA_DERIVED_DATA_PATH = getEnv("WDA_DERIVED_DATA_PATH", "");
 
+    // ============================================
+    // VISUAL BASELINES (verify.VisualBaselineVerifier)
+    // ============================================
+    // Reference screenshots per environment: {dir}/{env}/{screen}.png, plus an
+    // optional {screen}.mask of dynamic regions. QA and prod differ in data and
+    // branding, so one shared image would fail on every environment but its own.
+    // A missing baseline is recorded on first run (and passes); set
+    // VISUAL_BASELINE_UPDATE=true to re-record every checked screen after an
+    // intended UI change, then review and commit the new PNGs.
+    public static final String VISUAL_BASELINES_DIR = getEnv("VISUAL_BASELINES_DIR", "visual-baselines");
+    public static final String VISUAL_BASELINE_ENV = getEnv("VISUAL_BASELINE_ENV", "qa");
+    public static final boolean VISUAL_BASELINE_UPDATE = Boolean.parseBoolean(
+        getEnv("VISUAL_BASELINE_UPDATE", "false"));
+
     // ============================================
     // REPORT PATHS
     // ============================================
@@ -465,6 +622,60 @@ public class AppConstants {
         return fallback;
     }
 
+    /**
+     * App build for provenance and the result-cache fingerprint: APP_BUILD env/property
+     * (e.g. the CI build's id), else "CFBundleShortVersionString (CFBundleVersion)" from
+     * the app's Info.plist, else empty.
+     */
+    private static String detectAppBuild() {
+        String explicit = getEnv("APP_BUILD", null);
+        if (explicit != null) {
+            return explicit;
+        }
+        String plistPath = APP_PATH + "/Info.plist";
+        if (!new java.io.File(plistPath).exists()) {
+            return "";
+        }
+        String version = plistValue(plistPath, "CFBundleShortVersionString");
+        String build = plistValue(plistPath, "CFBundleVersion");
+        if (version.isEmpty() && build.isEmpty()) {
+            return "";
+        }
+        String appBuild = build.isEmpty() ? version : version + " (" + build + ")";
+        System.out.println("📦 App build (from Info.plist): " + appBuild);
+        return appBuild;
+    }
+
+    /**
+     * The app's executable name as the device log prints it: APP_PROCESS_NAME env/property,
+     * else CFBundleExecutable from the app's Info.plist, else the bundle's file name.
+     */
+    private static String detectAppProcessName() {
+        String explicit = getEnv("APP_PROCESS_NAME", null);
+        if (explicit != null) {
+            return explicit;
+        }
+        String plistPath = APP_PATH + "/Info.plist";
+        String executable = new java.io.File(plistPath).exists() ? plistValue(plistPath, "CFBundleExecutable") : "";
+        if (!executable.isEmpty()) {
+            return executable;
+        }
+        String name = new java.io.File(APP_PATH).getName();
+        return name.endsWith(".app") ? name.substring(0, name.length() - ".app".length()) : name;
+    }
+
+    private static String plistValue(String plistPath, String key) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder("/usr/libexec/PlistBuddy", "-c", "Print :" + key, plistPath);
+            pb.redirectErrorStream(true);
+            Process p = pb.start();
+            String value = new String(p.getInputStream().readAllBytes()).trim();
+            return p.waitFor() == 0 ? value : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
     private static int getEnvInt(String key, int defaultValue) {
         try {
             return Integer.parseInt(getEnv(key, String.valueOf(defaultValue)).trim());
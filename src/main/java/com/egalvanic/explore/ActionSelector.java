@@ -24,20 +24,66 @@ public final class ActionSelector {
     public Action choose(List<UiNode> nodes, String screenHint) {
         if (nodes.isEmpty()) return Action.none();
 
-        UiNode pick = (ai != null) ? aiPick(nodes, screenHint) : null;
+        UiNode pick = (ai != null) ? aiPick(nodes, nodes, screenHint) : null;
         if (pick == null) pick = nodes.get(rnd.nextInt(nodes.size()));
 
+        return actionFor(pick);
+    }
+
+    /**
+     * Coverage-guided choice: an action never tried on this screen if there is one
+     * (the AI, when configured, only ranks among those); otherwise the first hop back
+     * along known edges toward a screen that still has untried actions; otherwise the
+     * least-visited action here.
+     */
+    public Action chooseNovel(List<UiNode> nodes, String screen, WorkflowGraph graph, String screenHint) {
+        return chooseNovel(nodes, screen, graph, screenHint, null);
+    }
+
+    /** Parallel-worker variant: backtracking targets frontier screens no other worker has claimed. */
+    public Action chooseNovel(List<UiNode> nodes, String screen, WorkflowGraph graph, String screenHint,
+                              String worker) {
+        if (nodes.isEmpty()) return Action.none();
+
+        List<UiNode> fresh = nodes.stream().filter(n -> graph.visits(screen, key(n)) == 0).toList();
+        if (!fresh.isEmpty()) {
+            UiNode pick = (ai != null) ? aiPick(fresh, nodes, screenHint) : null;
+            return actionFor(pick != null ? pick : fresh.get(rnd.nextInt(fresh.size())));
+        }
+
+        String hop = graph.firstHopToFrontier(screen, worker);
+        if (hop != null) {
+            for (UiNode n : nodes) {
+                if (key(n).equals(hop)) return actionFor(n);
+            }
+        }
+
+        int least = nodes.stream().mapToInt(n -> graph.visits(screen, key(n))).min().orElse(0);
+        List<UiNode> coldest = nodes.stream().filter(n -> graph.visits(screen, key(n)) == least).toList();
+        return actionFor(coldest.get(rnd.nextInt(coldest.size())));
+    }
+
+    /** The graph's name for acting on a node — same form the engine records edges under. */
+    public static String key(UiNode n) {
+        return (n.editable ? "type" : "tap") + ":" + n.describe();
+    }
+
+    private Action actionFor(UiNode pick) {
         if (pick.editable) return Action.type(pick, FUZZ[rnd.nextInt(FUZZ.length)]);
         return Action.tap(pick);
     }
 
-    private UiNode aiPick(List<UiNode> nodes, String screenHint) {
+    /**
+     * Highest-ranked candidate by the AI's risk ranking of the whole screen (one cached
+     * ranking per label set). Never waits: an unranked screen yields null this step.
+     */
+    private UiNode aiPick(List<UiNode> candidates, List<UiNode> screen, String screenHint) {
         try {
-            List<String> labels = nodes.stream().map(UiNode::describe).toList();
-            String chosen = ai.suggestNextActionLabel(labels, screenHint);
-            if (chosen == null) return null;
-            for (UiNode n : nodes) {
-                if (n.describe().equalsIgnoreCase(chosen) || chosen.contains(n.describe())) return n;
+            List<String> labels = screen.stream().map(UiNode::describe).toList();
+            for (String chosen : ai.cachedRanking(labels, screenHint)) {
+                for (UiNode n : candidates) {
+                    if (n.describe().equalsIgnoreCase(chosen) || chosen.contains(n.describe())) return n;
+                }
             }
         } catch (Exception ignored) {}
         return null;
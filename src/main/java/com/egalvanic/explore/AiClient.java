@@ -1,15 +1,37 @@
 package com.egalvanic.explore;
 
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.verify.ImageAnalysis;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * The single seam for all AI calls (Anthropic Messages API). It is intentionally
@@ -18,30 +40,96 @@ import java.util.List;
  * That keeps the crawler runnable — and CI green — with no key and no network.
  *
  * <p>Prompt caching is applied to the (static) system rubric via {@code cache_control}.
+ *
+ * <p>Answers are cached by what they depend on — the sorted label set for action ranking;
+ * the model, the app build and the screenshot's perceptual hash ({@link ImageAnalysis#dHash})
+ * for vision — in memory and in an append-only TSV store ({@code AI_CACHE_FILE}, default
+ * reports/exploration/ai-cache.tsv, {@code none} = memory only), so a screen is asked about
+ * once per store, not once per visit. A new build or model re-asks about every screen; with
+ * no known build, vision verdicts stay in memory. Identical in-flight requests share one
+ * call; at most {@code AI_MAX_CONCURRENT} (default 2) calls run at once. A blocking caller
+ * that finds every slot busy waits briefly (backpressure) and then proceeds without AI; the
+ * {@code *Async} and {@code cached*} variants never wait — they shed at once — so the crawler
+ * keeps stepping while a verdict is pending.
+ * {@code ANTHROPIC_BASE_URL} points it at a stub server in tests.
  */
 public final class AiClient {
 
     private static final String ENDPOINT = "https://api.anthropic.com/v1/messages";
+    private static final long BACKPRESSURE_MS = 2_000;
 
     private final String apiKey;
     private final String model;
+    private final String appBuild; // "" = unknown: vision verdicts are not persisted
+    private final URI endpoint;
     private final HttpClient http = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(15)).build();
 
-    private AiClient(String apiKey, String model) {
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore slots;
+    private final long backpressureMs;
+    private final Path store; // nullable = memory only
+    private final ExecutorService pool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ai-client");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger coalesced = new AtomicInteger();
+    private final AtomicInteger shed = new AtomicInteger();
+
+    public AiClient(String apiKey, String model, String appBuild, URI endpoint,
+                    int maxConcurrent, long backpressureMs, Path store) {
         this.apiKey = apiKey;
         this.model = model;
+        this.appBuild = appBuild == null ? "" : appBuild;
+        this.endpoint = endpoint;
+        this.slots = new Semaphore(Math.max(1, maxConcurrent));
+        this.backpressureMs = backpressureMs;
+        this.store = store;
+        load();
     }
 
     public static AiClient fromEnv() {
         String key = System.getenv("ANTHROPIC_API_KEY");
         if (key == null || key.isBlank()) return null;
         String model = System.getenv().getOrDefault("ANTHROPIC_MODEL", "claude-sonnet-4-6");
-        return new AiClient(key, model);
+        String base = System.getenv("ANTHROPIC_BASE_URL");
+        URI endpoint = URI.create(base == null || base.isBlank() ? ENDPOINT
+                : base.replaceAll("/+$", "") + "/v1/messages");
+        int maxConcurrent;
+        try {
+            maxConcurrent = Integer.parseInt(System.getenv().getOrDefault("AI_MAX_CONCURRENT", "2"));
+        } catch (NumberFormatException e) {
+            maxConcurrent = 2;
+        }
+        String file = System.getenv().getOrDefault("AI_CACHE_FILE", "reports/exploration/ai-cache.tsv");
+        return new AiClient(key, model, AppConstants.APP_BUILD, endpoint, maxConcurrent, BACKPRESSURE_MS,
+                "none".equalsIgnoreCase(file) ? null : Path.of(file));
     }
 
     /** Vision: classify a screenshot. Returns a short verdict ("ok" or a defect description). */
     public String classifyScreenshot(String base64Png, String hint) {
+        return vision(base64Png, hint, true).join();
+    }
+
+    /**
+     * {@link #classifyScreenshot} without blocking; completes with null when the call fails
+     * or is shed — immediately, when every slot is busy.
+     */
+    public CompletableFuture<String> classifyScreenshotAsync(String base64Png, String hint) {
+        return vision(base64Png, hint, false);
+    }
+
+    private CompletableFuture<String> vision(String base64Png, String hint, boolean wait) {
+        return request("vis:" + model + "|" + appBuild + "|" + visionKey(base64Png), 256,
+                "You are a strict iOS UI anomaly detector. Be terse.",
+                () -> visionContent(base64Png, hint), wait);
+    }
+
+    private static JsonArray visionContent(String base64Png, String hint) {
         JsonObject img = new JsonObject();
         img.addProperty("type", "image");
         JsonObject src = new JsonObject();
@@ -60,11 +148,56 @@ public final class AiClient {
         JsonArray content = new JsonArray();
         content.add(img);
         content.add(txt);
-        return post("You are a strict iOS UI anomaly detector. Be terse.", content);
+        return content;
     }
 
     /** Suggest the highest-bug-risk node label to interact with next. */
     public String suggestNextActionLabel(List<String> nodeLabels, String screenHint) {
+        return request("act:" + labelKey(nodeLabels), 256,
+                "You prioritise exploratory iOS testing for maximum bug yield. Reply with one label only.",
+                () -> suggestContent(nodeLabels, screenHint), true).join();
+    }
+
+    /**
+     * The screen's labels ordered by bug risk, if already known; otherwise an empty list
+     * while the ranking is fetched in the background — the caller picks without AI this
+     * time and gets the ranking on a later visit to the same screen. With every slot busy
+     * the fetch is shed rather than waited for.
+     */
+    public List<String> cachedRanking(List<String> nodeLabels, String screenHint) {
+        CompletableFuture<String> f = request("rank:" + labelKey(nodeLabels), 1024,
+                "You prioritise exploratory iOS testing for maximum bug yield. Reply with labels only.",
+                () -> rankContent(nodeLabels, screenHint), false);
+        String ranked = f.getNow(null);
+        if (ranked == null) return List.of();
+        List<String> out = new ArrayList<>();
+        for (String line : ranked.split("\n")) {
+            String label = line.replaceFirst("^[\\s\\-*•\\d.)]+", "").trim();
+            if (!label.isEmpty()) out.add(label);
+        }
+        return out;
+    }
+
+    public String stats() {
+        int answered = hits.get() + coalesced.get();
+        int total = answered + calls.get() + shed.get();
+        return String.format("AI: %d cache hits, %d coalesced, %d calls, %d shed (%d%% answered without a call)",
+                hits.get(), coalesced.get(), calls.get(), shed.get(), total == 0 ? 0 : answered * 100 / total);
+    }
+
+    private static JsonArray rankContent(List<String> nodeLabels, String screenHint) {
+        JsonObject txt = new JsonObject();
+        txt.addProperty("type", "text");
+        txt.addProperty("text", "Screen: " + screenHint + "\nInteractable elements:\n- "
+                + String.join("\n- ", nodeLabels)
+                + "\n\nReturn ONLY these exact labels, one per line, the element most likely to expose "
+                + "a bug first (destructive actions, forms, file/PDF, money/counts).");
+        JsonArray content = new JsonArray();
+        content.add(txt);
+        return content;
+    }
+
+    private static JsonArray suggestContent(List<String> nodeLabels, String screenHint) {
         JsonObject txt = new JsonObject();
         txt.addProperty("type", "text");
         txt.addProperty("text", "Screen: " + screenHint + "\nInteractable elements:\n- "
@@ -73,11 +206,114 @@ public final class AiClient {
                 + "(destructive actions, forms, file/PDF, money/counts).");
         JsonArray content = new JsonArray();
         content.add(txt);
-        return post("You prioritise exploratory iOS testing for maximum bug yield. Reply with one label only.",
-                content);
+        return content;
+    }
+
+    /**
+     * Cache → coalesce → limiter → HTTP on the pool; null answers (failures) are not cached.
+     * Only a {@code wait}ing caller spends the backpressure window on a busy limiter.
+     */
+    private CompletableFuture<String> request(String key, int maxTokens, String system,
+                                              Supplier<JsonArray> content, boolean wait) {
+        String hit = cache.get(key);
+        if (hit != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(hit);
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running;
+        }
+        hit = cache.get(key); // answered between the miss and our claim
+        if (hit != null) {
+            hits.incrementAndGet();
+            inFlight.remove(key, mine);
+            mine.complete(hit);
+            return mine;
+        }
+        boolean slot;
+        try {
+            slot = wait ? slots.tryAcquire(backpressureMs, TimeUnit.MILLISECONDS) : slots.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slot = false;
+        }
+        if (!slot) {
+            shed.incrementAndGet();
+            inFlight.remove(key, mine);
+            mine.complete(null);
+            return mine;
+        }
+        calls.incrementAndGet();
+        pool.execute(() -> {
+            String answer = null;
+            try {
+                answer = post(system, content.get(), maxTokens);
+            } finally {
+                slots.release();
+                if (answer != null) remember(key, answer);
+                inFlight.remove(key, mine);
+                mine.complete(answer);
+            }
+        });
+        return mine;
+    }
+
+    private void remember(String key, String answer) {
+        cache.put(key, answer);
+        if (store == null || (appBuild.isEmpty() && key.startsWith("vis:"))) return;
+        synchronized (this) {
+            try {
+                if (store.getParent() != null) Files.createDirectories(store.getParent());
+                Files.writeString(store, Tsv.row(key, answer), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.out.println("⚠️ AiClient cache write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void load() {
+        if (store == null || !Files.exists(store)) return;
+        try {
+            for (String line : Files.readAllLines(store, StandardCharsets.UTF_8)) {
+                List<String> f = Tsv.cells(line);
+                if (f.size() == 2) cache.put(f.get(0), f.get(1));
+            }
+            System.out.println("🧠 AiClient: " + cache.size() + " cached answers loaded from " + store);
+        } catch (IOException e) {
+            System.out.println("⚠️ AiClient cache unreadable, starting empty: " + e.getMessage());
+        }
+    }
+
+    /** Perceptual hash of the screenshot; a digest of the raw bytes if it does not decode. */
+    private static String visionKey(String base64Png) {
+        try {
+            byte[] png = Base64.getDecoder().decode(base64Png);
+            var img = ImageAnalysis.decodeScreenshot(png);
+            if (img != null) return Long.toHexString(ImageAnalysis.dHash(img));
+        } catch (Exception ignored) { /* fall through to the byte digest */ }
+        return sha256(base64Png);
+    }
+
+    private static String labelKey(List<String> labels) {
+        String[] sorted = labels.toArray(String[]::new);
+        Arrays.sort(sorted);
+        return sha256(String.join("\n", sorted));
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(d, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(s.hashCode());
+        }
     }
 
-    private String post(String systemPrompt, JsonArray userContent) {
+    private String post(String systemPrompt, JsonArray userContent, int maxTokens) {
         try {
             JsonObject sysBlock = new JsonObject();
             sysBlock.addProperty("type", "text");
@@ -96,11 +332,11 @@ public final class AiClient {
 
             JsonObject body = new JsonObject();
             body.addProperty("model", model);
-            body.addProperty("max_tokens", 256);
+            body.addProperty("max_tokens", maxTokens);
             body.add("system", system);
             body.add("messages", messages);
 
-            HttpRequest req = HttpRequest.newBuilder(URI.create(ENDPOINT))
+            HttpRequest req = HttpRequest.newBuilder(endpoint)
                     .timeout(Duration.ofSeconds(40))
                     .header("x-api-key", apiKey)
                     .header("anthropic-version", "2023-06-01")
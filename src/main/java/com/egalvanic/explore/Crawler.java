@@ -7,6 +7,7 @@ import org.openqa.selenium.WebElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /** Discovers interactable elements on the current screen via the XCUITest element tree. */
@@ -18,7 +19,14 @@ public final class Crawler {
           + "type == 'XCUIElementTypeTextField' OR type == 'XCUIElementTypeSecureTextField' OR "
           + "type == 'XCUIElementTypeSwitch' OR type == 'XCUIElementTypeMenuItem')";
 
-    private IOSDriver driver() { return DriverManager.getDriver(); }
+    private final Supplier<IOSDriver> driverSource;
+
+    public Crawler() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public Crawler(Supplier<IOSDriver> driverSource) { this.driverSource = driverSource; }
+
+    private IOSDriver driver() { return driverSource.get(); }
 
     public List<UiNode> scan() {
         List<UiNode> nodes = new ArrayList<>();
@@ -40,13 +48,22 @@ public final class Crawler {
         return nodes;
     }
 
-    /** Coarse, stable identity for the current screen (used for the workflow graph). */
+    /**
+     * Coarse, stable identity for the current screen (used for the workflow graph).
+     * Costs a full {@link #scan()} — inside the crawl loop use {@link #signatureOf}
+     * on the step's own scan instead of paying for a second one.
+     */
     public String screenSignature() {
         try {
-            return scan().stream().map(UiNode::identity).distinct().sorted()
-                    .collect(Collectors.joining("|"));
+            return signatureOf(scan());
         } catch (Exception e) {
             return "?";
         }
     }
+
+    /** Screen identity derived from an existing scan (no extra WDA traffic). */
+    public static String signatureOf(List<UiNode> nodes) {
+        return nodes.stream().map(UiNode::identity).distinct().sorted()
+                .collect(Collectors.joining("|"));
+    }
 }
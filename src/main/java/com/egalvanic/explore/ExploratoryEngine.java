@@ -1,5 +1,6 @@
 package com.egalvanic.explore;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -11,6 +12,17 @@ import java.util.Random;
  * AI components are optional; with no {@link AiClient} this is a verifier-backed monkey,
  * which already catches crashes, blank screens, stuck spinners and error alerts that the
  * scripted happy-path suite structurally cannot.
+ *
+ * <p>One scan per step: the scan that finds this step's candidates also yields the screen
+ * signature, and it doubles as the "after" state of the previous action (the old loop
+ * scanned the tree a second time just for the signature). In coverage-guided mode the
+ * {@link WorkflowGraph} visit counts drive the choice — untried actions first, then the
+ * first hop back toward a frontier screen — and the report carries the throughput
+ * metric: distinct screens and transitions per minute of budget.
+ *
+ * <p>Every finding carries the action trace since the last relaunch (actions with their
+ * typed input, interrupts by name), which {@link TraceReplayer} replays and minimizes.
+ * Vision verdicts arrive asynchronously and are attributed to the step that captured them.
  */
 public final class ExploratoryEngine {
 
@@ -20,64 +32,105 @@ public final class ExploratoryEngine {
     private final VisualAnomalyDetector visual;
     private final InterruptInjector interrupts;
     private final WorkflowGraph graph;
+    private final boolean coverageGuided;
+    private final String worker; // null = single-device crawl
     private final Random rnd = new Random();
 
     public ExploratoryEngine(Crawler crawler, ActionSelector selector, Oracle oracle,
                              VisualAnomalyDetector visual, InterruptInjector interrupts,
                              WorkflowGraph graph) {
+        this(crawler, selector, oracle, visual, interrupts, graph, false);
+    }
+
+    public ExploratoryEngine(Crawler crawler, ActionSelector selector, Oracle oracle,
+                             VisualAnomalyDetector visual, InterruptInjector interrupts,
+                             WorkflowGraph graph, boolean coverageGuided) {
+        this(crawler, selector, oracle, visual, interrupts, graph, coverageGuided, null);
+    }
+
+    /** Parallel worker: {@code graph} is shared with the other workers; {@code worker} names this one. */
+    public ExploratoryEngine(Crawler crawler, ActionSelector selector, Oracle oracle,
+                             VisualAnomalyDetector visual, InterruptInjector interrupts,
+                             WorkflowGraph graph, boolean coverageGuided, String worker) {
         this.crawler = crawler;
         this.selector = selector;
         this.oracle = oracle;
         this.visual = visual;
         this.interrupts = interrupts;
         this.graph = graph;
+        this.coverageGuided = coverageGuided;
+        this.worker = worker;
     }
 
     public ExploreReport run(ExploreBudget budget) {
         ExploreReport report = new ExploreReport();
         report.setGraph(graph);
+        long started = System.currentTimeMillis();
 
         int steps = 0;
-        String prevScreen = crawler.screenSignature();
+        int backtracks = 0;
+        String prevScreen = null;
+        String pending = null; // action taken on prevScreen, awaiting its target screen
+        List<TraceStep> trace = new ArrayList<>(); // since the last relaunch
 
         while (!budget.exhausted(steps)) {
             steps++;
             List<UiNode> nodes = crawler.scan();
-            Action action = selector.choose(nodes, "step " + steps);
+            String screen = Crawler.signatureOf(nodes);
+            if (pending != null) graph.record(prevScreen, pending, screen);
+            pending = null;
+            graph.observe(screen, nodes.stream().map(ActionSelector::key).toList());
+
+            boolean frontierHere = !graph.untried(screen).isEmpty();
+            Action action = coverageGuided
+                    ? selector.chooseNovel(nodes, screen, graph, "step " + steps, worker)
+                    : selector.choose(nodes, "step " + steps);
 
             if (action.isNone()) {
                 report.add(ExploreFinding.low("DEAD_END", "step " + steps,
-                        "no interactable nodes; relaunching: " + interrupts.relaunch()));
+                        "no interactable nodes; relaunching: " + interrupts.relaunch()).withTrace(trace));
+                trace.clear();
                 report.addAll(oracle.check("after recovery relaunch"));
-                prevScreen = crawler.screenSignature();
                 continue;
             }
+            if (coverageGuided && !frontierHere) backtracks++;
 
             String label = action.node().describe();
+            trace.add(TraceStep.of(action));
             try {
                 perform(action);
             } catch (Exception e) {
-                report.add(ExploreFinding.medium("ACTION_FAILED", label, e.getMessage()));
+                report.add(ExploreFinding.medium("ACTION_FAILED", label, e.getMessage()).withTrace(trace));
             }
 
-            report.addAll(oracle.check("after " + action.kind() + " " + label));
-            report.add(visual.inspect("after " + label));
+            report.addAll(traced(oracle.check("after " + action.kind() + " " + label), trace));
+            report.addAll(visual.inspectAsync("after " + label, trace));
 
-            String screen = crawler.screenSignature();
-            graph.record(prevScreen, action.kind() + ":" + label, screen);
             prevScreen = screen;
+            pending = ActionSelector.key(action.node());
 
             if (steps % 15 == 0) {
-                String what = interrupts.fireRandom(rnd);
-                report.addAll(oracle.check("after interrupt: " + what));
+                String which = InterruptInjector.pick(rnd);
+                String what = interrupts.fire(which);
+                if ("relaunch".equals(which)) trace.clear();
+                else trace.add(TraceStep.interrupt(which));
+                report.addAll(traced(oracle.check("after interrupt: " + what), trace));
+                pending = null; // the interrupt, not the action, decides where we are now
             }
         }
+        if (pending != null) graph.record(prevScreen, pending, crawler.screenSignature());
+        report.addAll(visual.drain());
 
         report.setSteps(steps);
+        report.setCoverage(System.currentTimeMillis() - started, backtracks);
         return report;
     }
 
-    private void perform(Action a) {
+    private static List<ExploreFinding> traced(List<ExploreFinding> found, List<TraceStep> trace) {
+        return found.stream().map(f -> f.withTrace(trace)).toList();
+    }
+
+    static void perform(Action a) {
         if ("type".equals(a.kind())) {
             try { a.node().element.clear(); } catch (Exception ignored) {}
             a.node().element.sendKeys(a.input());
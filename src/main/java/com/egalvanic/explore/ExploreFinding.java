@@ -1,10 +1,27 @@
 package com.egalvanic.explore;
 
-/** A single anomaly observed during exploration, with severity for triage. */
-public record ExploreFinding(Severity severity, String kind, String step, String detail) {
+import java.util.List;
+
+/**
+ * A single anomaly observed during exploration, with severity for triage and the action
+ * trace (since the last relaunch) that led to it — see {@link TraceReplayer}.
+ */
+public record ExploreFinding(Severity severity, String kind, String step, String detail, List<TraceStep> trace) {
 
     public enum Severity { CRITICAL, HIGH, MEDIUM, LOW }
 
+    public ExploreFinding {
+        trace = trace == null ? List.of() : List.copyOf(trace);
+    }
+
+    public ExploreFinding(Severity severity, String kind, String step, String detail) {
+        this(severity, kind, step, detail, List.of());
+    }
+
+    public ExploreFinding withTrace(List<TraceStep> t) {
+        return new ExploreFinding(severity, kind, step, detail, t);
+    }
+
     public static ExploreFinding critical(String kind, String step, String detail) {
         return new ExploreFinding(Severity.CRITICAL, kind, step, detail);
     }
@@ -7,6 +7,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /** Accumulates findings and turns the crawl's outcome into a build signal + artifact. */
 public final class ExploreReport {
@@ -14,13 +15,44 @@ public final class ExploreReport {
     private final List<ExploreFinding> findings = new ArrayList<>();
     private int steps;
     private WorkflowGraph graph;
+    private long elapsedMs;
+    private int backtracks;
 
     public void add(ExploreFinding f) { if (f != null) findings.add(f); }
     public void addAll(List<ExploreFinding> fs) { if (fs != null) findings.addAll(fs); }
     public void setSteps(int steps) { this.steps = steps; }
     public void setGraph(WorkflowGraph graph) { this.graph = graph; }
+    public void setCoverage(long elapsedMs, int backtracks) {
+        this.elapsedMs = elapsedMs;
+        this.backtracks = backtracks;
+    }
 
     public List<ExploreFinding> findings() { return findings; }
+
+    /** Swap a finding for its updated copy (e.g. the same finding with a minimized trace). */
+    public void replace(ExploreFinding old, ExploreFinding updated) {
+        int i = findings.indexOf(old);
+        if (i >= 0) findings.set(i, updated);
+    }
+
+    /**
+     * One report for a parallel crawl: findings tagged with the worker that saw them,
+     * steps and backtracks summed, elapsed = the longest worker, coverage from the
+     * shared graph.
+     */
+    public static ExploreReport merge(Map<String, ExploreReport> byWorker, WorkflowGraph shared) {
+        ExploreReport merged = new ExploreReport();
+        merged.setGraph(shared);
+        byWorker.forEach((worker, r) -> {
+            r.findings.forEach(f -> merged.add(new ExploreFinding(f.severity(), f.kind(),
+                    "[" + worker + "] " + f.step(), f.detail(), f.trace())));
+            merged.steps += r.steps;
+            merged.backtracks += r.backtracks;
+            merged.elapsedMs = Math.max(merged.elapsedMs, r.elapsedMs);
+        });
+        return merged;
+    }
+
     public long count(ExploreFinding.Severity s) {
         return findings.stream().filter(f -> f.severity() == s).count();
     }
@@ -33,7 +65,21 @@ public final class ExploreReport {
           .append(", HIGH=").append(count(ExploreFinding.Severity.HIGH))
           .append(", MEDIUM=").append(count(ExploreFinding.Severity.MEDIUM))
           .append(", LOW=").append(count(ExploreFinding.Severity.LOW)).append(")\n");
-        findings.forEach(f -> sb.append("  ").append(f).append('\n'));
+        if (graph != null && elapsedMs > 0) {
+            double minutes = elapsedMs / 60_000.0;
+            sb.append(String.format("Coverage: %d screens, %d transitions in %.1f min"
+                    + " (%.1f screens/min, %.1f transitions/min, %d backtrack steps)%n",
+                    graph.screenCount(), graph.transitionCount(), minutes,
+                    graph.screenCount() / minutes, graph.transitionCount() / minutes, backtracks));
+        }
+        findings.forEach(f -> {
+            sb.append("  ").append(f);
+            if (!f.trace().isEmpty()) sb.append(" (trace: ").append(f.trace().size()).append(" steps)");
+            sb.append('\n');
+            if (f.severity() == ExploreFinding.Severity.CRITICAL) {
+                f.trace().forEach(t -> sb.append("      → ").append(t).append('\n'));
+            }
+        });
         if (graph != null) sb.append(graph.render());
         return sb.toString();
     }
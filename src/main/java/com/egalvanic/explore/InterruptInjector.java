@@ -7,6 +7,7 @@ import io.appium.java_client.ios.IOSDriver;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * iOS-specific chaos: backgrounding, rotation, relaunch, permission flips, low-memory.
@@ -17,7 +18,14 @@ public final class InterruptInjector {
 
     private final String bundleId = AppConstants.APP_BUNDLE_ID;
 
-    private IOSDriver driver() { return DriverManager.getDriver(); }
+    private final Supplier<IOSDriver> driverSource;
+
+    public InterruptInjector() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public InterruptInjector(Supplier<IOSDriver> driverSource) { this.driverSource = driverSource; }
+
+    private IOSDriver driver() { return driverSource.get(); }
 
     public String backgroundForeground() {
         try { driver().runAppInBackground(Duration.ofSeconds(3)); return "background 3s + foreground"; }
@@ -54,11 +62,29 @@ public final class InterruptInjector {
     }
 
     public String fireRandom(Random r) {
+        return fire(pick(r));
+    }
+
+    /** A random interrupt name for {@link #fire} — what a trace records so a replay repeats it. */
+    public static String pick(Random r) {
         return switch (r.nextInt(4)) {
-            case 0 -> backgroundForeground();
-            case 1 -> rotate();
-            case 2 -> relaunch();
-            default -> setPermission("photos", r.nextBoolean() ? "yes" : "no");
+            case 0 -> "background";
+            case 1 -> "rotate";
+            case 2 -> "relaunch";
+            default -> "permission:photos=" + (r.nextBoolean() ? "yes" : "no");
+        };
+    }
+
+    public String fire(String kind) {
+        if (kind.startsWith("permission:") && kind.contains("=")) {
+            String[] kv = kind.substring("permission:".length()).split("=", 2);
+            return setPermission(kv[0], kv[1]);
+        }
+        return switch (kind) {
+            case "background" -> backgroundForeground();
+            case "rotate" -> rotate();
+            case "relaunch" -> relaunch();
+            default -> "unknown interrupt: " + kind;
         };
     }
 }
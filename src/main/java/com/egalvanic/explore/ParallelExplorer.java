@@ -0,0 +1,109 @@
+package com.egalvanic.explore;
+
+import com.egalvanic.utils.DriverManager;
+import com.egalvanic.verify.AssetLoadVerifier;
+import com.egalvanic.verify.CrashDetector;
+import com.egalvanic.verify.UIStateValidator;
+import io.appium.java_client.ios.IOSDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Fans the crawl out over several simulators. Each worker owns its session (the primary
+ * is the suite's logged-in driver; the rest come from
+ * {@link DriverManager#openWorkerSession}) and its own crawler/oracle/interrupt stack, but
+ * all of them read and write ONE {@link WorkflowGraph}: visit counts and frontier claims
+ * keep workers off each other's screens, so an N-minute budget covers roughly N× the
+ * state space of a single device. Findings merge into one {@link ExploreReport}.
+ *
+ * <p>Devices: {@code EXPLORE_DEVICES="udid@appiumPort@wdaLocalPort,..."} (extra
+ * simulators; each needs its own Appium server/WDA port like testng-local-parallel.xml).
+ */
+public final class ParallelExplorer {
+
+    /** One extra simulator: its UDID plus the Appium / WDA ports that drive it. */
+    public record Device(String udid, String appiumPort, String wdaLocalPort) {
+        public static List<Device> parse(String spec) {
+            List<Device> out = new ArrayList<>();
+            if (spec == null || spec.isBlank()) return out;
+            for (String part : spec.split(",")) {
+                String[] f = part.trim().split("@");
+                if (f[0].isBlank()) continue;
+                out.add(new Device(f[0], f.length > 1 ? f[1] : null, f.length > 2 ? f[2] : null));
+            }
+            return out;
+        }
+    }
+
+    private final List<Device> extraDevices;
+    private final AiClient ai; // nullable
+    private final WorkflowGraph graph;
+    private final boolean coverageGuided;
+
+    public ParallelExplorer(List<Device> extraDevices, AiClient ai, WorkflowGraph graph, boolean coverageGuided) {
+        this.extraDevices = extraDevices;
+        this.ai = ai;
+        this.graph = graph;
+        this.coverageGuided = coverageGuided;
+    }
+
+    public ExploreReport run(ExploreBudget budget) {
+        ExecutorService pool = Executors.newFixedThreadPool(extraDevices.size() + 1, r -> {
+            Thread t = new Thread(r, "explore-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Future<ExploreReport>> running = new LinkedHashMap<>();
+        running.put("primary", pool.submit(() -> engine(DriverManager::getDriver, "primary").run(budget)));
+        for (Device d : extraDevices) {
+            running.put(d.udid(), pool.submit(() -> runWorker(d, budget)));
+        }
+
+        Map<String, ExploreReport> done = new LinkedHashMap<>();
+        running.forEach((worker, f) -> {
+            try {
+                done.put(worker, f.get());
+            } catch (Exception e) {
+                ExploreReport failed = new ExploreReport();
+                failed.add(ExploreFinding.low("WORKER_FAILED", worker, String.valueOf(e.getMessage())));
+                done.put(worker, failed);
+            }
+        });
+        pool.shutdownNow();
+        return ExploreReport.merge(done, graph);
+    }
+
+    private ExploreReport runWorker(Device d, ExploreBudget budget) throws Exception {
+        IOSDriver session;
+        try {
+            session = DriverManager.openWorkerSession(null, d.udid(), d.appiumPort(), d.wdaLocalPort());
+        } catch (Exception e) {
+            ExploreReport unavailable = new ExploreReport();
+            unavailable.add(ExploreFinding.low("WORKER_UNAVAILABLE", d.udid(),
+                    "could not open session: " + e.getMessage()));
+            return unavailable;
+        }
+        try {
+            return engine(() -> session, d.udid()).run(budget);
+        } finally {
+            try { session.quit(); } catch (Exception ignored) {}
+        }
+    }
+
+    private ExploratoryEngine engine(Supplier<IOSDriver> driver, String worker) {
+        return new ExploratoryEngine(
+                new Crawler(driver),
+                new ActionSelector(ai),
+                new Oracle(new CrashDetector(driver), new UIStateValidator(driver), new AssetLoadVerifier(driver)),
+                new VisualAnomalyDetector(ai, driver),
+                new InterruptInjector(driver),
+                graph, coverageGuided, worker);
+    }
+}
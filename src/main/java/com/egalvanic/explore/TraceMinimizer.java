@@ -0,0 +1,68 @@
+package com.egalvanic.explore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Delta debugging (Zeller's ddmin): shrinks a failing sequence to a 1-minimal one — removing
+ * any single remaining element makes the failure go away. Tries each chunk on its own, then
+ * each complement, and refines the granularity when neither still fails.
+ *
+ * <p>A test here is a full device replay, so results are memoized and the number of tests is
+ * capped; when the cap is hit the smallest failing sequence found so far is returned.
+ */
+public final class TraceMinimizer {
+
+    private TraceMinimizer() {}
+
+    public static <T> List<T> ddmin(List<T> failing, Predicate<List<T>> fails, int maxTests) {
+        Map<List<T>, Boolean> seen = new HashMap<>();
+        int[] tests = {0};
+        Predicate<List<T>> test = c -> seen.computeIfAbsent(c, k -> {
+            tests[0]++;
+            return fails.test(k);
+        });
+
+        List<T> c = List.copyOf(failing);
+        int n = 2;
+        while (c.size() >= 2) {
+            List<List<T>> chunks = split(c, n);
+            List<T> reduced = null;
+            for (List<T> chunk : chunks) {
+                if (tests[0] >= maxTests && !seen.containsKey(chunk)) return c;
+                if (test.test(chunk)) { reduced = chunk; n = 2; break; }
+            }
+            if (reduced == null && n > 2) {
+                for (int i = 0; i < chunks.size(); i++) {
+                    List<T> complement = new ArrayList<>(c.size());
+                    for (int j = 0; j < chunks.size(); j++) if (j != i) complement.addAll(chunks.get(j));
+                    List<T> candidate = List.copyOf(complement);
+                    if (tests[0] >= maxTests && !seen.containsKey(candidate)) return c;
+                    if (test.test(candidate)) { reduced = candidate; n = Math.max(n - 1, 2); break; }
+                }
+            }
+            if (reduced != null) {
+                c = reduced;
+            } else if (n >= c.size()) {
+                break;
+            } else {
+                n = Math.min(n * 2, c.size());
+            }
+        }
+        return c;
+    }
+
+    private static <T> List<List<T>> split(List<T> c, int n) {
+        List<List<T>> out = new ArrayList<>(n);
+        int start = 0;
+        for (int i = 0; i < n; i++) {
+            int end = start + (c.size() - start) / (n - i);
+            out.add(List.copyOf(c.subList(start, end)));
+            start = end;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,118 @@
+package com.egalvanic.explore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a finding's trace deterministically — relaunch, then the same actions with the
+ * same typed input and the same named interrupts, each located by its graph key — and
+ * shrinks it with {@link TraceMinimizer} to the shortest sequence that still reproduces.
+ * The result is written as a {@code .trace} file that {@code EXPLORE_REPLAY} re-runs in
+ * one short session, so triage starts from a reproduction instead of a crawl log.
+ */
+public final class TraceReplayer {
+
+    private static final String HEADER = "# exploratory repro v1";
+
+    private final Crawler crawler;
+    private final Oracle oracle;
+    private final InterruptInjector interrupts;
+
+    public TraceReplayer(Crawler crawler, Oracle oracle, InterruptInjector interrupts) {
+        this.crawler = crawler;
+        this.oracle = oracle;
+        this.interrupts = interrupts;
+    }
+
+    /**
+     * True when replaying {@code trace} from a fresh launch raises a finding of {@code kind}.
+     * A step whose element is not on screen ends the replay as "not reproduced", which is
+     * how ddmin treats an unresolved sequence.
+     */
+    public boolean reproduces(List<TraceStep> trace, String kind) {
+        interrupts.relaunch();
+        if (hit(oracle.check("replay start"), kind)) return true;
+        for (TraceStep s : trace) {
+            if (s.isInterrupt()) {
+                interrupts.fire(s.interruptKind());
+            } else {
+                UiNode node = crawler.scan().stream()
+                        .filter(n -> ActionSelector.key(n).equals(s.action())).findFirst().orElse(null);
+                if (node == null) return false;
+                try {
+                    ExploratoryEngine.perform(new Action(node, node.editable ? "type" : "tap", s.input()));
+                } catch (Exception e) {
+                    return false;
+                }
+            }
+            if (hit(oracle.check("replay " + s), kind)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The finding with its trace minimized, or with a "not reproducible" note when the full
+     * trace does not fail again on replay (then nothing is shrunk).
+     */
+    public ExploreFinding minimize(ExploreFinding f, int maxReplays) {
+        if (!reproduces(f.trace(), f.kind())) {
+            return new ExploreFinding(f.severity(), f.kind(), f.step(),
+                    f.detail() + " [not reproducible on replay]", f.trace());
+        }
+        List<TraceStep> min = TraceMinimizer.ddmin(f.trace(), t -> reproduces(t, f.kind()), maxReplays - 1);
+        System.out.println("🔬 " + f.kind() + ": trace minimized " + f.trace().size() + " → " + min.size() + " steps");
+        return f.withTrace(min);
+    }
+
+    /** Minimize up to {@code maxFindings} CRITICAL findings in place and write their repro files. */
+    public void minimizeCritical(ExploreReport report, int maxFindings, int maxReplays, Path dir) {
+        int i = 0;
+        for (ExploreFinding f : List.copyOf(report.findings())) {
+            if (f.severity() != ExploreFinding.Severity.CRITICAL || f.trace().isEmpty()) continue;
+            if (i++ >= maxFindings) break;
+            ExploreFinding min = minimize(f, maxReplays);
+            report.replace(f, min);
+            Path file = dir.resolve("repro-" + i + "-" + f.kind() + ".trace");
+            try {
+                write(file, min);
+                System.out.println("📄 Repro written: " + file + " (replay with EXPLORE_REPLAY=" + file + ")");
+            } catch (IOException e) {
+                System.out.println("⚠️ Could not write repro " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void write(Path file, ExploreFinding f) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        lines.add("# kind=" + f.kind());
+        lines.add("# detail=" + f.detail().replace('\n', ' '));
+        f.trace().forEach(t -> lines.add(t.line()));
+        Files.write(file, lines);
+    }
+
+    /** A repro file back as a finding (kind + trace; detail from the header). */
+    public static ExploreFinding read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+            throw new IOException("not a repro trace: " + file);
+        }
+        String kind = "?";
+        String detail = "";
+        List<TraceStep> trace = new ArrayList<>();
+        for (String l : lines.subList(1, lines.size())) {
+            if (l.startsWith("# kind=")) kind = l.substring(7);
+            else if (l.startsWith("# detail=")) detail = l.substring(9);
+            else if (!l.isEmpty() && !l.startsWith("#")) trace.add(TraceStep.parse(l));
+        }
+        return new ExploreFinding(ExploreFinding.Severity.CRITICAL, kind, file.getFileName().toString(), detail, trace);
+    }
+
+    private static boolean hit(List<ExploreFinding> found, String kind) {
+        return found.stream().anyMatch(x -> x.kind().equals(kind));
+    }
+}
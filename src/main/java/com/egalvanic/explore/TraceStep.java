@@ -0,0 +1,34 @@
+package com.egalvanic.explore;
+
+import java.util.List;
+
+/**
+ * One replayable crawl step: the graph key of the action ({@link ActionSelector#key})
+ * plus the text it typed, or a named interrupt ({@link InterruptInjector#fire}). A
+ * finding's trace is the list of these since the last app relaunch.
+ */
+public record TraceStep(String action, String input) {
+
+    private static final String INTERRUPT = "interrupt:";
+
+    public static TraceStep of(Action a) { return new TraceStep(ActionSelector.key(a.node()), a.input()); }
+    public static TraceStep interrupt(String kind) { return new TraceStep(INTERRUPT + kind, null); }
+
+    public boolean isInterrupt() { return action.startsWith(INTERRUPT); }
+    public String interruptKind() { return action.substring(INTERRUPT.length()); }
+
+    /** File form: the action, then a tab and the input when there is one. */
+    public String line() {
+        String row = input == null ? Tsv.row(action) : Tsv.row(action, input);
+        return row.substring(0, row.length() - 1);
+    }
+
+    public static TraceStep parse(String line) {
+        List<String> f = Tsv.cells(line);
+        return new TraceStep(f.get(0), f.size() > 1 ? f.get(1) : null);
+    }
+
+    @Override public String toString() {
+        return input == null ? action : action + " ← \"" + input + "\"";
+    }
+}
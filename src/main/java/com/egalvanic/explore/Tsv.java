@@ -0,0 +1,39 @@
+package com.egalvanic.explore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tab-separated lines for the explore package's on-disk stores (graph, repros, AI cache). */
+final class Tsv {
+
+    private Tsv() {}
+
+    /** One tab-separated line; tabs, newlines and backslashes inside a cell are escaped. */
+    static String row(String... cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) sb.append('\t');
+            sb.append(cells[i].replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n"));
+        }
+        return sb.append('\n').toString();
+    }
+
+    static List<String> cells(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char n = line.charAt(++i);
+                cell.append(n == 't' ? '\t' : n == 'n' ? '\n' : n);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+        return out;
+    }
+}
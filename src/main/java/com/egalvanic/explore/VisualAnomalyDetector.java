@@ -1,24 +1,173 @@
 package com.egalvanic.explore;
 
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.verify.ImageAnalysis;
+import io.appium.java_client.ios.IOSDriver;
 import org.openqa.selenium.OutputType;
 
-/** AI vision oracle. No-op (returns null) when no {@link AiClient} is configured. */
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AI vision oracle. No-op (returns null) when no {@link AiClient} is configured.
+ * {@link #inspectAsync} captures now and reports the verdict on a later step (or at
+ * {@link #drain}), so the crawl does not stall on the vision round-trip.
+ *
+ * <p>Every screenshot is triaged locally first ({@link ImageAnalysis}, no network): a
+ * uniform render, or one with nothing drawn below the top bar, is flagged on the spot; a
+ * screen whose perceptual hash equals one already judged reuses that verdict. A hash that
+ * is merely close is not reused — a near-duplicate can differ in exactly the overlap or
+ * clipped label the AI is there to catch — so every other screen is escalated. Verdicts
+ * are JVM-wide so parallel workers share them.
+ */
 public final class VisualAnomalyDetector {
 
+    // dHash -> AI verdict ("ok" or the defect)
+    private static final Map<Long, String> JUDGED = new ConcurrentHashMap<>();
+    private static final AtomicInteger reused = new AtomicInteger();
+    private static final AtomicInteger flagged = new AtomicInteger();
+    private static final AtomicInteger escalated = new AtomicInteger();
+
+    /** Local outcome: a verdict when triage decided, else null = ask the AI ({@code hash} may be null). */
+    private record Triage(Long hash, String verdict) {}
+
+    private record Pending(String step, List<TraceStep> trace, Long hash, CompletableFuture<String> verdict) {}
+
+    private final List<Pending> pending = new ArrayList<>();
+
     private final AiClient ai; // nullable
+    private final Supplier<String> screenshots; // base64 PNG
 
-    public VisualAnomalyDetector(AiClient ai) { this.ai = ai; }
+    public VisualAnomalyDetector(AiClient ai) { this(ai, DriverManager::getDriver); }
+
+    public VisualAnomalyDetector(AiClient ai, Supplier<IOSDriver> driverSource) {
+        this(() -> driverSource.get().getScreenshotAs(OutputType.BASE64), ai);
+    }
+
+    private VisualAnomalyDetector(Supplier<String> screenshots, AiClient ai) {
+        this.ai = ai;
+        this.screenshots = screenshots;
+    }
+
+    /** Driver-free seam: screenshots come from {@code base64Png} instead of a session. */
+    public static VisualAnomalyDetector ofScreenshots(AiClient ai, Supplier<String> base64Png) {
+        return new VisualAnomalyDetector(base64Png, ai);
+    }
 
     public ExploreFinding inspect(String step) {
         if (ai == null) return null;
         try {
-            String b64 = DriverManager.getDriver().getScreenshotAs(OutputType.BASE64);
-            String verdict = ai.classifyScreenshot(b64, step);
-            if (verdict != null && !verdict.toLowerCase().startsWith("ok")) {
-                return ExploreFinding.high("VISUAL_ANOMALY", step, verdict);
-            }
+            String b64 = screenshots.get();
+            Triage t = triage(b64);
+            String verdict = t.verdict() != null ? t.verdict() : judged(t.hash(), ai.classifyScreenshot(b64, step));
+            return finding(step, verdict);
         } catch (Exception ignored) { /* vision is advisory; never break the crawl */ }
         return null;
     }
+
+    /** Screenshot now, classify in the background; returns findings whose verdicts have arrived. */
+    public List<ExploreFinding> inspectAsync(String step, List<TraceStep> trace) {
+        if (ai == null) return List.of();
+        List<ExploreFinding> out = new ArrayList<>();
+        try {
+            String b64 = screenshots.get();
+            Triage t = triage(b64);
+            if (t.verdict() != null) {
+                ExploreFinding f = finding(step, t.verdict());
+                if (f != null) out.add(f.withTrace(trace));
+            } else {
+                pending.add(new Pending(step, List.copyOf(trace), t.hash(), ai.classifyScreenshotAsync(b64, step)));
+            }
+        } catch (Exception ignored) { /* vision is advisory; never break the crawl */ }
+        out.addAll(collect(false));
+        return out;
+    }
+
+    /** Wait (bounded) for verdicts still in flight at the end of the crawl. */
+    public List<ExploreFinding> drain() {
+        return collect(true);
+    }
+
+    public static String stats() {
+        int total = reused.get() + flagged.get() + escalated.get();
+        return String.format("Vision triage: %d screens, %d reused a verdict, %d flagged locally, %d sent to AI",
+                total, reused.get(), flagged.get(), escalated.get());
+    }
+
+    /** Test seam: forget every judged screen and counter (static-per-JVM state). */
+    public static void reset() {
+        JUDGED.clear();
+        reused.set(0);
+        flagged.set(0);
+        escalated.set(0);
+    }
+
+    private static Triage triage(String b64) {
+        BufferedImage img;
+        try {
+            img = ImageAnalysis.decodeScreenshot(Base64.getDecoder().decode(b64));
+        } catch (Exception e) {
+            img = null;
+        }
+        if (img == null) {
+            escalated.incrementAndGet();
+            return new Triage(null, null);
+        }
+        ImageAnalysis.Result full = ImageAnalysis.analyzeFull(img);
+        if (full.looksBlank()) {
+            flagged.incrementAndGet();
+            return new Triage(null, "blank: uniform render (" + full + ")");
+        }
+        int bar = img.getHeight() / 8;
+        ImageAnalysis.Result body = ImageAnalysis.analyze(img, 0, bar, img.getWidth(), img.getHeight() - bar);
+        if (body.looksFlat()) {
+            flagged.incrementAndGet();
+            return new Triage(null, "clipped: nothing drawn below the top bar (" + body + ")");
+        }
+        long hash = ImageAnalysis.dHash(img);
+        String known = JUDGED.get(hash);
+        if (known != null) {
+            reused.incrementAndGet();
+            return new Triage(hash, known);
+        }
+        escalated.incrementAndGet();
+        return new Triage(hash, null);
+    }
+
+    private static String judged(Long hash, String verdict) {
+        if (hash != null && verdict != null) JUDGED.put(hash, verdict);
+        return verdict;
+    }
+
+    private static ExploreFinding finding(String step, String verdict) {
+        if (verdict == null || verdict.toLowerCase().startsWith("ok")) return null;
+        return ExploreFinding.high("VISUAL_ANOMALY", step, verdict);
+    }
+
+    private List<ExploreFinding> collect(boolean wait) {
+        List<ExploreFinding> out = new ArrayList<>();
+        for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+            Pending p = it.next();
+            String verdict;
+            try {
+                verdict = wait ? p.verdict().get(45, TimeUnit.SECONDS) : p.verdict().getNow(null);
+            } catch (Exception e) {
+                verdict = null;
+            }
+            if (!wait && !p.verdict().isDone()) continue;
+            it.remove();
+            ExploreFinding f = finding(p.step(), judged(p.hash(), verdict));
+            if (f != null) out.add(f.withTrace(p.trace()));
+        }
+        return out;
+    }
 }
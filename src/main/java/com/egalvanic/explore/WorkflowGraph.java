@@ -1,39 +1,224 @@
 package com.egalvanic.explore;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Records observed {@code screen --action--> screen} transitions. Inbound-less screens
  * (reachable only via an unrealistic step order) are the "flows that only work in an
  * unrealistic order" the brief calls out — they surface as targets with no normal path.
+ *
+ * <p>It is also the coverage map for the novelty-driven crawl: every action seen on a
+ * screen ({@link #observe}) starts at visit count 0, {@link #record} counts visits, and a
+ * screen with any untried action is a FRONTIER. {@link #firstHopToFrontier} walks the
+ * known edges (BFS, fewest actions) so the engine can backtrack to unexplored ground
+ * instead of hammering the same visited buttons.
+ *
+ * <p>Thread-safe (every method is synchronized — a graph update is a few map writes
+ * against a multi-second device step) so parallel exploration workers share ONE map.
+ * A worker heading for a frontier screen CLAIMS it; the others route around claimed
+ * targets, so N devices fan out over the state space instead of racing to the same
+ * unexplored screen.
+ *
+ * <p>{@link #save}/{@link #load} persist the map between runs (gzipped TSV: one line per
+ * visit count, one per transition), so the next crawl starts from known territory and
+ * spends its budget on the screens and actions earlier runs never reached. Claims are
+ * per-run and not persisted.
  */
 public final class WorkflowGraph {
 
-    private final Map<String, Set<String>> edges = new LinkedHashMap<>();
+    // v2: screen ids are SHA-256 prefixes; v1 maps keyed by String.hashCode are not reused
+    private static final String HEADER = "# workflow-graph v2";
+
+    private record Edge(String action, String to) {}
+
+    private final Map<String, Set<Edge>> edges = new LinkedHashMap<>();
     private final Set<String> reachedTargets = new LinkedHashSet<>();
+    // screen -> action -> visit count (0 = seen on screen but never tried)
+    private final Map<String, Map<String, Integer>> visits = new LinkedHashMap<>();
+    // screen -> action -> screen it last led to
+    private final Map<String, Map<String, String>> next = new HashMap<>();
+    // frontier screen -> worker currently heading there
+    private final Map<String, String> claims = new HashMap<>();
+
+    public synchronized void record(String fromScreen, String action, String toScreen) {
+        String from = sig(fromScreen);
+        String to = sig(toScreen);
+        edges.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(new Edge(action, to));
+        reachedTargets.add(to);
+        visits.computeIfAbsent(from, k -> new LinkedHashMap<>()).merge(action, 1, Integer::sum);
+        visits.computeIfAbsent(to, k -> new LinkedHashMap<>());
+        next.computeIfAbsent(from, k -> new HashMap<>()).put(action, to);
+    }
+
+    /** Register the actions available on a screen (untried ones start at 0 visits). */
+    public synchronized void observe(String screen, Collection<String> actions) {
+        Map<String, Integer> counts = visits.computeIfAbsent(sig(screen), k -> new LinkedHashMap<>());
+        for (String a : actions) counts.putIfAbsent(a, 0);
+    }
+
+    public synchronized int visits(String screen, String action) {
+        return visits.getOrDefault(sig(screen), Map.of()).getOrDefault(action, 0);
+    }
+
+    public synchronized List<String> untried(String screen) {
+        return visits.getOrDefault(sig(screen), Map.of()).entrySet().stream()
+                .filter(e -> e.getValue() == 0).map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * The action to take on {@code screen} that starts the shortest known path to a
+     * frontier screen (one with untried actions), or null when no frontier is reachable.
+     */
+    public String firstHopToFrontier(String screen) {
+        return firstHopToFrontier(screen, null);
+    }
+
+    /**
+     * Worker-aware variant: skips frontier screens another worker has claimed and claims
+     * the chosen one for {@code worker} (dropping its previous claim). A claim lapses by
+     * itself once its screen has no untried actions left.
+     */
+    public synchronized String firstHopToFrontier(String screen, String worker) {
+        String start = sig(screen);
+        Map<String, String> firstHop = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> seen = new LinkedHashSet<>();
+        queue.add(start);
+        seen.add(start);
+        while (!queue.isEmpty()) {
+            String s = queue.poll();
+            if (!s.equals(start) && isFrontierSig(s) && claimableBy(s, worker)) {
+                if (worker != null) {
+                    claims.values().remove(worker);
+                    claims.put(s, worker);
+                }
+                return firstHop.get(s);
+            }
+            for (Map.Entry<String, String> e : next.getOrDefault(s, Map.of()).entrySet()) {
+                if (seen.add(e.getValue())) {
+                    firstHop.put(e.getValue(), s.equals(start) ? e.getKey() : firstHop.get(s));
+                    queue.add(e.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized boolean isFrontier(String screen) {
+        return isFrontierSig(sig(screen));
+    }
 
-    public void record(String fromScreen, String action, String toScreen) {
-        String key = sig(fromScreen) + " --[" + action + "]--> " + sig(toScreen);
-        edges.computeIfAbsent(sig(fromScreen), k -> new LinkedHashSet<>()).add(key);
-        reachedTargets.add(sig(toScreen));
+    private boolean claimableBy(String s, String worker) {
+        String owner = claims.get(s);
+        return owner == null || worker == null || owner.equals(worker);
     }
 
-    public int transitionCount() {
+    private boolean isFrontierSig(String s) {
+        return visits.getOrDefault(s, Map.of()).containsValue(0);
+    }
+
+    public synchronized int transitionCount() {
         return edges.values().stream().mapToInt(Set::size).sum();
     }
 
-    public String render() {
-        StringBuilder sb = new StringBuilder("Workflow transitions: ").append(transitionCount()).append('\n');
-        edges.values().forEach(set -> set.forEach(e -> sb.append("  ").append(e).append('\n')));
+    public synchronized int screenCount() {
+        return visits.size();
+    }
+
+    public synchronized int frontierCount() {
+        return (int) visits.keySet().stream().filter(this::isFrontierSig).count();
+    }
+
+    public synchronized String render() {
+        StringBuilder sb = new StringBuilder("Workflow transitions: ").append(transitionCount())
+                .append(" across ").append(screenCount()).append(" screens (")
+                .append(frontierCount()).append(" still with untried actions)\n");
+        edges.forEach((from, set) -> set.forEach(e -> sb.append("  ").append(from)
+                .append(" --[").append(e.action()).append("]--> ").append(e.to()).append('\n')));
         return sb.toString();
     }
 
-    /** Short, log-friendly screen id (the raw signature can be very long). */
+    /** Write the map atomically (temp file + move) so a killed run never leaves half a graph. */
+    public synchronized void save(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer w = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tmp)),
+                StandardCharsets.UTF_8)) {
+            w.write(HEADER + "\n");
+            for (Map.Entry<String, Map<String, Integer>> s : visits.entrySet()) {
+                if (s.getValue().isEmpty()) w.write(Tsv.row("S", s.getKey()));
+                for (Map.Entry<String, Integer> a : s.getValue().entrySet()) {
+                    w.write(Tsv.row("S", s.getKey(), a.getKey(), String.valueOf(a.getValue())));
+                }
+            }
+            for (Map.Entry<String, Set<Edge>> e : edges.entrySet()) {
+                for (Edge edge : e.getValue()) w.write(Tsv.row("T", e.getKey(), edge.action(), edge.to()));
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** The map a previous run saved, or an empty graph when there is none (or it is unreadable). */
+    public static WorkflowGraph load(Path file) {
+        WorkflowGraph g = new WorkflowGraph();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            if (!HEADER.equals(r.readLine())) return g;
+            for (String line; (line = r.readLine()) != null; ) {
+                List<String> f = Tsv.cells(line);
+                if (f.get(0).equals("S")) {
+                    Map<String, Integer> counts = g.visits.computeIfAbsent(f.get(1), k -> new LinkedHashMap<>());
+                    if (f.size() == 4) counts.put(f.get(2), Integer.parseInt(f.get(3)));
+                } else if (f.get(0).equals("T") && f.size() == 4) {
+                    g.edges.computeIfAbsent(f.get(1), k -> new LinkedHashSet<>()).add(new Edge(f.get(2), f.get(3)));
+                    g.reachedTargets.add(f.get(3));
+                    g.next.computeIfAbsent(f.get(1), k -> new HashMap<>()).put(f.get(2), f.get(3));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return g;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠️ Ignoring unreadable workflow graph " + file + ": " + e.getMessage());
+            return new WorkflowGraph();
+        }
+        return g;
+    }
+
+    /**
+     * Short, log-friendly screen id (the raw signature can be very long): a truncated
+     * SHA-256, stable across JVMs and wide enough that two screens in a persisted map
+     * do not collide the way 32-bit hash codes would.
+     */
     private static String sig(String s) {
         if (s == null || s.isBlank()) return "∅";
-        return "scr#" + Integer.toHexString(s.hashCode());
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return "scr#" + HexFormat.of().formatHex(d, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            return "scr#" + Integer.toHexString(s.hashCode());
+        }
     }
 }
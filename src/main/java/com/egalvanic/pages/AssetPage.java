@@ -13439,31 +13439,40 @@ public class AssetPage extends BasePage {
      * scroll signature for end-of-list detection (same rows twice = bottom).
      */
     private java.util.List<String> visibleAssetRowComposites() {
-        java.util.List<String> rows = new java.util.ArrayList<>();
         int maxY = assetListContentMaxY();
         try {
-            String src = driver.getPageSource();
-            java.util.regex.Matcher m = java.util.regex.Pattern
-                    .compile("<XCUIElementType(?:StaticText|Button|Cell|Other)([^>]*?)/?>").matcher(src);
-            while (m.find()) {
-                String attrs = m.group(1);
-                if (!attrs.contains("visible=\"true\"")) continue;
-                java.util.regex.Matcher nm = java.util.regex.Pattern.compile("name=\"([^\"]*)\"").matcher(attrs);
-                java.util.regex.Matcher ym = java.util.regex.Pattern.compile(" y=\"(-?\\d+)\"").matcher(attrs);
-                if (!nm.find() || !ym.find()) continue;
-                String n = unescapePageSource(nm.group(1));
-                int y = Integer.parseInt(ym.group(1));
-                // Content zone: in search-active mode the collapsed search bar
-                // sits at y≈64 and the FIRST result cell at y≈108 (probed live
-                // — a 150/120 floor both cut it). Chrome above 100 can't match
-                // the class suffix anyway; the floor is defense-in-depth only.
-                if (y < 100 || y > maxY) continue;
-                if (n.length() > 250 || n.contains(" › ")) continue; // room rows etc.
-                if (!n.contains(", ")) continue;                // composites only
-                rows.add(n);
-            }
+            return assetRowComposites(driver.getPageSource(), maxY);
         } catch (Exception e) {
             System.out.println("   visibleAssetRowComposites: " + e.getMessage());
+            return new java.util.ArrayList<>();
+        }
+    }
+
+    /**
+     * The scan behind {@link #visibleAssetRowComposites()} over one page-source
+     * snapshot: visible composites with {@code 100 <= y <= maxY}. Package-visible
+     * for the page-source benchmark (benchmarks/, same package).
+     */
+    static java.util.List<String> assetRowComposites(String src, int maxY) {
+        java.util.List<String> rows = new java.util.ArrayList<>();
+        java.util.regex.Matcher m = java.util.regex.Pattern
+                .compile("<XCUIElementType(?:StaticText|Button|Cell|Other)([^>]*?)/?>").matcher(src);
+        while (m.find()) {
+            String attrs = m.group(1);
+            if (!attrs.contains("visible=\"true\"")) continue;
+            java.util.regex.Matcher nm = java.util.regex.Pattern.compile("name=\"([^\"]*)\"").matcher(attrs);
+            java.util.regex.Matcher ym = java.util.regex.Pattern.compile(" y=\"(-?\\d+)\"").matcher(attrs);
+            if (!nm.find() || !ym.find()) continue;
+            String n = unescapePageSource(nm.group(1));
+            int y = Integer.parseInt(ym.group(1));
+            // Content zone: in search-active mode the collapsed search bar
+            // sits at y≈64 and the FIRST result cell at y≈108 (probed live
+            // — a 150/120 floor both cut it). Chrome above 100 can't match
+            // the class suffix anyway; the floor is defense-in-depth only.
+            if (y < 100 || y > maxY) continue;
+            if (n.length() > 250 || n.contains(" › ")) continue; // room rows etc.
+            if (!n.contains(", ")) continue;                // composites only
+            rows.add(n);
         }
         return rows;
     }
@@ -1,6 +1,7 @@
 package com.egalvanic.pages;
 
 import com.egalvanic.base.BasePage;
+import com.egalvanic.utils.Log;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.pagefactory.iOSXCUITFindBy;
 import org.openqa.selenium.WebElement;
@@ -333,7 +334,7 @@ public class WorkOrderPage extends BasePage {
         try {
             int v150 = getVisibleWorkOrderRowNames().size();
             if (v150 > 0) {
-                System.out.println("📊 Found " + v150 + " work order entries (v1.50 rows)");
+                Log.debug("📊 Found " + v150 + " work order entries (v1.50 rows)");
                 return v150;
             }
         } catch (Exception e) { /* continue */ }
@@ -355,7 +356,7 @@ public class WorkOrderPage extends BasePage {
                 } catch (Exception e) { /* skip problematic cells */ }
             }
             if (count > 0) {
-                System.out.println("📊 Found " + count + " work order entries via cell count");
+                Log.debug("📊 Found " + count + " work order entries via cell count");
                 return count;
             }
         } catch (Exception e) { /* continue */ }
@@ -374,7 +375,7 @@ public class WorkOrderPage extends BasePage {
                 } catch (Exception e) { /* skip */ }
             }
             if (startCount > 0) {
-                System.out.println("📊 Found " + startCount + " work order entries via Start buttons");
+                Log.debug("📊 Found " + startCount + " work order entries via Start buttons");
                 return startCount;
             }
         } catch (Exception e) { /* continue */ }
@@ -385,12 +386,12 @@ public class WorkOrderPage extends BasePage {
                 "type == 'XCUIElementTypeStaticText' AND (label CONTAINS ' at ' AND (label CONTAINS 'AM' OR label CONTAINS 'PM'))"
             ));
             if (!dates.isEmpty()) {
-                System.out.println("📊 Found " + dates.size() + " work order entries via date strings");
+                Log.debug("📊 Found " + dates.size() + " work order entries via date strings");
                 return dates.size();
             }
         } catch (Exception e) { /* continue */ }
 
-        System.out.println("⚠️ Could not count work order entries");
+        Log.warn("⚠️ Could not count work order entries");
         return 0;
     }
 
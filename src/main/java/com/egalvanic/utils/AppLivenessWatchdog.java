@@ -0,0 +1,269 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.appmanagement.ApplicationState;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.remote.CommandPayload;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Background app-liveness watchdog — a crash mid-test costs seconds, not minutes.
+ *
+ * CrashDetector.assertAlive only runs where a test calls it, and BaseTest's
+ * failIfAppCrashedDuringSuccessfulTest only at the end. A crash in between left
+ * the body polling for elements of a dead app until every wait (and finally the
+ * 360s test timeout) ran out, then reported a misleading "element not found".
+ *
+ * While a @Test body runs (AppLivenessListener arms it), a daemon samples
+ * {@code mobile: queryAppState} every APP_WATCHDOG_INTERVAL_MS:
+ *   - NOT_RUNNING / NOT_INSTALLED                   => tripped at once,
+ *   - background for {@link #BACKGROUND_SAMPLES} samples in a row => tripped,
+ *   - probe failed / no session                     => ignored (session death is
+ *     RunHealth's and CommandDeadline's business, not an app crash),
+ *   - a command of the test in flight               => skipped. Appium serves one
+ *     command per session, so the probe would only queue behind it and could not
+ *     see the app before that command returned anyway. The probe runs under
+ *     {@link CommandDeadline#probe}, so one that still times out does not mark the
+ *     session suspect.
+ * A transition the test caused itself — terminateApp, activateApp,
+ * runAppInBackground... seen on the command path via {@link #noteCommand} — is
+ * not a crash until the app has been seen in the foreground again.
+ *
+ * On a trip the crash is timestamped, forensics (screenshot + syslog tail) are
+ * captured right away, and {@link CommandDeadline#abortTest} fails the body with
+ * an {@link AppDiedError}: the caller parked on a command is interrupted and any
+ * further command throws. BaseTest attaches the forensics in teardown, which
+ * writes into the report test the body created on its timeOut thread.
+ *
+ * The decision logic ({@link #sampleOnce}) is driver-free; the self-test feeds it
+ * scripted states.
+ */
+public final class AppLivenessWatchdog {
+
+    /** Consecutive background samples before a background transition counts as a failure. */
+    static final int BACKGROUND_SAMPLES = 2;
+    private static final long PROBE_BUDGET_MS = 5_000;
+    private static final int LOG_TAIL_LINES = 40;
+
+    // Command names (MobileCommand keeps most of them protected) and mobile: scripts
+    // by which a test moves the app out of the foreground on purpose.
+    private static final Set<String> LIFECYCLE_COMMANDS = Set.of(
+        "terminateApp", "activateApp", "launchApp", "closeApp", "runAppInBackground",
+        "installApp", "removeApp", "reset");
+    private static final Set<String> LIFECYCLE_SCRIPTS = Set.of(
+        "mobile: terminateApp", "mobile: activateApp", "mobile: launchApp", "mobile: backgroundApp",
+        "mobile: installApp", "mobile: removeApp");
+
+    /**
+     * The typed failure a test body gets when the app died under it. An Error (like
+     * VerificationError) so page objects' catch(Exception) cannot swallow it.
+     */
+    public static final class AppDiedError extends AssertionError {
+        private final transient ApplicationState state;
+        private final long detectedAtMs;
+        private final transient String screenshotBase64;
+        private final transient List<String> logTail;
+
+        AppDiedError(String testName, ApplicationState state, long detectedAtMs, long intoTestMs,
+                     String screenshotBase64, List<String> logTail) {
+            super("App " + (state == ApplicationState.NOT_RUNNING || state == ApplicationState.NOT_INSTALLED
+                    ? "crashed/exited" : "left the foreground") + " during '" + testName + "' (state=" + state
+                    + ", detected " + intoTestMs / 1000.0 + "s into the test by the liveness watchdog)");
+            this.state = state;
+            this.detectedAtMs = detectedAtMs;
+            this.screenshotBase64 = screenshotBase64;
+            this.logTail = logTail == null ? List.of() : List.copyOf(logTail);
+        }
+
+        public ApplicationState state() { return state; }
+
+        public long detectedAtMs() { return detectedAtMs; }
+
+        /** PNG screenshot taken the moment the death was seen, or null. */
+        public String screenshotBase64() { return screenshotBase64; }
+
+        /** Device log lines leading up to the death (empty without showIOSLog). */
+        public List<String> logTail() { return logTail; }
+    }
+
+    private static volatile long lastLifecycleMs = 0;
+    private static volatile AppLivenessWatchdog active;
+    private static ScheduledExecutorService ticker;
+    private static ScheduledFuture<?> task;
+
+    private final String testName;
+    private final Supplier<ApplicationState> probe;
+    private final BooleanSupplier busy;
+    private final Supplier<String> screenshot;
+    private final Supplier<List<String>> logTail;
+    private final Consumer<AppDiedError> onTrip;
+    private final long startMs = System.currentTimeMillis();
+    private long lastForegroundMs = startMs;
+    private int backgroundStreak = 0;
+    private long skipped = 0;
+    private volatile AppDiedError tripped;
+
+    /**
+     * Seam for driver-free self-tests. {@code probe} returns the app state, or null when it
+     * could not be read; {@code onTrip} receives the failure (live: CommandDeadline.abortTest).
+     */
+    public AppLivenessWatchdog(String testName, Supplier<ApplicationState> probe, Supplier<String> screenshot,
+                               Supplier<List<String>> logTail, Consumer<AppDiedError> onTrip) {
+        this(testName, probe, () -> false, screenshot, logTail, onTrip);
+    }
+
+    /** As above; no sample is taken while {@code busy} (a test command in flight). */
+    public AppLivenessWatchdog(String testName, Supplier<ApplicationState> probe, BooleanSupplier busy,
+                               Supplier<String> screenshot, Supplier<List<String>> logTail,
+                               Consumer<AppDiedError> onTrip) {
+        this.testName = testName;
+        this.probe = probe;
+        this.busy = busy;
+        this.screenshot = screenshot;
+        this.logTail = logTail;
+        this.onTrip = onTrip;
+    }
+
+    // ================================================================
+    // ARMING (static, one per JVM — like WdaHealthMonitor)
+    // ================================================================
+
+    /** Start watching for the @Test body about to run. No-op when off or without a session. */
+    public static synchronized void arm(String testName) {
+        disarm();
+        int interval = AppConstants.APP_WATCHDOG_INTERVAL_MS;
+        if (interval <= 0 || !DriverManager.isDriverActive()) {
+            return;
+        }
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "app-liveness");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        AppLivenessWatchdog w = new AppLivenessWatchdog(testName, AppLivenessWatchdog::liveState,
+            CommandDeadline::isSessionBusy, AppLivenessWatchdog::liveScreenshot, AppLivenessWatchdog::liveLogTail, CommandDeadline::abortTest);
+        active = w;
+        task = ticker.scheduleWithFixedDelay(() -> {
+            try {
+                w.sampleOnce(); // once tripped this just returns the failure — no more probes
+            } catch (Throwable t) {
+                System.out.println("⚠️ App-liveness watchdog error: " + t.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop watching (end of the @Test body, or a test where the app dying is the point —
+     * the exploratory crawl reports crashes as findings). Returns the failure if one tripped.
+     */
+    public static synchronized AppDiedError disarm() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        AppLivenessWatchdog w = active;
+        active = null;
+        return w == null ? null : w.tripped;
+    }
+
+    /** DriverManager's command path: remember when the test itself moved the app. */
+    public static void noteCommand(CommandPayload payload) {
+        String name = payload.getName();
+        if (LIFECYCLE_COMMANDS.contains(name)) {
+            lastLifecycleMs = System.currentTimeMillis();
+        } else if ("executeScript".equals(name)) {
+            Object script = payload.getParameters().get("script");
+            if (script != null && LIFECYCLE_SCRIPTS.contains(script.toString().trim())) {
+                lastLifecycleMs = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private static ApplicationState liveState() {
+        if (!DriverManager.isDriverActive()) {
+            return null;
+        }
+        // The script form, not queryAppState(): ElementCache knows it is read-only, so a
+        // sample never invalidates the test's cached lookups.
+        try (CommandDeadline.Scope budget = CommandDeadline.probe(PROBE_BUDGET_MS)) {
+            Object code = DriverManager.getDriver().executeScript("mobile: queryAppState",
+                Map.of("bundleId", AppConstants.APP_BUNDLE_ID));
+            return code instanceof Number ? ApplicationState.ofCode(((Number) code).longValue()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String liveScreenshot() {
+        try (CommandDeadline.Scope budget = CommandDeadline.probe(PROBE_BUDGET_MS)) {
+            return DriverManager.getDriver().getScreenshotAs(OutputType.BASE64);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static List<String> liveLogTail() {
+        return DeviceLogCollector.recentLines(LOG_TAIL_LINES);
+    }
+
+    // ================================================================
+    // SAMPLING (driver-free)
+    // ================================================================
+
+    /** Take one sample; returns the failure once the app is judged dead (and keeps returning it). */
+    public synchronized AppDiedError sampleOnce() {
+        if (tripped != null) {
+            return tripped;
+        }
+        if (busy.getAsBoolean()) {
+            skipped++;
+            return null;
+        }
+        ApplicationState s = probe.get();
+        long now = System.currentTimeMillis();
+        if (s == null) {
+            return null;
+        }
+        if (s == ApplicationState.RUNNING_IN_FOREGROUND) {
+            lastForegroundMs = now;
+            backgroundStreak = 0;
+            return null;
+        }
+        if (lastLifecycleMs >= lastForegroundMs) {
+            backgroundStreak = 0; // the test terminated/backgrounded the app itself
+            return null;
+        }
+        boolean gone = s == ApplicationState.NOT_RUNNING || s == ApplicationState.NOT_INSTALLED;
+        if (!gone && ++backgroundStreak < BACKGROUND_SAMPLES) {
+            return null;
+        }
+        // Forensics before the trip: once tripped, every driver command throws.
+        tripped = new AppDiedError(testName, s, now, now - startMs, screenshot.get(), logTail.get());
+        System.out.println("💀 " + tripped.getMessage() + " — aborting the test body");
+        TraceTimeline.instant("app died", "crash", tripped.getMessage(), true);
+        onTrip.accept(tripped);
+        return tripped;
+    }
+
+    /** Samples skipped because a command of the test was in flight. */
+    public synchronized long skippedCount() {
+        return skipped;
+    }
+
+    /** Test seam: forget the last lifecycle command. */
+    public static void reset() {
+        lastLifecycleMs = 0;
+    }
+}
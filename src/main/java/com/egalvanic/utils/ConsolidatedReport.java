@@ -0,0 +1,533 @@
+package com.egalvanic.utils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Consolidated client report for a multi-job run, streamed.
+ *
+ * Replaces scripts/generate_consolidated_report.py, which loaded every job's
+ * testng-results.xml into an ElementTree and built the whole HTML in memory. Here:
+ * <ul>
+ *   <li>every testng-results.xml under the artifacts directory is StAX-streamed on a
+ *       fixed pool, one file per task;</li>
+ *   <li>each task spills its test methods as summary rows (module, class, method,
+ *       status, duration, failure signature) to a temp file and keeps only the counts;</li>
+ *   <li>the HTML and the machine-readable summary are then written row by row from the
+ *       spills, in artifact-path order.</li>
+ * </ul>
+ * Memory is one row per parsing thread plus the per-file counts, whatever the number
+ * of result entries.
+ *
+ * JDK-only on purpose, so CI can run it without a build from a sparse checkout
+ * (string literals stay ASCII, so the source launcher's platform encoding doesn't matter):
+ * <pre>
+ * java src/main/java/com/egalvanic/utils/ConsolidatedReport.java \
+ *     --artifacts-dir all-reports --output Consolidated_Client_Report.html \
+ *     [--summary results-summary.tsv] [--run-id 24876293380] [--branch release/prod] [--repo owner/repo]
+ * </pre>
+ */
+public final class ConsolidatedReport {
+
+    /** Summary columns, in file order. Status is PASS, FAIL, SKIP or CACHED (a PASS reused by the result cache). */
+    public static final String SUMMARY_HEADER = "module\tclass\tmethod\tstatus\tduration_ms\tfailure_signature";
+
+    /** Display names per artifact directory (the first path segment under the artifacts dir). */
+    private static final Map<String, String> MODULE_NAMES = new LinkedHashMap<>();
+    static {
+        MODULE_NAMES.put("auth-report", "Authentication");
+        MODULE_NAMES.put("site-report", "Site Selection");
+        MODULE_NAMES.put("assets-part1-report", "Asset Management \u2014 Part 1 (Creation + Edit + Busway + Capacitor)");
+        MODULE_NAMES.put("assets-part2-report", "Asset Management \u2014 Part 2 (CB + DS + Fuse + Generator + JunctionBox)");
+        MODULE_NAMES.put("assets-part3-report", "Asset Management \u2014 Part 3 (LoadCenter + MCC + Motor + Other)");
+        MODULE_NAMES.put("assets-part4-report", "Asset Management \u2014 Part 4 (OCP + Panelboard + PDU + Relay + SWB)");
+        MODULE_NAMES.put("assets-part5-report", "Asset Management \u2014 Part 5 (UPS + Utility + VFD + Subtypes)");
+        MODULE_NAMES.put("assets-part6-report", "Asset Management \u2014 Part 6 (Subtypes + Tasks + Issues + Connections)");
+        MODULE_NAMES.put("issues-phase1-report", "Issues \u2014 Phase 1 (List + Filter + Search + Creation + ClassChange)");
+        MODULE_NAMES.put("issues-phase2-report", "Issues \u2014 Phase 2 (OSHA + Thermal + Severity + Ultrasonic)");
+        MODULE_NAMES.put("issues-phase3-report", "Issues \u2014 Phase 3 (Ultrasonic Save + Swipe Delete + Sort + Status + CRUD)");
+        MODULE_NAMES.put("connections-report", "Connections");
+        MODULE_NAMES.put("location-report", "Locations");
+        MODULE_NAMES.put("offline-report", "Offline Mode");
+        MODULE_NAMES.put("sitevisit-report", "Site Visit / Work Orders");
+        MODULE_NAMES.put("smoke-test-reports", "Smoke CRUD Tests");
+    }
+
+    /** One parsed results file: its module, counts, and the spill holding its summary rows. */
+    public record ModuleResult(String module, Path spill, int passed, int failed, int skipped) {
+        public int total() {
+            return passed + failed + skipped;
+        }
+    }
+
+    private static final Pattern TC_ID = Pattern.compile("^(TC_[A-Z0-9_]+?_\\d+)_(.+)$");
+    private static final Pattern UPPER_ID = Pattern.compile("^([A-Z][A-Z_0-9]+?_\\d+)_(.+)$");
+    private static final Pattern CAMEL = Pattern.compile("([a-z])([A-Z])");
+    /** ResultCache.REPORT_MARKER, repeated here so this file still runs on its own. */
+    private static final String CACHED_MARKER = "[result-cache] ";
+    private static final Pattern VOLATILE = Pattern.compile("0x[0-9a-fA-F]+|[0-9a-fA-F]{8}-[0-9a-fA-F-]{27}|\\d+");
+
+    private ConsolidatedReport() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i], args[i + 1]);
+        }
+        String artifacts = opts.get("--artifacts-dir");
+        String output = opts.get("--output");
+        if (artifacts == null || output == null) {
+            System.err.println("usage: ConsolidatedReport --artifacts-dir DIR --output FILE.html"
+                + " [--summary FILE.tsv] [--run-id ID] [--branch NAME] [--repo OWNER/REPO]");
+            System.exit(2);
+        }
+        Path dir = Path.of(artifacts);
+        if (!Files.isDirectory(dir)) {
+            System.err.println("error: artifacts directory not found: " + artifacts);
+            System.exit(1);
+        }
+
+        List<ModuleResult> modules = collect(dir, Runtime.getRuntime().availableProcessors());
+        try {
+            if (modules.isEmpty()) {
+                System.err.println("warn: no testng-results.xml found under " + artifacts);
+            }
+            try (Writer w = Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+                renderHtml(modules, opts.getOrDefault("--run-id", ""), opts.getOrDefault("--branch", ""),
+                    opts.getOrDefault("--repo", "Egalvanic/eg-pz-mobile-iOS"), w);
+            }
+            if (opts.containsKey("--summary")) {
+                writeSummary(modules, Path.of(opts.get("--summary")));
+            }
+        } finally {
+            deleteSpills(modules);
+        }
+
+        int passed = 0, failed = 0, skipped = 0;
+        for (ModuleResult m : modules) {
+            passed += m.passed();
+            failed += m.failed();
+            skipped += m.skipped();
+        }
+        System.out.printf("Wrote %s (%,d bytes)%n", output, Files.size(Path.of(output)));
+        System.out.printf("Modules: %d | Tests: %d | Pass: %d | Fail: %d | Skip: %d%n",
+            modules.size(), passed + failed + skipped, passed, failed, skipped);
+    }
+
+    // ================================================================
+    // COLLECT — parallel StAX, rows spilled to disk
+    // ================================================================
+
+    /** Parse every testng-results.xml under {@code artifactsDir} on {@code threads} threads, in path order. */
+    public static List<ModuleResult> collect(Path artifactsDir, int threads) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(artifactsDir)) {
+            files = walk.filter(p -> p.getFileName().toString().equals("testng-results.xml"))
+                .filter(p -> artifactsDir.relativize(p).getNameCount() > 1)
+                .sorted()
+                .toList();
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "report-parse");
+            t.setDaemon(true);
+            return t;
+        });
+        List<ModuleResult> out = new ArrayList<>();
+        try {
+            List<Future<ModuleResult>> pending = new ArrayList<>();
+            for (Path xml : files) {
+                String dirName = artifactsDir.relativize(xml).getName(0).toString();
+                String module = MODULE_NAMES.getOrDefault(dirName, dirName);
+                pending.add(pool.submit(() -> parse(xml, module)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    out.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    System.err.println("warn: skip " + files.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return out;
+    }
+
+    /** Stream one results file into a spill of summary rows. Config methods are left out, as in the TestNG totals. */
+    static ModuleResult parse(Path xml, String module) throws IOException, XMLStreamException {
+        Path spill = Files.createTempFile("consolidated-", ".tsv");
+        int passed = 0, failed = 0, skipped = 0;
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try (InputStream in = Files.newInputStream(xml);
+             BufferedWriter w = Files.newBufferedWriter(spill, StandardCharsets.UTF_8)) {
+            XMLStreamReader r = factory.createXMLStreamReader(in);
+            String className = "";
+            String method = null;
+            String status = null;
+            String duration = null;
+            String exception = null;
+            String message = null;
+            boolean inMessage = false;
+            boolean cached = false;
+            StringBuilder line = null;
+            while (r.hasNext()) {
+                int event = r.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (r.getLocalName()) {
+                        case "class" -> className = attr(r, "name", "");
+                        case "test-method" -> {
+                            if (!"true".equals(r.getAttributeValue(null, "is-config"))) {
+                                method = attr(r, "name", "?");
+                                status = attr(r, "status", "?");
+                                duration = attr(r, "duration-ms", "0");
+                                exception = null;
+                                message = null;
+                                cached = false;
+                            }
+                        }
+                        case "exception" -> {
+                            if (method != null) exception = attr(r, "class", "");
+                        }
+                        case "message" -> inMessage = method != null && message == null;
+                        case "line" -> line = method != null ? new StringBuilder() : null;
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    // Only the first line feeds the signature — don't buffer a whole stack dump.
+                    if (inMessage && (message == null || message.length() < 512)) {
+                        message = (message == null ? "" : message) + r.getText();
+                    }
+                    if (line != null && line.length() < CACHED_MARKER.length()) {
+                        line.append(r.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = r.getLocalName();
+                    if ("message".equals(name)) {
+                        inMessage = false;
+                        if (message == null) message = "";
+                    } else if ("line".equals(name) && line != null) {
+                        cached |= line.toString().strip().startsWith(CACHED_MARKER.strip());
+                        line = null;
+                    } else if ("test-method".equals(name) && method != null) {
+                        if (cached && "PASS".equals(status)) {
+                            status = "CACHED";
+                        }
+                        switch (status) {
+                            case "PASS", "CACHED" -> passed++;
+                            case "FAIL" -> failed++;
+                            default -> skipped++;
+                        }
+                        w.write(row(module, className, method, status, duration, signature(exception, message)));
+                        method = null;
+                    }
+                }
+            }
+            r.close();
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            Files.deleteIfExists(spill);
+            throw e;
+        }
+        return new ModuleResult(module, spill, passed, failed, skipped);
+    }
+
+    /**
+     * Exception class plus the first message line with ids, counts and hex addresses
+     * blanked, so one root cause across jobs groups to one signature.
+     */
+    static String signature(String exceptionClass, String message) {
+        if (exceptionClass == null || exceptionClass.isEmpty()) {
+            return "";
+        }
+        String first = message == null ? "" : message.strip().lines().findFirst().orElse("");
+        first = VOLATILE.matcher(first).replaceAll("#");
+        if (first.length() > 160) {
+            first = first.substring(0, 160);
+        }
+        return first.isEmpty() ? exceptionClass : exceptionClass + ": " + first;
+    }
+
+    // ================================================================
+    // OUTPUT — streamed from the spills
+    // ================================================================
+
+    /** The machine-readable summary: {@link #SUMMARY_HEADER}, then every row, tab-separated. */
+    public static void writeSummary(List<ModuleResult> modules, Path out) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write(SUMMARY_HEADER);
+            w.newLine();
+            for (ModuleResult m : modules) {
+                try (BufferedReader r = Files.newBufferedReader(m.spill(), StandardCharsets.UTF_8)) {
+                    r.transferTo(w);
+                }
+            }
+        }
+    }
+
+    public static void deleteSpills(List<ModuleResult> modules) {
+        for (ModuleResult m : modules) {
+            try {
+                Files.deleteIfExists(m.spill());
+            } catch (IOException ignored) {
+                // temp dir cleanup reclaims it
+            }
+        }
+    }
+
+    /** The consolidated client report (same template as the Python generator), written incrementally. */
+    public static void renderHtml(List<ModuleResult> modules, String runId, String branch, String repo, Writer w)
+            throws IOException {
+        int total = 0, passed = 0, failed = 0, skipped = 0;
+        for (ModuleResult m : modules) {
+            total += m.total();
+            passed += m.passed();
+            failed += m.failed();
+            skipped += m.skipped();
+        }
+        double passPct = 100.0 * passed / Math.max(total, 1);
+        String timestamp = ZonedDateTime.now(ZoneOffset.UTC)
+            .format(DateTimeFormatter.ofPattern("MMMM dd, yyyy HH:mm 'UTC'", Locale.ENGLISH));
+        String runUrl = runId.isEmpty() ? "" : "https://github.com/" + repo + "/actions/runs/" + runId;
+
+        w.write(HEAD);
+        w.write("    <div class=\"subtitle\">Consolidated Report &bull; " + timestamp
+            + " &bull; Run #" + esc(runId) + " &bull; Branch " + esc(branch) + "</div>\n");
+        w.write("  </div>\n</div>\n<div class=\"container\">\n");
+        w.write("  <div class=\"summary-cards\">\n"
+            + "    <div class=\"summary-card total\"><div class=\"number\">" + total + "</div><div class=\"label\">Total Tests</div></div>\n"
+            + "    <div class=\"summary-card passed\"><div class=\"number\">" + passed + "</div><div class=\"label\">Passed</div></div>\n"
+            + "    <div class=\"summary-card failed\"><div class=\"number\">" + failed + "</div><div class=\"label\">Failed</div></div>\n"
+            + "    <div class=\"summary-card skipped\"><div class=\"number\">" + skipped + "</div><div class=\"label\">Skipped</div></div>\n"
+            + "  </div>\n"
+            + "  <div class=\"progress-container\">\n"
+            + "    <div class=\"progress-bar\"><div class=\"progress-fill\" style=\"width:" + pct(passPct) + "%\"></div></div>\n"
+            + "    <div class=\"progress-label\">" + pct(passPct) + "% pass rate</div>\n"
+            + "  </div>\n"
+            + "  <div class=\"modules\">\n");
+
+        for (ModuleResult m : modules) {
+            boolean expanded = m.failed() > 0;
+            StringBuilder badges = new StringBuilder();
+            if (m.passed() > 0) badges.append("<span class=\"module-badge pass\">").append(m.passed()).append(" passed</span>");
+            if (m.failed() > 0) badges.append("<span class=\"module-badge fail\">").append(m.failed()).append(" failed</span>");
+            if (m.skipped() > 0) badges.append("<span class=\"module-badge skip\">").append(m.skipped()).append(" skipped</span>");
+            w.write("    <div class=\"module-section" + (expanded ? " has-fail" : "") + "\">\n");
+            w.write("      <div class=\"module-header\" onclick=\"toggleModule(this)\" data-expanded=\"" + expanded + "\">\n");
+            w.write("        <span class=\"module-arrow\">&#9654;</span>\n");
+            w.write("        <span class=\"module-name\">" + esc(m.module()) + "</span>\n");
+            w.write("        " + badges + "\n");
+            w.write("      </div>\n");
+            w.write("      <div class=\"module-tests\" style=\"display:" + (expanded ? "block" : "none") + "\">\n");
+            try (BufferedReader r = Files.newBufferedReader(m.spill(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    List<String> cells = cells(line);
+                    String status = cells.get(3);
+                    String badge = "PASS".equals(status) || "FAIL".equals(status) || "CACHED".equals(status)
+                        ? status : "SKIP";
+                    String cls = "CACHED".equals(status) ? "pass" : status.toLowerCase(Locale.ROOT);
+                    w.write("        <div class=\"test-row " + cls + "\">\n");
+                    w.write("          <span class=\"test-name\">" + esc(prettify(cells.get(2))) + "</span>\n");
+                    w.write("          <span class=\"test-meta\">\n");
+                    w.write("            <span class=\"test-duration\">" + formatDuration(parseLong(cells.get(4))) + "</span>\n");
+                    w.write("            <span class=\"test-badge " + cls + "\">" + badge + "</span>\n");
+                    w.write("          </span>\n");
+                    w.write("        </div>\n");
+                }
+            }
+            w.write("      </div>\n");
+            w.write("    </div>\n\n");
+        }
+
+        w.write("  </div>\n</div>\n<div class=\"footer\">\n"
+            + "  eGalvanic iOS QA Automation &bull; <a href=\"" + runUrl + "\">Run #" + esc(runId) + "</a> &bull; Generated " + timestamp + "\n"
+            + "</div>\n" + SCRIPT);
+    }
+
+    /** {@code TC_ISS_001_verifyXxxYyy} → {@code TC_ISS_001 — Verify Xxx Yyy}. */
+    static String prettify(String methodName) {
+        Matcher m = TC_ID.matcher(methodName);
+        if (!m.matches()) {
+            m = UPPER_ID.matcher(methodName);
+            if (!m.matches()) {
+                return methodName;
+            }
+        }
+        String spaced = CAMEL.matcher(m.group(2)).replaceAll("$1 $2");
+        return m.group(1) + " \u2014 " + spaced.substring(0, 1).toUpperCase(Locale.ROOT) + spaced.substring(1);
+    }
+
+    static String formatDuration(long ms) {
+        if (ms == 0) {
+            return "0ms";
+        }
+        double s = ms / 1000.0;
+        if (s < 60) {
+            return String.format(Locale.ROOT, "%.0fs", s);
+        }
+        long minutes = (long) s / 60, secs = (long) s % 60;
+        if (minutes < 60) {
+            return minutes + "m " + secs + "s";
+        }
+        return (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+
+    // ================================================================
+    // HELPERS
+    // ================================================================
+
+    private static String attr(XMLStreamReader r, String name, String fallback) {
+        String v = r.getAttributeValue(null, name);
+        return v == null ? fallback : v;
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String pct(double v) {
+        return String.format(Locale.ROOT, "%.1f", v);
+    }
+
+    /** One tab-separated row; tabs, newlines and backslashes inside a cell are escaped. */
+    static String row(String... cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) sb.append('\t');
+            sb.append(cells[i].replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", ""));
+        }
+        return sb.append('\n').toString();
+    }
+
+    static List<String> cells(String line) {
+        List<String> out = new ArrayList<>(6);
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char n = line.charAt(++i);
+                cell.append(n == 't' ? '\t' : n == 'n' ? '\n' : n);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+        return out;
+    }
+
+    private static String esc(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+            .replace("\"", "&quot;").replace("'", "&#x27;");
+    }
+
+    private static final String HEAD = """
+        <!DOCTYPE html>
+        <html lang="en">
+        <head>
+        <meta charset="UTF-8">
+        <meta name="viewport" content="width=device-width, initial-scale=1.0">
+        <title>eGalvanic iOS - Consolidated Test Report</title>
+        <style>
+          * { margin: 0; padding: 0; box-sizing: border-box; }
+          body { font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, Arial, sans-serif; background: #f0f0f0; color: #333; }
+          .header { background: linear-gradient(135deg, #1a5c2e, #2d8a4e); color: #fff; padding: 25px 40px; }
+          .header h1 { font-size: 22px; font-weight: 600; margin-bottom: 5px; }
+          .header .subtitle { font-size: 13px; opacity: 0.85; }
+          .container { max-width: 1200px; margin: 0 auto; padding: 0 20px; }
+          .summary-cards { display: flex; gap: 0; margin: 25px 20px; }
+          .summary-card { flex: 1; padding: 25px 20px; text-align: center; background: #fff; border: 1px solid #e0e0e0; }
+          .summary-card:first-child { border-radius: 8px 0 0 8px; }
+          .summary-card:last-child { border-radius: 0 8px 8px 0; }
+          .summary-card .number { font-size: 36px; font-weight: 700; }
+          .summary-card .label { font-size: 12px; text-transform: uppercase; letter-spacing: 1.5px; color: #888; margin-top: 5px; }
+          .summary-card.total { background: #e8f4fd; }
+          .summary-card.total .number { color: #2c3e50; }
+          .summary-card.passed { background: #e8f8e8; }
+          .summary-card.passed .number { color: #27ae60; }
+          .summary-card.failed { background: #fde8e8; }
+          .summary-card.failed .number { color: #e74c3c; }
+          .summary-card.skipped { background: #fef9e7; }
+          .summary-card.skipped .number { color: #f39c12; }
+          .progress-container { margin: 0 20px 25px; }
+          .progress-bar { height: 14px; background: #e0e0e0; border-radius: 7px; overflow: hidden; }
+          .progress-fill { height: 100%; background: linear-gradient(90deg, #27ae60, #2ecc71); border-radius: 7px; }
+          .progress-label { text-align: right; font-size: 13px; color: #666; margin-top: 5px; }
+          .modules { margin: 0 20px 30px; }
+          .module-section { background: #fff; border-left: 4px solid #27ae60; margin-bottom: 8px; border-radius: 4px; box-shadow: 0 1px 3px rgba(0,0,0,0.08); }
+          .module-section.has-fail { border-left-color: #e74c3c; }
+          .module-header { padding: 15px 20px; cursor: pointer; display: flex; align-items: center; gap: 12px; user-select: none; }
+          .module-header:hover { background: #f8f9fa; }
+          .module-arrow { font-size: 10px; color: #999; transition: transform 0.2s; display: inline-block; width: 16px; }
+          .module-header[data-expanded="true"] .module-arrow { transform: rotate(90deg); }
+          .module-name { font-size: 16px; font-weight: 600; color: #2c3e50; flex: 1; }
+          .module-badge { display: inline-block; padding: 4px 14px; border-radius: 20px; font-size: 12px; font-weight: 600; margin-left: 6px; }
+          .module-badge.pass { background: #d4edda; color: #155724; }
+          .module-badge.fail { background: #f8d7da; color: #721c24; }
+          .module-badge.skip { background: #fff3cd; color: #856404; }
+          .module-tests { padding: 0 20px 10px 48px; }
+          .test-row { display: flex; justify-content: space-between; align-items: center; padding: 8px 12px; border-bottom: 1px solid #f0f0f0; font-size: 14px; }
+          .test-row:last-child { border-bottom: none; }
+          .test-row:hover { background: #f8f9fa; }
+          .test-name { flex: 1; color: #444; }
+          .test-meta { display: flex; align-items: center; gap: 12px; }
+          .test-duration { font-size: 12px; color: #999; }
+          .test-badge { display: inline-block; padding: 3px 12px; border-radius: 4px; font-size: 11px; font-weight: 700; letter-spacing: 0.5px; min-width: 50px; text-align: center; }
+          .test-badge.pass { background: #27ae60; color: #fff; }
+          .test-badge.fail { background: #e74c3c; color: #fff; }
+          .test-badge.skip { background: #f39c12; color: #fff; }
+          .footer { text-align: center; padding: 20px; font-size: 12px; color: #999; }
+          @media print { .module-tests { display: block !important; } .module-header { cursor: default; } }
+        </style>
+        </head>
+        <body>
+        <div class="header">
+          <div class="container">
+            <h1>eGalvanic iOS Automation - Test Results</h1>
+        """;
+
+    private static final String SCRIPT = """
+        <script>
+        function toggleModule(header) {
+          var tests = header.nextElementSibling;
+          var expanded = header.getAttribute('data-expanded') === 'true';
+          if (expanded) { tests.style.display = 'none'; header.setAttribute('data-expanded', 'false'); }
+          else { tests.style.display = 'block'; header.setAttribute('data-expanded', 'true'); }
+        }
+        </script>
+        </body>
+        </html>
+        """;
+}
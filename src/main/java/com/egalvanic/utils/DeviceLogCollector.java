@@ -0,0 +1,272 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the device log into a bounded per-JVM ring so crash triage never waits
+ * on a log fetch.
+ *
+ * Forensics used to pull the ENTIRE syslog at crash time (tens of thousands of
+ * lines after a long session, through a possibly wedged WDA) and print the last
+ * 40 to stdout, where nobody looking at the report saw them. Now a daemon drains
+ * "syslog" and "crashlog" incrementally every DEVICE_LOG_POLL_MS — Appium hands
+ * out only the entries since the previous call, so each poll is small — into a
+ * ring of DEVICE_LOG_RING_LINES lines:
+ *   - BaseTest marks each test's start; a FAILED test gets the slice from its
+ *     marker attached to the report (passing tests attach nothing);
+ *   - lines matching a crash signature ({@link #CRASH_SIGNATURE}) are indexed
+ *     and printed the moment they arrive, so "why did it die" is answered
+ *     before the test has even noticed. Only lines that name the app's process
+ *     or bundle id count: the syslog is the whole device's, and every daemon
+ *     logs its own watchdog and exception chatter;
+ *   - crash forensics read the ring's tail ({@link #recentLines}).
+ * A poll that finds a command of the test in flight is skipped, as in
+ * WdaHealthMonitor: Appium serves one command per session, so the getLog would
+ * queue behind it. Fetches run under {@link CommandDeadline#probe}, so one that
+ * still times out does not mark the session suspect.
+ *
+ * The ring logic is driver-free: the injectable constructor takes a plain line
+ * source, which is what the self-test feeds.
+ */
+public final class DeviceLogCollector {
+
+    /** Lines that explain a crash: Mach exceptions, uncaught-exception terminations, watchdog kills. */
+    static final Pattern CRASH_SIGNATURE = Pattern.compile(
+        "EXC_[A-Z_]+|Terminating app|[Ww]atchdog|Fatal error:|SIGABRT|SIGSEGV|Exception Type:");
+    /** Most lines a failure slice attaches (the end of the test is what matters). */
+    public static final int SLICE_LINES = 400;
+    private static final int MAX_SIGNATURES = 200;
+    private static final long FETCH_BUDGET_MS = 5_000;
+    private static final List<String> LOG_TYPES = List.of("syslog", "crashlog");
+
+    private record Entry(long seq, String line) {}
+
+    private final Supplier<List<String>> source;
+    private final int capacity;
+    private final List<String> app;
+    private final BooleanSupplier busy;
+    private final Deque<Entry> ring = new ArrayDeque<>();
+    private final Deque<Entry> signatures = new ArrayDeque<>();
+    private long nextSeq = 0;
+    private long skipped = 0;
+
+    private static volatile DeviceLogCollector instance;
+    private static ScheduledExecutorService poller;
+    // Set in setup, read in teardown: not a ThreadLocal, the two may run on different
+    // threads (timeOut), and one test runs at a time per JVM.
+    private static volatile Long testMark;
+
+    /** Seam for driver-free self-tests: {@code source} returns the lines that arrived since its last call. */
+    public DeviceLogCollector(Supplier<List<String>> source, int capacity) {
+        this(source, capacity, appIdentities(), () -> false);
+    }
+
+    /**
+     * As above; a crash signature counts only on a line containing one of {@code app}
+     * (process name, bundle id), and no poll drains {@code source} while {@code busy}.
+     */
+    public DeviceLogCollector(Supplier<List<String>> source, int capacity, List<String> app, BooleanSupplier busy) {
+        this.source = source;
+        this.capacity = Math.max(1, capacity);
+        this.app = List.copyOf(app);
+        this.busy = busy;
+    }
+
+    private static List<String> appIdentities() {
+        return List.of(AppConstants.APP_PROCESS_NAME, AppConstants.APP_BUNDLE_ID);
+    }
+
+    // ================================================================
+    // COLLECTOR (static, one per JVM — like WdaHealthMonitor)
+    // ================================================================
+
+    /** Start draining the device log once per JVM. Safe to call every setup. */
+    public static synchronized void ensureRunning() {
+        int interval = AppConstants.DEVICE_LOG_POLL_MS;
+        if (interval <= 0 || poller != null) {
+            return;
+        }
+        instance = new DeviceLogCollector(DeviceLogCollector::fetchLive, AppConstants.DEVICE_LOG_RING_LINES,
+            appIdentities(), CommandDeadline::isSessionBusy);
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "device-log");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                instance.pollOnce();
+            } catch (Throwable t) {
+                System.out.println("⚠️ Device log collector error: " + t.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        System.out.println("📜 Device log collector running (every " + interval + "ms, ring "
+            + AppConstants.DEVICE_LOG_RING_LINES + " lines)");
+    }
+
+    /** Test seam: {@code c} stands in for the running collector (null = off), no poller. */
+    public static void configureForTest(DeviceLogCollector c) {
+        instance = c;
+        testMark = null;
+    }
+
+    /** BaseTest.testSetup: everything after this marker belongs to the test about to run. */
+    public static void markTestStart(String testName) {
+        DeviceLogCollector c = instance;
+        testMark = c == null ? null : c.mark("test start: " + testName);
+    }
+
+    /**
+     * The running test's log (from its marker, at most {@link #SLICE_LINES}) for a failure
+     * report. {@code fetch} = drain what arrived since the last poll first — pass false
+     * when the session is dead, so teardown makes no HTTP call. Empty when the collector is off.
+     */
+    public static List<String> testSlice(boolean fetch) {
+        DeviceLogCollector c = instance;
+        Long mark = testMark;
+        if (c == null || mark == null) {
+            return List.of();
+        }
+        if (fetch) {
+            c.pollOnce();
+        }
+        return c.since(mark, SLICE_LINES);
+    }
+
+    /** Crash signatures seen since the running test's marker. */
+    public static List<String> testCrashSignatures() {
+        DeviceLogCollector c = instance;
+        Long mark = testMark;
+        return c == null || mark == null ? List.of() : c.signaturesSince(mark);
+    }
+
+    /**
+     * The last {@code n} device-log lines, for crash forensics: the ring's tail when the
+     * collector runs (after one small incremental drain), else one full fetch as before.
+     */
+    public static List<String> recentLines(int n) {
+        DeviceLogCollector c = instance;
+        if (c != null) {
+            c.pollOnce();
+            return c.tail(n);
+        }
+        List<String> lines = fetchLive();
+        return lines.subList(Math.max(0, lines.size() - n), lines.size());
+    }
+
+    private static List<String> fetchLive() {
+        if (!DriverManager.isDriverActive()) {
+            return List.of();
+        }
+        List<String> out = new ArrayList<>();
+        try (CommandDeadline.Scope budget = CommandDeadline.probe(FETCH_BUDGET_MS)) {
+            var logs = DriverManager.getDriver().manage().logs();
+            for (String type : LOG_TYPES) {
+                try {
+                    String prefix = "syslog".equals(type) ? "" : "[" + type + "] ";
+                    logs.get(type).forEach(e -> out.add(prefix + e.getMessage()));
+                } catch (Exception ignored) {
+                    // type not offered by this driver/simulator — the other still counts
+                }
+            }
+        } catch (Exception ignored) {
+            // no session / wedged — try again next poll
+        }
+        return out;
+    }
+
+    // ================================================================
+    // RING (driver-free)
+    // ================================================================
+
+    /** Drain the source once into the ring (skipped while a command of the test is in flight). */
+    public void pollOnce() {
+        if (busy.getAsBoolean()) {
+            synchronized (this) {
+                skipped++;
+            }
+            return;
+        }
+        List<String> lines = source.get();
+        if (lines == null || lines.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (String line : lines) {
+                Entry e = append(line);
+                if (isAppCrashSignature(line)) {
+                    signatures.addLast(e);
+                    while (signatures.size() > MAX_SIGNATURES) {
+                        signatures.removeFirst();
+                    }
+                    System.out.println("🧨 Device log crash signature: " + line);
+                }
+            }
+        }
+    }
+
+    private boolean isAppCrashSignature(String line) {
+        if (!CRASH_SIGNATURE.matcher(line).find()) {
+            return false;
+        }
+        for (String id : app) {
+            if (!id.isEmpty() && line.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Insert a marker line; returns its sequence number for {@link #since}. */
+    public synchronized long mark(String label) {
+        return append("──── " + label + " ────").seq();
+    }
+
+    /** Lines from the marker {@code seq} on (the last {@code max} of them; the marker if still held). */
+    public synchronized List<String> since(long seq, int max) {
+        List<String> out = new ArrayList<>();
+        for (Entry e : ring) {
+            if (e.seq() >= seq) {
+                out.add(e.line());
+            }
+        }
+        return out.size() <= max ? out : new ArrayList<>(out.subList(out.size() - max, out.size()));
+    }
+
+    public synchronized List<String> tail(int n) {
+        return since(Math.max(0, nextSeq - n), n);
+    }
+
+    public synchronized List<String> signaturesSince(long seq) {
+        return signatures.stream().filter(e -> e.seq() >= seq).map(Entry::line).toList();
+    }
+
+    public synchronized int size() {
+        return ring.size();
+    }
+
+    /** Polls skipped because a command of the test was in flight. */
+    public synchronized long skippedCount() {
+        return skipped;
+    }
+
+    private Entry append(String line) {
+        Entry e = new Entry(nextSeq++, line);
+        ring.addLast(e);
+        while (ring.size() > capacity) {
+            ring.removeFirst();
+        }
+        return e;
+    }
+}
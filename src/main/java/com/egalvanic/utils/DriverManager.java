@@ -4,10 +4,13 @@ import com.egalvanic.constants.AppConstants;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.appmanagement.ApplicationState;
 import io.appium.java_client.ios.options.XCUITestOptions;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.Response;
 import org.openqa.selenium.remote.http.ClientConfig;
 
 import java.net.URL;
 import java.time.Duration;
+import java.util.Set;
 
 /**
  * Driver Manager - Singleton driver management
@@ -23,6 +26,9 @@ public class DriverManager {
 
     private static volatile IOSDriver driver;
 
+    // Background monitors share the session; their commands are not the test's.
+    private static final Set<String> MONITOR_THREADS = Set.of("app-liveness", "device-log", "wda-health");
+
     // Override for noReset - allows test classes to skip app reinstall
     private static boolean noResetOverride = false;
     private static boolean useNoResetOverride = false;
@@ -63,7 +69,7 @@ public class DriverManager {
      */
     public static void forceWdaRebuildOnce() {
         forceWdaRebuild = true;
-        System.out.println("🔧 WDA rebuild armed for next initDriver (wedged-session recovery)");
+        Log.info("🔧 WDA rebuild armed for next initDriver (wedged-session recovery)");
     }
 
     /**
@@ -73,7 +79,7 @@ public class DriverManager {
     public static void setNoReset(boolean noReset) {
         noResetOverride = noReset;
         useNoResetOverride = true;
-        System.out.println("📱 noReset override set to: " + noReset);
+        Log.info("📱 noReset override set to: " + noReset);
     }
 
     /**
@@ -109,11 +115,11 @@ public class DriverManager {
         if (existingDriver != null) {
             try {
                 if (existingDriver.getSessionId() == null) {
-                    System.out.println("⚠️ Found dead driver session, removing...");
+                    Log.warn("⚠️ Found dead driver session, removing...");
                     driver = null;
                 }
             } catch (Exception e) {
-                System.out.println("⚠️ Stale driver detected, removing: " + e.getMessage());
+                Log.warn("⚠️ Stale driver detected, removing: " + e.getMessage());
                 driver = null;
             }
         }
@@ -131,6 +137,8 @@ public class DriverManager {
                         + " for this run after repeated rebuild failures. Test will be skipped and"
                         + " rerun on a fresh simulator (failed-suites/).");
             }
+            long initStart = System.nanoTime();
+            TraceTimeline.Span initSpan = TraceTimeline.span("driver init", "driver");
             try {
                 // Use parameters if provided, otherwise fall back to config defaults
                 String server = (appiumPort != null)
@@ -141,122 +149,25 @@ public class DriverManager {
 
                 URL appiumServer = new URL(server);
 
-                XCUITestOptions options = new XCUITestOptions();
-
-                // Platform Configuration
-                options.setPlatformName(AppConstants.PLATFORM_NAME);
-                options.setAutomationName(AppConstants.AUTOMATION_NAME);
-                options.setDeviceName(device);
-                options.setPlatformVersion(AppConstants.PLATFORM_VERSION);
-                options.setUdid(deviceUdid);
-                options.setApp(AppConstants.APP_PATH);
-
-                // Set WDA local port for parallel execution (prevents port conflicts)
-                if (wdaLocalPort != null) {
-                    options.setCapability("appium:wdaLocalPort", Integer.parseInt(wdaLocalPort));
-                }
-
-                // ========== WDA / LAUNCH TIMEOUTS (hang-capped for CI) ==========
-                // CI pre-boots the simulator and pre-builds + warms up WDA before any
-                // test runs, so the old worst-case budgets (10-min WDA launch, 5 WDA
-                // retries x 60s) only ever bought 15+ minute hangs on dead sessions.
-                // Healthy startups use seconds of these budgets.
-                // Simulator boot timeout - 3 minutes (CI sim is already booted)
-                options.setCapability("appium:simulatorBootTimeout", 180000);
-                // WDA launch timeout (build + start) - 6 minutes (first local run builds WDA)
-                options.setWdaLaunchTimeout(Duration.ofMillis(360000));
-                // WDA connection timeout - 3 minutes
-                options.setWdaConnectionTimeout(Duration.ofMillis(180000));
-                // App launch timeout - 3 minutes
-                options.setCapability("appium:launchTimeout", 180000);
-                // Command timeout - 10 minutes idle (for long operations)
-                options.setNewCommandTimeout(Duration.ofSeconds(600));
-                // HARD per-command ceiling: a findElements issued while SwiftUI is
-                // rebuilding a giant bleed-through DOM can block WDA indefinitely —
-                // tests then burn their entire 360s ThreadTimeout inside ONE call
-                // (TC_ATS_ST_04, 2026-07-30). Have Appium abort any proxied command
-                // after 150s so the test fails fast with a real error and teardown
-                // recovery gets a chance to run. WDA build/launch/install are
-                // governed by their own timeouts above, not this one.
-                options.setCapability("appium:commandTimeouts", "{\"default\": 150000}");
-
-                // WDA startup retries: 2 x 20s — a WDA that failed twice with a warm
-                // cache won't be saved by attempts 3-5; fail fast and re-init instead
-                options.setCapability("appium:wdaStartupRetries", 2);
-                options.setCapability("appium:wdaStartupRetryInterval", 20000);
-
-                // ========== PERFORMANCE OPTIMIZATIONS ==========
-                // Don't rebuild WDA each time (saves 60-90 seconds)
-                options.setUseNewWDA(false);
-                options.setCapability("appium:usePreinstalledWDA", false);
-
-                // Recovery path: a prior session wedged WDA and this is the retry —
-                // force a fresh WDA so we don't reconnect to the corpse. One-shot;
-                // costs ~30-60s here but avoids a 30-120 test skip cascade.
                 boolean rebuildWda = forceWdaRebuild;
                 forceWdaRebuild = false;
                 if (rebuildWda) {
-                    System.out.println("🔧 Rebuilding WebDriverAgent (useNewWDA=true) for wedged-session recovery");
-                    options.setUseNewWDA(true);
-                    options.setCapability("appium:usePreinstalledWDA", false);
-                    options.setCapability("appium:usePrebuiltWDA", false);
-                }
-
-                // ========== PREBUILT WDA CONSUMPTION (CI) ==========
-                // CI can build WebDriverAgent once per runner and point Appium at the
-                // bundle, skipping the per-session xcodebuild. Both env-overridable via
-                // AppConstants (USE_PREBUILT_WDA / WDA_DERIVED_DATA_PATH) and only set
-                // when configured, so local build-on-demand runs are unaffected.
-                if (AppConstants.USE_PREBUILT_WDA) {
-                    options.setCapability("appium:usePrebuiltWDA", true);
-                }
-                if (!AppConstants.WDA_DERIVED_DATA_PATH.isEmpty()) {
-                    options.setCapability("appium:derivedDataPath", AppConstants.WDA_DERIVED_DATA_PATH);
+                    Telemetry.WDA_REBUILDS.inc("trigger", "requested");
+                    initSpan.arg("useNewWDA", true);
                 }
-                // Don't wait for app to be idle (faster element detection)
-                options.setWaitForQuiescence(false);
-                options.setCapability("appium:shouldUseSingletonTestManager", false);
-                options.setCapability("appium:waitForIdleTimeout", 0);
-
-                // ========== SNAPSHOT / ANIMATION SPEED SETTINGS ==========
-                // These apply to EVERY element query, so they dominate suite time.
-                // All three are env-overridable via AppConstants for CI rollback.
-                // Don't wait (default 2s) for animations to settle before each snapshot
-                options.setCapability("appium:settings[animationCoolOffTimeout]",
-                        AppConstants.ANIMATION_COOLOFF_TIMEOUT);
-                // Cap single accessibility-snapshot resolution (default 15s)
-                options.setCapability("appium:settings[customSnapshotTimeout]",
-                        AppConstants.CUSTOM_SNAPSHOT_TIMEOUT);
-                // Trim snapshot tree depth 50 → 40 (cheaper page-source/predicate queries)
-                options.setCapability("appium:settings[snapshotMaxDepth]",
-                        AppConstants.SNAPSHOT_MAX_DEPTH);
-
-                // ========== ELEMENT VISIBILITY SETTINGS ==========
-                options.setCapability("appium:simpleIsVisibleCheck", true);
-                options.setCapability("appium:maxTypingFrequency", 60);
-
-                // ========== ALERT HANDLING ==========
-                options.setCapability("appium:autoAcceptAlerts", true);
-                options.setCapability("appium:autoDismissAlerts", false);
-
-                // ========== RESET BEHAVIOR (Configurable in AppConstants) ==========
-                // FULL_RESET=true: Clean install every test (slow but guaranteed clean state)
-                // FULL_RESET=false + NO_RESET=false: Clear app data only (fast, usually sufficient)
-                // NO_RESET=true: Keep all data (fastest, for Edit Asset tests)
                 boolean noReset = useNoResetOverride ? noResetOverride : AppConstants.NO_RESET;
-                options.setFullReset(AppConstants.FULL_RESET);
-                options.setNoReset(noReset);
+                XCUITestOptions options = buildOptions(device, deviceUdid, wdaLocalPort, rebuildWda, noReset);
 
-                System.out.println("📱 Reset Mode: fullReset=" + AppConstants.FULL_RESET + ", noReset=" + noReset);
+                Log.debug("📱 Reset Mode: fullReset=" + AppConstants.FULL_RESET + ", noReset=" + noReset);
 
-                System.out.println("📱 Initializing iOS Driver...");
-                System.out.println("📱 Device: " + device);
-                System.out.println("📱 UDID: " + deviceUdid);
-                System.out.println("📱 Platform Version: " + AppConstants.PLATFORM_VERSION);
-                System.out.println("📱 App Path: " + AppConstants.APP_PATH);
-                System.out.println("📱 Appium Server: " + server);
+                Log.info("📱 Initializing iOS Driver...");
+                Log.debug("📱 Device: " + device);
+                Log.debug("📱 UDID: " + deviceUdid);
+                Log.debug("📱 Platform Version: " + AppConstants.PLATFORM_VERSION);
+                Log.debug("📱 App Path: " + AppConstants.APP_PATH);
+                Log.debug("📱 Appium Server: " + server);
                 if (wdaLocalPort != null) {
-                    System.out.println("📱 WDA Local Port: " + wdaLocalPort);
+                    Log.debug("📱 WDA Local Port: " + wdaLocalPort);
                 }
 
                 // ========== HTTP CLIENT TIMEOUT (CRITICAL FOR HUNG-SESSION RECOVERY) ==========
@@ -285,7 +196,7 @@ public class DriverManager {
                 // retry regardless of caller. ~30-60s on the retry vs a 50-test cascade.
                 IOSDriver newDriver;
                 try {
-                    newDriver = new IOSDriver(httpConfig, options);
+                    newDriver = newSession(httpConfig, options, CommandDeadline.suite());
                 } catch (Exception firstErr) {
                     String em = firstErr.getMessage() == null ? "" : firstErr.getMessage();
                     boolean sessionCreationFailed = forceWdaRebuild
@@ -294,35 +205,202 @@ public class DriverManager {
                         || em.contains("xcodebuild")
                         || em.contains("Unable to launch");
                     if (!sessionCreationFailed) throw firstErr;
-                    System.out.println("🔧 Session creation failed — rebuilding WDA (useNewWDA=true) and retrying once: " + em);
+                    Log.info("🔧 Session creation failed — rebuilding WDA (useNewWDA=true) and retrying once: " + em);
                     forceWdaRebuild = false;
+                    Telemetry.WDA_REBUILDS.inc("trigger", "inline");
+                    TraceTimeline.instant("WDA rebuild", "wda", em, false);
                     options.setUseNewWDA(true);
                     options.setCapability("appium:usePreinstalledWDA", false);
                     options.setCapability("appium:usePrebuiltWDA", false);
                     try { Thread.sleep(2000); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
-                    newDriver = new IOSDriver(httpConfig, options); // if this throws, outer catch handles it (WDA now rebuilding for next test)
-                    System.out.println("✅ WDA rebuilt — session recovered");
+                    newDriver = newSession(httpConfig, options, CommandDeadline.suite()); // if this throws, outer catch handles it (WDA now rebuilding for next test)
+                    Log.info("✅ WDA rebuilt — session recovered");
                 }
                 newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(AppConstants.IMPLICIT_WAIT));
 
                 driver = newDriver;
+                CommandDeadline.clearSuspect(); // fresh session — nothing in flight
                 RunHealth.recordInitSuccess(); // healthy init resets the hopeless streak
                 // New session ⇒ possibly a clean install ⇒ in-app settings reset to
                 // defaults. Arm the post-install settings check (Session Recording OFF).
                 freshInstallCheckPending.set(true);
-                System.out.println("✅ iOS Driver initialized successfully");
+                Telemetry.DRIVER_INIT_SECONDS.observe(Telemetry.secondsSince(initStart), "outcome", "success");
+                Log.info("✅ iOS Driver initialized successfully");
 
             } catch (Exception e) {
                 // Feed the WDA-hopeless detector: N consecutive init failures => stop
                 // rebuilding a dead WDA per test for the rest of this run (RunHealth).
                 RunHealth.recordInitFailure();
+                Telemetry.DRIVER_INIT_FAILURES.inc();
+                Telemetry.DRIVER_INIT_SECONDS.observe(Telemetry.secondsSince(initStart), "outcome", "failure");
                 System.err.println("❌ Failed to initialize driver: " + e.getMessage());
                 e.printStackTrace();
                 throw new RuntimeException("Failed to initialize driver: " + e.getMessage(), e);
+            } finally {
+                initSpan.close();
             }
         }
     }
 
+    /**
+     * Session capabilities shared by the suite driver ({@link #initDriver}) and the
+     * exploration worker sessions ({@link #openWorkerSession}).
+     */
+    private static XCUITestOptions buildOptions(String device, String deviceUdid, String wdaLocalPort,
+                                                boolean rebuildWda, boolean noReset) {
+        XCUITestOptions options = new XCUITestOptions();
+
+        // Platform Configuration
+        options.setPlatformName(AppConstants.PLATFORM_NAME);
+        options.setAutomationName(AppConstants.AUTOMATION_NAME);
+        options.setDeviceName(device);
+        options.setPlatformVersion(AppConstants.PLATFORM_VERSION);
+        options.setUdid(deviceUdid);
+        options.setApp(AppConstants.APP_PATH);
+
+        // Set WDA local port for parallel execution (prevents port conflicts)
+        if (wdaLocalPort != null) {
+            options.setCapability("appium:wdaLocalPort", Integer.parseInt(wdaLocalPort));
+        }
+
+        // ========== WDA / LAUNCH TIMEOUTS (hang-capped for CI) ==========
+        // CI pre-boots the simulator and pre-builds + warms up WDA before any
+        // test runs, so the old worst-case budgets (10-min WDA launch, 5 WDA
+        // retries x 60s) only ever bought 15+ minute hangs on dead sessions.
+        // Healthy startups use seconds of these budgets.
+        // Simulator boot timeout - 3 minutes (CI sim is already booted)
+        options.setCapability("appium:simulatorBootTimeout", 180000);
+        // WDA launch timeout (build + start) - 6 minutes (first local run builds WDA)
+        options.setWdaLaunchTimeout(Duration.ofMillis(360000));
+        // WDA connection timeout - 3 minutes
+        options.setWdaConnectionTimeout(Duration.ofMillis(180000));
+        // App launch timeout - 3 minutes
+        options.setCapability("appium:launchTimeout", 180000);
+        // Command timeout - 10 minutes idle (for long operations)
+        options.setNewCommandTimeout(Duration.ofSeconds(600));
+        // HARD per-command ceiling: a findElements issued while SwiftUI is
+        // rebuilding a giant bleed-through DOM can block WDA indefinitely —
+        // tests then burn their entire 360s ThreadTimeout inside ONE call
+        // (TC_ATS_ST_04, 2026-07-30). Have Appium abort any proxied command
+        // after 150s so the test fails fast with a real error and teardown
+        // recovery gets a chance to run. WDA build/launch/install are
+        // governed by their own timeouts above, not this one.
+        options.setCapability("appium:commandTimeouts", "{\"default\": 150000}");
+
+        // WDA startup retries: 2 x 20s — a WDA that failed twice with a warm
+        // cache won't be saved by attempts 3-5; fail fast and re-init instead
+        options.setCapability("appium:wdaStartupRetries", 2);
+        options.setCapability("appium:wdaStartupRetryInterval", 20000);
+
+        // ========== PERFORMANCE OPTIMIZATIONS ==========
+        // Don't rebuild WDA each time (saves 60-90 seconds)
+        options.setUseNewWDA(false);
+        options.setCapability("appium:usePreinstalledWDA", false);
+
+        // Recovery path: a prior session wedged WDA and this is the retry —
+        // force a fresh WDA so we don't reconnect to the corpse. One-shot;
+        // costs ~30-60s here but avoids a 30-120 test skip cascade.
+        if (rebuildWda) {
+            Log.info("🔧 Rebuilding WebDriverAgent (useNewWDA=true) for wedged-session recovery");
+            options.setUseNewWDA(true);
+            options.setCapability("appium:usePreinstalledWDA", false);
+            options.setCapability("appium:usePrebuiltWDA", false);
+        }
+
+        // ========== PREBUILT WDA CONSUMPTION (CI) ==========
+        // CI can build WebDriverAgent once per runner and point Appium at the
+        // bundle, skipping the per-session xcodebuild. Both env-overridable via
+        // AppConstants (USE_PREBUILT_WDA / WDA_DERIVED_DATA_PATH) and only set
+        // when configured, so local build-on-demand runs are unaffected.
+        if (AppConstants.USE_PREBUILT_WDA) {
+            options.setCapability("appium:usePrebuiltWDA", true);
+        }
+        if (!AppConstants.WDA_DERIVED_DATA_PATH.isEmpty()) {
+            options.setCapability("appium:derivedDataPath", AppConstants.WDA_DERIVED_DATA_PATH);
+        }
+        // Don't wait for app to be idle (faster element detection)
+        options.setWaitForQuiescence(false);
+        options.setCapability("appium:shouldUseSingletonTestManager", false);
+        options.setCapability("appium:waitForIdleTimeout", 0);
+
+        // ========== SNAPSHOT / ANIMATION SPEED SETTINGS ==========
+        // These apply to EVERY element query, so they dominate suite time.
+        // All three are env-overridable via AppConstants for CI rollback.
+        // Don't wait (default 2s) for animations to settle before each snapshot
+        options.setCapability("appium:settings[animationCoolOffTimeout]",
+                AppConstants.ANIMATION_COOLOFF_TIMEOUT);
+        // Cap single accessibility-snapshot resolution (default 15s)
+        options.setCapability("appium:settings[customSnapshotTimeout]",
+                AppConstants.CUSTOM_SNAPSHOT_TIMEOUT);
+        // Trim snapshot tree depth 50 → 40 (cheaper page-source/predicate queries)
+        options.setCapability("appium:settings[snapshotMaxDepth]",
+                AppConstants.SNAPSHOT_MAX_DEPTH);
+
+        // ========== ELEMENT VISIBILITY SETTINGS ==========
+        options.setCapability("appium:simpleIsVisibleCheck", true);
+        options.setCapability("appium:maxTypingFrequency", 60);
+
+        // ========== ALERT HANDLING ==========
+        options.setCapability("appium:autoAcceptAlerts", true);
+        options.setCapability("appium:autoDismissAlerts", false);
+
+        // ========== RESET BEHAVIOR (Configurable in AppConstants) ==========
+        // FULL_RESET=true: Clean install every test (slow but guaranteed clean state)
+        // FULL_RESET=false + NO_RESET=false: Clear app data only (fast, usually sufficient)
+        // NO_RESET=true: Keep all data (fastest, for Edit Asset tests)
+        options.setFullReset(AppConstants.FULL_RESET);
+        options.setNoReset(noReset);
+        return options;
+    }
+
+    /**
+     * Create the IOSDriver with every command routed through a per-session
+     * {@link ElementCache}: repeated singular lookups on an unchanged screen are
+     * answered from the cache, and any screen-changing command advances the
+     * epoch. A fresh session gets a fresh cache (no reference survives a quit).
+     * Cache misses pass through {@link SnapshotProfiles} (per-screen snapshot
+     * depth/timeout) and then run under {@code deadlines} ({@link CommandDeadline}:
+     * the suite's session state, or a worker's own), so an in-flight command can
+     * never outlive the budget or test timeout around it.
+     * App lifecycle commands are noted for {@link AppLivenessWatchdog}; every test
+     * command is then observed ({@link #observeCommand}).
+     * With WIRE_RECORDING set, the HTTP traffic is recorded ({@link WireRecorder}).
+     */
+    private static IOSDriver newSession(ClientConfig httpConfig, XCUITestOptions options,
+                                        CommandDeadline.Session deadlines) {
+        ElementCache cache = new ElementCache(AppConstants.ELEMENT_CACHE);
+        SnapshotProfiles profiles = new SnapshotProfiles(AppConstants.SNAPSHOT_PROFILES);
+        return new IOSDriver(WireRecorder.attach(httpConfig), options) {
+            @Override
+            protected Response execute(CommandPayload payload) {
+                AppLivenessWatchdog.noteCommand(payload);
+                long t0 = System.nanoTime();
+                try {
+                    return cache.execute(payload, p -> profiles.execute(p, q -> deadlines.execute(q, super::execute)));
+                } finally {
+                    observeCommand(payload, t0);
+                }
+            }
+        };
+    }
+
+    /**
+     * A finished command, started at {@code startNanos}: its name and duration for the
+     * running test's {@link FlightRecorder} and, by command name, for {@link Telemetry};
+     * and a span, grouped by page-object caller, on the {@link TraceTimeline}. Commands
+     * from the background monitors (WDA heartbeat, liveness watchdog, device-log poller)
+     * are not the test's and are left out of all three.
+     */
+    public static void observeCommand(CommandPayload payload, long startNanos) {
+        if (MONITOR_THREADS.contains(Thread.currentThread().getName())) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        FlightRecorder.noteCommand(payload, nanos / 1_000_000);
+        Telemetry.COMMAND_SECONDS.observe(nanos / 1e9, "command", payload.getName());
+        TraceTimeline.command(payload.getName(), startNanos);
+    }
+
     /**
      * Get driver instance
      */
@@ -344,7 +422,7 @@ public class DriverManager {
             try {
                 String bundleId = AppConstants.APP_BUNDLE_ID;
                 d.terminateApp(bundleId);
-                System.out.println("✅ App terminated");
+                Log.info("✅ App terminated");
             } catch (Exception e) {
                 System.err.println("⚠️ Error terminating app: " + e.getMessage());
             }
@@ -376,22 +454,22 @@ public class DriverManager {
                         // Verify termination
                         ApplicationState newState = d.queryAppState(bundleId);
                         if (newState == ApplicationState.NOT_RUNNING) {
-                            System.out.println("✅ App terminated successfully");
+                            Log.info("✅ App terminated successfully");
                         } else {
-                            System.out.println("⚠️ App may still be running (state: " + newState + ")");
+                            Log.warn("⚠️ App may still be running (state: " + newState + ")");
                             // Try force terminate
                             d.terminateApp(bundleId);
                         }
                     } else {
-                        System.out.println("✅ App was not running");
+                        Log.info("✅ App was not running");
                     }
                 } catch (Exception e) {
-                    System.out.println("⚠️ Could not terminate app: " + e.getMessage());
+                    Log.warn("⚠️ Could not terminate app: " + e.getMessage());
                 }
 
                 // Step 2: Quit driver
                 d.quit();
-                System.out.println("✅ Driver closed successfully");
+                Log.info("✅ Driver closed successfully");
 
             } catch (Exception e) {
                 System.err.println("⚠️ Error closing driver: " + e.getMessage());
@@ -403,6 +481,7 @@ public class DriverManager {
                 }
             } finally {
                 driver = null;
+                CommandDeadline.clearSuspect();
             }
         }
     }
@@ -414,7 +493,94 @@ public class DriverManager {
      */
     public static void forceNullDriver() {
         driver = null;
-        System.out.println("🔌 Driver reference force-nulled (no Appium HTTP calls)");
+        CommandDeadline.clearSuspect();
+        Log.info("🔌 Driver reference force-nulled (no Appium HTTP calls)");
+    }
+
+    /**
+     * Open an ADDITIONAL session for a parallel exploration worker on another
+     * simulator. Same capabilities and command pipeline (element cache, snapshot
+     * profiles, command deadlines) as the suite driver, but the caller owns it:
+     * it is NOT stored in the static driver slot, the RunHealth counters are not
+     * fed, its deadline state (suspicion, aborts) is its own, and the caller must
+     * quit() it. noReset is forced on — a worker has no
+     * page objects to log in with, so its simulator must already hold a logged-in
+     * app (e.g. from a previous run on that device).
+     */
+    public static IOSDriver openWorkerSession(String deviceName, String udid, String appiumPort,
+                                              String wdaLocalPort) throws java.net.MalformedURLException {
+        String server = (appiumPort != null) ? "http://127.0.0.1:" + appiumPort : AppConstants.APPIUM_SERVER;
+        XCUITestOptions options = buildOptions(
+                (deviceName != null) ? deviceName : AppConstants.DEVICE_NAME,
+                (udid != null) ? udid : AppConstants.UDID,
+                wdaLocalPort, false, true);
+        ClientConfig httpConfig = ClientConfig.defaultConfig()
+                .baseUrl(new URL(server))
+                .connectionTimeout(Duration.ofSeconds(60))
+                .readTimeout(Duration.ofSeconds(90));
+        Log.info("📱 Opening exploration worker session: " + udid + " via " + server);
+        IOSDriver worker = newSession(httpConfig, options, new CommandDeadline.Session());
+        worker.manage().timeouts().implicitlyWait(Duration.ofSeconds(AppConstants.IMPLICIT_WAIT));
+        return worker;
+    }
+
+    /**
+     * Heavier recovery step for a half-open breaker canary whose first attempt
+     * (a plain WDA rebuild) already failed: shut the simulator down and boot it
+     * again, waiting for boot to finish. A wedged springboard / testmanagerd
+     * survives a WDA rebuild but not a reboot. Each simctl call is bounded so a
+     * stuck CoreSimulator cannot eat the canary's whole budget. Best-effort —
+     * returns false (and the canary then runs on whatever state is left) when
+     * simctl is missing or a step times out.
+     */
+    public static boolean resetSimulator(String udid) {
+        String target = (udid != null) ? udid : AppConstants.UDID;
+        Log.info("🔄 Resetting simulator " + target + " (shutdown + boot) for breaker recovery");
+        forceNullDriver();
+        simctl(60, "shutdown", target); // "already shut down" exits non-zero — fine
+        boolean booted = simctl(120, "boot", target) & simctl(180, "bootstatus", target, "-b");
+        Log.info(booted ? "✅ Simulator rebooted" : "⚠️ Simulator reboot incomplete — canary decides");
+        return booted;
+    }
+
+    private static boolean simctl(long timeoutSec, String... args) {
+        String[] cmd = new String[args.length + 2];
+        cmd[0] = "xcrun";
+        cmd[1] = "simctl";
+        System.arraycopy(args, 0, cmd, 2, args.length);
+        try {
+            Process p = new ProcessBuilder(cmd).inheritIO().start();
+            if (!p.waitFor(timeoutSec, java.util.concurrent.TimeUnit.SECONDS)) {
+                p.destroyForcibly();
+                Log.warn("⚠️ simctl " + args[0] + " timed out after " + timeoutSec + "s");
+                return false;
+            }
+            return p.exitValue() == 0;
+        } catch (Exception e) {
+            Log.warn("⚠️ simctl " + args[0] + " unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Bounded liveness probe for a SUSPECT session (a command was aborted at its
+     * deadline and may still be running inside WDA). One cheap queryAppState
+     * under a {@code budgetMs} deadline: answers => suspicion cleared and the
+     * session is reusable; no answer => treat as dead (caller force-nulls).
+     */
+    public static boolean respondsWithin(long budgetMs) {
+        IOSDriver d = driver;
+        if (d == null) {
+            return false;
+        }
+        try (CommandDeadline.Scope budget = CommandDeadline.within(budgetMs)) {
+            d.queryAppState(AppConstants.APP_BUNDLE_ID);
+            CommandDeadline.clearSuspect();
+            return true;
+        } catch (Exception e) {
+            Log.warn("⚠️ Suspect session did not answer within " + budgetMs + "ms: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -0,0 +1,260 @@
+package com.egalvanic.utils;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Screen-epoch element cache — one instance per Appium session.
+ *
+ * Page objects re-resolve the same locator over and over on a screen that has
+ * not changed: every AppiumFieldDecorator proxy access is a fresh findElement,
+ * and WorkOrderPage alone issues 1,000+ raw lookups, often the same locator
+ * several times within a few lines. Each one is a full WDA accessibility
+ * snapshot (100ms-10s on the bleed-through SwiftUI screens).
+ *
+ * The cache sits at the single choke point every command passes through
+ * (RemoteWebDriver.execute(CommandPayload), overridden by DriverManager), so
+ * PageFactory proxies, raw driver.findElement and element.findElement all
+ * benefit with ZERO call-site changes:
+ *
+ *   - A "screen epoch" counter advances on EVERY command that can change the
+ *     screen: element click/clear/sendKeys, W3C actions (tap/swipe/scroll),
+ *     executeScript (mobile: tap/swipe/...), navigation, app activate/terminate,
+ *     alert accept/dismiss — anything not on the read-only allow-list below.
+ *     Unknown commands advance the epoch (correctness over hit rate).
+ *   - Only SINGULAR successful lookups (findElement / findChildElement) are
+ *     cached, keyed by (command, strategy, selector, parent id) and stamped
+ *     with the epoch they were resolved in. A hit in the same epoch returns the
+ *     same RemoteWebElement without touching WDA.
+ *   - PLURAL lookups (findElements) are never cached: they are the polling
+ *     primitive of existsNow / isElementGone / Waits.until, whose whole point
+ *     is to observe a screen that changes WITHOUT a framework action (spinner
+ *     finishing, list loading). Misses (NoSuchElement) are never cached either.
+ *   - A StaleElementReferenceException on ANY command drops every entry, so
+ *     the caller's retry (BasePage.click already retries on stale) re-resolves
+ *     against WDA instead of being handed the same dead reference.
+ *
+ * Hit/miss/invalidation totals are JVM-wide (static, like RunHealth) and
+ * printed by BaseTest.suiteTeardown via {@link #summary()}.
+ *
+ * Kill switch: -DELEMENT_CACHE=false (AppConstants.ELEMENT_CACHE).
+ */
+public final class ElementCache {
+
+    // MobileCommand keeps the name protected. Cached like a lookup: only a
+    // switchToContext (which advances the epoch) can change the answer.
+    private static final String GET_CURRENT_CONTEXT = "getCurrentContextHandle";
+
+    // Commands that never change what is on screen. Everything else advances
+    // the epoch. Lookups themselves are on this list (a find must not
+    // invalidate the entry it is about to store).
+    private static final Set<String> READ_ONLY = Set.of(
+        DriverCommand.FIND_ELEMENT,
+        DriverCommand.FIND_ELEMENTS,
+        DriverCommand.FIND_CHILD_ELEMENT,
+        DriverCommand.FIND_CHILD_ELEMENTS,
+        DriverCommand.GET_ELEMENT_ATTRIBUTE,
+        DriverCommand.GET_ELEMENT_DOM_PROPERTY,
+        DriverCommand.GET_ELEMENT_DOM_ATTRIBUTE,
+        DriverCommand.GET_ELEMENT_TEXT,
+        DriverCommand.GET_ELEMENT_TAG_NAME,
+        DriverCommand.GET_ELEMENT_RECT,
+        DriverCommand.GET_ELEMENT_LOCATION,
+        DriverCommand.GET_ELEMENT_SIZE,
+        DriverCommand.IS_ELEMENT_DISPLAYED,
+        DriverCommand.IS_ELEMENT_ENABLED,
+        DriverCommand.IS_ELEMENT_SELECTED,
+        DriverCommand.ELEMENT_SCREENSHOT,
+        DriverCommand.SCREENSHOT,
+        DriverCommand.GET_PAGE_SOURCE,
+        DriverCommand.GET_CURRENT_WINDOW_SIZE,
+        DriverCommand.GET_CAPABILITIES,
+        DriverCommand.GET_ALERT_TEXT,
+        DriverCommand.SET_TIMEOUT,
+        DriverCommand.GET_TIMEOUTS,
+        DriverCommand.STATUS,
+        DriverCommand.GET_LOG,
+        DriverCommand.GET_AVAILABLE_LOG_TYPES,
+        "getSettings",
+        "setSettings",
+        // PageFactory proxies ask for the context before every lookup; counting that
+        // as a screen change made every annotated element a cache miss.
+        "getContextHandles",
+        "getScreenOrientation",
+        "getWindowSize",
+        "getWindowRect");
+
+    // executeScript payloads that only READ device/app state.
+    private static final Set<String> READ_ONLY_SCRIPTS = Set.of(
+        "mobile: queryAppState",
+        "mobile: activeAppInfo",
+        "mobile: deviceInfo",
+        "mobile: batteryInfo",
+        "mobile: getPasteboard",
+        "mobile: source",
+        "mobile: viewportRect",
+        "mobile: deviceScreenInfo");
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    // PageFactory's per-lookup context query: not an element lookup, so kept out
+    // of the hit rate (it would inflate it by a hit per annotated-element access).
+    private static final AtomicLong CONTEXT_HITS = new AtomicLong();
+    private static final AtomicLong CONTEXT_MISSES = new AtomicLong();
+    private static final AtomicLong INVALIDATIONS = new AtomicLong();
+
+    private final boolean enabled;
+    private final Map<String, Response> entries = new HashMap<>();
+    private long epoch;
+
+    public ElementCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Route one driver command through the cache. {@code real} performs the
+     * actual HTTP exchange (super.execute in DriverManager's IOSDriver).
+     */
+    public Response execute(CommandPayload payload, Function<CommandPayload, Response> real) {
+        if (!enabled) {
+            return real.apply(payload);
+        }
+        String name = payload.getName();
+        String key = cacheKey(name, payload.getParameters());
+        if (key != null) {
+            boolean context = GET_CURRENT_CONTEXT.equals(name);
+            synchronized (this) {
+                Response cached = entries.get(key);
+                if (cached != null) {
+                    (context ? CONTEXT_HITS : HITS).incrementAndGet();
+                    return cached;
+                }
+            }
+            (context ? CONTEXT_MISSES : MISSES).incrementAndGet();
+        } else if (!isReadOnly(name, payload.getParameters())) {
+            advanceEpoch();
+        }
+
+        long issuedIn = currentEpoch();
+        Response response;
+        try {
+            response = real.apply(payload);
+        } catch (StaleElementReferenceException e) {
+            invalidate();
+            throw e;
+        }
+
+        if (key != null && response != null && response.getValue() != null) {
+            synchronized (this) {
+                // An action that landed while this lookup was in flight (another
+                // thread) means the result may already describe the old screen.
+                if (issuedIn == epoch) {
+                    entries.put(key, response);
+                }
+            }
+        }
+        return response;
+    }
+
+    /** Screen changed (or may have): every cached reference is now suspect. */
+    public synchronized void advanceEpoch() {
+        epoch++;
+        entries.clear();
+    }
+
+    /** A cached reference went stale — drop everything and start a new epoch. */
+    public void invalidate() {
+        INVALIDATIONS.incrementAndGet();
+        advanceEpoch();
+    }
+
+    public synchronized long currentEpoch() {
+        return epoch;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static String cacheKey(String name, Map<String, ?> params) {
+        if (GET_CURRENT_CONTEXT.equals(name)) {
+            return name;
+        }
+        if (DriverCommand.FIND_ELEMENT.equals(name)) {
+            return name + "|" + params.get("using") + "|" + params.get("value");
+        }
+        if (DriverCommand.FIND_CHILD_ELEMENT.equals(name)) {
+            return name + "|" + params.get("id") + "|" + params.get("using") + "|" + params.get("value");
+        }
+        return null;
+    }
+
+    private static boolean isReadOnly(String name, Map<String, ?> params) {
+        if (READ_ONLY.contains(name)) {
+            return true;
+        }
+        if (DriverCommand.EXECUTE_SCRIPT.equals(name)) {
+            Object script = params.get("script");
+            return script != null && READ_ONLY_SCRIPTS.contains(script.toString().trim());
+        }
+        return false;
+    }
+
+    /**
+     * True when {@code name} may change what is on screen — the same rule that
+     * advances the epoch. FlightRecorder uses it as a free "did the screen move"
+     * fingerprint, whether or not the cache itself is enabled.
+     */
+    public static boolean mayChangeScreen(String name, Map<String, ?> params) {
+        return cacheKey(name, params) == null && !isReadOnly(name, params);
+    }
+
+    // ================================================================
+    // JVM-WIDE STATS
+    // ================================================================
+
+    public static long hits() {
+        return HITS.get();
+    }
+
+    public static long misses() {
+        return MISSES.get();
+    }
+
+    /** Context queries answered from the cache (not counted in {@link #hits()}). */
+    public static long contextHits() {
+        return CONTEXT_HITS.get();
+    }
+
+    public static long invalidations() {
+        return INVALIDATIONS.get();
+    }
+
+    /** One-line hit-rate summary for the suite log. */
+    public static String summary() {
+        long h = HITS.get();
+        long m = MISSES.get();
+        long total = h + m;
+        double rate = total == 0 ? 0.0 : (100.0 * h / total);
+        return String.format("element cache: %d lookups, %d hits (%.1f%%), %d misses, %d stale invalidations;"
+            + " %d context queries, %d cached", total, h, rate, m, INVALIDATIONS.get(),
+            CONTEXT_HITS.get() + CONTEXT_MISSES.get(), CONTEXT_HITS.get());
+    }
+
+    /** Test seam: zero the JVM-wide counters. */
+    public static void resetStats() {
+        HITS.set(0);
+        MISSES.set(0);
+        CONTEXT_HITS.set(0);
+        CONTEXT_MISSES.set(0);
+        INVALIDATIONS.set(0);
+    }
+}
@@ -11,6 +11,7 @@ import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,8 +31,13 @@ public class ExtentReportManager {
     private static ExtentReports detailedReport;
     private static ExtentReports clientReport;
     
-    private static ThreadLocal<ExtentTest> detailedTest = new ThreadLocal<>();
-    private static ThreadLocal<ExtentTest> clientTest = new ThreadLocal<>();
+    private static ThreadLocal<TestNodes> currentTest = new ThreadLocal<>();
+    // The test created last, for a thread that created none. GlobalTestTimeout gives
+    // every @Test a timeOut, so TestNG runs the body (which calls createTest) on a
+    // worker thread and @AfterMethod teardown on another: teardown's failure
+    // screenshots, flight recording and logs reach the test through this. One test
+    // runs at a time per JVM, as DriverManager's static driver already assumes.
+    private static volatile TestNodes latestTest;
     
     // Hierarchical nodes for Client Report
     private static Map<String, ExtentTest> clientModuleNodes = new HashMap<>();
@@ -45,6 +51,35 @@ public class ExtentReportManager {
         // Private constructor
     }
 
+    /** One test's node in each report and its Module > Feature > Test names. */
+    private static final class TestNodes {
+        final ExtentTest detailed;
+        final ExtentTest client;
+        final String[] names;
+
+        TestNodes(ExtentTest detailed, ExtentTest client, String[] names) {
+            this.detailed = detailed;
+            this.client = client;
+            this.names = names;
+        }
+    }
+
+    /** This thread's test, else the one created last (teardown after a timeOut body); null when none. */
+    private static TestNodes nodes() {
+        TestNodes own = currentTest.get();
+        return own != null ? own : latestTest;
+    }
+
+    private static ExtentTest detailed() {
+        TestNodes n = nodes();
+        return n == null ? null : n.detailed;
+    }
+
+    private static ExtentTest client() {
+        TestNodes n = nodes();
+        return n == null ? null : n.client;
+    }
+
     /**
      * Initialize both reports
      */
@@ -224,10 +259,53 @@ public class ExtentReportManager {
      * @param testName     e.g., "TC01 - Verify Select Site screen UI elements"
      */
     public static void createTest(String moduleName, String featureName, String testName) {
+        ExtentTest detailed = createNodes(moduleName, featureName, testName);
+
+        System.out.println("📋 Test created: " + moduleName + " > " + featureName + " > " + testName);
+
+        // Auto-screenshot the initial state at test creation. Embedded as an
+        // inline <img> data-URI (see inlineImgHtml) so the picture renders
+        // directly below the "Initial state" log row, not as a "base64 img" badge.
+        // With the flight recorder on it is the recording's first frame instead.
+        FlightRecorder.begin();
+        FlightRecorder recorder = FlightRecorder.current();
+        if (recorder != null) {
+            recorder.step("📸 Initial state");
+        } else if (!"false".equalsIgnoreCase(System.getProperty("screenshots.everyStep", "true"))) {
+            try {
+                detailed.log(Status.INFO,
+                    "📸 Initial state" + inlineImgHtml(ScreenshotUtil.getScreenshotAsBase64Compressed()));
+            } catch (Exception ignored) {}
+        }
+    }
+
+    /**
+     * A test whose PASS was reused from an earlier run (ResultCache): same
+     * Module > Feature > Test place as when it ran, PASS in both reports, the
+     * provenance in the Detailed report and a "Cached" category.
+     */
+    public static void createCachedTest(String moduleName, String featureName, String testName, String provenance) {
+        ExtentTest detailed = createNodes(moduleName, featureName, testName);
+        detailed.assignCategory("Cached");
+        detailed.log(Status.PASS, "♻️ " + provenance);
+        client().pass("PASS (cached)");
+    }
+
+    /** Module > Feature > Test names of the current test (see {@link #nodes()}), or null before createTest. */
+    public static String[] currentTestNames() {
+        TestNodes n = nodes();
+        return n == null ? null : n.names;
+    }
+
+    /** The current test's Detailed-report node (see {@link #nodes()}), or null before createTest. */
+    public static ExtentTest currentDetailedTest() {
+        return detailed();
+    }
+
+    private static ExtentTest createNodes(String moduleName, String featureName, String testName) {
         // === DETAILED REPORT: Flat test with categories ===
         ExtentTest detailed = detailedReport.createTest(testName);
         detailed.assignCategory(moduleName, featureName);
-        detailedTest.set(detailed);
         
         // === CLIENT REPORT: Hierarchical Module > Feature > Test ===
         // Get or create Module node
@@ -248,19 +326,10 @@ public class ExtentReportManager {
         
         // Create Test node under Feature
         ExtentTest testNode = featureNode.createNode(testName);
-        clientTest.set(testNode);
-
-        System.out.println("📋 Test created: " + moduleName + " > " + featureName + " > " + testName);
-
-        // Auto-screenshot the initial state at test creation. Embedded as an
-        // inline <img> data-URI (see inlineImgHtml) so the picture renders
-        // directly below the "Initial state" log row, not as a "base64 img" badge.
-        if (!"false".equalsIgnoreCase(System.getProperty("screenshots.everyStep", "true"))) {
-            try {
-                detailed.log(Status.INFO,
-                    "📸 Initial state" + inlineImgHtml(ScreenshotUtil.getScreenshotAsBase64Compressed()));
-            } catch (Exception ignored) {}
-        }
+        TestNodes nodes = new TestNodes(detailed, testNode, new String[] {moduleName, featureName, testName});
+        currentTest.set(nodes);
+        latestTest = nodes;
+        return detailed;
     }
 
     // ================================================================
@@ -271,7 +340,7 @@ public class ExtentReportManager {
      * Log info message (Detailed report only)
      */
     public static void logInfo(String message) {
-        ExtentTest test = detailedTest.get();
+        ExtentTest test = detailed();
         if (test != null) {
             test.log(Status.INFO, message);
         }
@@ -301,31 +370,100 @@ public class ExtentReportManager {
      * step message (not as a "base64 img" badge).
      */
     public static void logStepWithScreenshot(String step, String screenshotPath) {
-        ExtentTest test = detailedTest.get();
-        if (test == null) return;
-        test.log(Status.INFO, step + inlineImgHtml(ScreenshotUtil.getScreenshotAsBase64Compressed()));
+        logStepWithBase64Screenshot(step);
     }
 
     /**
      * Log step with Base64 screenshot directly - compressed JPEG for size.
      * Same inline-image rendering as logStepWithScreenshot.
+     * With the flight recorder on, the step is logged as text and its screenshot
+     * goes to the recording — encoded into the report only if the test fails.
      */
     public static void logStepWithBase64Screenshot(String step) {
-        ExtentTest test = detailedTest.get();
+        ExtentTest test = detailed();
         if (test == null) return;
+        FlightRecorder recorder = FlightRecorder.current();
+        if (recorder != null) {
+            recorder.step(step);
+            test.log(Status.INFO, step);
+            return;
+        }
         test.log(Status.INFO, step + inlineImgHtml(ScreenshotUtil.getScreenshotAsBase64Compressed()));
     }
 
+    /**
+     * Write the running test's flight recording into the Detailed report: the last
+     * frames as inline screenshots when {@code withFrames} (failed or kept test),
+     * always the one-line-per-step timeline, collapsed. Ends the recording.
+     */
+    public static void logFlightRecording(boolean withFrames) {
+        FlightRecorder recorder = FlightRecorder.current();
+        FlightRecorder.end();
+        ExtentTest test = detailed();
+        if (recorder == null || test == null) return;
+        if (withFrames) {
+            List<FlightRecorder.Frame> frames = recorder.frames();
+            byte[] previous = null;
+            String encoded = null;
+            for (int i = 0; i < frames.size(); i++) {
+                FlightRecorder.Frame f = frames.get(i);
+                if (f.png() != previous) { // a shared frame reuses the previous encoding
+                    previous = f.png();
+                    try {
+                        encoded = f.png() == null ? null : ScreenshotUtil.compressToBase64(f.png());
+                    } catch (Exception e) {
+                        encoded = null;
+                    }
+                }
+                test.log(Status.INFO, "🎞️ Frame " + (i + 1) + "/" + frames.size() + ": " + f.step()
+                    + (f.commands().isEmpty() ? "" : "<br/><small>" + escapeHtml(String.join(" · ", f.commands())) + "</small>")
+                    + inlineImgHtml(encoded));
+            }
+        }
+        List<String> timeline = recorder.timeline();
+        if (!timeline.isEmpty()) {
+            test.log(Status.INFO, "<details><summary>🕒 Step timeline (" + timeline.size() + " steps, "
+                + recorder.shots() + " screenshots)</summary><pre>" + escapeHtml(String.join("\n", timeline))
+                + "</pre></details>");
+        }
+    }
+
+    /**
+     * Attach a test's captured log (utils/Log — every level, timestamped) as one
+     * collapsed block (Detailed report only). BaseTest calls it for failed tests.
+     */
+    public static void logTestLog(List<String> lines) {
+        ExtentTest test = detailed();
+        if (test == null || lines.isEmpty()) return;
+        test.log(Status.INFO, "<details><summary>📜 Test log (" + lines.size() + " lines)</summary><pre>"
+            + escapeHtml(String.join("\n", lines)) + "</pre></details>");
+    }
+
+    private static String escapeHtml(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     /**
      * Log warning (Detailed report only)
      */
     public static void logWarning(String message) {
-        ExtentTest test = detailedTest.get();
+        ExtentTest test = detailed();
         if (test != null) {
             test.log(Status.WARNING, "⚠️ " + message);
         }
     }
 
+    /**
+     * Log a warning with a caller-supplied image (e.g. a visual-diff heatmap) rendered
+     * inline like a step screenshot (Detailed report only).
+     */
+    public static void logWarningWithImage(String message, String base64Png) {
+        ExtentTest test = detailed();
+        if (test != null) {
+            test.log(Status.WARNING, "⚠️ " + message + inlineImgHtml(base64Png));
+        }
+    }
+
     // ================================================================
     // RESULT METHODS - BOTH REPORTS
     // ================================================================
@@ -335,13 +473,13 @@ public class ExtentReportManager {
      */
     public static void logPass(String message) {
         // Detailed Report - Full message
-        ExtentTest detailed = detailedTest.get();
+        ExtentTest detailed = detailed();
         if (detailed != null) {
             detailed.log(Status.PASS, "✅ " + message);
         }
         
         // Client Report - Just PASS status (no message details)
-        ExtentTest client = clientTest.get();
+        ExtentTest client = client();
         if (client != null) {
             client.pass("PASS");
         }
@@ -352,13 +490,13 @@ public class ExtentReportManager {
      */
     public static void logFail(String message) {
         // Detailed Report - Full message
-        ExtentTest detailed = detailedTest.get();
+        ExtentTest detailed = detailed();
         if (detailed != null) {
             detailed.log(Status.FAIL, "❌ " + message);
         }
         
         // Client Report - Just FAIL status (no message details)
-        ExtentTest client = clientTest.get();
+        ExtentTest client = client();
         if (client != null) {
             client.fail("FAIL");
         }
@@ -369,7 +507,7 @@ public class ExtentReportManager {
      */
     public static void logFailWithScreenshot(String message, Throwable throwable) {
         // Detailed Report - Full details
-        ExtentTest detailed = detailedTest.get();
+        ExtentTest detailed = detailed();
         if (detailed != null) {
             // Embed the failure screenshot INLINE (data-URI <img>) so it renders
             // directly under the assertion message, not as a "base64 img" badge.
@@ -381,7 +519,7 @@ public class ExtentReportManager {
         }
         
         // Client Report - Just FAIL status
-        ExtentTest client = clientTest.get();
+        ExtentTest client = client();
         if (client != null) {
             client.fail("FAIL");
         }
@@ -392,13 +530,13 @@ public class ExtentReportManager {
      */
     public static void logSkip(String message) {
         // Detailed Report - Full message
-        ExtentTest detailed = detailedTest.get();
+        ExtentTest detailed = detailed();
         if (detailed != null) {
             detailed.log(Status.SKIP, "⏭️ " + message);
         }
         
         // Client Report - Just SKIP status
-        ExtentTest client = clientTest.get();
+        ExtentTest client = client();
         if (client != null) {
             client.skip("SKIP");
         }
@@ -412,7 +550,7 @@ public class ExtentReportManager {
      * Add category (Detailed report only)
      */
     public static void addCategory(String... categories) {
-        ExtentTest detailed = detailedTest.get();
+        ExtentTest detailed = detailed();
         if (detailed != null) {
             detailed.assignCategory(categories);
         }
@@ -424,24 +562,29 @@ public class ExtentReportManager {
     // ================================================================
 
     /**
-     * Remove thread-local tests
+     * Forget the current test (this thread's, and the shared one if it is the same)
      */
     public static void removeTests() {
-        detailedTest.remove();
-        clientTest.remove();
+        TestNodes n = nodes();
+        currentTest.remove();
+        if (n != null && latestTest == n) {
+            latestTest = null;
+        }
     }
 
     /**
      * Flush both reports and send email
      */
     public static void flushReports() {
-        if (detailedReport != null) {
-            detailedReport.flush();
-            System.out.println("📊 Detailed Report generated: " + detailedReportPath);
-        }
-        if (clientReport != null) {
-            clientReport.flush();
-            System.out.println("📊 Client Report generated: " + clientReportPath);
+        try (TraceTimeline.Span flush = TraceTimeline.span("report flush", "report")) {
+            if (detailedReport != null) {
+                detailedReport.flush();
+                System.out.println("📊 Detailed Report generated: " + detailedReportPath);
+            }
+            if (clientReport != null) {
+                clientReport.flush();
+                System.out.println("📊 Client Report generated: " + clientReportPath);
+            }
         }
         
         // Send email notification
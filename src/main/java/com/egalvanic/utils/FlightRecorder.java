@@ -0,0 +1,186 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.remote.CommandPayload;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Failure-only flight recorder for step screenshots.
+ *
+ * Every logStep / logStepWithScreenshot used to take a screenshot, decode it,
+ * rescale it, JPEG-encode it and inline it into the report — on every step of
+ * every PASSING test, where nobody looks. Now a step records a frame into a ring
+ * of the last FLIGHT_RECORDER_FRAMES steps:
+ *   - step text and timestamp,
+ *   - the commands issued since the previous step (name + ms),
+ *   - the raw PNG bytes — taken only when a screen-changing command ran since the
+ *     last shot ({@link ElementCache#mayChangeScreen}, the cache's epoch rule as
+ *     a free source fingerprint); otherwise the previous frame's bytes are reused.
+ * Nothing is encoded until the test FAILS (or calls {@link #keep}): then the
+ * frames are JPEG-encoded and attached in order. A passing test gets one compact
+ * text timeline. Steps on a green run cost a raw screenshot at most — usually
+ * nothing, as assertion steps follow lookups, not taps.
+ *
+ * One recording at a time per JVM, like DriverManager's session. The ring is
+ * driver-free: the injectable constructor takes a plain screenshot source.
+ */
+public final class FlightRecorder {
+
+    private static final int COMMANDS_PER_FRAME = 30;
+    private static final long SHOT_BUDGET_MS = 5_000;
+
+    /** One recorded step. {@code png} is shared with the previous frame when the screen did not change. */
+    public record Frame(long atMs, String step, byte[] png, boolean freshShot, List<String> commands) {}
+
+    private final int capacity;
+    private final Supplier<byte[]> screenshot;
+    private final long startMs = System.currentTimeMillis();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final List<String> timeline = new ArrayList<>();
+    private final List<String> pendingCommands = new ArrayList<>();
+    private int droppedCommands = 0;
+    private boolean screenChanged = true;
+    private byte[] lastPng;
+    private int shots = 0;
+    private boolean keep = false;
+
+    private static volatile FlightRecorder current;
+    private static final ThreadLocal<Boolean> CAPTURING = ThreadLocal.withInitial(() -> false);
+
+    /** Seam for driver-free self-tests: {@code screenshot} returns PNG bytes (or null). */
+    public FlightRecorder(int capacity, Supplier<byte[]> screenshot) {
+        this.capacity = Math.max(1, capacity);
+        this.screenshot = screenshot;
+    }
+
+    // ================================================================
+    // PER-TEST RECORDING (static, one per JVM)
+    // ================================================================
+
+    /** ExtentReportManager.createTest: a fresh recording for the test that starts now. */
+    public static void begin() {
+        current = AppConstants.FLIGHT_RECORDER
+            ? new FlightRecorder(AppConstants.FLIGHT_RECORDER_FRAMES, FlightRecorder::liveScreenshot) : null;
+    }
+
+    /** The running test's recording, or null when the recorder is off. */
+    public static FlightRecorder current() {
+        return current;
+    }
+
+    /** Stop recording (teardown, after the frames have been attached or dropped). */
+    public static void end() {
+        current = null;
+    }
+
+    /** Test seam: drop the current recording. */
+    public static void reset() {
+        current = null;
+        CAPTURING.remove();
+    }
+
+    /**
+     * DriverManager's command path: one line per test command into the next frame
+     * (monitor threads are filtered out there, see {@link DriverManager#observeCommand}).
+     */
+    public static void noteCommand(CommandPayload payload, long ms) {
+        FlightRecorder r = current;
+        if (r == null || CAPTURING.get()) {
+            return;
+        }
+        String name = payload.getName();
+        Object script = "executeScript".equals(name) ? payload.getParameters().get("script") : null;
+        r.command(script != null ? name + "(" + script + ")" : name, ms,
+            ElementCache.mayChangeScreen(name, payload.getParameters()));
+    }
+
+    private static byte[] liveScreenshot() {
+        if (!DriverManager.isDriverActive()) {
+            return null;
+        }
+        CAPTURING.set(true);
+        try (TraceTimeline.Span shot = TraceTimeline.span("step screenshot", "screenshot");
+             CommandDeadline.Scope budget = CommandDeadline.within(SHOT_BUDGET_MS)) {
+            return DriverManager.getDriver().getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            return null;
+        } finally {
+            CAPTURING.set(false);
+        }
+    }
+
+    // ================================================================
+    // RING (driver-free)
+    // ================================================================
+
+    public synchronized void command(String name, long ms, boolean changesScreen) {
+        if (changesScreen) {
+            screenChanged = true;
+        }
+        if (pendingCommands.size() < COMMANDS_PER_FRAME) {
+            pendingCommands.add(name + " " + ms + "ms");
+        } else {
+            droppedCommands++;
+        }
+    }
+
+    /** Record a step; shoots the screen only if it may have changed since the last shot. */
+    public Frame step(String label) {
+        boolean fresh;
+        synchronized (this) {
+            fresh = screenChanged || lastPng == null;
+        }
+        byte[] png = fresh ? screenshot.get() : null; // outside the lock: a round-trip
+        synchronized (this) {
+            if (fresh && png != null) {
+                lastPng = png;
+                screenChanged = false;
+                shots++;
+            }
+            List<String> cmds = new ArrayList<>(pendingCommands);
+            if (droppedCommands > 0) {
+                cmds.add("… +" + droppedCommands + " more");
+            }
+            pendingCommands.clear();
+            droppedCommands = 0;
+            long now = System.currentTimeMillis();
+            Frame f = new Frame(now, label, lastPng, fresh && png != null, List.copyOf(cmds));
+            frames.addLast(f);
+            while (frames.size() > capacity) {
+                frames.removeFirst();
+            }
+            timeline.add(String.format("%7.1fs  %s  [%d cmd%s%s]", (now - startMs) / 1000.0, label, cmds.size(),
+                cmds.size() == 1 ? "" : "s", f.freshShot() ? ", shot" : ""));
+            return f;
+        }
+    }
+
+    /** Attach this test's frames to the report even if it passes (a step worth seeing). */
+    public synchronized void keep() {
+        keep = true;
+    }
+
+    public synchronized boolean kept() {
+        return keep;
+    }
+
+    /** The last frames, oldest first. */
+    public synchronized List<Frame> frames() {
+        return List.copyOf(frames);
+    }
+
+    /** Every step of the test as one line each (not bounded by the frame ring). */
+    public synchronized List<String> timeline() {
+        return List.copyOf(timeline);
+    }
+
+    public synchronized int shots() {
+        return shots;
+    }
+}
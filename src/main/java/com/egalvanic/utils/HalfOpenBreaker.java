@@ -0,0 +1,152 @@
+package com.egalvanic.utils;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Closed / open / half-open breaker state machine behind the run-health gate.
+ *
+ * <p>The original breaker was one-way: once DeadSessionCircuitBreaker tripped (or
+ * WDA went hopeless) every remaining test in the JVM skipped fast, so a 5-minute
+ * WDA outage could throw away hundreds of tests that then waited for a separate
+ * rerun job. This keeps the fast-skip, but only for a COOL-DOWN:
+ *
+ * <pre>
+ *   CLOSED --trip--> OPEN --cool-down elapsed, next test asks--> HALF_OPEN
+ *   HALF_OPEN --canary healthy--> CLOSED          (backoff resets)
+ *   HALF_OPEN --canary dead / trip--> OPEN         (cool-down doubles)
+ *   OPEN after maxRecoveries failed canaries  ==> stays OPEN (old behaviour)
+ * </pre>
+ *
+ * In HALF_OPEN exactly one test is the canary: BaseTest runs a recovery step
+ * (WDA rebuild, then simulator reset on later attempts) before it, and its
+ * outcome decides. Tests that skip before reaching the canary step do not
+ * consume the half-open slot.
+ *
+ * <p>Driver-free: the clock is injectable (self-test drives it by hand).
+ */
+public final class HalfOpenBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final long baseCooldownMs;
+    private final long maxCooldownMs;
+    private final int maxRecoveries;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private int failedRecoveries = 0;
+    private int trips = 0;
+    private boolean canaryArmed = false;
+    private String reason = null;
+
+    public HalfOpenBreaker(long baseCooldownMs, long maxCooldownMs, int maxRecoveries, LongSupplier clock) {
+        this.baseCooldownMs = baseCooldownMs;
+        this.maxCooldownMs = maxCooldownMs;
+        this.maxRecoveries = maxRecoveries;
+        this.clock = clock;
+    }
+
+    /** Open the breaker. In HALF_OPEN this is a failed recovery (cool-down doubles). */
+    public synchronized void trip(String why) {
+        if (state == State.HALF_OPEN) {
+            failedRecoveries++;
+        } else if (state == State.OPEN) {
+            return; // already open — keep the original reason and clock
+        }
+        trips++;
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        canaryArmed = false;
+        reason = why;
+    }
+
+    /**
+     * Gate for the next test. CLOSED/HALF_OPEN => run. OPEN => skip, unless the
+     * cool-down has elapsed (and recoveries remain), in which case the breaker
+     * moves to HALF_OPEN and this test becomes the canary candidate.
+     */
+    public synchronized boolean allowTest() {
+        if (state != State.OPEN) {
+            return true;
+        }
+        if (failedRecoveries >= maxRecoveries || clock.getAsLong() - openedAt < currentCooldownMs()) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        canaryArmed = false;
+        return true;
+    }
+
+    /** True when the next test to reach the canary step should become the canary. */
+    public synchronized boolean canaryPending() {
+        return state == State.HALF_OPEN && !canaryArmed;
+    }
+
+    /** Mark the canary as in flight; returns its 1-based recovery attempt number. */
+    public synchronized int armCanary() {
+        canaryArmed = true;
+        return failedRecoveries + 1;
+    }
+
+    /** Canary verdict (no-op unless a canary is in flight). */
+    public synchronized void recordCanary(boolean healthy) {
+        if (state != State.HALF_OPEN || !canaryArmed) {
+            return;
+        }
+        if (healthy) {
+            state = State.CLOSED;
+            canaryArmed = false;
+            failedRecoveries = 0;
+            reason = null;
+        } else {
+            trip("canary failed after recovery attempt " + (failedRecoveries + 1));
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    /** Cool-down for the current OPEN period: base x 2^failedRecoveries, capped. */
+    public synchronized long currentCooldownMs() {
+        long c = baseCooldownMs;
+        for (int i = 0; i < failedRecoveries && c < maxCooldownMs; i++) {
+            c *= 2;
+        }
+        return Math.min(c, maxCooldownMs);
+    }
+
+    /** Ms until the next half-open probe, or -1 when recoveries are exhausted / not open. */
+    public synchronized long msUntilProbe() {
+        if (state != State.OPEN || failedRecoveries >= maxRecoveries) {
+            return -1;
+        }
+        return Math.max(0, currentCooldownMs() - (clock.getAsLong() - openedAt));
+    }
+
+    public synchronized boolean recoveriesExhausted() {
+        return failedRecoveries >= maxRecoveries;
+    }
+
+    public synchronized int trips() {
+        return trips;
+    }
+
+    public synchronized String reason() {
+        return reason;
+    }
+
+    public synchronized void reset() {
+        state = State.CLOSED;
+        openedAt = 0;
+        failedRecoveries = 0;
+        trips = 0;
+        canaryArmed = false;
+        reason = null;
+    }
+}
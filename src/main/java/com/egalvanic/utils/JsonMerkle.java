@@ -0,0 +1,233 @@
+package com.egalvanic.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Canonical JSON tree with a Merkle hash per subtree, for S3 policy drift checks.
+ *
+ * The canonical form is the one S3PolicyChecker.normalizeJson prints: object keys
+ * sorted, arrays whose elements are all objects with a "Sid" (IAM statements)
+ * ordered by Sid, every other array in its original order. Each node's SHA-256
+ * covers its kind, its children's keys and their hashes, so two policies are equal
+ * exactly when their root hashes are — no re-serialization, no string compare.
+ *
+ * {@link #diff} only descends into children whose hashes differ and reports
+ * path-precise changes: {@code Statement[Sid=PublicRead].Principal.AWS[2]}.
+ * Statements are matched by Sid, so a reordered policy yields no diff and a
+ * dropped statement shows up as one missing entry, not a shifted tail.
+ */
+public final class JsonMerkle {
+
+    /** A canonical subtree. Children are in canonical order; labels are ".key", "[Sid=X]" or "[i]". */
+    public static final class Node {
+        private final byte[] hash;
+        private final JsonElement leaf;
+        private final boolean array;
+        private final Map<String, Node> children;
+
+        private Node(byte[] hash, JsonElement leaf, boolean array, Map<String, Node> children) {
+            this.hash = hash;
+            this.leaf = leaf;
+            this.array = array;
+            this.children = children;
+        }
+
+        public boolean sameAs(Node other) {
+            return other != null && Arrays.equals(hash, other.hash);
+        }
+
+        public String hashHex() {
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        }
+
+        /** The canonical element (sorted keys, Sid-ordered statements). */
+        public JsonElement toJson() {
+            if (children == null) {
+                return leaf;
+            }
+            if (array) {
+                JsonArray a = new JsonArray();
+                children.values().forEach(c -> a.add(c.toJson()));
+                return a;
+            }
+            JsonObject o = new JsonObject();
+            children.forEach((label, c) -> o.add(label.substring(1), c.toJson()));
+            return o;
+        }
+
+        /** Minified canonical text — identical to S3PolicyChecker.normalizeJson. */
+        public String canonical() {
+            return GSON.toJson(toJson());
+        }
+    }
+
+    /** One changed path. {@code expected}/{@code actual} are canonical JSON, null when absent. */
+    public record Change(String path, String expected, String actual) {}
+
+    private static final Gson GSON = new Gson();
+    private static final byte[] OBJECT = {'{'};
+    private static final byte[] ARRAY = {'['};
+    private static final byte[] LEAF = {'='};
+    private static final MessageDigest SHA_256;
+    static {
+        try {
+            SHA_256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private JsonMerkle() {}
+
+    /** Parse and hash. Throws on malformed JSON (callers keep their text fallback). */
+    public static Node of(String json) {
+        return of(JsonParser.parseString(json.trim()));
+    }
+
+    public static Node of(JsonElement element) {
+        if (element == null) {
+            element = JsonNull.INSTANCE;
+        }
+        MessageDigest md = sha256();
+        if (element.isJsonObject()) {
+            Map<String, Node> children = new LinkedHashMap<>();
+            new TreeMap<>(element.getAsJsonObject().asMap())
+                .forEach((k, v) -> children.put("." + k, of(v)));
+            md.update(OBJECT);
+            children.forEach((label, c) -> {
+                md.update(label.getBytes(StandardCharsets.UTF_8));
+                md.update(c.hash);
+            });
+            return new Node(md.digest(), null, false, children);
+        }
+        if (element.isJsonArray()) {
+            List<JsonElement> items = element.getAsJsonArray().asList();
+            List<Node> nodes = new ArrayList<>(items.size());
+            items.forEach(i -> nodes.add(of(i)));
+            Map<String, Node> children = new LinkedHashMap<>();
+            if (allHaveSid(items)) {
+                // Stable by Sid, as normalizeJson sorts; a repeated Sid gets #2, #3 ...
+                List<Integer> order = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) order.add(i);
+                order.sort((a, b) -> sid(items.get(a)).compareTo(sid(items.get(b))));
+                Map<String, Integer> seen = new HashMap<>();
+                for (int i : order) {
+                    String sid = sid(items.get(i));
+                    int n = seen.merge(sid, 1, Integer::sum);
+                    children.put("[Sid=" + sid + (n > 1 ? "#" + n : "") + "]", nodes.get(i));
+                }
+            } else {
+                for (int i = 0; i < nodes.size(); i++) {
+                    children.put("[" + i + "]", nodes.get(i));
+                }
+            }
+            md.update(ARRAY);
+            // Labels are not hashed: equality is the element sequence in canonical order.
+            children.values().forEach(c -> md.update(c.hash));
+            return new Node(md.digest(), null, true, children);
+        }
+        md.update(LEAF);
+        md.update(element.toString().getBytes(StandardCharsets.UTF_8));
+        return new Node(md.digest(), element, false, null);
+    }
+
+    /** Changed paths from {@code expected} to {@code actual}; empty when the hashes match. */
+    public static List<Change> diff(Node expected, Node actual) {
+        List<Change> out = new ArrayList<>();
+        diff("", expected, actual, out);
+        return out;
+    }
+
+    private static void diff(String path, Node e, Node a, List<Change> out) {
+        if (e.sameAs(a)) {
+            return;
+        }
+        boolean comparable = e.children != null && a.children != null && e.array == a.array
+            && (!e.array || keyed(e) == keyed(a));
+        if (!comparable) {
+            out.add(new Change(display(path), e.canonical(), a.canonical()));
+            return;
+        }
+        for (Map.Entry<String, Node> en : e.children.entrySet()) {
+            Node other = a.children.get(en.getKey());
+            if (other == null) {
+                out.add(new Change(display(path + en.getKey()), en.getValue().canonical(), null));
+            } else {
+                diff(path + en.getKey(), en.getValue(), other, out);
+            }
+        }
+        for (Map.Entry<String, Node> en : a.children.entrySet()) {
+            if (!e.children.containsKey(en.getKey())) {
+                out.add(new Change(display(path + en.getKey()), null, en.getValue().canonical()));
+            }
+        }
+    }
+
+    /** The drift report: one EXPECTED/ACTUAL block per changed path. */
+    public static String format(List<Change> changes) {
+        StringBuilder sb = new StringBuilder();
+        for (Change c : changes) {
+            sb.append("  ").append(c.path()).append('\n');
+            sb.append("    EXPECTED: ").append(c.expected() == null ? "(absent)" : c.expected()).append('\n');
+            sb.append("    ACTUAL:   ").append(c.actual() == null ? "(absent)" : c.actual()).append("\n\n");
+        }
+        return sb.toString().stripTrailing();
+    }
+
+    private static String display(String path) {
+        if (path.isEmpty()) {
+            return "(root)";
+        }
+        return path.startsWith(".") ? path.substring(1) : path;
+    }
+
+    private static boolean keyed(Node arrayNode) {
+        return !arrayNode.children.isEmpty() && arrayNode.children.keySet().iterator().next().startsWith("[Sid=");
+    }
+
+    private static boolean allHaveSid(List<JsonElement> items) {
+        if (items.isEmpty()) {
+            return false;
+        }
+        for (JsonElement el : items) {
+            if (!el.isJsonObject() || !el.getAsJsonObject().has("Sid")
+                    || !el.getAsJsonObject().get("Sid").isJsonPrimitive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sid(JsonElement statement) {
+        return statement.getAsJsonObject().get("Sid").getAsString();
+    }
+
+    // Cloning the prototype skips the provider lookup getInstance pays per node.
+    private static MessageDigest sha256() {
+        try {
+            return (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging facade: level-filtered async console, full per-test capture.
+ *
+ * The framework prints thousands of emoji lines per test straight to stdout —
+ * synchronously, from every page-object retry loop and lookup strategy — and
+ * parallel runs interleave them unreadably. Now every line (a {@link #debug} ..
+ * {@link #error} call, or a legacy System.out.println once {@link #install} has
+ * routed stdout through here) goes to two places:
+ * <ul>
+ *   <li>the running test's capture — a ring of the last LOG_TEST_LINES lines, all
+ *       levels, timestamped — which BaseTest attaches to the Extent report only
+ *       when the test fails;</li>
+ *   <li>the console, if at or above LOG_LEVEL, through a bounded queue drained by
+ *       one "log-writer" thread: the caller never blocks on stdout. A full queue
+ *       drops the console line (counted and reported), never the capture's.</li>
+ * </ul>
+ * Legacy println lines are levelled by their shape ({@link #classify}): ❌ ERROR,
+ * ⚠️ WARN, indented detail and stack frames DEBUG, everything else INFO — but
+ * with no test capturing, a legacy line goes to the console whatever its level,
+ * so no line the framework printed is lost from both. While more than one test
+ * runs at once, console lines are prefixed with their test id.
+ *
+ * Context: {@link #beginTest}/{@link #endTest} bracket a test. A thread that began
+ * no test of its own logs into the test begun last — GlobalTestTimeout gives every
+ * @Test a timeOut, so TestNG runs the body on a worker thread, not the one whose
+ * @BeforeMethod began the capture (one test at a time per JVM, as DriverManager's
+ * static driver already assumes).
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final String[] TAGS = {" DEBUG ", " INFO  ", " WARN  ", " ERROR "};
+
+    /** One test's capture: its id, device and the last N lines. */
+    public static final class TestContext {
+        private final String testId;
+        private final String deviceId;
+        private final int capacity;
+        private final Deque<String> lines = new ArrayDeque<>();
+        private int dropped = 0;
+
+        TestContext(String testId, String deviceId, int capacity) {
+            this.testId = testId;
+            this.deviceId = deviceId;
+            this.capacity = Math.max(1, capacity);
+        }
+
+        public String testId() {
+            return testId;
+        }
+
+        public String deviceId() {
+            return deviceId;
+        }
+
+        synchronized void add(String line) {
+            if (lines.size() == capacity) {
+                lines.removeFirst();
+                dropped++;
+            }
+            lines.addLast(line);
+        }
+
+        /** Captured lines, oldest first; a leading note says how many earlier ones were dropped. */
+        public synchronized List<String> lines() {
+            List<String> out = new ArrayList<>(lines.size() + 1);
+            if (dropped > 0) {
+                out.add("… " + dropped + " earlier lines dropped (LOG_TEST_LINES=" + capacity + ")");
+            }
+            out.addAll(lines);
+            return out;
+        }
+    }
+
+    private static final ThreadLocal<TestContext> CONTEXT = new ThreadLocal<>();
+    /** The context begun last, for threads without their own (see class doc). */
+    private static volatile TestContext latest;
+    private static final Set<TestContext> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    private static volatile Level consoleLevel = parseLevel(AppConstants.LOG_LEVEL);
+    private static volatile PrintStream console = System.out;
+    private static volatile ConsoleAppender appender = AppConstants.LOG_ASYNC
+        ? new ConsoleAppender(AppConstants.LOG_QUEUE_LINES) : null;
+    private static volatile boolean installed = false;
+
+    private Log() {}
+
+    // ================================================================
+    // FACADE
+    // ================================================================
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message);
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= consoleLevel.ordinal() || current() != null;
+    }
+
+    public static void log(Level level, String message) {
+        TestContext ctx = current();
+        if (ctx != null) {
+            ctx.add(LocalTime.now().format(TIME) + TAGS[level.ordinal()] + message);
+        }
+        if (level.ordinal() >= consoleLevel.ordinal()) {
+            String line = ctx != null && ACTIVE.size() > 1 ? "[" + ctx.testId + "] " + message : message;
+            ConsoleAppender a = appender;
+            if (a != null) {
+                a.append(line);
+            } else {
+                console.println(line);
+            }
+        }
+    }
+
+    /** Level of a legacy println line, from the repo's emoji conventions. */
+    public static Level classify(String line) {
+        String t = line.stripLeading();
+        if (t.startsWith("❌") || t.startsWith("✗")) return Level.ERROR;
+        if (t.startsWith("⚠")) return Level.WARN;
+        if (!t.isEmpty() && t.length() < line.length()) return Level.DEBUG; // indented detail, "\tat" frames
+        return Level.INFO;
+    }
+
+    // ================================================================
+    // PER-TEST CONTEXT
+    // ================================================================
+
+    /** BaseTest.testSetup: start capturing for the test about to run. */
+    public static void beginTest(String testId, String deviceId) {
+        end(CONTEXT.get());
+        TestContext ctx = new TestContext(testId, deviceId, AppConstants.LOG_TEST_LINES);
+        CONTEXT.set(ctx);
+        ACTIVE.add(ctx);
+        latest = ctx;
+        log(Level.DEBUG, "▶ " + testId + (deviceId == null || deviceId.isEmpty() ? "" : " on " + deviceId));
+    }
+
+    /** The running test's capture: this thread's, else the one begun last; null when none. */
+    public static TestContext current() {
+        TestContext own = CONTEXT.get();
+        return own != null ? own : latest;
+    }
+
+    /** Stop capturing the current test ({@link #current()}); the captured lines (empty when none). */
+    public static List<String> endTest() {
+        TestContext ctx = current();
+        CONTEXT.remove();
+        return ctx == null ? List.of() : end(ctx);
+    }
+
+    private static List<String> end(TestContext ctx) {
+        if (ctx == null) {
+            return List.of();
+        }
+        ACTIVE.remove(ctx);
+        if (latest == ctx) {
+            latest = null;
+        }
+        return ctx.lines();
+    }
+
+    // ================================================================
+    // STDOUT ROUTING
+    // ================================================================
+
+    /** Route System.out through the facade (idempotent). The real stdout becomes the console. */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        console = System.out;
+        System.setOut(captureStream());
+        installed = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2_000), "log-flush"));
+    }
+
+    /** A PrintStream whose lines are levelled by {@link #classify} and logged. */
+    public static PrintStream captureStream() {
+        return new PrintStream(new LineSplitter(), true, StandardCharsets.UTF_8);
+    }
+
+    /** Wait up to {@code timeoutMs} for queued console lines to be written. */
+    public static void flush(long timeoutMs) {
+        ConsoleAppender a = appender;
+        if (a != null) {
+            a.awaitDrained(timeoutMs);
+        }
+        console.flush();
+    }
+
+    /** Console lines dropped because the queue was full, since start or {@link #reset}. */
+    public static long droppedConsoleLines() {
+        ConsoleAppender a = appender;
+        return a == null ? 0 : a.dropped.get();
+    }
+
+    /** Test seam: console {@code out}, threshold {@code level}, async with a queue of {@code queueLines} (0 = sync). */
+    public static void configureForTest(PrintStream out, Level level, int queueLines) {
+        flush(2_000);
+        ConsoleAppender old = appender;
+        console = out;
+        consoleLevel = level;
+        appender = queueLines > 0 ? new ConsoleAppender(queueLines) : null;
+        if (old != null) {
+            old.retired = true;
+        }
+    }
+
+    /** Test seam: contexts cleared, console back to the suite defaults (stdout stays routed if installed). */
+    public static void reset() {
+        CONTEXT.remove();
+        ACTIVE.clear();
+        latest = null;
+        configureForTest(console, parseLevel(AppConstants.LOG_LEVEL),
+            AppConstants.LOG_ASYNC ? AppConstants.LOG_QUEUE_LINES : 0);
+    }
+
+    private static Level parseLevel(String s) {
+        try {
+            return Level.valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            return Level.INFO;
+        }
+    }
+
+    /** Splits written bytes into lines per thread, so concurrent printlns never mix mid-line. */
+    private static final class LineSplitter extends OutputStream {
+        private final ThreadLocal<ByteArrayOutputStream> pending =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(256));
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                emit();
+            } else {
+                pending.get().write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ByteArrayOutputStream buf = pending.get();
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    buf.write(b, start, i - start);
+                    emit();
+                    start = i + 1;
+                }
+            }
+            buf.write(b, start, off + len - start);
+        }
+
+        private void emit() {
+            ByteArrayOutputStream buf = pending.get();
+            String line = buf.toString(StandardCharsets.UTF_8);
+            buf.reset();
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            Level level = classify(line);
+            log(level == Level.DEBUG && current() == null ? Level.INFO : level, line);
+        }
+    }
+
+    /** Bounded queue + one daemon writer; append never blocks. */
+    private static final class ConsoleAppender {
+        private final BlockingQueue<String> queue;
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private long reportedDrops = 0;
+        private volatile boolean retired;
+
+        ConsoleAppender(int capacity) {
+            queue = new ArrayBlockingQueue<>(Math.max(16, capacity));
+            Thread t = new Thread(this::drain, "log-writer");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        void append(String line) {
+            pending.incrementAndGet();
+            if (!queue.offer(line)) {
+                pending.decrementAndGet();
+                dropped.incrementAndGet();
+            }
+        }
+
+        private void drain() {
+            List<String> batch = new ArrayList<>(512);
+            StringBuilder sb = new StringBuilder(16 * 1024);
+            // A retired appender (configureForTest) writes out what it holds, then exits. Not
+            // "appender != this": this thread starts before the constructor's result is assigned.
+            while (!retired || !queue.isEmpty()) {
+                try {
+                    String first = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, 511);
+                for (String line : batch) {
+                    sb.append(line).append('\n');
+                }
+                long drops = dropped.get();
+                if (drops > reportedDrops) {
+                    sb.append("⚠️ ").append(drops - reportedDrops).append(" console lines dropped (LOG_QUEUE_LINES full)\n");
+                    reportedDrops = drops;
+                }
+                PrintStream out = console;
+                out.print(sb);
+                out.flush();
+                pending.addAndGet(-batch.size());
+                batch.clear();
+                sb.setLength(0);
+            }
+        }
+
+        void awaitDrained(long timeoutMs) {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (pending.get() > 0 && System.currentTimeMillis() < deadline) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
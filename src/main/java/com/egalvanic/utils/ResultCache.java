@@ -0,0 +1,612 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Test-result cache: a test class whose inputs are unchanged since a run where all
+ * of its tests passed is not run again; its PASSes are reused, with provenance.
+ *
+ * <p><b>Fingerprint</b> (per class — every method of a class shares it):
+ * <ul>
+ *   <li>the app — {@code APP_BUILD} (bundle version from the Info.plist) plus a
+ *       content digest of the bundle at APP_PATH, so a rebuilt app with an
+ *       unbumped version still counts as changed;</li>
+ *   <li>the test class's bytecode and, transitively, every {@code com.egalvanic}
+ *       class it references — page objects, BaseTest and the utils it calls — read
+ *       from the constant pool, so a changed page object invalidates exactly the
+ *       classes that use it;</li>
+ *   <li>config — the AppConstants fields named in RESULT_CACHE_CONFIG and
+ *       config/config.properties.</li>
+ * </ul>
+ * When the app cannot be identified (no bundle at APP_PATH) nothing is reused.
+ *
+ * <p><b>Whole classes only.</b> Tests in a class run in priority order against
+ * one app and often build on each other's data, so a class is reused only when
+ * every test of it in this run has a reusable PASS; otherwise all of it runs.
+ *
+ * <p><b>Store.</b> An append-only journal at RESULT_CACHE_FILE: one PASS row per
+ * passing test, one FAIL tombstone per failure; the last row per test wins, and
+ * {@link #save()} compacts it at suite end. A job cancelled mid-run keeps every
+ * row written so far. A reused PASS is never re-recorded, so its provenance
+ * stays the run that actually proved it, until RESULT_CACHE_MAX_AGE_HOURS expires it.
+ */
+public final class ResultCache {
+
+    /** Prefix of the reporter-output line that marks a reused result in testng-results.xml. */
+    public static final String REPORT_MARKER = "[result-cache] ";
+
+    /** A recorded PASS. */
+    public static final class Entry {
+        final String key;
+        final String fingerprint;
+        final Instant recordedAt;
+        final String runId;
+        final long durationMs;
+        final String appBuild;
+        public final String module;
+        public final String feature;
+        public final String testName;
+
+        Entry(String key, String fingerprint, Instant recordedAt, String runId, long durationMs, String appBuild,
+              String module, String feature, String testName) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.recordedAt = recordedAt;
+            this.runId = runId;
+            this.durationMs = durationMs;
+            this.appBuild = appBuild;
+            this.module = module;
+            this.feature = feature;
+            this.testName = testName;
+        }
+
+        /** Where this PASS came from, for the reports and the console. */
+        public String provenance() {
+            return "Reused PASS from run " + runId + " at " + recordedAt.truncatedTo(ChronoUnit.MINUTES)
+                + " (took " + Duration.ofMillis(durationMs).toSeconds() + "s, app "
+                + (appBuild.isEmpty() ? "unversioned" : appBuild)
+                + ") - app build, test code, page objects and config unchanged since";
+        }
+    }
+
+    private static final Pattern CLASS_REF = Pattern.compile("com/egalvanic/[A-Za-z0-9_/$]+");
+
+    private static final Object LOCK = new Object();
+    private static final Map<String, Entry> entries = new HashMap<>();
+    private static final Map<String, String> classDigests = new HashMap<>();
+    private static final Map<String, Map<String, Entry>> reused = new HashMap<>();
+    private static boolean loaded;
+    private static BufferedWriter journal;
+    private static int recorded;
+
+    private static volatile boolean enabled = AppConstants.RESULT_CACHE && !AppConstants.RESULT_CACHE_FILE.isEmpty();
+    private static volatile boolean force = AppConstants.RESULT_CACHE_FORCE;
+    private static volatile Path file = enabled ? Paths.get(AppConstants.RESULT_CACHE_FILE) : null;
+    private static volatile Supplier<Instant> clock = Instant::now;
+    private static volatile String appBuild = AppConstants.APP_BUILD;
+    /** Null until computed; empty = the app could not be identified. */
+    private static volatile String appIdentity;
+    private static volatile String configDigest;
+
+    private ResultCache() {}
+
+    // ================================================================
+    // LOOKUP
+    // ================================================================
+
+    /**
+     * The reusable PASSes for {@code methods} of {@code testClass}, keyed by method name —
+     * all of them or none (empty). Decided once per class per run; later calls return
+     * the same answer.
+     */
+    public static Map<String, Entry> reusable(Class<?> testClass, Collection<String> methods) {
+        synchronized (LOCK) {
+            Map<String, Entry> decided = reused.get(testClass.getName());
+            if (decided != null) {
+                return decided;
+            }
+            Map<String, Entry> hits = decide(testClass, methods);
+            reused.put(testClass.getName(), hits);
+            if (!hits.isEmpty()) {
+                Log.info("♻️ Result cache: reusing " + hits.size() + " PASS(es) of " + testClass.getSimpleName()
+                    + " — inputs unchanged (RESULT_CACHE_FORCE=true to run them)");
+            }
+            return hits;
+        }
+    }
+
+    private static Map<String, Entry> decide(Class<?> testClass, Collection<String> methods) {
+        if (!enabled || force || methods.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        load();
+        String fingerprint = fingerprint(testClass);
+        if (fingerprint == null) {
+            return Collections.emptyMap();
+        }
+        Instant oldest = clock.get().minus(Duration.ofHours(AppConstants.RESULT_CACHE_MAX_AGE_HOURS));
+        Map<String, Entry> hits = new LinkedHashMap<>();
+        for (String method : methods) {
+            Entry e = entries.get(testClass.getName() + "#" + method);
+            if (e == null || !e.fingerprint.equals(fingerprint) || e.recordedAt.isBefore(oldest)) {
+                return Collections.emptyMap();
+            }
+            hits.put(method, e);
+        }
+        return Collections.unmodifiableMap(hits);
+    }
+
+    /** The reused PASS for this test, or null when it runs (decided by {@link #reusable}). */
+    public static Entry reused(String className, String method) {
+        synchronized (LOCK) {
+            Map<String, Entry> hits = reused.get(className);
+            return hits == null ? null : hits.get(method);
+        }
+    }
+
+    /** True when this class's tests are reused this run: its setup/teardown need not run either. */
+    public static boolean isReused(String className) {
+        synchronized (LOCK) {
+            Map<String, Entry> hits = reused.get(className);
+            return hits != null && !hits.isEmpty();
+        }
+    }
+
+    // ================================================================
+    // RECORDING (BaseTest.testTeardown)
+    // ================================================================
+
+    /** A test that ran and passed. Names are the report's module > feature > test. */
+    public static void recordPass(Class<?> testClass, String method, long durationMs,
+                                  String module, String feature, String testName) {
+        if (!enabled) {
+            return;
+        }
+        String fingerprint = fingerprint(testClass);
+        if (fingerprint == null) {
+            return;
+        }
+        String runId = System.getenv("GITHUB_RUN_ID") != null ? System.getenv("GITHUB_RUN_ID") : "local";
+        Entry e = new Entry(testClass.getName() + "#" + method, fingerprint, clock.get(), runId, durationMs,
+            appBuild, module, feature, testName);
+        synchronized (LOCK) {
+            load();
+            entries.put(e.key, e);
+            append(passRow(e));
+        }
+    }
+
+    /**
+     * BaseTest teardown's entry point: a PASS is recorded under the report names of the
+     * test the body created ({@link ExtentReportManager#currentTestNames}, which reaches
+     * across from the timeOut thread), a FAIL voids the earlier PASS.
+     */
+    public static void recordResult(Class<?> testClass, String method, boolean passed, long durationMs) {
+        if (!passed) {
+            recordFailure(testClass, method);
+            return;
+        }
+        String[] names = ExtentReportManager.currentTestNames();
+        if (names != null) {
+            recordPass(testClass, method, durationMs, names[0], names[1], names[2]);
+        }
+    }
+
+    /** A test that ran and failed: its earlier PASS no longer counts. */
+    public static void recordFailure(Class<?> testClass, String method) {
+        if (!enabled) {
+            return;
+        }
+        String key = testClass.getName() + "#" + method;
+        synchronized (LOCK) {
+            load();
+            if (entries.remove(key) != null) {
+                append(row("FAIL", key));
+            }
+        }
+    }
+
+    private static void append(String row) {
+        try {
+            if (journal == null) {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                journal = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            journal.write(row);
+            journal.flush();
+            recorded++;
+        } catch (IOException e) {
+            enabled = false;
+            Log.warn("⚠️ Result cache disabled — write to " + file + " failed: " + e.getMessage());
+        }
+    }
+
+    /** Replay the journal: the last row per test wins; a torn last row is ignored. */
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                List<String> c = cells(line);
+                if (c.size() == 2 && "FAIL".equals(c.get(0))) {
+                    entries.remove(c.get(1));
+                } else if (c.size() == 10 && "PASS".equals(c.get(0))) {
+                    try {
+                        entries.put(c.get(1), new Entry(c.get(1), c.get(2), Instant.parse(c.get(3)), c.get(4),
+                            Long.parseLong(c.get(5)), c.get(6), c.get(7), c.get(8), c.get(9)));
+                    } catch (RuntimeException ignored) {
+                        // torn or hand-edited row
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.warn("⚠️ Result cache: " + file + " unreadable (" + e.getMessage() + ") — running everything");
+        }
+    }
+
+    // ================================================================
+    // STORE ROWS — tab-separated; tab, newline and backslash escaped
+    // ================================================================
+
+    private static String passRow(Entry e) {
+        return row("PASS", e.key, e.fingerprint, e.recordedAt.toString(), e.runId,
+            String.valueOf(e.durationMs), e.appBuild, e.module, e.feature, e.testName);
+    }
+
+    private static String row(String... cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            sb.append(cells[i].replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", ""));
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static List<String> cells(String line) {
+        List<String> out = new ArrayList<>(10);
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char n = line.charAt(++i);
+                cell.append(n == 't' ? '\t' : n == 'n' ? '\n' : n);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+        return out;
+    }
+
+    /** Suite end: rewrite the journal as one row per cached PASS (atomic replace). */
+    public static void save() {
+        synchronized (LOCK) {
+            if (!enabled || !loaded) {
+                return;
+            }
+            try {
+                if (journal != null) {
+                    journal.close();
+                    journal = null;
+                }
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    for (Entry e : entries.values()) {
+                        w.write(passRow(e));
+                    }
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Log.warn("⚠️ Result cache: compacting " + file + " failed (" + e.getMessage() + ") — journal kept");
+            }
+        }
+    }
+
+    /** One line for the suite-end banner. */
+    public static String summary() {
+        synchronized (LOCK) {
+            int reusedTests = 0;
+            for (Map<String, Entry> hits : reused.values()) {
+                reusedTests += hits.size();
+            }
+            if (!enabled) {
+                return "Result cache: off";
+            }
+            return "Result cache: " + reusedTests + " test(s) reused, " + recorded + " result(s) recorded"
+                + (force ? " (RESULT_CACHE_FORCE: nothing reused)" : "") + " — " + file;
+        }
+    }
+
+    // ================================================================
+    // FINGERPRINT
+    // ================================================================
+
+    /** The class's input fingerprint, or null when the app cannot be identified. */
+    public static String fingerprint(Class<?> testClass) {
+        String app = appIdentity();
+        if (app.isEmpty()) {
+            return null;
+        }
+        return sha256(app + "\n" + configDigest() + "\n" + classDigest(testClass));
+    }
+
+    private static String classDigest(Class<?> testClass) {
+        synchronized (LOCK) {
+            String digest = classDigests.get(testClass.getName());
+            if (digest == null) {
+                MessageDigest md = newDigest();
+                ClassLoader loader = loaderOf(testClass);
+                for (String name : referencedClasses(testClass)) {
+                    md.update(name.getBytes(StandardCharsets.UTF_8));
+                    byte[] bytes = bytecode(loader, name);
+                    if (bytes != null) {
+                        md.update(bytes);
+                    }
+                }
+                digest = hex(md.digest());
+                classDigests.put(testClass.getName(), digest);
+            }
+            return digest;
+        }
+    }
+
+    /** {@code testClass} and every com.egalvanic class reachable from its constant pool, sorted. */
+    public static Set<String> referencedClasses(Class<?> testClass) {
+        ClassLoader loader = loaderOf(testClass);
+        Set<String> seen = new TreeSet<>();
+        Deque<String> todo = new ArrayDeque<>();
+        todo.add(testClass.getName().replace('.', '/'));
+        while (!todo.isEmpty()) {
+            String internal = todo.poll();
+            if (!seen.add(internal.replace('/', '.'))) {
+                continue;
+            }
+            byte[] bytes = bytecode(loader, internal.replace('/', '.'));
+            if (bytes == null) {
+                continue;
+            }
+            for (String utf8 : constantPoolStrings(bytes)) {
+                Matcher m = CLASS_REF.matcher(utf8);
+                while (m.find()) {
+                    if (!seen.contains(m.group().replace('/', '.'))) {
+                        todo.add(m.group());
+                    }
+                }
+            }
+        }
+        return seen;
+    }
+
+    /** The CONSTANT_Utf8 entries of a class file: class names, descriptors and signatures among them. */
+    static List<String> constantPoolStrings(byte[] classFile) {
+        List<String> out = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile))) {
+            in.readInt(); // magic
+            in.readUnsignedShort(); // minor
+            in.readUnsignedShort(); // major
+            int count = in.readUnsignedShort();
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1 -> out.add(in.readUTF());
+                    case 7, 8, 16, 19, 20 -> in.skipBytes(2);
+                    case 15 -> in.skipBytes(3);
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                    case 5, 6 -> {
+                        in.skipBytes(8);
+                        i++; // 8-byte constants take two slots
+                    }
+                    default -> throw new IOException("unknown constant pool tag " + tag);
+                }
+            }
+        } catch (IOException e) {
+            // Unparseable: the bytes themselves are still digested; no references followed.
+        }
+        return out;
+    }
+
+    private static byte[] bytecode(ClassLoader loader, String className) {
+        try (InputStream in = loader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static ClassLoader loaderOf(Class<?> c) {
+        return c.getClassLoader() != null ? c.getClassLoader() : ClassLoader.getSystemClassLoader();
+    }
+
+    /** APP_BUILD plus a content digest of the bundle; empty when there is no bundle. */
+    private static String appIdentity() {
+        String identity = appIdentity;
+        if (identity == null) {
+            synchronized (LOCK) {
+                if (appIdentity == null) {
+                    appIdentity = digestApp(Paths.get(AppConstants.APP_PATH));
+                    if (appIdentity.isEmpty() && enabled) {
+                        Log.warn("⚠️ Result cache: no app bundle at APP_PATH — nothing reused or recorded");
+                    }
+                }
+                identity = appIdentity;
+            }
+        }
+        return identity;
+    }
+
+    private static String digestApp(Path bundle) {
+        if (!Files.isDirectory(bundle)) {
+            return "";
+        }
+        MessageDigest md = newDigest();
+        try (Stream<Path> files = Files.walk(bundle)) {
+            for (Path f : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                md.update(bundle.relativize(f).toString().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = Files.newInputStream(f)) {
+                    byte[] buf = new byte[64 * 1024];
+                    int n;
+                    while ((n = in.read(buf)) > 0) {
+                        md.update(buf, 0, n);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.warn("⚠️ Result cache: could not digest " + bundle + " (" + e.getMessage() + ")");
+            return "";
+        }
+        return appBuild + "|" + hex(md.digest());
+    }
+
+    private static String configDigest() {
+        String digest = configDigest;
+        if (digest == null) {
+            StringBuilder sb = new StringBuilder();
+            for (String name : AppConstants.RESULT_CACHE_CONFIG.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                try {
+                    Field f = AppConstants.class.getField(name.trim());
+                    sb.append(name.trim()).append('=').append(f.get(null)).append('\n');
+                } catch (ReflectiveOperationException e) {
+                    sb.append(name.trim()).append("=?\n");
+                }
+            }
+            Path properties = Paths.get("config/config.properties");
+            try (InputStream in = Files.exists(properties) ? Files.newInputStream(properties)
+                    : ResultCache.class.getClassLoader().getResourceAsStream("config/config.properties")) {
+                if (in != null) {
+                    sb.append(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            } catch (IOException ignored) {
+                // absent config is part of the config
+            }
+            digest = sha256(sb.toString());
+            configDigest = digest;
+        }
+        return digest;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String s) {
+        return hex(newDigest().digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // ================================================================
+    // TEST SEAMS
+    // ================================================================
+
+    /**
+     * Test seam: cache in {@code store} as if a new run (journal re-read), with the app
+     * identified as {@code app} (empty = no bundle) on {@code clockSource}.
+     */
+    public static void configureForTest(Path store, String app, String build, boolean forceRun,
+                                        Supplier<Instant> clockSource) {
+        synchronized (LOCK) {
+            closeJournal();
+            entries.clear();
+            reused.clear();
+            loaded = false;
+            recorded = 0;
+            enabled = store != null;
+            file = store;
+            force = forceRun;
+            appBuild = build;
+            appIdentity = app.isEmpty() ? "" : build + "|" + app;
+            clock = clockSource;
+        }
+    }
+
+    /** Test seam: back to the AppConstants settings. */
+    public static void reset() {
+        synchronized (LOCK) {
+            closeJournal();
+            entries.clear();
+            reused.clear();
+            classDigests.clear();
+            loaded = false;
+            recorded = 0;
+            enabled = AppConstants.RESULT_CACHE && !AppConstants.RESULT_CACHE_FILE.isEmpty();
+            force = AppConstants.RESULT_CACHE_FORCE;
+            file = enabled ? Paths.get(AppConstants.RESULT_CACHE_FILE) : null;
+            appBuild = AppConstants.APP_BUILD;
+            appIdentity = null;
+            clock = Instant::now;
+        }
+    }
+
+    private static void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+                // reopened on the next row
+            }
+            journal = null;
+        }
+    }
+}
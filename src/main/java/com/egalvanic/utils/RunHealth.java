@@ -2,6 +2,8 @@ package com.egalvanic.utils;
 
 import com.egalvanic.constants.AppConstants;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -26,14 +28,31 @@ import java.util.concurrent.atomic.AtomicInteger;
  * rerun (see the two-report rerun flow in {@code ios-tests-parallel.yml}).
  *
  * <ol>
- *   <li><b>breakerOpen</b> — DeadSessionCircuitBreaker tripped (N consecutive dead/wedged
- *       test outcomes).</li>
+ *   <li><b>breaker open</b> — DeadSessionCircuitBreaker tripped (N consecutive dead/wedged
+ *       test outcomes) and the cool-down has not elapsed yet.</li>
  *   <li><b>wdaHopeless</b> — DriverManager saw {@code WDA_HOPELESS_AFTER} consecutive
  *       init failures; WDA will not rebuild for the rest of this job.</li>
  *   <li><b>suite wall</b> — elapsed time since the first test exceeded
  *       {@code SUITE_WALL_MINUTES} (a last-resort backstop, well under the 6h job cap).</li>
  * </ol>
  *
+ * <p><b>Half-open recovery.</b> Triggers 1 and 2 no longer skip the REST of the run.
+ * They open a {@link HalfOpenBreaker}: after a cool-down (exponential backoff) the next
+ * test becomes a CANARY — BaseTest runs a recovery step first ({@link #beginCanary()}:
+ * WDA rebuild, then simulator reset on later attempts) and its outcome
+ * ({@link #recordCanaryOutcome}) either closes the gate or re-opens it with a doubled
+ * cool-down. A transient WDA outage now costs minutes of skips, not the rest of the job.
+ * The suite wall (trigger 3) stays one-way.
+ *
+ * <p><b>Budget scheduling.</b> The suite wall is a cliff: it skips whatever is left
+ * once it is crossed. {@link TestScheduler} projects the finish continuously from
+ * history and the run's pace, and when the projection overruns it cuts the least
+ * valuable tests from the ends of their classes early ({@link #budgetSkipReason}), so the wall should
+ * rarely be what ends a run.
+ *
+ * <p>Trips, canary verdicts and the breaker state are also recorded in {@link Telemetry}
+ * and marked on the {@link TraceTimeline}.
+ *
  * <p>All triggers are env/-D overridable via {@link AppConstants}; with healthy runs none
  * fire, so behavior is unchanged. State is static-per-JVM, which is correct here because
  * each CI module job is its own {@code mvn} process (one suite per JVM) and
@@ -43,7 +62,18 @@ public final class RunHealth {
 
     private RunHealth() {}
 
-    private static volatile boolean breakerOpen = false;
+    private static final HalfOpenBreaker breaker = new HalfOpenBreaker(
+            AppConstants.BREAKER_COOLDOWN_SEC * 1000L,
+            AppConstants.BREAKER_COOLDOWN_MAX_SEC * 1000L,
+            AppConstants.BREAKER_MAX_RECOVERIES,
+            System::currentTimeMillis);
+    private static final TestScheduler scheduler = new TestScheduler(
+            AppConstants.SCHEDULER,
+            AppConstants.SUITE_WALL_MINUTES * 60_000L,
+            AppConstants.SCHEDULE_DEFAULT_TEST_SEC * 1000L,
+            new HashSet<>(Arrays.asList(AppConstants.SCHEDULE_HIGH_VALUE_GROUPS.split("\\s*,\\s*"))),
+            TestScheduler.History.fromSetting(AppConstants.TEST_HISTORY),
+            System::currentTimeMillis);
     private static volatile boolean wdaHopeless = false;
     private static volatile long firstTestMs = 0L;
 
@@ -58,14 +88,25 @@ public final class RunHealth {
 
     /** Called by DeadSessionCircuitBreaker when it trips, so BaseTest also bails fast. */
     public static void tripBreaker(String why) {
-        if (!breakerOpen) {
-            breakerOpen = true;
-            System.out.println("🛑 RunHealth: dead-session breaker OPEN — " + why);
+        HalfOpenBreaker.State before = breaker.state();
+        breaker.trip(why);
+        if (before != HalfOpenBreaker.State.OPEN) {
+            Telemetry.BREAKER_TRIPS.inc();
+            Telemetry.BREAKER_STATE.set(2);
+            TraceTimeline.instant("breaker OPEN", "breaker", why, true);
+            System.out.println("🛑 RunHealth: breaker OPEN — " + why + " (next recovery probe in "
+                    + breaker.currentCooldownMs() / 1000 + "s)");
         }
     }
 
+    /** True unless the gate is CLOSED (OPEN, or HALF_OPEN with a canary pending/in flight). */
     public static boolean isBreakerOpen() {
-        return breakerOpen;
+        return !breaker.isClosed();
+    }
+
+    /** The shared gate — DeadSessionCircuitBreaker's production instance trips THIS one. */
+    public static HalfOpenBreaker breaker() {
+        return breaker;
     }
 
     /**
@@ -75,12 +116,16 @@ public final class RunHealth {
      */
     public static void recordInitFailure() {
         int n = consecutiveInitFailures.incrementAndGet();
-        if (n >= AppConstants.WDA_HOPELESS_AFTER && !wdaHopeless) {
-            wdaHopeless = true;
-            System.out.println("🛑 RunHealth: WDA HOPELESS after " + n
-                    + " consecutive driver-init failures — failing init fast for the rest of this"
-                    + " run instead of spending ~6 min/test rebuilding a dead WDA. Remaining tests"
-                    + " land in failed-suites/ for the fresh-simulator rerun.");
+        if (n >= AppConstants.WDA_HOPELESS_AFTER) {
+            if (!wdaHopeless) {
+                wdaHopeless = true;
+                System.out.println("🛑 RunHealth: WDA HOPELESS after " + n
+                        + " consecutive driver-init failures — failing init fast instead of"
+                        + " spending ~6 min/test rebuilding a dead WDA until the half-open canary"
+                        + " proves it back.");
+            }
+            // Also a failed canary when this init WAS the canary's (HALF_OPEN re-opens).
+            tripBreaker("WDA hopeless after " + n + " consecutive init failures");
         }
     }
 
@@ -100,9 +145,78 @@ public final class RunHealth {
         return (System.currentTimeMillis() - firstTestMs) > wallMin * 60_000L;
     }
 
-    /** True when remaining tests should skip in ~0s rather than thrash a doomed session. */
+    /**
+     * True when this test should skip in ~0s rather than thrash a doomed session.
+     * Call ONCE per test (BaseTest.testSetup): when an open gate's cool-down has
+     * elapsed this moves it to HALF_OPEN and lets the test through as the canary
+     * candidate.
+     */
     public static boolean shouldFastSkip() {
-        return breakerOpen || wdaHopeless || suiteWallExceeded();
+        return suiteWallExceeded() || !breaker.allowTest();
+    }
+
+    /** The run's budget scheduler — BudgetSchedulerListener plans and tracks the queue on it. */
+    public static TestScheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Null when {@code testKey} (class#method) should run; otherwise why the scheduler
+     * skips it to keep the projected finish inside SUITE_WALL_MINUTES. Call ONCE per
+     * test, after {@link #shouldFastSkip()} (BaseTest.testSetup).
+     */
+    public static String budgetSkipReason(String testKey) {
+        return scheduler.skipReason(testKey);
+    }
+
+    /** True when the half-open gate is waiting for a canary and this test should be it. */
+    public static boolean isCanaryPending() {
+        return breaker.canaryPending();
+    }
+
+    /**
+     * Arm this test as the canary. Returns the recovery attempt number (1-based):
+     * BaseTest rebuilds WDA on attempt 1 and also resets the simulator from attempt 2.
+     */
+    public static int beginCanary() {
+        int attempt = breaker.armCanary();
+        Telemetry.BREAKER_STATE.set(1);
+        TraceTimeline.instant("breaker HALF-OPEN (canary " + attempt + ")", "breaker", breaker.reason(), true);
+        // Give WDA ONE more chance: lift the init fast-fail for the canary, but keep
+        // the streak at N-1 so a single failed canary init re-trips straight away.
+        if (wdaHopeless) {
+            wdaHopeless = false;
+            consecutiveInitFailures.set(Math.max(0, AppConstants.WDA_HOPELESS_AFTER - 1));
+        }
+        System.out.println("🐤 RunHealth: breaker HALF-OPEN — recovery attempt " + attempt
+                + " + canary test (" + breaker.reason() + ")");
+        return attempt;
+    }
+
+    /**
+     * Canary verdict from BaseTest.testTeardown (no-op unless a canary is in flight).
+     * Healthy => gate closes, hopeless streak cleared. Dead => gate re-opens with a
+     * doubled cool-down.
+     */
+    public static void recordCanaryOutcome(boolean healthy) {
+        if (breaker.state() != HalfOpenBreaker.State.HALF_OPEN || breaker.canaryPending()) {
+            return;
+        }
+        breaker.recordCanary(healthy);
+        Telemetry.BREAKER_CANARIES.inc("outcome", healthy ? "healthy" : "failed");
+        Telemetry.BREAKER_STATE.set(healthy ? 0 : 2);
+        TraceTimeline.instant(healthy ? "breaker CLOSED" : "breaker re-OPENED", "breaker", null, true);
+        if (healthy) {
+            wdaHopeless = false;
+            consecutiveInitFailures.set(0);
+            System.out.println("✅ RunHealth: canary healthy — breaker CLOSED, resuming normal execution");
+        } else if (breaker.recoveriesExhausted()) {
+            System.out.println("🛑 RunHealth: canary failed — recoveries exhausted, breaker stays OPEN"
+                    + " for the rest of this run");
+        } else {
+            System.out.println("🛑 RunHealth: canary failed — breaker re-OPENED, next probe in "
+                    + breaker.currentCooldownMs() / 1000 + "s");
+        }
     }
 
     /** Human-readable reason for the fast-skip, shown in the report + console. */
@@ -112,21 +226,26 @@ public final class RunHealth {
                     + " min) exceeded — skipping remaining tests so the job finishes well under the"
                     + " 6h GitHub cap; they land in failed-suites/ for the fresh-simulator rerun.";
         }
+        long probeMs = breaker.msUntilProbe();
+        String probe = probeMs < 0
+                ? " Recovery attempts exhausted — skipping the rest of this run."
+                : " Next recovery probe (canary) in ~" + (probeMs / 1000) + "s.";
         if (wdaHopeless) {
             return "RunHealth WDA-hopeless: WebDriverAgent could not be rebuilt after repeated"
-                    + " attempts on this runner; skipping remaining tests fast. They are rerun on a"
-                    + " fresh simulator (failed-suites/) so a wedged runner no longer cancels the job.";
+                    + " attempts on this runner; skipping fast." + probe + " Skipped tests land in"
+                    + " failed-suites/ for the fresh-simulator rerun.";
         }
-        return "RunHealth dead-session breaker OPEN: skipping remaining tests fast instead of"
-                + " rebuilding a dead WDA in setup per test (~6 min each). They land in"
-                + " failed-suites/ for the fresh-simulator rerun.";
+        return "RunHealth dead-session breaker OPEN (" + breaker.reason() + "): skipping fast instead"
+                + " of rebuilding a dead WDA in setup per test (~6 min each)." + probe
+                + " Skipped tests land in failed-suites/ for the fresh-simulator rerun.";
     }
 
     /** Test seam / per-suite reset (used by the driver-free self-tests). */
     public static void reset() {
-        breakerOpen = false;
+        breaker.reset();
         wdaHopeless = false;
         firstTestMs = 0L;
         consecutiveInitFailures.set(0);
+        scheduler.reset();
     }
 }
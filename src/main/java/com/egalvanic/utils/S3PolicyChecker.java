@@ -6,6 +6,7 @@ import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.google.gson.Gson;
@@ -110,6 +111,9 @@ public class S3PolicyChecker {
     /** Branding service identifier */
     private static final String BRANDING_SERVICE = "s3-branding-ohio";
 
+    /** Hashed baseline trees by baseline text — 40 small policies, never evicted. */
+    private static final Map<String, JsonMerkle.Node> BASELINE_TREES = new ConcurrentHashMap<>();
+
     // ============================================
     // RESULT CLASS
     // ============================================
@@ -494,27 +498,48 @@ public class S3PolicyChecker {
             );
         }
 
-        // Step 4: Normalize and compare
-        String normalizedExpected = normalizeJson(expectedPolicy);
-        String normalizedActual = normalizeJson(currentPolicy);
-
-        if (normalizedExpected.equals(normalizedActual)) {
+        // Step 4: Compare canonical hashes; the diff walks only the subtrees that differ
+        String diff = driftDiff(expectedPolicy, currentPolicy);
+        if (diff == null) {
             return new PolicyCheckResult(
                 bucketName, environment, service, true,
-                normalizedExpected, normalizedActual,
+                expectedPolicy, currentPolicy,
                 null, null, baselineFile
             );
         } else {
-            String diff = generateStructuredDiff(normalizedExpected, normalizedActual);
             return new PolicyCheckResult(
                 bucketName, environment, service, false,
-                normalizedExpected, normalizedActual,
+                normalizeJson(expectedPolicy), normalizeJson(currentPolicy),
                 "Bucket policy does not match the expected baseline",
                 diff, baselineFile
             );
         }
     }
 
+    /**
+     * Drift between a baseline and a live policy: null when they match, otherwise a
+     * path-precise report (e.g. {@code Statement[Sid=X].Principal.AWS[2]}).
+     *
+     * Compares Merkle root hashes ({@link JsonMerkle}) — same equality as comparing
+     * normalizeJson output, without re-serializing either policy. Baseline trees are
+     * cached by content, so each baseline is parsed and hashed once per JVM. Malformed
+     * JSON falls back to the normalized text compare and line diff.
+     */
+    public static String driftDiff(String expectedPolicy, String actualPolicy) {
+        JsonMerkle.Node expected;
+        JsonMerkle.Node actual;
+        try {
+            expected = BASELINE_TREES.computeIfAbsent(expectedPolicy, JsonMerkle::of);
+            actual = JsonMerkle.of(actualPolicy);
+        } catch (RuntimeException malformed) {
+            String normalizedExpected = normalizeJson(expectedPolicy);
+            String normalizedActual = normalizeJson(actualPolicy);
+            return normalizedExpected.equals(normalizedActual)
+                ? null : generateStructuredDiff(normalizedExpected, normalizedActual);
+        }
+        return expected.sameAs(actual) ? null : JsonMerkle.format(JsonMerkle.diff(expected, actual));
+    }
+
     public static List<PolicyCheckResult> checkEnvironment(String environment) {
         List<PolicyCheckResult> results = new ArrayList<>();
         for (String bucket : getBucketsForEnvironment(environment)) {
@@ -553,8 +578,9 @@ public class S3PolicyChecker {
      * or key ordering differences between baseline files and AWS API responses.
      * 
      * Works identically on all platforms (macOS, Linux, CI/CD runners).
+     * Public for benchmarks/ (S3PolicyBenchmark).
      */
-    private static String normalizeJson(String json) {
+    public static String normalizeJson(String json) {
         if (json == null || json.trim().isEmpty()) {
             return "";
         }
@@ -672,7 +698,8 @@ public class S3PolicyChecker {
         return sb.toString().trim();
     }
 
-    private static String generateStructuredDiff(String expected, String actual) {
+    /** Line-by-line EXPECTED/ACTUAL diff for the report. Public for benchmarks/ (S3PolicyBenchmark). */
+    public static String generateStructuredDiff(String expected, String actual) {
         StringBuilder diff = new StringBuilder();
         String[] expectedLines = expected.split("\n");
         String[] actualLines = actual.split("\n");
@@ -25,7 +25,7 @@ public class ScreenshotUtil {
      * @return Absolute path to the screenshot file, or null if failed
      */
     public static String captureScreenshot(String screenshotName) {
-        try {
+        try (TraceTimeline.Span shot = TraceTimeline.span("screenshot", "screenshot")) {
             // Create screenshots directory if not exists
             File screenshotDir = new File(AppConstants.SCREENSHOT_PATH);
             if (!screenshotDir.exists()) {
@@ -118,7 +118,7 @@ public class ScreenshotUtil {
         if (!DriverManager.isDriverActive()) {
             return null;
         }
-        try {
+        try (TraceTimeline.Span shot = TraceTimeline.span("screenshot", "screenshot")) {
             TakesScreenshot driver = (TakesScreenshot) DriverManager.getDriver();
             return driver.getScreenshotAs(OutputType.BASE64);
         } catch (Exception e) {
@@ -148,39 +148,9 @@ public class ScreenshotUtil {
         if (!COMPRESS_ENABLED) {
             return getScreenshotAsBase64();
         }
-        try {
+        try (TraceTimeline.Span shot = TraceTimeline.span("screenshot", "screenshot")) {
             TakesScreenshot driver = (TakesScreenshot) DriverManager.getDriver();
-            byte[] pngBytes = driver.getScreenshotAs(OutputType.BYTES);
-            java.awt.image.BufferedImage src =
-                javax.imageio.ImageIO.read(new java.io.ByteArrayInputStream(pngBytes));
-            if (src == null) {
-                return java.util.Base64.getEncoder().encodeToString(pngBytes);
-            }
-            int dstW = Math.max(1, (int) Math.round(src.getWidth() * SCALE));
-            int dstH = Math.max(1, (int) Math.round(src.getHeight() * SCALE));
-            java.awt.image.BufferedImage dst = new java.awt.image.BufferedImage(
-                dstW, dstH, java.awt.image.BufferedImage.TYPE_INT_RGB);
-            java.awt.Graphics2D g = dst.createGraphics();
-            g.setRenderingHint(java.awt.RenderingHints.KEY_INTERPOLATION,
-                java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g.drawImage(src, 0, 0, dstW, dstH, null);
-            g.dispose();
-
-            // JPEG-encode at configured quality
-            java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
-            javax.imageio.ImageWriter writer = javax.imageio.ImageIO
-                .getImageWritersByFormatName("jpeg").next();
-            javax.imageio.ImageWriteParam param = writer.getDefaultWriteParam();
-            param.setCompressionMode(javax.imageio.ImageWriteParam.MODE_EXPLICIT);
-            param.setCompressionQuality((float) JPEG_QUALITY);
-            try (javax.imageio.stream.ImageOutputStream ios =
-                     javax.imageio.ImageIO.createImageOutputStream(baos)) {
-                writer.setOutput(ios);
-                writer.write(null, new javax.imageio.IIOImage(dst, null, null), param);
-            }
-            writer.dispose();
-
-            return java.util.Base64.getEncoder().encodeToString(baos.toByteArray());
+            return compressToBase64(driver.getScreenshotAs(OutputType.BYTES));
         } catch (Exception e) {
             // If the session is DEAD, the full-PNG fallback would just hit another
             // 90s readTimeout (and ExtentReport calls this per step + at teardown),
@@ -199,6 +169,47 @@ public class ScreenshotUtil {
         }
     }
 
+    /**
+     * Re-encode already-captured PNG bytes the same way (JPEG at the configured
+     * quality and scale) — FlightRecorder keeps raw bytes and pays for this only
+     * when a test fails. Undecodable bytes are returned as-is (Base64 PNG).
+     */
+    public static String compressToBase64(byte[] pngBytes) throws java.io.IOException {
+        if (!COMPRESS_ENABLED) {
+            return java.util.Base64.getEncoder().encodeToString(pngBytes);
+        }
+        java.awt.image.BufferedImage src =
+            javax.imageio.ImageIO.read(new java.io.ByteArrayInputStream(pngBytes));
+        if (src == null) {
+            return java.util.Base64.getEncoder().encodeToString(pngBytes);
+        }
+        int dstW = Math.max(1, (int) Math.round(src.getWidth() * SCALE));
+        int dstH = Math.max(1, (int) Math.round(src.getHeight() * SCALE));
+        java.awt.image.BufferedImage dst = new java.awt.image.BufferedImage(
+            dstW, dstH, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = dst.createGraphics();
+        g.setRenderingHint(java.awt.RenderingHints.KEY_INTERPOLATION,
+            java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, 0, 0, dstW, dstH, null);
+        g.dispose();
+
+        // JPEG-encode at configured quality
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+        javax.imageio.ImageWriter writer = javax.imageio.ImageIO
+            .getImageWritersByFormatName("jpeg").next();
+        javax.imageio.ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(javax.imageio.ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality((float) JPEG_QUALITY);
+        try (javax.imageio.stream.ImageOutputStream ios =
+                 javax.imageio.ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(ios);
+            writer.write(null, new javax.imageio.IIOImage(dst, null, null), param);
+        }
+        writer.dispose();
+
+        return java.util.Base64.getEncoder().encodeToString(baos.toByteArray());
+    }
+
     private static final boolean COMPRESS_ENABLED =
         !"false".equalsIgnoreCase(System.getProperty("screenshots.compress", "true"));
     // Detailed reports go to workflow artifacts (not email), so we can be
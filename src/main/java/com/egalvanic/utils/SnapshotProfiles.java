@@ -0,0 +1,432 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-screen WDA snapshot settings, learned from what each screen's lookups
+ * actually cost — one instance per Appium session, profiles shared JVM-wide.
+ *
+ * snapshotMaxDepth / customSnapshotTimeout are global capabilities
+ * (AppConstants.SNAPSHOT_MAX_DEPTH=40, CUSTOM_SNAPSHOT_TIMEOUT=10s) and only
+ * the places someone remembered to wrap in BasePage.withShallowSnapshots ever
+ * ran shallower. Light screens paid for 40 levels they never use; heavy
+ * screens (Asset Details embedding Issues/Connections lists) wedged WDA
+ * until a crash taught us to clamp them by hand.
+ *
+ * Screen key: WDA has no cheap screen id (asking for one IS a snapshot), so
+ * the key is the page-object method issuing the lookup — the nearest
+ * {@code com.egalvanic.pages} frame on the calling stack, e.g.
+ * {@code AssetPage.selectAssetSubtypeInner}. A page-object method operates on
+ * one screen, and the stack walk costs microseconds against a 100ms+ lookup.
+ *
+ * Learning, per key (all lookups — find/findElements, root and child):
+ *   - Every key starts at the global depth. After {@link #DESCEND_AFTER}
+ *     found lookups at its current depth the profile tries {@link #STEP}
+ *     levels shallower, never below SNAPSHOT_PROFILE_MIN_DEPTH. A lookup
+ *     slower than half the global snapshot timeout descends immediately —
+ *     heavy screens converge in a few lookups.
+ *   - Completeness: a miss at a clamped depth is repeated at the global
+ *     depth before the caller sees anything — a locator this key has never
+ *     found may simply live deeper than the clamp. Found there => the clamp
+ *     hid it: the key's floor rises for good to the shallowest depth that
+ *     locator has ever been found at (proven sufficient; the global depth for
+ *     one never found before). Missing there too => genuinely absent, and the
+ *     key remembers so for {@link #ABSENT_TTL_MS}: further clamped misses of
+ *     that locator are final, so a findElements poll (isElementGone, existsNow)
+ *     re-checks once, not on every poll. A re-check costs three round trips —
+ *     setSettings to the global depth, the repeated lookup, and a setSettings
+ *     back on the key's next lookup. At the global depth a miss is final.
+ *   - customSnapshotTimeout = 4x the key's p95 found-lookup latency, clamped
+ *     to [SNAPSHOT_PROFILE_MIN_TIMEOUT_SEC, CUSTOM_SNAPSHOT_TIMEOUT]: a light
+ *     screen that starts to wedge fails in 3s, not 10s.
+ * animationCoolOffTimeout is already 0 globally and is left alone.
+ *
+ * Applying: before a keyed lookup whose profile differs from what the
+ * session currently runs, ONE setSettings goes out first. Unattributed
+ * lookups (test code, the health heartbeat) run at the global values. While
+ * BasePage.withShallowSnapshots has pinned an explicit depth ({@link #pin()})
+ * nothing is applied — the explicit clamp wins — but lookups still teach.
+ *
+ * Driver-free: the key source and clock are injectable; the self-test drives
+ * it with a scripted "WDA" lambda. Kill switch: -DSNAPSHOT_PROFILES=false.
+ */
+public final class SnapshotProfiles {
+
+    // Found lookups at the current depth before trying STEP levels shallower,
+    // and the latency ring (p95 source) per key.
+    static final int DESCEND_AFTER = 5;
+    static final int STEP = 5;
+    static final int LATENCY_SAMPLES = 16;
+    // Remembered found-locators per key (completeness check), bounded.
+    static final int MAX_LOCATORS = 64;
+    // How long a locator confirmed absent at the global depth skips the re-check:
+    // spans a poll loop, not the next test reaching the same page method.
+    static final long ABSENT_TTL_MS = 30_000;
+
+    private static final String SET_SETTINGS = "setSettings";
+    private static final String PAGES_PACKAGE = "com.egalvanic.pages.";
+
+    private static final Map<String, Profile> PROFILES = new ConcurrentHashMap<>();
+    private static final AtomicInteger PINS = new AtomicInteger();
+    private static final AtomicLong SWITCHES = new AtomicLong();
+    private static final AtomicLong VERIFIES = new AtomicLong();
+    private static final AtomicLong VERIFIES_SKIPPED = new AtomicLong();
+    private static final AtomicLong FLOOR_RAISES = new AtomicLong();
+
+    private final boolean enabled;
+    private final int globalDepth;
+    private final int globalTimeoutSec;
+    private final int minDepth;
+    private final int minTimeoutSec;
+    private final Supplier<String> screenKey;
+    private final LongSupplier clock;
+
+    // What this session's WDA is running right now.
+    private int appliedDepth;
+    private int appliedTimeoutSec;
+
+    public SnapshotProfiles(boolean enabled) {
+        this(enabled, AppConstants.SNAPSHOT_MAX_DEPTH, AppConstants.CUSTOM_SNAPSHOT_TIMEOUT,
+            AppConstants.SNAPSHOT_PROFILE_MIN_DEPTH, AppConstants.SNAPSHOT_PROFILE_MIN_TIMEOUT_SEC,
+            SnapshotProfiles::callingPageMethod, System::currentTimeMillis);
+    }
+
+    /** Seam for driver-free self-tests: inject globals, floors, key source and clock. */
+    public SnapshotProfiles(boolean enabled, int globalDepth, int globalTimeoutSec, int minDepth,
+                            int minTimeoutSec, Supplier<String> screenKey, LongSupplier clock) {
+        this.enabled = enabled;
+        this.globalDepth = globalDepth;
+        this.globalTimeoutSec = globalTimeoutSec;
+        this.minDepth = Math.min(minDepth, globalDepth);
+        this.minTimeoutSec = Math.min(minTimeoutSec, globalTimeoutSec);
+        this.screenKey = screenKey;
+        this.clock = clock;
+        this.appliedDepth = globalDepth;
+        this.appliedTimeoutSec = globalTimeoutSec;
+    }
+
+    /**
+     * Route one driver command. {@code real} performs the actual exchange
+     * (CommandDeadline + super.execute in DriverManager's IOSDriver).
+     */
+    public Response execute(CommandPayload payload, Function<CommandPayload, Response> real) {
+        if (!enabled) {
+            return real.apply(payload);
+        }
+        String name = payload.getName();
+        if (SET_SETTINGS.equals(name)) {
+            Response r = real.apply(payload);
+            observeSettings(payload.getParameters());
+            return r;
+        }
+        if (!isLookup(name)) {
+            return real.apply(payload);
+        }
+
+        String key = screenKey.get();
+        Profile profile = key == null ? null : PROFILES.computeIfAbsent(key, k -> new Profile(globalDepth, globalTimeoutSec));
+        if (PINS.get() == 0) {
+            if (profile == null) {
+                apply(globalDepth, globalTimeoutSec, real);
+            } else {
+                apply(profile.depth(), profile.timeoutSec(), real);
+            }
+        }
+        if (profile == null) {
+            return real.apply(payload);
+        }
+
+        String locator = payload.getParameters().get("using") + "|" + payload.getParameters().get("value");
+        int depthInForce = currentDepth();
+        long start = clock.getAsLong();
+        Response response;
+        try {
+            response = real.apply(payload);
+        } catch (NoSuchElementException miss) {
+            Response verified = verifyMiss(profile, locator, depthInForce, payload, real);
+            if (verified == null) {
+                throw miss;
+            }
+            return verified;
+        }
+        if (found(response)) {
+            learnFound(profile, locator, depthInForce, clock.getAsLong() - start);
+            return response;
+        }
+        // findElements came back empty
+        Response verified = verifyMiss(profile, locator, depthInForce, payload, real);
+        return verified == null ? response : verified;
+    }
+
+    /**
+     * A miss at a clamped depth: repeat at the global depth, unless the key
+     * confirmed this locator absent there recently. Returns the found response
+     * (floor raised) or null when the element is genuinely absent.
+     */
+    private Response verifyMiss(Profile profile, String locator, int depthInForce,
+                                CommandPayload payload, Function<CommandPayload, Response> real) {
+        if (depthInForce >= globalDepth || PINS.get() > 0) {
+            return null;
+        }
+        if (profile.knownAbsent(locator, clock.getAsLong())) {
+            VERIFIES_SKIPPED.incrementAndGet();
+            return null;
+        }
+        VERIFIES.incrementAndGet();
+        apply(globalDepth, appliedTimeoutSec, real);
+        Response retry;
+        try {
+            retry = real.apply(payload);
+        } catch (NoSuchElementException stillMissing) {
+            retry = null;
+        }
+        if (found(retry)) {
+            profile.raiseFloor(profile.foundAt(locator, globalDepth), globalDepth);
+            FLOOR_RAISES.incrementAndGet();
+            System.out.println("📐 Snapshot profile: depth " + depthInForce + " hid " + locator
+                + " — floor raised to " + profile.depth());
+            return retry;
+        }
+        profile.forget(locator);
+        profile.markAbsent(locator, clock.getAsLong());
+        return null;
+    }
+
+    private void learnFound(Profile profile, String locator, int depthInForce, long latencyMs) {
+        long heavyMs = globalTimeoutSec * 1000L / 2;
+        profile.record(locator, depthInForce, latencyMs, latencyMs >= heavyMs, minDepth, minTimeoutSec, globalTimeoutSec);
+    }
+
+    private void apply(int depth, int timeoutSec, Function<CommandPayload, Response> real) {
+        int curDepth;
+        int curTimeout;
+        synchronized (this) {
+            curDepth = appliedDepth;
+            curTimeout = appliedTimeoutSec;
+        }
+        if (depth == curDepth && timeoutSec == curTimeout) {
+            return;
+        }
+        try {
+            real.apply(new CommandPayload(SET_SETTINGS, Map.of("settings",
+                Map.of("snapshotMaxDepth", depth, "customSnapshotTimeout", timeoutSec))));
+            synchronized (this) {
+                appliedDepth = depth;
+                appliedTimeoutSec = timeoutSec;
+            }
+            SWITCHES.incrementAndGet();
+        } catch (Exception e) {
+            System.out.println("⚠️ Snapshot profile: could not apply depth " + depth + ": " + e.getMessage());
+        }
+    }
+
+    private synchronized void observeSettings(Map<String, ?> params) {
+        Object settings = params.get("settings");
+        if (!(settings instanceof Map)) {
+            return;
+        }
+        Object depth = ((Map<?, ?>) settings).get("snapshotMaxDepth");
+        Object timeout = ((Map<?, ?>) settings).get("customSnapshotTimeout");
+        if (depth instanceof Number) {
+            appliedDepth = ((Number) depth).intValue();
+        }
+        if (timeout instanceof Number) {
+            appliedTimeoutSec = ((Number) timeout).intValue();
+        }
+    }
+
+    public synchronized int currentDepth() {
+        return appliedDepth;
+    }
+
+    public synchronized int currentTimeoutSec() {
+        return appliedTimeoutSec;
+    }
+
+    private static boolean isLookup(String name) {
+        return DriverCommand.FIND_ELEMENT.equals(name)
+            || DriverCommand.FIND_ELEMENTS.equals(name)
+            || DriverCommand.FIND_CHILD_ELEMENT.equals(name)
+            || DriverCommand.FIND_CHILD_ELEMENTS.equals(name);
+    }
+
+    private static boolean found(Response r) {
+        if (r == null || r.getValue() == null) {
+            return false;
+        }
+        Object v = r.getValue();
+        return !(v instanceof Collection) || !((Collection<?>) v).isEmpty();
+    }
+
+    /** Nearest page-object frame on the calling stack ("AssetPage.openDetails"), or null. */
+    private static String callingPageMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith(PAGES_PACKAGE))
+            .findFirst()
+            .map(f -> f.getClassName().substring(PAGES_PACKAGE.length()) + "." + f.getMethodName())
+            .orElse(null));
+    }
+
+    // ================================================================
+    // PINNING (BasePage.withShallowSnapshots)
+    // ================================================================
+
+    /** An explicit depth clamp is in force: stop applying profiles until {@link #unpin()}. */
+    public static void pin() {
+        PINS.incrementAndGet();
+    }
+
+    public static void unpin() {
+        PINS.updateAndGet(n -> Math.max(0, n - 1));
+    }
+
+    // ================================================================
+    // PROFILE (per screen key, JVM-wide)
+    // ================================================================
+
+    static final class Profile {
+        private int depth;
+        private int floor;
+        private int timeoutSec;
+        private int streak;
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int latencyCount;
+        // locator -> shallowest depth it has been found at
+        private final Map<String, Integer> found = new LinkedHashMap<>();
+        // locator -> when a global-depth re-check last confirmed it absent
+        private final Map<String, Long> absent = new LinkedHashMap<>();
+
+        Profile(int globalDepth, int globalTimeoutSec) {
+            this.depth = globalDepth;
+            this.timeoutSec = globalTimeoutSec;
+        }
+
+        synchronized int depth() {
+            return depth;
+        }
+
+        synchronized int timeoutSec() {
+            return timeoutSec;
+        }
+
+        synchronized int foundAt(String locator, int globalDepth) {
+            return found.getOrDefault(locator, globalDepth);
+        }
+
+        synchronized void forget(String locator) {
+            found.remove(locator);
+        }
+
+        synchronized void markAbsent(String locator, long now) {
+            absent.remove(locator);
+            absent.put(locator, now);
+            if (absent.size() > MAX_LOCATORS) {
+                absent.remove(absent.keySet().iterator().next());
+            }
+        }
+
+        synchronized boolean knownAbsent(String locator, long now) {
+            Long at = absent.get(locator);
+            if (at == null) {
+                return false;
+            }
+            if (now - at >= ABSENT_TTL_MS) {
+                absent.remove(locator);
+                return false;
+            }
+            return true;
+        }
+
+        synchronized void raiseFloor(int newFloor, int globalDepth) {
+            floor = Math.max(floor, Math.min(newFloor, globalDepth));
+            depth = Math.max(depth, floor);
+            streak = 0;
+        }
+
+        synchronized void record(String locator, int depthInForce, long latencyMs, boolean heavy,
+                                 int minDepth, int minTimeoutSec, int globalTimeoutSec) {
+            absent.remove(locator);
+            Integer seenAt = found.remove(locator);
+            found.put(locator, seenAt == null ? depthInForce : Math.min(seenAt, depthInForce));
+            if (found.size() > MAX_LOCATORS) {
+                found.remove(found.keySet().iterator().next());
+            }
+            latencies[latencyCount++ % LATENCY_SAMPLES] = latencyMs;
+            int n = Math.min(latencyCount, LATENCY_SAMPLES);
+            if (n >= DESCEND_AFTER) {
+                long[] sorted = Arrays.copyOf(latencies, n);
+                Arrays.sort(sorted);
+                long p95 = sorted[Math.min(n - 1, (int) Math.ceil(n * 0.95) - 1)];
+                int wanted = (int) Math.ceil(p95 * 4 / 1000.0);
+                timeoutSec = Math.max(minTimeoutSec, Math.min(globalTimeoutSec, wanted));
+            }
+            if (depthInForce != depth) {
+                return; // learned under someone else's depth (pinned / switching)
+            }
+            streak++;
+            int lowest = Math.max(minDepth, floor);
+            if ((heavy || streak >= DESCEND_AFTER) && depth - STEP >= lowest) {
+                depth -= STEP;
+                streak = 0;
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "depth " + depth + (floor > 0 ? " (floor " + floor + ")" : "") + ", timeout " + timeoutSec + "s";
+        }
+    }
+
+    // ================================================================
+    // JVM-WIDE STATS
+    // ================================================================
+
+    /** Current profile for a screen key (self-test / diagnostics), or null. */
+    public static String profileOf(String key) {
+        Profile p = PROFILES.get(key);
+        return p == null ? null : p.toString();
+    }
+
+    public static int depthOf(String key) {
+        Profile p = PROFILES.get(key);
+        return p == null ? -1 : p.depth();
+    }
+
+    public static int timeoutOf(String key) {
+        Profile p = PROFILES.get(key);
+        return p == null ? -1 : p.timeoutSec();
+    }
+
+    /** One-line summary for the suite log. */
+    public static String summary() {
+        long shallow = PROFILES.values().stream().filter(p -> p.depth() < AppConstants.SNAPSHOT_MAX_DEPTH).count();
+        return String.format("snapshot profiles: %d screens (%d below global depth), %d switches, %d completeness"
+            + " re-checks (%d skipped, known absent), %d floor raises", PROFILES.size(), shallow, SWITCHES.get(),
+            VERIFIES.get(), VERIFIES_SKIPPED.get(), FLOOR_RAISES.get());
+    }
+
+    /** Test seam: forget every profile and zero the counters. */
+    public static void reset() {
+        PROFILES.clear();
+        PINS.set(0);
+        SWITCHES.set(0);
+        VERIFIES.set(0);
+        VERIFIES_SKIPPED.set(0);
+        FLOOR_RAISES.set(0);
+    }
+}
@@ -0,0 +1,472 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run telemetry: counters, gauges and histograms, exported as OpenMetrics text
+ * and OTLP-JSON so dashboards can trend run efficiency across nights.
+ *
+ * RunHealth, the dead-session breaker, the environment retry and the progress
+ * listener only ever printed their state; answering "how long did driver init
+ * take this week" or "how many WDA rebuilds did Assets P1 need" meant grepping
+ * logs. The instrumented sites now also record here:
+ * <ul>
+ *   <li>DriverManager — init duration by outcome, init failures, WDA rebuilds,
+ *       and the latency of every Appium command by command name;</li>
+ *   <li>RunHealth — breaker trips, canary outcomes, the breaker state gauge;</li>
+ *   <li>EnvironmentRetryAnalyzer — retries granted;</li>
+ *   <li>TelemetryListener — setup/body/teardown durations per phase and class,
+ *       each test's last phase durations, and test outcomes.</li>
+ * </ul>
+ * The metric catalog is the constants below; all names carry the
+ * {@code egalvanic_} prefix. Recording is lock-free (LongAdder/DoubleAdder per
+ * series) so the per-command histogram costs nanoseconds on the driver path.
+ *
+ * TelemetryListener exports at suite end — and every TELEMETRY_INTERVAL_SEC
+ * while running, when set — to {@code TELEMETRY_DIR/openmetrics.txt} and
+ * {@code TELEMETRY_DIR/otlp-metrics.json}, each replaced atomically. Values are
+ * cumulative since the JVM started (one suite per JVM in CI), so an interval
+ * export is simply a newer snapshot. TELEMETRY=false turns recording and export off.
+ */
+public final class Telemetry {
+
+    public enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    private static final double[] PHASE_BUCKETS = {0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600};
+    private static final double[] COMMAND_BUCKETS = {0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 90};
+
+    private static final Map<String, Family> CATALOG = new LinkedHashMap<>();
+
+    public static final Family DRIVER_INIT_SECONDS = register(new Family("egalvanic_driver_init_seconds",
+        "Driver session creation time, including an inline WDA rebuild retry", Type.HISTOGRAM, "seconds", PHASE_BUCKETS));
+    public static final Family DRIVER_INIT_FAILURES = register(new Family("egalvanic_driver_init_failures",
+        "Driver inits that threw", Type.COUNTER, null, null));
+    public static final Family WDA_REBUILDS = register(new Family("egalvanic_wda_rebuilds",
+        "Sessions created with useNewWDA=true, by trigger (requested | inline)", Type.COUNTER, null, null));
+    public static final Family COMMAND_SECONDS = register(new Family("egalvanic_command_seconds",
+        "Appium command latency as seen by the test thread, by command", Type.HISTOGRAM, "seconds", COMMAND_BUCKETS));
+    public static final Family BREAKER_TRIPS = register(new Family("egalvanic_breaker_trips",
+        "RunHealth breaker trips (closed or half-open to open)", Type.COUNTER, null, null));
+    public static final Family BREAKER_CANARIES = register(new Family("egalvanic_breaker_canaries",
+        "Half-open canary verdicts, by outcome (healthy | failed)", Type.COUNTER, null, null));
+    public static final Family BREAKER_STATE = register(new Family("egalvanic_breaker_state",
+        "RunHealth breaker: 0 closed, 1 half-open, 2 open", Type.GAUGE, null, null));
+    public static final Family RETRIES = register(new Family("egalvanic_retries",
+        "Environmental retries granted, by reason kind (signature | app_state)", Type.COUNTER, null, null));
+    public static final Family TESTS = register(new Family("egalvanic_tests",
+        "Finished test attempts, by status (pass | fail | skip | retried | cached)", Type.COUNTER, null, null));
+    public static final Family TEST_PHASE_SECONDS = register(new Family("egalvanic_test_phase_seconds",
+        "Test phase durations, by phase (setup | body | teardown) and class", Type.HISTOGRAM, "seconds", PHASE_BUCKETS));
+    public static final Family TEST_LAST_PHASE_SECONDS = register(new Family("egalvanic_test_last_phase_seconds",
+        "Each test's latest phase duration, by test and phase", Type.GAUGE, "seconds", null));
+    public static final Family SCHEDULE_PROJECTED_SECONDS = register(new Family("egalvanic_schedule_projected_seconds",
+        "Projected suite duration from the first test until the remaining queue drains", Type.GAUGE, "seconds", null));
+    public static final Family SCHEDULE_CUTS = register(new Family("egalvanic_schedule_cuts",
+        "Tests skipped by the scheduler to fit the suite wall-clock budget", Type.COUNTER, null, null));
+
+    private static final Map<String, String> RESOURCE = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = AppConstants.TELEMETRY;
+    private static volatile long startNanosEpoch = epochNanos();
+    private static ScheduledExecutorService intervalExporter;
+
+    private Telemetry() {}
+
+    private static Family register(Family f) {
+        CATALOG.put(f.name, f);
+        return f;
+    }
+
+    // ================================================================
+    // METRIC FAMILIES
+    // ================================================================
+
+    /** One metric name; its series are keyed by label values, given as alternating name/value pairs. */
+    public static final class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final String unit;
+        private final double[] bounds;
+        private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type, String unit, double[] bounds) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.unit = unit;
+            this.bounds = bounds;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public void inc(String... labels) {
+            add(1, labels);
+        }
+
+        public void add(double amount, String... labels) {
+            if (enabled && amount >= 0) {
+                series(labels).sum.add(amount);
+            }
+        }
+
+        public void set(double value, String... labels) {
+            if (enabled) {
+                series(labels).gauge.set(Double.doubleToRawLongBits(value));
+            }
+        }
+
+        public void observe(double value, String... labels) {
+            if (!enabled) {
+                return;
+            }
+            Series s = series(labels);
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            s.buckets[i].increment();
+            s.count.increment();
+            s.sum.add(value);
+        }
+
+        /** Current value of a counter/gauge series, or a histogram's sum; 0 when never recorded. */
+        public double value(String... labels) {
+            Series s = series.get(key(labels));
+            if (s == null) {
+                return 0;
+            }
+            return type == Type.GAUGE ? Double.longBitsToDouble(s.gauge.get()) : s.sum.sum();
+        }
+
+        /** Observation count of a histogram series; 0 when never recorded. */
+        public long count(String... labels) {
+            Series s = series.get(key(labels));
+            return s == null ? 0 : s.count.sum();
+        }
+
+        private Series series(String[] labels) {
+            return series.computeIfAbsent(key(labels), k -> new Series(labels, bounds));
+        }
+
+        private static String key(String[] labels) {
+            return labels.length == 0 ? "" : String.join("\u0000", labels);
+        }
+
+        /** Series sorted by label key, so exports are stable across runs. */
+        private List<Series> sortedSeries() {
+            return new ArrayList<>(new TreeMap<>(series).values());
+        }
+    }
+
+    private static final class Series {
+        final String[] labels;
+        final DoubleAdder sum = new DoubleAdder();
+        final LongAdder count = new LongAdder();
+        final LongAdder[] buckets;
+        final AtomicLong gauge = new AtomicLong(Double.doubleToRawLongBits(0));
+
+        Series(String[] labels, double[] bounds) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("labels must be name/value pairs: " + Arrays.toString(labels));
+            }
+            this.labels = labels.clone();
+            this.buckets = new LongAdder[bounds == null ? 0 : bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+
+    /** Seconds since {@code startNanos} (System.nanoTime), for observe(). */
+    public static double secondsSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    /** Resource attribute exported with every snapshot (OTLP resource, OpenMetrics target_info). */
+    public static void resource(String key, String value) {
+        if (value != null && !value.isEmpty()) {
+            RESOURCE.put(key, value);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ================================================================
+    // EXPORT
+    // ================================================================
+
+    /** Write both formats to {@code dir}; failures are logged, never thrown into the run. */
+    public static void export(Path dir) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            writeAtomically(dir.resolve("openmetrics.txt"), openMetrics());
+            writeAtomically(dir.resolve("otlp-metrics.json"), otlpJson());
+        } catch (IOException | RuntimeException e) {
+            Log.warn("⚠️ Telemetry export to " + dir + " failed: " + e.getMessage());
+        }
+    }
+
+    public static void export() {
+        export(Paths.get(AppConstants.TELEMETRY_DIR));
+    }
+
+    /** Export every {@code seconds} on a daemon thread until {@link #stopIntervalExport}; 0 = off. */
+    public static synchronized void startIntervalExport(int seconds) {
+        if (!enabled || seconds <= 0 || intervalExporter != null) {
+            return;
+        }
+        intervalExporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "telemetry-export");
+            t.setDaemon(true);
+            return t;
+        });
+        intervalExporter.scheduleAtFixedRate(Telemetry::export, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopIntervalExport() {
+        if (intervalExporter != null) {
+            intervalExporter.shutdownNow();
+            intervalExporter = null;
+        }
+    }
+
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** OpenMetrics 1.0 text exposition: cumulative buckets, counters as {@code _total}, ends with {@code # EOF}. */
+    public static String openMetrics() {
+        StringBuilder sb = new StringBuilder(4096);
+        if (!RESOURCE.isEmpty()) {
+            sb.append("# TYPE target info\n# HELP target Run identity\ntarget_info");
+            List<String> pairs = new ArrayList<>();
+            new TreeMap<>(RESOURCE).forEach((k, v) -> {
+                pairs.add(k.replaceAll("[^a-zA-Z0-9_]", "_"));
+                pairs.add(v);
+            });
+            appendLabels(sb, pairs.toArray(new String[0]), null, null);
+            sb.append(" 1\n");
+        }
+        for (Family f : CATALOG.values()) {
+            if (f.series.isEmpty()) {
+                continue;
+            }
+            sb.append("# TYPE ").append(f.name).append(' ').append(f.type.name().toLowerCase(java.util.Locale.ROOT)).append('\n');
+            if (f.unit != null) {
+                sb.append("# UNIT ").append(f.name).append(' ').append(f.unit).append('\n');
+            }
+            sb.append("# HELP ").append(f.name).append(' ').append(escape(f.help)).append('\n');
+            for (Series s : f.sortedSeries()) {
+                switch (f.type) {
+                    case COUNTER:
+                        sb.append(f.name).append("_total");
+                        appendLabels(sb, s.labels, null, null);
+                        sb.append(' ').append(number(s.sum.sum())).append('\n');
+                        break;
+                    case GAUGE:
+                        sb.append(f.name);
+                        appendLabels(sb, s.labels, null, null);
+                        sb.append(' ').append(number(Double.longBitsToDouble(s.gauge.get()))).append('\n');
+                        break;
+                    case HISTOGRAM:
+                        long cumulative = 0;
+                        for (int i = 0; i < s.buckets.length; i++) {
+                            cumulative += s.buckets[i].sum();
+                            sb.append(f.name).append("_bucket");
+                            appendLabels(sb, s.labels, "le", i < f.bounds.length ? number(f.bounds[i]) : "+Inf");
+                            sb.append(' ').append(cumulative).append('\n');
+                        }
+                        sb.append(f.name).append("_count");
+                        appendLabels(sb, s.labels, null, null);
+                        sb.append(' ').append(s.count.sum()).append('\n');
+                        sb.append(f.name).append("_sum");
+                        appendLabels(sb, s.labels, null, null);
+                        sb.append(' ').append(number(s.sum.sum())).append('\n');
+                        break;
+                }
+            }
+        }
+        return sb.append("# EOF\n").toString();
+    }
+
+    private static void appendLabels(StringBuilder sb, String[] labels, String extraName, String extraValue) {
+        if (labels.length == 0 && extraName == null) {
+            return;
+        }
+        sb.append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        if (extraName != null) {
+            if (labels.length > 0) {
+                sb.append(',');
+            }
+            sb.append(extraName).append("=\"").append(extraValue).append('"');
+        }
+        sb.append('}');
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String number(double d) {
+        if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 1e15) {
+            return Long.toString((long) d);
+        }
+        return Double.toString(d);
+    }
+
+    /**
+     * OTLP/JSON ({@code ExportMetricsServiceRequest}, as the collector's file/HTTP
+     * receivers take it): cumulative temporality, delta-per-bucket counts, 64-bit
+     * integers as strings per the protobuf JSON mapping.
+     */
+    public static String otlpJson() {
+        String start = Long.toString(startNanosEpoch);
+        String now = Long.toString(epochNanos());
+
+        JsonArray resourceAttrs = new JsonArray();
+        resourceAttrs.add(attribute("service.name", "egalvanic-ios-tests"));
+        new TreeMap<>(RESOURCE).forEach((k, v) -> resourceAttrs.add(attribute(k, v)));
+
+        JsonArray metrics = new JsonArray();
+        for (Family f : CATALOG.values()) {
+            if (f.series.isEmpty()) {
+                continue;
+            }
+            JsonArray points = new JsonArray();
+            for (Series s : f.sortedSeries()) {
+                JsonObject p = new JsonObject();
+                JsonArray attrs = new JsonArray();
+                for (int i = 0; i < s.labels.length; i += 2) {
+                    attrs.add(attribute(s.labels[i], s.labels[i + 1]));
+                }
+                p.add("attributes", attrs);
+                p.addProperty("startTimeUnixNano", start);
+                p.addProperty("timeUnixNano", now);
+                switch (f.type) {
+                    case COUNTER:
+                        p.addProperty("asDouble", s.sum.sum());
+                        break;
+                    case GAUGE:
+                        p.addProperty("asDouble", Double.longBitsToDouble(s.gauge.get()));
+                        break;
+                    case HISTOGRAM:
+                        p.addProperty("count", Long.toString(s.count.sum()));
+                        p.addProperty("sum", s.sum.sum());
+                        JsonArray counts = new JsonArray();
+                        for (LongAdder b : s.buckets) {
+                            counts.add(Long.toString(b.sum()));
+                        }
+                        JsonArray bounds = new JsonArray();
+                        for (double b : f.bounds) {
+                            bounds.add(b);
+                        }
+                        p.add("bucketCounts", counts);
+                        p.add("explicitBounds", bounds);
+                        break;
+                }
+                points.add(p);
+            }
+            JsonObject data = new JsonObject();
+            data.add("dataPoints", points);
+            if (f.type != Type.GAUGE) {
+                data.addProperty("aggregationTemporality", 2); // CUMULATIVE
+            }
+            if (f.type == Type.COUNTER) {
+                data.addProperty("isMonotonic", true);
+            }
+            JsonObject metric = new JsonObject();
+            metric.addProperty("name", f.name);
+            metric.addProperty("description", f.help);
+            metric.addProperty("unit", "seconds".equals(f.unit) ? "s" : "1");
+            metric.add(f.type == Type.COUNTER ? "sum" : f.type == Type.GAUGE ? "gauge" : "histogram", data);
+            metrics.add(metric);
+        }
+
+        JsonObject scope = new JsonObject();
+        scope.addProperty("name", "com.egalvanic.utils.Telemetry");
+        JsonObject scopeMetrics = new JsonObject();
+        scopeMetrics.add("scope", scope);
+        scopeMetrics.add("metrics", metrics);
+        JsonArray scopes = new JsonArray();
+        scopes.add(scopeMetrics);
+
+        JsonObject resource = new JsonObject();
+        resource.add("attributes", resourceAttrs);
+        JsonObject rm = new JsonObject();
+        rm.add("resource", resource);
+        rm.add("scopeMetrics", scopes);
+        JsonArray rms = new JsonArray();
+        rms.add(rm);
+        JsonObject root = new JsonObject();
+        root.add("resourceMetrics", rms);
+        return new GsonBuilder().disableHtmlEscaping().create().toJson(root);
+    }
+
+    private static JsonObject attribute(String key, String value) {
+        JsonObject v = new JsonObject();
+        v.addProperty("stringValue", value);
+        JsonObject a = new JsonObject();
+        a.addProperty("key", key);
+        a.add("value", v);
+        return a;
+    }
+
+    private static long epochNanos() {
+        java.time.Instant now = java.time.Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /** Test seam: all series and resource attributes cleared, recording on/off, start time now. */
+    public static void reset(boolean enable) {
+        stopIntervalExport();
+        for (Family f : CATALOG.values()) {
+            f.series.clear();
+        }
+        RESOURCE.clear();
+        enabled = enable;
+        startNanosEpoch = epochNanos();
+    }
+}
@@ -0,0 +1,379 @@
+package com.egalvanic.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Budget-aware test scheduler behind {@link RunHealth}: instead of skipping
+ * whatever TestNG happened to leave for last once SUITE_WALL_MINUTES has passed,
+ * it plans the run so the most valuable work fits the budget.
+ *
+ * <ul>
+ *   <li><b>Estimates</b> — each test's median duration from history (the
+ *       consolidated report's results-summary.tsv rows, TEST_HISTORY), or the
+ *       default for tests never seen. History is body time only; the pace below
+ *       absorbs setup/teardown overhead.</li>
+ *   <li><b>Value</b> — 1, +2 x historical failure rate (failing tests find
+ *       regressions), +1 for a high-value group (smoke), +0.5 for a test with no
+ *       history. What a test is worth per estimated second decides what is cut.</li>
+ *   <li><b>Pace</b> — wall time since the first test over the estimates of the
+ *       tests that ran, blended with a neutral prior so two slow tests do not
+ *       swing it. The projected finish is elapsed + pace x remaining estimates.</li>
+ *   <li><b>Queue</b> — the order TestNG hands over (XML class order, priority
+ *       and authored order within a class, dependsOn wiring) is the order that
+ *       runs; the scheduler never reorders it. A class's early tests often set up
+ *       what its later ones use, so a class is only ever trimmed from its end.</li>
+ *   <li><b>Re-plan</b> — before every test the projection is recomputed; while it
+ *       overruns, the lowest-density test among the classes' last remaining tests
+ *       is cut, again and again, until it fits. A test in the cut set is skipped
+ *       now rather than at the cap. A run that fits its budget is never cut.</li>
+ * </ul>
+ */
+public final class TestScheduler {
+
+    /** A test as TestNG hands it over: key = class#method. */
+    public static final class Candidate {
+        final String key;
+        final String className;
+        final Set<String> groups;
+
+        public Candidate(String className, String method, String[] groups) {
+            this.key = className + "#" + method;
+            this.className = className;
+            this.groups = new HashSet<>(Arrays.asList(groups));
+        }
+    }
+
+    /** Per-test durations and outcomes across past runs. */
+    public static final class History {
+        private final Map<String, List<Long>> durations = new HashMap<>();
+        private final Map<String, int[]> outcomes = new HashMap<>(); // {runs, failures}
+
+        public static History empty() {
+            return new History();
+        }
+
+        /** Summary TSVs (module, class, method, status, duration_ms, ...); a directory contributes its *.tsv. */
+        public static History load(List<Path> paths) {
+            History h = new History();
+            for (Path p : paths) {
+                try {
+                    if (Files.isDirectory(p)) {
+                        try (Stream<Path> files = Files.list(p)) {
+                            for (Path f : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".tsv")).sorted()::iterator) {
+                                h.read(f);
+                            }
+                        }
+                    } else if (Files.exists(p)) {
+                        h.read(p);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Log.warn("⚠️ Scheduler: test history " + p + " unreadable (" + e.getMessage() + ") — ignored");
+                }
+            }
+            return h;
+        }
+
+        /** TEST_HISTORY: comma-separated files/directories; empty = no history. */
+        public static History fromSetting(String setting) {
+            List<Path> paths = new ArrayList<>();
+            for (String s : setting.split(",")) {
+                if (!s.isBlank()) {
+                    paths.add(Paths.get(s.trim()));
+                }
+            }
+            return load(paths);
+        }
+
+        private void read(Path file) throws IOException {
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                parse(r);
+            }
+        }
+
+        public History parse(Reader source) throws IOException {
+            BufferedReader in = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.split("\t", -1);
+                if (f.length < 5 || "class".equals(f[1])) {
+                    continue; // header or malformed
+                }
+                String key = f[1] + "#" + f[2];
+                int[] o = outcomes.computeIfAbsent(key, k -> new int[2]);
+                if ("SKIP".equals(f[3]) || "CACHED".equals(f[3])) {
+                    continue; // a skip or a reused PASS says nothing about duration or health
+                }
+                o[0]++;
+                if ("FAIL".equals(f[3])) {
+                    o[1]++;
+                }
+                try {
+                    durations.computeIfAbsent(key, k -> new ArrayList<>()).add(Long.parseLong(f[4]));
+                } catch (NumberFormatException ignored) {
+                    // keep the outcome, drop the duration
+                }
+            }
+            return this;
+        }
+
+        /** Median duration, or -1 when the test has no timed run. */
+        long medianMs(String key) {
+            List<Long> d = durations.get(key);
+            if (d == null || d.isEmpty()) {
+                return -1;
+            }
+            List<Long> sorted = new ArrayList<>(d);
+            Collections.sort(sorted);
+            return sorted.get(sorted.size() / 2);
+        }
+
+        double failureRate(String key) {
+            int[] o = outcomes.get(key);
+            return o == null || o[0] == 0 ? 0 : (double) o[1] / o[0];
+        }
+
+        boolean knows(String key) {
+            return durations.containsKey(key);
+        }
+
+        public int size() {
+            return durations.size();
+        }
+    }
+
+    private static final class Entry {
+        final Candidate test;
+        final long estimateMs;
+        final double value;
+        final int order;
+
+        Entry(Candidate test, long estimateMs, double value, int order) {
+            this.test = test;
+            this.estimateMs = estimateMs;
+            this.value = value;
+            this.order = order;
+        }
+
+        double density() {
+            return value / Math.max(1_000, estimateMs);
+        }
+    }
+
+    /** Lowest value per second first; among equals the one queued last goes first. */
+    private static final Comparator<Entry> CUT_ORDER = Comparator.comparingDouble(Entry::density)
+        .thenComparing(Comparator.comparingInt((Entry e) -> e.order).reversed());
+
+    private final long budgetMs;
+    private final long defaultEstimateMs;
+    private final Set<String> highValueGroups;
+    private final History history;
+    private final LongSupplier clock;
+    private final boolean enabled;
+
+    private final Map<String, Entry> remaining = new LinkedHashMap<>();
+    private int queued = 0;
+    private long startMs = 0;
+    private long ranEstimateMs = 0;
+    private boolean overrunReported = false;
+
+    public TestScheduler(boolean enabled, long budgetMs, long defaultEstimateMs, Set<String> highValueGroups,
+                         History history, LongSupplier clock) {
+        this.enabled = enabled;
+        this.budgetMs = budgetMs;
+        this.defaultEstimateMs = defaultEstimateMs;
+        this.highValueGroups = highValueGroups;
+        this.history = history;
+        this.clock = clock;
+    }
+
+    // ================================================================
+    // PLAN (TestNG's method interceptor, once per <test> block)
+    // ================================================================
+
+    /** Queue these tests, in the order TestNG runs them. */
+    public synchronized void plan(List<Candidate> tests) {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (Candidate t : tests) {
+            entries.add(entry(t));
+        }
+        long projected = elapsedMs() + Math.round(pace() * (remainingEstimateMs() + sum(entries)));
+        if (budgetMs > 0 && projected > budgetMs) {
+            Log.info("⏱️ Scheduler: " + tests.size() + " tests project to " + minutes(projected)
+                + " against a " + minutes(budgetMs) + " budget — the least valuable tests at the ends"
+                + " of their classes will be cut to fit");
+        }
+        for (Entry e : entries) {
+            remaining.put(e.test.key, new Entry(e.test, e.estimateMs, e.value, queued++));
+        }
+        publish();
+    }
+
+    // ================================================================
+    // RE-PLAN (BaseTest.testSetup, before every test)
+    // ================================================================
+
+    /**
+     * Null when {@code key} should run; otherwise why it is skipped: the remaining
+     * queue projects past the budget and this test is among the least valuable
+     * per minute that have to go for the rest to fit. Only a class's last remaining
+     * test is ever a candidate, so a test is cut only with everything after it.
+     */
+    public synchronized String skipReason(String key) {
+        if (startMs == 0) {
+            startMs = clock.getAsLong();
+        }
+        Entry self = remaining.get(key);
+        if (!enabled || budgetMs <= 0 || self == null) {
+            return null;
+        }
+        double pace = pace();
+        long elapsed = elapsedMs();
+        long projected = elapsed + Math.round(pace * remainingEstimateMs());
+        publish();
+        if (projected <= budgetMs) {
+            return null;
+        }
+        if (!overrunReported) {
+            overrunReported = true;
+            Log.warn("⚠️ Scheduler: projected finish " + minutes(projected) + " overruns the "
+                + minutes(budgetMs) + " budget (pace " + String.format("%.2f", pace)
+                + "x history) — cutting the least valuable remaining tests now instead of at the cap");
+            TraceTimeline.instant("schedule overrun", "schedule", minutes(projected) + " projected", true);
+        }
+        Map<String, List<Entry>> byClass = new LinkedHashMap<>();
+        for (Entry e : remaining.values()) {
+            byClass.computeIfAbsent(e.test.className, c -> new ArrayList<>()).add(e);
+        }
+        while (projected > budgetMs) {
+            Entry e = null;
+            for (List<Entry> c : byClass.values()) {
+                Entry tail = c.isEmpty() ? null : c.get(c.size() - 1);
+                if (tail != null && (e == null || CUT_ORDER.compare(tail, e) < 0)) {
+                    e = tail;
+                }
+            }
+            if (e == null) {
+                break;
+            }
+            if (e == self) {
+                remaining.remove(key);
+                Telemetry.SCHEDULE_CUTS.inc();
+                return "Scheduler: skipped to fit the " + minutes(budgetMs) + " SUITE_WALL budget — the remaining "
+                    + "tests projected to finish at " + minutes(projected) + " (pace " + String.format("%.2f", pace)
+                    + "x), and this one is among the least valuable per minute (estimate "
+                    + minutes(self.estimateMs) + ", history failure rate "
+                    + Math.round(history.failureRate(key) * 100) + "%). It lands in failed-suites/ for the rerun.";
+            }
+            List<Entry> c = byClass.get(e.test.className);
+            c.remove(c.size() - 1);
+            projected -= Math.round(pace * e.estimateMs);
+        }
+        return null;
+    }
+
+    /** A test finished: {@code ran} = its body ran (pass/fail), false for a skip. */
+    public synchronized void finished(String key, boolean ran) {
+        Entry e = remaining.remove(key);
+        if (e != null && ran) {
+            ranEstimateMs += e.estimateMs;
+        }
+    }
+
+    // ================================================================
+    // PROJECTION
+    // ================================================================
+
+    /** Wall time per estimated history second so far, pulled toward 1.0 early on. */
+    public synchronized double pace() {
+        long prior = 3 * defaultEstimateMs;
+        return (double) (elapsedMs() + prior) / (ranEstimateMs + prior);
+    }
+
+    /** Projected ms from the first test until the queue drains. */
+    public synchronized long projectedFinishMs() {
+        return elapsedMs() + Math.round(pace() * remainingEstimateMs());
+    }
+
+    public synchronized int remainingCount() {
+        return remaining.size();
+    }
+
+    /** The queue in planned order (keys), for logs and the self-test. */
+    public synchronized List<String> remainingKeys() {
+        return new ArrayList<>(remaining.keySet());
+    }
+
+    public synchronized long estimateMs(String key) {
+        long median = history.medianMs(key);
+        return median >= 0 ? median : defaultEstimateMs;
+    }
+
+    private Entry entry(Candidate t) {
+        long estimate = estimateMs(t.key);
+        double value = 1 + 2 * history.failureRate(t.key);
+        for (String g : t.groups) {
+            if (highValueGroups.contains(g)) {
+                value += 1;
+                break;
+            }
+        }
+        if (!history.knows(t.key)) {
+            value += 0.5;
+        }
+        return new Entry(t, estimate, value, -1);
+    }
+
+    private long elapsedMs() {
+        return startMs == 0 ? 0 : clock.getAsLong() - startMs;
+    }
+
+    private long remainingEstimateMs() {
+        return sum(remaining.values());
+    }
+
+    private static long sum(Iterable<Entry> entries) {
+        long s = 0;
+        for (Entry e : entries) {
+            s += e.estimateMs;
+        }
+        return s;
+    }
+
+    private void publish() {
+        Telemetry.SCHEDULE_PROJECTED_SECONDS.set(projectedFinishMs() / 1000.0);
+    }
+
+    private static String minutes(long ms) {
+        return Math.round(ms / 60_000.0) + " min";
+    }
+
+    /** Test seam / per-suite reset. */
+    public synchronized void reset() {
+        remaining.clear();
+        queued = 0;
+        startMs = 0;
+        ranEstimateMs = 0;
+        overrunReported = false;
+    }
+}
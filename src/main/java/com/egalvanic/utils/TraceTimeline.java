@@ -0,0 +1,372 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Chrome trace-event timeline of the run (chrome://tracing, ui.perfetto.dev).
+ *
+ * When a module creeps toward the 6h cap, the logs say what happened but not
+ * where the time went. Every run now streams a trace to TRACE_FILE:
+ * <ul>
+ *   <li>spans ("X" events) for @BeforeMethod, the test body and @AfterMethod
+ *       (TraceListener), driver init, login, screenshots and the report flush;</li>
+ *   <li>a span per page-object call and, nested in it, one per Appium command.
+ *       Page-object calls are not instrumented one by one: each command is
+ *       attributed to the outermost {@code com.egalvanic.pages} frame on its
+ *       stack, and consecutive commands from the same page method merge into
+ *       one span (two back-to-back calls of the same method read as one);</li>
+ *   <li>instant events for WDA rebuilds, retries, breaker trips and app crashes.</li>
+ * </ul>
+ * One process track per device (the running test's, see {@link #beginTest}),
+ * one thread track per thread, so parallel devices line up side by side.
+ *
+ * Events are written as they close, one per line, in the JSON Array Format —
+ * whose closing bracket is optional, so the trace of a job cancelled at the cap
+ * still loads. TRACE_FILE empty = off; spans are then a shared no-op.
+ */
+public final class TraceTimeline {
+
+    /** An open span; closing it writes the event. Use with try-with-resources. */
+    public static class Span implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final long startMicros;
+        private Map<String, Object> args;
+
+        Span(String name, String category, long startMicros) {
+            this.name = name;
+            this.category = category;
+            this.startMicros = startMicros;
+        }
+
+        /** Attach an argument shown in the event's detail pane. */
+        public Span arg(String key, Object value) {
+            if (args == null) {
+                args = new HashMap<>();
+            }
+            args.put(key, value);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            endPageCall();
+            long end = nowMicros();
+            complete(name, category, startMicros, end - startMicros, args);
+        }
+    }
+
+    private static final Span NOOP = new Span("", "", 0) {
+        @Override
+        public Span arg(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /** Commands from the same page-object method, merged until a different caller (or a span edge). */
+    private static final class PageCall {
+        final String name;
+        final long startMicros;
+        long endMicros;
+
+        PageCall(String name, long startMicros, long endMicros) {
+            this.name = name;
+            this.startMicros = startMicros;
+            this.endMicros = endMicros;
+        }
+    }
+
+    private static final String PAGES = "com.egalvanic.pages.";
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long ORIGIN_EPOCH_MICROS = System.currentTimeMillis() * 1000;
+
+    private static final ThreadLocal<PageCall> PAGE_CALL = new ThreadLocal<>();
+    private static final ThreadLocal<String> DEVICE = new ThreadLocal<>();
+    // The timeOut body runs on a thread setup never saw; one test runs at a time per JVM.
+    private static volatile String currentDevice;
+
+    private static final Object LOCK = new Object();
+    private static final Map<String, Integer> PIDS = new HashMap<>();
+    private static final Set<String> NAMED_THREADS = new HashSet<>();
+    private static Writer out;
+    private static boolean opened;
+    private static volatile boolean enabled = !AppConstants.TRACE_FILE.isEmpty();
+    private static volatile Path file = enabled ? Paths.get(AppConstants.TRACE_FILE) : null;
+    private static volatile String pagePackage = PAGES;
+
+    private TraceTimeline() {}
+
+    // ================================================================
+    // RECORDING
+    // ================================================================
+
+    public static Span span(String name, String category) {
+        if (!enabled) {
+            return NOOP;
+        }
+        endPageCall();
+        return new Span(name, category, nowMicros());
+    }
+
+    /**
+     * One Appium command that ran from {@code startNanos} (System.nanoTime) until
+     * now — the driver's execute hook. Also extends or starts the page-object span.
+     */
+    public static void command(String commandName, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        long start = toMicros(startNanos);
+        long end = nowMicros();
+        String pages = pagePackage;
+        Optional<String> caller = WALKER.walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith(pages))
+            .reduce((inner, outer) -> outer)
+            .map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName()));
+        PageCall open = PAGE_CALL.get();
+        if (open != null && !(caller.isPresent() && caller.get().equals(open.name))) {
+            endPageCall();
+            open = null;
+        }
+        if (caller.isPresent()) {
+            if (open == null) {
+                PAGE_CALL.set(new PageCall(caller.get(), start, end));
+            } else {
+                open.endMicros = end;
+            }
+        }
+        complete(commandName, "command", start, end - start, null);
+    }
+
+    /** Close this thread's merged page-object span, if one is open. */
+    public static void endPageCall() {
+        PageCall open = PAGE_CALL.get();
+        if (open != null) {
+            PAGE_CALL.remove();
+            complete(open.name, "page", open.startMicros, open.endMicros - open.startMicros, null);
+        }
+    }
+
+    /** A point-in-time marker on this thread's track, or across all tracks when {@code global}. */
+    public static void instant(String name, String category, String detail, boolean global) {
+        if (!enabled) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"name\":").append(quote(name))
+          .append(",\"cat\":").append(quote(category))
+          .append(",\"ph\":\"i\",\"s\":\"").append(global ? 'g' : 't').append('"')
+          .append(",\"ts\":").append(nowMicros());
+        if (detail != null) {
+            sb.append(",\"args\":{\"detail\":").append(quote(detail)).append('}');
+        }
+        emit(sb);
+    }
+
+    private static void complete(String name, String category, long ts, long dur, Map<String, Object> args) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"name\":").append(quote(name))
+          .append(",\"cat\":").append(quote(category))
+          .append(",\"ph\":\"X\",\"ts\":").append(ts)
+          .append(",\"dur\":").append(Math.max(0, dur));
+        if (args != null && !args.isEmpty()) {
+            sb.append(",\"args\":{");
+            boolean first = true;
+            for (Map.Entry<String, Object> a : args.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                Object v = a.getValue();
+                sb.append(quote(a.getKey())).append(':')
+                  .append(v instanceof Number || v instanceof Boolean ? String.valueOf(v) : quote(String.valueOf(v)));
+            }
+            sb.append('}');
+        }
+        emit(sb);
+    }
+
+    /** Append pid/tid (and their name metadata the first time a track is seen) and write the line. */
+    private static void emit(StringBuilder event) {
+        String device = device();
+        Thread t = Thread.currentThread();
+        synchronized (LOCK) {
+            if (!enabled) {
+                return;
+            }
+            try {
+                Writer w = writer();
+                Integer pid = PIDS.get(device);
+                if (pid == null) {
+                    pid = PIDS.size() + 1;
+                    PIDS.put(device, pid);
+                    w.write(",\n{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + pid
+                        + ",\"args\":{\"name\":" + quote("device " + device) + "}}");
+                }
+                if (NAMED_THREADS.add(pid + ":" + t.getId())) {
+                    w.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + pid + ",\"tid\":" + t.getId()
+                        + ",\"args\":{\"name\":" + quote(t.getName()) + "}}");
+                }
+                w.write(",\n"); // events arrive without their closing brace: pid/tid go last
+                w.append(event).append(",\"pid\":").append(String.valueOf(pid))
+                 .append(",\"tid\":").append(String.valueOf(t.getId())).append('}');
+            } catch (IOException e) {
+                enabled = false;
+                Log.warn("⚠️ Trace timeline disabled — write to " + file + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Writer writer() throws IOException {
+        if (out == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 64 * 1024);
+            Runtime.getRuntime().addShutdownHook(new Thread(TraceTimeline::close, "trace-close"));
+        }
+        if (!opened) {
+            // Leading metadata event so every real event can be written as ",\n{...}".
+            out.write("[{\"name\":\"trace\",\"ph\":\"M\",\"pid\":0,\"args\":{\"origin_epoch_us\":"
+                + ORIGIN_EPOCH_MICROS + "}}");
+            opened = true;
+        }
+        return out;
+    }
+
+    /**
+     * BaseTest.testSetup: the test about to run drives {@code deviceId}. Events of this
+     * thread, and of threads that never began a test of their own, go to its track.
+     */
+    public static void beginTest(String deviceId) {
+        String d = deviceId == null || deviceId.isEmpty() ? null : deviceId;
+        DEVICE.set(d);
+        currentDevice = d;
+    }
+
+    /** This thread's test device, else the current test's (e.g. on its timeOut thread), else "host". */
+    private static String device() {
+        String d = DEVICE.get();
+        if (d == null) {
+            d = currentDevice;
+        }
+        return d != null ? d : "host";
+    }
+
+    // ================================================================
+    // LIFECYCLE
+    // ================================================================
+
+    /** Push buffered events to disk (end of each test), so a killed job keeps a recent trace. */
+    public static void flush() {
+        synchronized (LOCK) {
+            if (out != null) {
+                try {
+                    out.flush();
+                } catch (IOException ignored) {
+                    // next write reports it
+                }
+            }
+        }
+    }
+
+    /** Terminate the JSON array and close the file (suite end, shutdown hook). Idempotent. */
+    public static void close() {
+        synchronized (LOCK) {
+            if (out == null) {
+                return;
+            }
+            try {
+                if (opened) {
+                    out.write("\n]\n");
+                }
+                out.close();
+            } catch (IOException ignored) {
+                // best effort at shutdown
+            }
+            out = null;
+            opened = false;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Test seam: trace into {@code writer} (null = off), attributing commands to frames
+     * under {@code pagePackagePrefix}; tracks and open page calls forgotten.
+     */
+    public static void configureForTest(Writer writer, String pagePackagePrefix) {
+        synchronized (LOCK) {
+            close();
+            PIDS.clear();
+            NAMED_THREADS.clear();
+            out = writer;
+            enabled = writer != null;
+            pagePackage = pagePackagePrefix;
+        }
+        PAGE_CALL.remove();
+        DEVICE.remove();
+        currentDevice = null;
+    }
+
+    /** Test seam: back to TRACE_FILE (a new file is opened on the next event). */
+    public static void reset() {
+        configureForTest(null, PAGES);
+        enabled = !AppConstants.TRACE_FILE.isEmpty();
+        file = enabled ? Paths.get(AppConstants.TRACE_FILE) : null;
+    }
+
+    // ================================================================
+    // HELPERS
+    // ================================================================
+
+    private static long nowMicros() {
+        return toMicros(System.nanoTime());
+    }
+
+    private static long toMicros(long nanos) {
+        return ORIGIN_EPOCH_MICROS + (nanos - ORIGIN_NANOS) / 1000;
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -9,6 +9,9 @@ import java.util.function.BooleanSupplier;
  *   Waits.until(() -> page.isThingVisible(), 3000)
  * which returns the moment the condition is true (typically 100-500ms)
  * and only pays the full timeout when the condition never holds.
+ *
+ * The timeout is also a ceiling for the driver commands issued inside the
+ * condition (see {@link CommandDeadline}).
  */
 public final class Waits {
 
@@ -36,6 +39,14 @@ public final class Waits {
      */
     public static boolean until(BooleanSupplier condition, long timeoutMs, long pollMs) {
         long deadline = System.currentTimeMillis() + timeoutMs;
+        // The budget also bounds each probe's driver commands (CommandDeadline):
+        // a wedged findElements can no longer hold the loop 90s past its timeout.
+        try (CommandDeadline.Scope budget = CommandDeadline.within(timeoutMs)) {
+            return poll(condition, deadline, pollMs);
+        }
+    }
+
+    private static boolean poll(BooleanSupplier condition, long deadline, long pollMs) {
         while (true) {
             try {
                 if (condition.getAsBoolean()) {
@@ -0,0 +1,289 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Proactive WDA health monitor — recycle a DEGRADING session at the next test
+ * boundary instead of letting it wedge mid-test.
+ *
+ * RunHealth and DeadSessionCircuitBreaker only react AFTER a session is dead
+ * (N dead outcomes, N init failures). The giant-DOM wedges in the CI forensics
+ * were not sudden: snapshot latency climbs over several tests (1s → 4s → 9s)
+ * before a query finally blows through CUSTOM_SNAPSHOT_TIMEOUT and WDA dies,
+ * usually in the middle of a test, where recovery is most expensive.
+ *
+ * A daemon heartbeat (every WDA_HEALTH_INTERVAL_SEC, default 20s) times:
+ *   - a cheap WDA status call (mobile: activeAppInfo — no snapshot), and
+ *   - a bounded probe query (first window via class chain — one snapshot,
+ *     capped by a CommandDeadline scope so the probe can never wedge anything).
+ * A tick that finds a command of the test in flight is skipped outright: WDA
+ * serves one request at a time, so the probe's snapshot would queue the test's
+ * command behind it — or time out behind the test's and mark the session
+ * suspect for nothing. Tests issue commands in bursts; the idle gaps between
+ * them are where the samples come from.
+ * Samples are kept per session (history resets when the session id changes).
+ * The session is flagged DEGRADED when any of:
+ *   - two consecutive probe failures/timeouts,
+ *   - the median of the last 3 probes reaches half of WDA_WEDGE_MS, or
+ *   - with a full window, the least-squares trend projects the probe past
+ *     WDA_WEDGE_MS within {@link #PROJECT_AHEAD} samples AND the recent median
+ *     is at least 2x the session's baseline (so a flat-but-slow screen is fine).
+ * BaseTest.testSetup consumes the flag before initDriver: quit + forced WDA
+ * rebuild, at a point where nothing is in flight.
+ *
+ * Cost: two light commands per 20s — well under 1% of a test's command
+ * traffic. WDA_HEALTH_INTERVAL_SEC=0 disables the heartbeat.
+ *
+ * The trend logic ({@link #record}) is driver-free: the injectable constructor
+ * takes plain latency sources, which is what the self-test feeds.
+ */
+public final class WdaHealthMonitor {
+
+    // Trend window (samples), projection horizon (9 x 20s = the next ~3 min,
+    // i.e. the next test or two), and samples that set the session's baseline.
+    // A failed/timed-out probe counts as wedgeMs.
+    static final int WINDOW = 8;
+    static final int PROJECT_AHEAD = 9;
+    static final int BASELINE_SAMPLES = 3;
+
+    private final LongSupplier statusProbe;
+    private final LongSupplier queryProbe;
+    private final BooleanSupplier busy;
+    private final Supplier<String> sessionId;
+    private final long wedgeMs;
+
+    private final Deque<Long> window = new ArrayDeque<>();
+    private final long[] baseline = new long[BASELINE_SAMPLES];
+    private int baselineCount = 0;
+    private int consecutiveFailures = 0;
+    private String currentSession = null;
+    private volatile String degradedReason = null;
+    private long samples = 0;
+    private long skipped = 0;
+
+    private static volatile WdaHealthMonitor instance;
+    private static ScheduledExecutorService heartbeat;
+
+    /**
+     * Seam for driver-free self-tests. Probes return latency in ms, or a
+     * negative value for "failed / timed out".
+     */
+    public WdaHealthMonitor(LongSupplier statusProbe, LongSupplier queryProbe,
+                            Supplier<String> sessionId, long wedgeMs) {
+        this(statusProbe, queryProbe, () -> false, sessionId, wedgeMs);
+    }
+
+    /** As above; no probe is sent while {@code busy} (a test command in flight). */
+    public WdaHealthMonitor(LongSupplier statusProbe, LongSupplier queryProbe, BooleanSupplier busy,
+                            Supplier<String> sessionId, long wedgeMs) {
+        this.statusProbe = statusProbe;
+        this.queryProbe = queryProbe;
+        this.busy = busy;
+        this.sessionId = sessionId;
+        this.wedgeMs = wedgeMs;
+    }
+
+    // ================================================================
+    // HEARTBEAT (static, one per JVM — like DriverManager)
+    // ================================================================
+
+    /** Start the background heartbeat once per JVM. Safe to call every setup. */
+    public static synchronized void ensureRunning() {
+        int interval = AppConstants.WDA_HEALTH_INTERVAL_SEC;
+        if (interval <= 0 || heartbeat != null) {
+            return;
+        }
+        instance = new WdaHealthMonitor(
+            () -> timeLive(d -> d.executeScript("mobile: activeAppInfo")),
+            () -> timeLive(d -> d.findElements(AppiumBy.iOSClassChain("**/XCUIElementTypeWindow[1]"))),
+            CommandDeadline::isSessionBusy,
+            WdaHealthMonitor::liveSessionId,
+            AppConstants.WDA_WEDGE_MS);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wda-health");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(() -> {
+            try {
+                instance.sampleOnce();
+            } catch (Throwable t) {
+                System.out.println("⚠️ WDA health heartbeat error: " + t.getMessage());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+        System.out.println("💓 WDA health monitor running (every " + interval + "s, wedge threshold "
+            + AppConstants.WDA_WEDGE_MS + "ms)");
+    }
+
+    /**
+     * BaseTest.testSetup: true (once) when the current session was flagged as
+     * degrading and should be recycled now, at the test boundary.
+     */
+    public static boolean consumeRecycleRequest() {
+        WdaHealthMonitor m = instance;
+        if (m == null) {
+            return false;
+        }
+        String why = m.degradedReason;
+        if (why == null) {
+            return false;
+        }
+        m.resetSession(null);
+        System.out.println("♻️ WDA health: recycling degrading session at test boundary — " + why);
+        return true;
+    }
+
+    private static String liveSessionId() {
+        if (!DriverManager.isDriverActive()) {
+            return null;
+        }
+        try {
+            return String.valueOf(DriverManager.getDriver().getSessionId());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long timeLive(java.util.function.Consumer<IOSDriver> call) {
+        if (!DriverManager.isDriverActive()) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        try (CommandDeadline.Scope budget = CommandDeadline.within(AppConstants.WDA_WEDGE_MS)) {
+            call.accept(DriverManager.getDriver());
+            return System.currentTimeMillis() - start;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    // ================================================================
+    // SAMPLING + TREND (driver-free)
+    // ================================================================
+
+    /** Take one heartbeat sample (no-op while no session is active). */
+    public synchronized void sampleOnce() {
+        String sid = sessionId.get();
+        if (sid == null) {
+            return;
+        }
+        if (!sid.equals(currentSession)) {
+            resetSession(sid);
+        }
+        if (busy.getAsBoolean()) {
+            skipped++;
+            return;
+        }
+        long status = statusProbe.getAsLong();
+        if (status >= 0 && busy.getAsBoolean()) {
+            skipped++; // the test resumed meanwhile: no snapshot now, and half a sample says nothing
+            return;
+        }
+        long query = status < 0 ? -1 : queryProbe.getAsLong();
+        record(status, query);
+    }
+
+    /** Feed one (status, query) latency pair; negative = failed/timed out. */
+    public synchronized void record(long statusMs, long queryMs) {
+        samples++;
+        boolean failed = statusMs < 0 || queryMs < 0;
+        long effective = failed ? wedgeMs : Math.max(statusMs, queryMs);
+        consecutiveFailures = failed ? consecutiveFailures + 1 : 0;
+
+        window.addLast(effective);
+        while (window.size() > WINDOW) {
+            window.removeFirst();
+        }
+        if (!failed && baselineCount < BASELINE_SAMPLES) {
+            baseline[baselineCount++] = effective;
+        }
+        if (degradedReason == null) {
+            degradedReason = evaluate();
+            if (degradedReason != null) {
+                System.out.println("📉 WDA health: session DEGRADING — " + degradedReason
+                    + " (recycle at next test boundary)");
+            }
+        }
+    }
+
+    private String evaluate() {
+        if (consecutiveFailures >= 2) {
+            return consecutiveFailures + " consecutive probe failures/timeouts";
+        }
+        long[] w = window.stream().mapToLong(Long::longValue).toArray();
+        if (w.length >= 3) {
+            long recent = median(Arrays.copyOfRange(w, w.length - 3, w.length));
+            if (recent >= wedgeMs / 2) {
+                return "recent probe median " + recent + "ms >= half the " + wedgeMs + "ms wedge threshold";
+            }
+        }
+        if (w.length >= WINDOW && baselineCount > 0) {
+            double slope = slope(w);
+            double projected = w[w.length - 1] + slope * PROJECT_AHEAD;
+            long recent = median(Arrays.copyOfRange(w, w.length - 3, w.length));
+            long base = median(Arrays.copyOf(baseline, baselineCount));
+            if (slope > 0 && projected >= wedgeMs && recent >= 2 * Math.max(1, base)) {
+                return String.format("probe latency climbing %.0fms/sample (baseline %dms, now %dms,"
+                    + " projected %.0fms in %d samples)", slope, base, recent, projected, PROJECT_AHEAD);
+            }
+        }
+        return null;
+    }
+
+    private synchronized void resetSession(String sid) {
+        currentSession = sid;
+        window.clear();
+        baselineCount = 0;
+        consecutiveFailures = 0;
+        degradedReason = null;
+    }
+
+    public boolean isDegraded() {
+        return degradedReason != null;
+    }
+
+    public String degradedReason() {
+        return degradedReason;
+    }
+
+    public synchronized long sampleCount() {
+        return samples;
+    }
+
+    /** Ticks skipped because a test command was in flight. */
+    public synchronized long skippedCount() {
+        return skipped;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /** Least-squares slope over sample index (ms per sample). */
+    private static double slope(long[] y) {
+        int n = y.length;
+        double meanX = (n - 1) / 2.0;
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double num = 0;
+        double den = 0;
+        for (int i = 0; i < n; i++) {
+            num += (i - meanX) * (y[i] - meanY);
+            den += (i - meanX) * (i - meanX);
+        }
+        return den == 0 ? 0 : num / den;
+    }
+}
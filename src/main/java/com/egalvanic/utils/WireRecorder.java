@@ -0,0 +1,144 @@
+package com.egalvanic.utils;
+
+import com.egalvanic.constants.AppConstants;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the raw Appium/WDA wire traffic of a session for deterministic replay.
+ *
+ * Page objects could only be exercised on a macOS runner with a live simulator.
+ * This HTTP filter sits under the whole command pipeline (element cache,
+ * snapshot profiles, deadlines) and appends each exchange to a JSON-lines file:
+ * method, path, request body, status, response body and latency. The replay
+ * side (verify/FakeWdaServer) keys requests the same way ({@link #key}), so a
+ * recording taken on a simulator serves findElements, attributes and mobile:
+ * scripts back on any JVM — with the same round trips, and optionally the same
+ * latencies.
+ *
+ * Recording is at the HTTP level on purpose: element references, sessions and
+ * errors round-trip byte-for-byte, with no mapping between driver command names
+ * and routes to keep in sync.
+ */
+public final class WireRecorder implements Filter {
+
+    /** One recorded request/response pair. {@code path} has the session id replaced by {@code :session}. */
+    public record Exchange(String method, String path, String body, int status, String response, long ms) {}
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+
+    public WireRecorder(Path file) {
+        this.file = file;
+    }
+
+    /** The suite's ClientConfig, recording when WIRE_RECORDING names a file. */
+    public static ClientConfig attach(ClientConfig config) {
+        if (AppConstants.WIRE_RECORDING.isEmpty()) {
+            return config;
+        }
+        System.out.println("🎙️ Recording wire traffic to " + AppConstants.WIRE_RECORDING);
+        return config.withFilter(new WireRecorder(Path.of(AppConstants.WIRE_RECORDING)));
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return req -> {
+            req.setContent(Contents.memoize(req.getContent()));
+            String body = req.getMethod() == HttpMethod.GET ? "" : Contents.string(req);
+            long t0 = System.nanoTime();
+            HttpResponse res = next.execute(req);
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            res.setContent(Contents.memoize(res.getContent()));
+            append(new Exchange(req.getMethod().name(), sessionless(req.getUri()), body,
+                res.getStatus(), Contents.string(res), ms));
+            return res;
+        };
+    }
+
+    private synchronized void append(Exchange e) {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(GSON.toJson(e));
+            w.newLine();
+        } catch (IOException ex) {
+            System.out.println("⚠️ Wire recording failed: " + ex.getMessage());
+        }
+    }
+
+    // ================================================================
+    // FORMAT (shared with the replay server)
+    // ================================================================
+
+    /** Read a recording, in order. */
+    public static List<Exchange> read(Path file) throws IOException {
+        List<Exchange> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("#")) {
+                out.add(GSON.fromJson(line, Exchange.class));
+            }
+        }
+        return out;
+    }
+
+    /** Request path with the session id normalized, so any session replays any recording. */
+    public static String sessionless(String uri) {
+        return uri.replaceFirst("/session/[^/?]+", "/session/:session");
+    }
+
+    /**
+     * Replay key of a request: method, session-less path and the body with object keys
+     * sorted — command parameters built from Map.of() serialize in per-JVM order.
+     */
+    public static String key(String method, String path, String body) {
+        return method + " " + sessionless(path) + " " + canonicalJson(body);
+    }
+
+    static String canonicalJson(String body) {
+        if (body == null || body.isBlank()) {
+            return "";
+        }
+        try {
+            return sorted(JsonParser.parseString(body)).toString();
+        } catch (RuntimeException notJson) {
+            return body.trim();
+        }
+    }
+
+    private static JsonElement sorted(JsonElement e) {
+        if (e.isJsonObject()) {
+            Map<String, JsonElement> byKey = new TreeMap<>();
+            e.getAsJsonObject().entrySet().forEach(en -> byKey.put(en.getKey(), sorted(en.getValue())));
+            JsonObject o = new JsonObject();
+            byKey.forEach(o::add);
+            return o;
+        }
+        if (e.isJsonArray()) {
+            JsonArray a = new JsonArray();
+            e.getAsJsonArray().forEach(x -> a.add(sorted(x)));
+            return a;
+        }
+        return e;
+    }
+}
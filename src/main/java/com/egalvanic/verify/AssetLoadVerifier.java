@@ -6,9 +6,8 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebElement;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
+import java.util.function.Supplier;
 
 /**
  * Verifies that a PDF / image / single-line-diagram actually RENDERED, not merely that
@@ -17,7 +16,14 @@ import java.io.ByteArrayInputStream;
  */
 public final class AssetLoadVerifier {
 
-    private IOSDriver driver() { return DriverManager.getDriver(); }
+    private final Supplier<IOSDriver> driverSource;
+
+    public AssetLoadVerifier() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public AssetLoadVerifier(Supplier<IOSDriver> driverSource) { this.driverSource = driverSource; }
+
+    private IOSDriver driver() { return driverSource.get(); }
 
     /** Fail unless the element's on-screen region contains a non-blank, varied render. */
     public void assertRendered(WebElement container, String what) {
@@ -41,7 +47,9 @@ public final class AssetLoadVerifier {
 
     private BufferedImage screenshot() {
         try {
-            return ImageIO.read(new ByteArrayInputStream(driver().getScreenshotAs(OutputType.BYTES)));
+            BufferedImage img = ImageAnalysis.decodeScreenshot(driver().getScreenshotAs(OutputType.BYTES));
+            if (img == null) throw new VerificationError("screenshot is not a decodable image");
+            return img;
         } catch (Exception e) {
             throw new VerificationError("could not capture/decode screenshot for render check", e);
         }
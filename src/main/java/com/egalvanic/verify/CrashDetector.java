@@ -1,15 +1,17 @@
 package com.egalvanic.verify;
 
 import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.DeviceLogCollector;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.SnapshotProfiles;
 import io.appium.java_client.appmanagement.ApplicationState;
 import io.appium.java_client.ios.IOSDriver;
 import org.openqa.selenium.OutputType;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.Base64;
+import java.awt.image.BufferedImage;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Detects the bug class the current suite is blind to: the app crashing, exiting, or
@@ -18,9 +20,25 @@ import java.util.Map;
  */
 public final class CrashDetector {
 
+    // Freeze check: sample cadence, element-tree depth for the signature (the top of
+    // the tree moves with any scroll or navigation), the tiny decode size for the pixel
+    // hash, and the dHash distance that counts as "the screen changed" (a blinking
+    // caret or spinner frame stays under it).
+    static final long FREEZE_SAMPLE_MS = 250;
+    static final int SIGNATURE_DEPTH = 12;
+    private static final int PIXEL_DECODE_DIM = 96;
+    static final int PIXEL_CHANGE_BITS = 2;
+
     private final String bundleId = AppConstants.APP_BUNDLE_ID;
 
-    private IOSDriver driver() { return DriverManager.getDriver(); }
+    private final Supplier<IOSDriver> driverSource;
+
+    public CrashDetector() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public CrashDetector(Supplier<IOSDriver> driverSource) { this.driverSource = driverSource; }
+
+    private IOSDriver driver() { return driverSource.get(); }
 
     /** Hard-fail if the app under test is not running in the foreground after a step. */
     public void assertAlive(String afterStep) {
@@ -40,24 +58,89 @@ public final class CrashDetector {
     }
 
     /**
-     * Detect a frozen / ANR UI: the element tree is byte-identical across {@code windowSec}
-     * DESPITE an interaction, while the app still claims foreground.
+     * Detect a frozen / ANR UI: nothing on screen responds to an interaction within
+     * {@code windowSec} while the app still claims foreground. Returns the nudge's
+     * time-to-response (ms).
+     *
+     * <p>Cheap enough to run after every critical action: instead of two full page
+     * sources and a blocking sleep for the whole window, small fingerprints — a
+     * downscaled screenshot hash and a bounded-depth element signature — are sampled
+     * every {@value #FREEZE_SAMPLE_MS}ms and the check returns at the first change, so
+     * a responsive screen costs one or two samples.
      */
-    public void assertNotFrozen(String afterStep, int windowSec) {
-        String before = hash(safePageSource());
-        nudge();
-        sleepReal(windowSec * 1000L);
-        String after = hash(safePageSource());
+    public long assertNotFrozen(String afterStep, int windowSec) {
+        SnapshotProfiles.pin(); // the clamp below wins over learned profiles
+        boolean clamped = setSnapshotDepth(SIGNATURE_DEPTH);
+        try {
+            Fingerprint before = fingerprint(null);
+            nudge();
+            long responded = firstChangeMs(() -> fingerprint(before), before, windowSec * 1000L, FREEZE_SAMPLE_MS);
+            if (responded >= 0) {
+                System.out.println("🧊 UI responded " + responded + "ms after nudge (" + afterStep + ")");
+                return responded;
+            }
+        } finally {
+            SnapshotProfiles.unpin();
+            if (clamped) setSnapshotDepth(AppConstants.SNAPSHOT_MAX_DEPTH);
+        }
         boolean foreground;
         try {
             foreground = driver().queryAppState(bundleId) == ApplicationState.RUNNING_IN_FOREGROUND;
         } catch (Exception e) {
             throw new VerificationError("Session unresponsive while checking freeze after: " + afterStep, e);
         }
-        if (foreground && before.equals(after)) {
+        if (foreground) {
             captureForensics(afterStep + " [FROZEN]", ApplicationState.RUNNING_IN_FOREGROUND);
             throw new VerificationError("UI appears frozen after: " + afterStep
-                    + " — element tree unchanged for " + windowSec + "s despite interaction");
+                    + " — screen and element tree unchanged for " + windowSec + "s despite interaction");
+        }
+        return -1; // not frozen but gone — assertAlive's business
+    }
+
+    /** What the screen looks like, cheaply: element-tree hash (bounded depth) + 64-bit pixel dHash. */
+    record Fingerprint(long tree, long pixels) {
+        boolean differs(Fingerprint o) {
+            return tree != o.tree || ImageAnalysis.hammingDistance(pixels, o.pixels) > PIXEL_CHANGE_BITS;
+        }
+    }
+
+    /**
+     * Sample until the fingerprint differs from {@code before}: ms until the change was
+     * seen, or -1 if nothing changed within {@code windowMs}. Driver-free.
+     */
+    static long firstChangeMs(Supplier<Fingerprint> sample, Fingerprint before, long windowMs, long intervalMs) {
+        long start = System.currentTimeMillis();
+        long deadline = start + windowMs;
+        while (true) {
+            long next = System.currentTimeMillis() + intervalMs;
+            if (sample.get().differs(before)) return System.currentTimeMillis() - start;
+            if (next > deadline) return -1;
+            long wait = next - System.currentTimeMillis();
+            if (wait > 0) {
+                try { Thread.sleep(wait); } catch (InterruptedException e) { Thread.currentThread().interrupt(); return -1; }
+            }
+        }
+    }
+
+    /** Pixels first; the (costlier) tree only when the pixels alone show no change from {@code before}. */
+    private Fingerprint fingerprint(Fingerprint before) {
+        long pixels = 0;
+        try {
+            BufferedImage img = ImageAnalysis.decode(driver().getScreenshotAs(OutputType.BYTES), PIXEL_DECODE_DIM);
+            if (img != null) pixels = ImageAnalysis.dHash(img);
+        } catch (Exception ignored) { /* the tree half still decides */ }
+        if (before != null && ImageAnalysis.hammingDistance(pixels, before.pixels()) > PIXEL_CHANGE_BITS) {
+            return new Fingerprint(before.tree(), pixels);
+        }
+        return new Fingerprint(fnv64(safePageSource()), pixels);
+    }
+
+    private boolean setSnapshotDepth(int depth) {
+        try {
+            driver().setSetting("snapshotMaxDepth", depth);
+            return true;
+        } catch (Exception e) {
+            return false;
         }
     }
 
@@ -82,25 +165,22 @@ public final class CrashDetector {
             com.egalvanic.utils.ExtentReportManager.logFail("CRASH/FREEZE @ " + label
                     + " state=" + state + "<br/><img style='width:320px' src='data:image/png;base64," + b64 + "'/>");
         } catch (Exception ignored) {}
-        try { // iOS syslog requires appium:showIOSLog=true — guard so its absence never masks the crash
-            var logs = driver().manage().logs().get("syslog").getAll();
-            System.out.println("---- syslog tail @ " + label + " ----");
-            logs.stream().skip(Math.max(0, logs.size() - 40)).forEach(le -> System.out.println(le.getMessage()));
-        } catch (Exception ignored) {}
-    }
-
-    private static String hash(String s) {
-        try {
-            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(d);
-        } catch (Exception e) { return Integer.toString(s.length()); }
+        // The collector's ring tail (a small incremental drain), not a full-log fetch. The
+        // failing test's whole slice is attached to the report by BaseTest's teardown.
+        List<String> tail = DeviceLogCollector.recentLines(40);
+        if (!tail.isEmpty()) {
+            System.out.println("---- device log tail @ " + label + " ----");
+            tail.forEach(System.out::println);
+        }
     }
 
-    /** A REAL pause (unlike BaseTest.sleep, which is until(d->true) and returns immediately). */
-    private static void sleepReal(long ms) {
-        long end = System.currentTimeMillis() + ms;
-        while (System.currentTimeMillis() < end) {
-            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); return; }
+    /** FNV-1a: the signature only has to notice change, not resist collisions. */
+    private static long fnv64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
         }
+        return h;
     }
 }
@@ -1,8 +1,19 @@
 package com.egalvanic.verify;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.image.BufferedImage;
-import java.util.HashSet;
-import java.util.Set;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
 
 /**
  * Driver-free pixel analysis used by {@link AssetLoadVerifier}.
@@ -13,6 +24,12 @@ import java.util.Set;
  * a blank, grey, or failed-to-load tile collapses to a near-uniform region.
  *
  * <p>Pure JDK — no OpenCV/AShot dependency added to the build.
+ *
+ * <p>Cheap enough to run on every crawl step: pixels are read straight from the raster's
+ * backing array (no per-pixel {@code getRGB} colour-model dispatch), colours are counted in
+ * a 32K-bit bitmap instead of a boxed set, and {@link #decodeScreenshot} subsamples while
+ * decoding so a 1290×2796 capture is never materialised at full size. Results match the
+ * {@code getRGB} path exactly for the standard RGB image types.
  */
 public final class ImageAnalysis {
 
@@ -21,11 +38,17 @@ public final class ImageAnalysis {
     /** Default thresholds below which a region is considered "not really rendered". */
     public static final int MIN_UNIQUE_COLORS = 24;
     public static final double MIN_STDDEV = 8.0;
+    /** Stricter bar for "nothing drawn at all": a single flat fill, not merely sparse content. */
+    public static final int FLAT_MAX_COLORS = 2;
+    public static final double FLAT_MAX_STDDEV = 2.0;
 
     public record Result(int uniqueColors, double stdDev) {
         public boolean looksBlank() {
             return uniqueColors < MIN_UNIQUE_COLORS || stdDev < MIN_STDDEV;
         }
+        public boolean looksFlat() {
+            return uniqueColors <= FLAT_MAX_COLORS && stdDev < FLAT_MAX_STDDEV;
+        }
         @Override public String toString() {
             return "uniqueColors=" + uniqueColors + ", stdDev=" + String.format("%.1f", stdDev);
         }
@@ -43,16 +66,23 @@ public final class ImageAnalysis {
         h = Math.min(h, img.getHeight() - y);
         if (w <= 0 || h <= 0) throw new VerificationError("region off-screen / zero-size");
 
-        Set<Integer> colors = new HashSet<>();
+        Pixels px = new Pixels(img);
+        long[] seen = new long[1 << 9]; // one bit per 5:5:5 quantized colour
+        int colors = 0;
         double sum = 0, sumSq = 0;
         int n = 0;
         int stepX = Math.max(1, w / 64);
         int stepY = Math.max(1, h / 64);
         for (int i = x; i < x + w; i += stepX) {
             for (int j = y; j < y + h; j += stepY) {
-                int rgb = img.getRGB(i, j);
-                colors.add(rgb & 0xF8F8F8); // quantize: ignore sub-perceptual noise
+                int rgb = px.rgb(i, j);
                 int r = (rgb >> 16) & 0xFF, g = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+                int q = (r >> 3) << 10 | (g >> 3) << 5 | (b >> 3); // quantize: ignore sub-perceptual noise
+                long bit = 1L << q;
+                if ((seen[q >>> 6] & bit) == 0) {
+                    seen[q >>> 6] |= bit;
+                    colors++;
+                }
                 double lum = 0.299 * r + 0.587 * g + 0.114 * b;
                 sum += lum;
                 sumSq += lum * lum;
@@ -61,6 +91,183 @@ public final class ImageAnalysis {
         }
         double mean = sum / n;
         double variance = Math.max(0, sumSq / n - mean * mean);
-        return new Result(colors.size(), Math.sqrt(variance));
+        return new Result(colors, Math.sqrt(variance));
+    }
+
+    /**
+     * Luminance histogram of a region in {@code bins} equal buckets (0..255), sampled on a
+     * grid of at most 256×256 points. Two renders of the same region compare bin by bin
+     * even when their pixels are shifted by a scroll or re-layout.
+     */
+    public static int[] lumaHistogram(BufferedImage img, int x, int y, int w, int h, int bins) {
+        if (img == null) throw new VerificationError("null image");
+        if (bins < 1 || bins > 256) throw new VerificationError("bins must be 1..256, got " + bins);
+        x = Math.max(0, x); y = Math.max(0, y);
+        w = Math.min(w, img.getWidth() - x);
+        h = Math.min(h, img.getHeight() - y);
+        if (w <= 0 || h <= 0) throw new VerificationError("region off-screen / zero-size");
+
+        Pixels px = new Pixels(img);
+        int[] hist = new int[bins];
+        int stepX = Math.max(1, w / 256);
+        int stepY = Math.max(1, h / 256);
+        for (int j = y; j < y + h; j += stepY) {
+            for (int i = x; i < x + w; i += stepX) {
+                int rgb = px.rgb(i, j);
+                int lum = (299 * ((rgb >> 16) & 0xFF) + 587 * ((rgb >> 8) & 0xFF) + 114 * (rgb & 0xFF)) / 1000;
+                hist[lum * bins >> 8]++;
+            }
+        }
+        return hist;
+    }
+
+    /** Longest side a screenshot is decoded to for render checks. */
+    public static final int DECODE_MAX_DIM = 720;
+
+    /** {@link #decode} at {@link #DECODE_MAX_DIM} — the size every render check here needs. */
+    public static BufferedImage decodeScreenshot(byte[] png) throws IOException {
+        return decode(png, DECODE_MAX_DIM);
+    }
+
+    /**
+     * Decode a PNG/JPEG subsampled so its longest side is at most {@code maxDim}: the reader
+     * skips rows and columns while decoding, so the full-resolution image is never built.
+     * Returns null when no reader understands the bytes (same contract as ImageIO.read).
+     */
+    public static BufferedImage decode(byte[] encoded, int maxDim) throws IOException {
+        try (ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(encoded))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, (longest + maxDim - 1) / maxDim);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 64-bit difference hash: the image averaged down to 9×8 luminance cells, one bit per
+     * "left cell brighter than its right neighbour". Re-encodes and tiny repaints of the same
+     * screen land on the same (or a near) hash; a different screen does not — which makes it
+     * a cache key for per-screen verdicts.
+     */
+    public static long dHash(BufferedImage img) {
+        if (img == null) throw new VerificationError("null image");
+        return dHash(img, 0, 0, img.getWidth(), img.getHeight());
+    }
+
+    /** {@link #dHash} of one region (e.g. a tile of a screen). */
+    public static long dHash(BufferedImage img, int rx, int ry, int w, int h) {
+        if (img == null) throw new VerificationError("null image");
+        Pixels px = new Pixels(img);
+        int right = Math.min(img.getWidth(), rx + w), bottom = Math.min(img.getHeight(), ry + h);
+        double[][] cell = new double[8][9];
+        for (int cy = 0; cy < 8; cy++) {
+            for (int cx = 0; cx < 9; cx++) {
+                int x0 = rx + cx * w / 9, x1 = Math.max(x0 + 1, rx + (cx + 1) * w / 9);
+                int y0 = ry + cy * h / 8, y1 = Math.max(y0 + 1, ry + (cy + 1) * h / 8);
+                int sx = Math.max(1, (x1 - x0) / 16), sy = Math.max(1, (y1 - y0) / 16);
+                double sum = 0;
+                int n = 0;
+                for (int x = x0; x < x1 && x < right; x += sx) {
+                    for (int y = y0; y < y1 && y < bottom; y += sy) {
+                        int rgb = px.rgb(x, y);
+                        sum += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                        n++;
+                    }
+                }
+                cell[cy][cx] = n == 0 ? 0 : sum / n;
+            }
+        }
+        long hash = 0;
+        for (int cy = 0; cy < 8; cy++) {
+            for (int cx = 0; cx < 8; cx++) {
+                hash = (hash << 1) | (cell[cy][cx] > cell[cy][cx + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /** Mean luminance (0..255) of a region, sampled on a grid of at most 32×32 points. */
+    public static double meanLuma(BufferedImage img, int x, int y, int w, int h) {
+        Pixels px = new Pixels(img);
+        int right = Math.min(img.getWidth(), x + w), bottom = Math.min(img.getHeight(), y + h);
+        int sx = Math.max(1, w / 32), sy = Math.max(1, h / 32);
+        double sum = 0;
+        int n = 0;
+        for (int j = y; j < bottom; j += sy) {
+            for (int i = x; i < right; i += sx) {
+                int rgb = px.rgb(i, j);
+                sum += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                n++;
+            }
+        }
+        return n == 0 ? 0 : sum / n;
+    }
+
+    /** Number of differing bits between two {@link #dHash} values (0 = same screen). */
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Direct view of the standard RGB layouts (int-packed RGB/ARGB, byte-interleaved BGR/ABGR
+     * as ImageIO decodes PNGs); anything else falls back to {@code getRGB}.
+     */
+    private static final class Pixels {
+        private final BufferedImage img;
+        private final int[] ints;
+        private final byte[] bytes;
+        private final int offset, stride, pixelStride, rOff, gOff, bOff;
+
+        Pixels(BufferedImage img) {
+            this.img = img;
+            WritableRaster raster = img.getRaster();
+            boolean direct = raster.getParent() == null
+                    && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+            int type = img.getType();
+            if (direct && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                    && raster.getDataBuffer() instanceof DataBufferInt db
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm) {
+                ints = db.getData();
+                bytes = null;
+                offset = db.getOffset();
+                stride = sm.getScanlineStride();
+                pixelStride = 1;
+                rOff = gOff = bOff = 0;
+            } else if (direct && (type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR)
+                    && raster.getDataBuffer() instanceof DataBufferByte db
+                    && raster.getSampleModel() instanceof ComponentSampleModel sm) {
+                ints = null;
+                bytes = db.getData();
+                offset = db.getOffset();
+                stride = sm.getScanlineStride();
+                pixelStride = sm.getPixelStride();
+                int[] band = sm.getBandOffsets(); // bands are R, G, B(, A)
+                rOff = band[0];
+                gOff = band[1];
+                bOff = band[2];
+            } else {
+                ints = null;
+                bytes = null;
+                offset = stride = pixelStride = rOff = gOff = bOff = 0;
+            }
+        }
+
+        int rgb(int x, int y) {
+            if (ints != null) return ints[offset + y * stride + x];
+            if (bytes != null) {
+                int p = offset + y * stride + x * pixelStride;
+                return (bytes[p + rOff] & 0xFF) << 16 | (bytes[p + gOff] & 0xFF) << 8 | (bytes[p + bOff] & 0xFF);
+            }
+            return img.getRGB(x, y);
+        }
     }
 }
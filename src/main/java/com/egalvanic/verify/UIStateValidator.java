@@ -10,6 +10,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.function.BooleanSupplier;
 import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 /**
  * Detects broken UI states the happy-path suite walks straight past: blank screens,
@@ -26,7 +27,14 @@ public final class UIStateValidator {
     static final long BLANK_POLL_INTERVAL_MS = 500;
     static final int MIN_CONTENT_ELEMENTS = 2;
 
-    private IOSDriver driver() { return DriverManager.getDriver(); }
+    private final Supplier<IOSDriver> driverSource;
+
+    public UIStateValidator() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public UIStateValidator(Supplier<IOSDriver> driverSource) { this.driverSource = driverSource; }
+
+    private IOSDriver driver() { return driverSource.get(); }
 
     /** A real screen must have meaningful content — guards white/blank screens after navigation. */
     public void assertNotBlank(String screen) {
@@ -109,8 +117,7 @@ public final class UIStateValidator {
     private boolean screenshotLooksRendered() {
         try {
             byte[] png = driver().getScreenshotAs(org.openqa.selenium.OutputType.BYTES);
-            java.awt.image.BufferedImage img = javax.imageio.ImageIO.read(
-                    new java.io.ByteArrayInputStream(png));
+            java.awt.image.BufferedImage img = ImageAnalysis.decodeScreenshot(png);
             return img != null && !ImageAnalysis.analyzeFull(img).looksBlank();
         } catch (Exception e) {
             return false; // no screenshot -> no second opinion, keep the DOM verdict
@@ -0,0 +1,185 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.ExtentReportManager;
+import io.appium.java_client.ios.IOSDriver;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-screen visual regression check: the current screen against a reference image kept
+ * per environment ({@code visual-baselines/qa/asset-list.png}). Catches what element
+ * assertions cannot — a shifted layout, a missing icon, wrong colours — with
+ * {@link VisualDiff} keeping the unchanged-screen case to a hash pass over the tiles.
+ *
+ * <p>Dynamic regions are excluded either per call (the elements showing the clock or a
+ * timestamp) or per screen in a {@code .mask} file of fractional {@code x y w h} lines.
+ * A failure attaches the diff heatmap to the Extent report and writes it under
+ * {@code reports/visual/}.
+ */
+public final class VisualBaselineVerifier {
+
+    /** Baselines decoded once per JVM; re-read when the file changes (e.g. after re-recording). */
+    private static final Map<Path, Cached> BASELINES = new ConcurrentHashMap<>();
+
+    private record Cached(long modified, BufferedImage image, VisualDiff.Signature signature) {}
+
+    private final Supplier<IOSDriver> driverSource;
+    private final Supplier<byte[]> screenshots;
+    private final Path envDir;
+    private final Path diffDir;
+    private final boolean update;
+
+    public VisualBaselineVerifier() { this(DriverManager::getDriver); }
+
+    /** Bind to a specific session (parallel exploration workers each own one). */
+    public VisualBaselineVerifier(Supplier<IOSDriver> driverSource) {
+        this(driverSource, () -> driverSource.get().getScreenshotAs(OutputType.BYTES),
+                Path.of(AppConstants.VISUAL_BASELINES_DIR, AppConstants.VISUAL_BASELINE_ENV),
+                Path.of("reports", "visual", AppConstants.VISUAL_BASELINE_ENV),
+                AppConstants.VISUAL_BASELINE_UPDATE);
+    }
+
+    /** Test seam: PNG bytes from anywhere, baselines and heatmaps in the given folders. */
+    VisualBaselineVerifier(Supplier<byte[]> screenshots, Path envDir, Path diffDir, boolean update) {
+        this(null, screenshots, envDir, diffDir, update);
+    }
+
+    private VisualBaselineVerifier(Supplier<IOSDriver> driverSource, Supplier<byte[]> screenshots,
+                                   Path envDir, Path diffDir, boolean update) {
+        this.driverSource = driverSource;
+        this.screenshots = screenshots;
+        this.envDir = envDir;
+        this.diffDir = diffDir;
+        this.update = update;
+    }
+
+    /**
+     * Fail unless the current screen matches the {@code screen} baseline, ignoring the
+     * {@code dynamic} elements. Returns the comparison, or null when the capture was recorded
+     * as the baseline (first run, or update mode).
+     */
+    public VisualDiff.Result assertMatchesBaseline(String screen, WebElement... dynamic) {
+        List<VisualDiff.Region> regions = new ArrayList<>();
+        if (dynamic.length > 0) {
+            if (driverSource == null) throw new IllegalStateException("element masks need a driver");
+            Dimension win = driverSource.get().manage().window().getSize();
+            for (WebElement e : dynamic) {
+                Rectangle r = e.getRect();
+                regions.add(new VisualDiff.Region((double) r.getX() / win.getWidth(), (double) r.getY() / win.getHeight(),
+                        (double) r.getWidth() / win.getWidth(), (double) r.getHeight() / win.getHeight()));
+            }
+        }
+        return assertMatchesBaseline(screen, regions);
+    }
+
+    public VisualDiff.Result assertMatchesBaseline(String screen, List<VisualDiff.Region> dynamic) {
+        String name = screen.replaceAll("[^A-Za-z0-9._-]", "_");
+        BufferedImage capture = capture(screen);
+        Path png = envDir.resolve(name + ".png");
+        if (update || !Files.exists(png)) {
+            record(png, capture);
+            System.out.println("📐 Visual baseline recorded: " + png);
+            return null;
+        }
+        List<VisualDiff.Region> masks = new ArrayList<>(readMask(envDir.resolve(name + ".mask")));
+        masks.addAll(dynamic);
+        Cached base = baseline(png);
+        VisualDiff.Result r = VisualDiff.compare(base.image(), base.signature(), capture, masks);
+        if (r.matches()) {
+            System.out.println("🖼️ Visual '" + screen + "': " + r);
+            return r;
+        }
+        String heatmap = encode(VisualDiff.heatmap(base.image(), capture, masks, r));
+        Path out = diffDir.resolve(name + "-diff.png");
+        try {
+            Files.createDirectories(diffDir);
+            Files.write(out, Base64.getDecoder().decode(heatmap));
+        } catch (IOException e) {
+            System.out.println("⚠️ Could not write visual diff " + out + ": " + e.getMessage());
+        }
+        ExtentReportManager.logWarningWithImage("Visual diff '" + screen + "': " + r, heatmap);
+        throw new VerificationError("screen '" + screen + "' differs from baseline " + png + ": " + r
+                + " — heatmap " + out);
+    }
+
+    private BufferedImage capture(String screen) {
+        try {
+            BufferedImage img = ImageAnalysis.decodeScreenshot(screenshots.get());
+            if (img == null) throw new VerificationError("screenshot is not a decodable image");
+            return img;
+        } catch (VerificationError e) {
+            throw e;
+        } catch (Exception e) {
+            throw new VerificationError("could not capture/decode screenshot for visual check of " + screen, e);
+        }
+    }
+
+    private static Cached baseline(Path png) {
+        try {
+            long modified = Files.getLastModifiedTime(png).toMillis();
+            Cached c = BASELINES.get(png);
+            if (c != null && c.modified() == modified) return c;
+            BufferedImage img = ImageIO.read(png.toFile());
+            if (img == null) throw new VerificationError("baseline is not a decodable image: " + png);
+            c = new Cached(modified, img, VisualDiff.signature(img));
+            BASELINES.put(png, c);
+            return c;
+        } catch (IOException e) {
+            throw new VerificationError("could not read baseline " + png, e);
+        }
+    }
+
+    /** Stored at the decoded (subsampled) size, so later captures compare like for like. */
+    private static void record(Path png, BufferedImage capture) {
+        try {
+            Files.createDirectories(png.getParent());
+            Path tmp = png.resolveSibling(png.getFileName() + ".tmp");
+            ImageIO.write(capture, "png", tmp.toFile());
+            Files.move(tmp, png, StandardCopyOption.REPLACE_EXISTING);
+            BASELINES.remove(png);
+        } catch (IOException e) {
+            throw new VerificationError("could not record baseline " + png, e);
+        }
+    }
+
+    private static List<VisualDiff.Region> readMask(Path file) {
+        if (!Files.exists(file)) return List.of();
+        try {
+            List<VisualDiff.Region> out = new ArrayList<>();
+            for (String l : Files.readAllLines(file)) {
+                if (!l.isBlank() && !l.startsWith("#")) out.add(VisualDiff.Region.parse(l));
+            }
+            return out;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new VerificationError("bad mask file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String encode(BufferedImage img) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(img, "png", out);
+            return Base64.getEncoder().encodeToString(out.toByteArray());
+        } catch (IOException e) {
+            throw new VerificationError("could not encode diff heatmap", e);
+        }
+    }
+}
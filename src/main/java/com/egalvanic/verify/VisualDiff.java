@@ -0,0 +1,196 @@
+package com.egalvanic.verify;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tiled screen comparison. Both images are cut into a {@value #COLS}×{@value #ROWS} grid and
+ * each tile is summarised by a perceptual hash plus its mean luminance. A lossless capture of
+ * an unchanged screen reproduces every signature exactly, so the common case costs one hash
+ * pass and no pixel work. Only tiles whose signature moved (or that a mask cuts through) are
+ * compared pixel by pixel, and a tile fails only if enough of its unmasked pixels really differ
+ * — a blinking caret or a re-antialiased edge stays under the bar, a changed label does not.
+ */
+public final class VisualDiff {
+
+    static final int COLS = 6;
+    static final int ROWS = 12;
+    /** Per-channel delta treated as rendering noise rather than a change. */
+    static final int PIXEL_TOLERANCE = 40;
+    /** Share of a tile's unmasked pixels that may differ before the tile fails. */
+    static final double TILE_FAIL_RATIO = 0.005;
+    private static final double LUMA_EPSILON = 0.5;
+
+    private VisualDiff() {}
+
+    /** A dynamic region (clock, timestamp, avatar) as fractions of the screen, 0..1. */
+    public record Region(double x, double y, double w, double h) {
+
+        /** {@code "x y w h"} (spaces or commas), as written in a {@code .mask} file. */
+        public static Region parse(String line) {
+            String[] p = line.trim().split("[\\s,]+");
+            if (p.length != 4) throw new IllegalArgumentException("mask region needs x y w h: " + line);
+            return new Region(Double.parseDouble(p[0]), Double.parseDouble(p[1]),
+                    Double.parseDouble(p[2]), Double.parseDouble(p[3]));
+        }
+
+        Rectangle in(int width, int height) {
+            int x0 = (int) Math.floor(x * width), y0 = (int) Math.floor(y * height);
+            int x1 = (int) Math.ceil((x + w) * width), y1 = (int) Math.ceil((y + h) * height);
+            return new Rectangle(x0, y0, x1 - x0, y1 - y0).intersection(new Rectangle(0, 0, width, height));
+        }
+    }
+
+    /** Per-tile hashes and mean luminance of one image; cache it for a baseline. */
+    public static final class Signature {
+        final int width, height;
+        final long[] hash = new long[COLS * ROWS];
+        final double[] luma = new double[COLS * ROWS];
+
+        private Signature(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public record Result(int tiles, int masked, int hashMismatches, List<Rectangle> diffedTiles,
+                         List<Rectangle> failedTiles, int diffPixels, long micros) {
+        public Result {
+            diffedTiles = List.copyOf(diffedTiles);
+            failedTiles = List.copyOf(failedTiles);
+        }
+
+        public boolean matches() { return failedTiles.isEmpty(); }
+
+        /** True when no tile needed a pixel comparison. */
+        public boolean fastPath() { return diffedTiles.isEmpty(); }
+
+        @Override
+        public String toString() {
+            return failedTiles.size() + "/" + tiles + " tiles differ (" + diffPixels + " px; "
+                    + hashMismatches + " signature mismatches, " + masked + " masked) in "
+                    + (micros / 1000.0) + " ms";
+        }
+    }
+
+    public static Signature signature(BufferedImage img) {
+        Signature s = new Signature(img.getWidth(), img.getHeight());
+        for (int i = 0; i < COLS * ROWS; i++) {
+            Rectangle t = tile(i, s.width, s.height);
+            s.hash[i] = ImageAnalysis.dHash(img, t.x, t.y, t.width, t.height);
+            s.luma[i] = ImageAnalysis.meanLuma(img, t.x, t.y, t.width, t.height);
+        }
+        return s;
+    }
+
+    public static Result compare(BufferedImage baseline, BufferedImage capture, List<Region> masks) {
+        return compare(baseline, signature(baseline), capture, masks);
+    }
+
+    /** Compare against a baseline whose {@link Signature} was computed earlier. */
+    public static Result compare(BufferedImage baseline, Signature base, BufferedImage capture, List<Region> masks) {
+        long t0 = System.nanoTime();
+        int w = capture.getWidth(), h = capture.getHeight();
+        if (base.width != w || base.height != h || baseline.getWidth() != w || baseline.getHeight() != h) {
+            throw new VerificationError("capture is " + w + "×" + h + " but the baseline is " + base.width + "×"
+                    + base.height + " — record a baseline for this device");
+        }
+        List<Rectangle> maskRects = pixels(masks, w, h);
+        int masked = 0, mismatches = 0, diffPixels = 0;
+        List<Rectangle> diffed = new ArrayList<>();
+        List<Rectangle> failed = new ArrayList<>();
+        for (int i = 0; i < COLS * ROWS; i++) {
+            Rectangle t = tile(i, w, h);
+            boolean cut = false, covered = false;
+            for (Rectangle m : maskRects) {
+                if (m.contains(t)) covered = true;
+                else if (m.intersects(t)) cut = true;
+            }
+            if (covered) { masked++; continue; }
+            if (!cut) {
+                long hash = ImageAnalysis.dHash(capture, t.x, t.y, t.width, t.height);
+                double luma = ImageAnalysis.meanLuma(capture, t.x, t.y, t.width, t.height);
+                if (hash == base.hash[i] && Math.abs(luma - base.luma[i]) < LUMA_EPSILON) continue;
+                mismatches++;
+            }
+            diffed.add(t);
+            int[] counts = diffTile(baseline, capture, t, maskRects, null);
+            diffPixels += counts[0];
+            if (counts[0] > Math.max(1, counts[1] * TILE_FAIL_RATIO)) failed.add(t);
+        }
+        return new Result(COLS * ROWS, masked, mismatches, diffed, failed, diffPixels,
+                (System.nanoTime() - t0) / 1_000);
+    }
+
+    /**
+     * The capture washed out to grey, differing pixels in red, masked regions in blue and
+     * failed tiles outlined — what a reviewer needs to see at a glance in the report.
+     */
+    public static BufferedImage heatmap(BufferedImage baseline, BufferedImage capture, List<Region> masks, Result r) {
+        int w = capture.getWidth(), h = capture.getHeight();
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int rgb = capture.getRGB(x, y);
+                int lum = (int) (0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF));
+                int g = 150 + lum * 100 / 255;
+                out.setRGB(x, y, (g << 16) | (g << 8) | g);
+            }
+        }
+        List<Rectangle> maskRects = pixels(masks, w, h);
+        Graphics2D g = out.createGraphics();
+        g.setColor(new Color(70, 110, 200, 90));
+        maskRects.forEach(m -> g.fillRect(m.x, m.y, m.width, m.height));
+        for (Rectangle t : r.diffedTiles()) diffTile(baseline, capture, t, maskRects, out);
+        g.setColor(Color.RED);
+        g.setStroke(new BasicStroke(2));
+        r.failedTiles().forEach(t -> g.drawRect(t.x + 1, t.y + 1, t.width - 2, t.height - 2));
+        g.dispose();
+        return out;
+    }
+
+    /** {differing, compared} pixel counts in one tile; paints differing pixels into {@code paint} if given. */
+    private static int[] diffTile(BufferedImage a, BufferedImage b, Rectangle t, List<Rectangle> masks,
+                                  BufferedImage paint) {
+        int diff = 0, compared = 0;
+        for (int y = t.y; y < t.y + t.height; y++) {
+            for (int x = t.x; x < t.x + t.width; x++) {
+                if (inAny(masks, x, y)) continue;
+                compared++;
+                int p = a.getRGB(x, y), q = b.getRGB(x, y);
+                int d = Math.max(Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF)),
+                        Math.max(Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF)), Math.abs((p & 0xFF) - (q & 0xFF))));
+                if (d > PIXEL_TOLERANCE) {
+                    diff++;
+                    if (paint != null) paint.setRGB(x, y, 0xFF0000 | ((255 - d) / 2 << 8) | ((255 - d) / 2));
+                }
+            }
+        }
+        return new int[]{diff, compared};
+    }
+
+    private static boolean inAny(List<Rectangle> rects, int x, int y) {
+        for (Rectangle r : rects) if (r.contains(x, y)) return true;
+        return false;
+    }
+
+    private static List<Rectangle> pixels(List<Region> masks, int w, int h) {
+        List<Rectangle> out = new ArrayList<>(masks.size());
+        for (Region m : masks) {
+            Rectangle r = m.in(w, h);
+            if (!r.isEmpty()) out.add(r);
+        }
+        return out;
+    }
+
+    static Rectangle tile(int i, int w, int h) {
+        int c = i % COLS, r = i / COLS;
+        int x0 = c * w / COLS, y0 = r * h / ROWS;
+        return new Rectangle(x0, y0, (c + 1) * w / COLS - x0, (r + 1) * h / ROWS - y0);
+    }
+}
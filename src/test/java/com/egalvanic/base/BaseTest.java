@@ -6,10 +6,23 @@ import com.egalvanic.pages.LoginPage;
 import com.egalvanic.pages.SettingsPage;
 import com.egalvanic.pages.SiteSelectionPage;
 import com.egalvanic.pages.WelcomePage;
+import com.egalvanic.utils.AppLivenessWatchdog;
+import com.egalvanic.utils.CommandDeadline;
+import com.egalvanic.utils.DeviceLogCollector;
 import com.egalvanic.utils.DriverManager;
 import com.egalvanic.utils.ExtentReportManager;
+import com.egalvanic.utils.FlightRecorder;
+import com.egalvanic.utils.Log;
+import com.egalvanic.utils.ResultCache;
 import com.egalvanic.utils.RunHealth;
 import com.egalvanic.utils.ScreenshotUtil;
+import com.egalvanic.utils.TraceTimeline;
+import com.egalvanic.utils.WdaHealthMonitor;
+import org.testng.IConfigurable;
+import org.testng.IConfigureCallBack;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
@@ -17,7 +30,7 @@ import org.testng.annotations.*;
  * Base Test - Parent class for all Test classes
  * Handles driver lifecycle, report initialization, and common test setup
  */
-public class BaseTest {
+public class BaseTest implements IHookable, IConfigurable {
 
     // Page Objects
     protected WelcomePage welcomePage;
@@ -35,6 +48,9 @@ public class BaseTest {
     private static final java.util.Set<String> LOGIN_FIRST_EXEMPT =
             java.util.Set.of("AuthenticationTest", "Security_EdgeCase_Test");
 
+    // Teardown's liveness probe of a session a command deadline left SUSPECT.
+    private static final long SUSPECT_PROBE_MS = 10_000;
+
     protected static boolean isCI() {
         return System.getenv("CI") != null || System.getenv("GITHUB_ACTIONS") != null;
     }
@@ -77,6 +93,8 @@ public class BaseTest {
 
     @BeforeSuite
     public void suiteSetup() {
+        // Route System.out through Log: level-filtered async console, per-test capture.
+        Log.install();
         System.out.println("\n╔══════════════════════════════════════════════════════════════╗");
         System.out.println("║     eGalvanic iOS Automation - Test Suite Starting           ║");
         System.out.println("║     " + timestamp() + "                                          ║");
@@ -99,8 +117,63 @@ public class BaseTest {
         System.out.println("║     " + timestamp() + "                                          ║");
         System.out.println("╚══════════════════════════════════════════════════════════════╝");
         System.out.println("📊 Reports generated:");
-        System.out.println("   - Detailed: " + ExtentReportManager.getDetailedReportPath());
-        System.out.println("   - Client:   " + ExtentReportManager.getClientReportPath());
+        Log.info("   - Detailed: " + ExtentReportManager.getDetailedReportPath());
+        Log.info("   - Client:   " + ExtentReportManager.getClientReportPath());
+        System.out.println("🗂️ " + com.egalvanic.utils.ElementCache.summary());
+        System.out.println("📐 " + com.egalvanic.utils.SnapshotProfiles.summary());
+        ResultCache.save();
+        System.out.println("♻️ " + ResultCache.summary());
+        if (Log.droppedConsoleLines() > 0) {
+            System.out.println("⚠️ " + Log.droppedConsoleLines() + " console lines dropped (LOG_QUEUE_LINES) — per-test logs kept them");
+        }
+        Log.flush(5_000);
+    }
+
+    // ================================================================
+    // RESULT CACHE
+    // ================================================================
+
+    /**
+     * A class the result cache reuses (ResultCacheListener decided before it
+     * started) runs none of its class- or method-level setup/teardown — no driver,
+     * no login. Suite-level configuration always runs.
+     */
+    @Override
+    public void run(IConfigureCallBack callBack, ITestResult testResult) {
+        ITestNGMethod m = testResult.getMethod();
+        boolean perClassOrTest = m.isBeforeClassConfiguration() || m.isAfterClassConfiguration()
+                || m.isBeforeMethodConfiguration() || m.isAfterMethodConfiguration();
+        if (perClassOrTest && ResultCache.isReused(getClass().getName())) {
+            return;
+        }
+        callBack.runConfigurationMethod(testResult);
+    }
+
+    /**
+     * A reused test reports its cached PASS, with provenance, in place of running
+     * the body: Module > Feature > Test as when it ran, and a marker line in
+     * testng-results.xml for the consolidated report.
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        ResultCache.Entry cached = ResultCache.reused(getClass().getName(), testResult.getMethod().getMethodName());
+        if (cached == null) {
+            callBack.runTestMethod(testResult);
+            return;
+        }
+        org.testng.Reporter.log(ResultCache.REPORT_MARKER + cached.provenance());
+        ExtentReportManager.createCachedTest(cached.module, cached.feature, cached.testName, cached.provenance());
+        ExtentReportManager.removeTests();
+        System.out.println("♻️ Test CACHED: " + testResult.getMethod().getMethodName() + "  [" + timestamp() + "]");
+        Log.info("   " + cached.provenance());
+    }
+
+    /** Teardown: a PASS (with its report names) is recorded for reuse; a FAIL voids the earlier one. */
+    private void recordForResultCache(ITestResult result, long testDuration) {
+        if (result.getStatus() == ITestResult.SUCCESS || result.getStatus() == ITestResult.FAILURE) {
+            ResultCache.recordResult(getClass(), result.getMethod().getMethodName(),
+                    result.getStatus() == ITestResult.SUCCESS, testDuration);
+        }
     }
 
     // ================================================================
@@ -130,7 +203,13 @@ public class BaseTest {
             @Optional String deviceName,
             @Optional String udid,
             @Optional String appiumPort,
-            @Optional String wdaLocalPort) {
+            @Optional String wdaLocalPort,
+            java.lang.reflect.Method method) {
+        // Per-test log capture (attached to the report only if the test fails).
+        Log.beginTest(getClass().getSimpleName() + "." + method.getName(),
+                udid != null ? udid : AppConstants.UDID);
+        TraceTimeline.beginTest(udid != null ? udid : AppConstants.UDID);
+
         // Reset per-test screenshot budget so each test gets its own MAX cap.
         stepScreenshotCount.set(0);
 
@@ -147,6 +226,16 @@ public class BaseTest {
             throw new org.testng.SkipException(RunHealth.fastSkipReason());
         }
 
+        // ── Budget scheduler (projected overrun, before the wall is hit) ────────
+        // The remaining queue, scaled by this run's pace, projects past
+        // SUITE_WALL_MINUTES and this test is among the least valuable per minute:
+        // skip it now so smoke and historically failing tests still fit.
+        String budgetSkip = RunHealth.budgetSkipReason(getClass().getName() + "#" + method.getName());
+        if (budgetSkip != null) {
+            DriverManager.forceNullDriver();
+            throw new org.testng.SkipException(budgetSkip);
+        }
+
         // ── Company-feature gate (environmental blockers, e.g. eng-lib) ─────────
         // A platform-managed flag being off makes whole modules fail with misleading
         // symptoms (eng-lib off → Settings card keeps its normal subtitle but the tap
@@ -168,6 +257,23 @@ public class BaseTest {
                     + " once it returns. Bypass with -DFEATURE_GATE_OFF=true.");
         }
 
+        // ── Half-open breaker canary ────────────────────────────────────────────
+        // The fast-skip gate above let this test through because the breaker's
+        // cool-down elapsed: it is the CANARY. Run the recovery step first — a
+        // forced WDA rebuild, plus a simulator reboot once a plain rebuild has
+        // already failed — then let the test run; testTeardown reports its outcome
+        // (healthy => gate closes, dead => re-opens with a doubled cool-down).
+        if (RunHealth.isCanaryPending()) {
+            int attempt = RunHealth.beginCanary();
+            DriverManager.forceNullDriver();
+            skipNextSetup = false;
+            skipNextTeardown = false;
+            if (attempt >= 2) {
+                DriverManager.resetSimulator(udid);
+            }
+            DriverManager.forceWdaRebuildOnce();
+        }
+
         // Skip setup for chained tests
         if (skipNextSetup) {
             // Verify the driver is still alive before reusing it
@@ -191,6 +297,14 @@ public class BaseTest {
 
         System.out.println("\n🚀 Setting up test...");
 
+        // Proactive recycle: the WDA health heartbeat saw this session's probe
+        // latency climbing toward the wedge threshold. Recycle HERE — between
+        // tests, nothing in flight — rather than let it wedge mid-test.
+        if (WdaHealthMonitor.consumeRecycleRequest()) {
+            DriverManager.quitDriver();
+            DriverManager.forceWdaRebuildOnce();
+        }
+
         // Initialize driver with retry logic for CI resilience
         // Note: Do NOT call cleanupStaleDriver() here — test classes with @BeforeClass
         // (e.g., Connections_Test) create their driver before @BeforeMethod runs,
@@ -212,6 +326,9 @@ public class BaseTest {
             DriverManager.initDriver(deviceName, udid, appiumPort, wdaLocalPort);
         }
 
+        WdaHealthMonitor.ensureRunning();
+        DeviceLogCollector.ensureRunning();
+
         // Soft restart: kill app process and relaunch to clear navigation/tab state
         // With noReset=true, login data persists but stale screen state is cleared
         // IMPORTANT: terminateApp and activateApp in separate try-catches so a failed
@@ -287,6 +404,7 @@ public class BaseTest {
         }
 
         testStartTime = System.currentTimeMillis();
+        DeviceLogCollector.markTestStart(getClass().getSimpleName()); // failure slice starts here
         System.out.println("✅ Test setup complete  [" + timestamp() + "]\n");
         // Initial-state screenshot is taken inside ExtentReportManager.createTest()
         // — it runs after the test method enters and the ExtentTest exists,
@@ -583,10 +701,23 @@ public class BaseTest {
         // null the driver reference.
         boolean sessionDead = (result.getStatus() == ITestResult.FAILURE)
                 && isSessionLikelyDead(result.getThrowable());
+        // A command aborted at its deadline (CommandDeadline) may still be running
+        // inside WDA. One bounded probe decides: answers => reuse as normal; silent
+        // => dead, so teardown skips the screenshot/terminate/quit HTTP calls that
+        // would otherwise queue behind the wedged request for 90-150s.
+        if (!sessionDead && CommandDeadline.isSessionSuspect() && DriverManager.isDriverActive()) {
+            System.out.println("⚠️ Session suspect (" + CommandDeadline.suspectReason() + ") — probing");
+            sessionDead = !DriverManager.respondsWithin(SUSPECT_PROBE_MS);
+        }
+        // Half-open canary verdict (no-op unless this test was the canary): a live
+        // session and no session-death signature, whatever the assertion outcome.
+        RunHealth.recordCanaryOutcome(!sessionDead && DriverManager.isDriverActive()
+                && !isSessionLikelyDead(result.getThrowable()));
 
         try {
             // Handle test result
             if (result.getStatus() == ITestResult.FAILURE) {
+                attachDeviceLog(!sessionDead, result.getThrowable());
                 if (sessionDead) {
                     // Session is dead — logFail without screenshot to avoid 7+ min hang
                     // from getScreenshotAsBase64() trying to reach the dead Appium server
@@ -595,6 +726,9 @@ public class BaseTest {
                     System.out.println("❌ Test FAILED: " + testName + "  [" + timestamp() + "] (" + durationStr + ")");
                     System.out.println("⚠️ Session appears dead — skipping Appium calls in teardown");
                 } else {
+                    if (result.getThrowable() instanceof AppLivenessWatchdog.AppDiedError) {
+                        attachAppDeathForensics((AppLivenessWatchdog.AppDiedError) result.getThrowable());
+                    }
                     try {
                         String screenshotPath = ScreenshotUtil.captureScreenshot(testName + "_FAILED");
                         System.out.println("📸 Screenshot saved: " + screenshotPath);
@@ -620,7 +754,7 @@ public class BaseTest {
                 } catch (Exception ignored) {}
                 ExtentReportManager.logSkip("Test skipped: " + skipReason);
                 System.out.println("⏭️ Test SKIPPED: " + testName + "  [" + timestamp() + "] (" + durationStr + ")");
-                System.out.println("   Skip reason: " + skipReason);
+                Log.info("   Skip reason: " + skipReason);
                 if (result.getThrowable() != null) {
                     result.getThrowable().printStackTrace(System.out);
                 }
@@ -632,8 +766,10 @@ public class BaseTest {
                 // Final-state screenshot for passing tests too (lets devs see
                 // the end state in the Detailed report). Counts against the
                 // per-test screenshot cap so it doesn't bloat huge tests.
+                // Not with the flight recorder: a green test gets its timeline only.
                 try {
-                    if (DriverManager.isDriverActive() && stepScreenshotCount.get() < MAX_STEP_SCREENSHOTS) {
+                    if (FlightRecorder.current() == null
+                            && DriverManager.isDriverActive() && stepScreenshotCount.get() < MAX_STEP_SCREENSHOTS) {
                         ExtentReportManager.logStepWithBase64Screenshot("✅ Final state — test passed");
                         stepScreenshotCount.incrementAndGet();
                     }
@@ -642,6 +778,18 @@ public class BaseTest {
                 System.out.println("✅ Test PASSED: " + testName + "  [" + timestamp() + "] (" + durationStr + ")");
             }
 
+            // Flight recorder: the last steps' screenshots (already in memory — no
+            // HTTP call, so a dead session gets them too) only for a failed/skipped
+            // or explicitly kept test; every test gets the compact step timeline.
+            FlightRecorder recorder = FlightRecorder.current();
+            ExtentReportManager.logFlightRecording(result.getStatus() != ITestResult.SUCCESS
+                    || (recorder != null && recorder.kept()));
+            // Full-detail log (DEBUG included) for a failed test only.
+            if (result.getStatus() == ITestResult.FAILURE) {
+                ExtentReportManager.logTestLog(Log.current() == null ? java.util.List.of() : Log.current().lines());
+            }
+
+            recordForResultCache(result, testDuration);
             ExtentReportManager.removeTests();
         } catch (Exception e) {
             System.out.println("⚠️ Error in test result handling: " + e.getMessage());
@@ -683,6 +831,7 @@ public class BaseTest {
                 DriverManager.quitDriver();
                 System.out.println("🧹 Test cleanup complete\n");
             }
+            Log.endTest();
         }
     }
 
@@ -748,20 +897,21 @@ public class BaseTest {
      * ╚══════════════════════════════════════════════════════════════╝
      */
     protected final void performLogin() {
-        System.out.println("🔐 Performing login...");
-
-        // Enter company code - wait for login page to appear
-        welcomePage.submitCompanyCode(AppConstants.VALID_COMPANY_CODE);
-        loginPage.waitForPageReady();
+        try (TraceTimeline.Span login = TraceTimeline.span("performLogin", "login")) {
+            System.out.println("🔐 Performing login...");
 
-        // Enter credentials and login (Save Password popup is handled inside login())
-        loginPage.loginTurbo(AppConstants.VALID_EMAIL, AppConstants.VALID_PASSWORD);
+            // Enter company code - wait for login page to appear
+            welcomePage.submitCompanyCode(AppConstants.VALID_COMPANY_CODE);
+            loginPage.waitForPageReady();
 
+            // Enter credentials and login (Save Password popup is handled inside login())
+            loginPage.loginTurbo(AppConstants.VALID_EMAIL, AppConstants.VALID_PASSWORD);
 
-        // Handle new Schedule screen (added Jan 2026)
-        // After login, app shows Schedule screen - click "View Sites" to proceed
-        siteSelectionPage.handleScheduleScreenIfPresent();
-        System.out.println("✅ Login completed");
+            // Handle new Schedule screen (added Jan 2026)
+            // After login, app shows Schedule screen - click "View Sites" to proceed
+            siteSelectionPage.handleScheduleScreenIfPresent();
+            System.out.println("✅ Login completed");
+        }
     }
 
     // ================================================================
@@ -1174,10 +1324,12 @@ public class BaseTest {
      * Appium session. The pass is a no-op unless DriverManager armed it.
      */
     protected final void loginAndSelectSite() {
-        dismissChooseExperienceBeforeLogin(); // v1.59 chooser left by a prior test misdetects as WELCOME_PAGE
-        loginAndSelectSiteCore();
-        acceptPolicyUpdateIfPresent(); // v1.55 consent sheet blocks EVERYTHING — clear it first
-        ensureSessionRecordingDisabledIfFreshInstall();
+        try (TraceTimeline.Span login = TraceTimeline.span("loginAndSelectSite", "login")) {
+            dismissChooseExperienceBeforeLogin(); // v1.59 chooser left by a prior test misdetects as WELCOME_PAGE
+            loginAndSelectSiteCore();
+            acceptPolicyUpdateIfPresent(); // v1.55 consent sheet blocks EVERYTHING — clear it first
+            ensureSessionRecordingDisabledIfFreshInstall();
+        }
     }
 
     /**
@@ -1350,7 +1502,9 @@ public class BaseTest {
      */
     protected static void runWithBudget(String label, int seconds, Runnable body) {
         Thread worker = new Thread(() -> {
-            try {
+            // The budget also caps each driver command the body issues, so an
+            // abandoned worker can't keep a wedged request alive behind the next test.
+            try (CommandDeadline.Scope budget = CommandDeadline.within(seconds * 1000L)) {
                 body.run();
             } catch (Throwable t) {
                 System.out.println("⚠️ " + label + " threw: " + t.getMessage());
@@ -1417,10 +1571,12 @@ public class BaseTest {
      * ╚══════════════════════════════════════════════════════════════╝
      */
     protected final void loginAndSelectSiteTurbo() {
-        dismissChooseExperienceBeforeLogin(); // v1.59 chooser left by a prior test misdetects as WELCOME_PAGE
-        loginAndSelectSiteTurboCore();
-        acceptPolicyUpdateIfPresent(); // v1.55 consent sheet blocks EVERYTHING — clear it first
-        ensureSessionRecordingDisabledIfFreshInstall();
+        try (TraceTimeline.Span login = TraceTimeline.span("loginAndSelectSiteTurbo", "login")) {
+            dismissChooseExperienceBeforeLogin(); // v1.59 chooser left by a prior test misdetects as WELCOME_PAGE
+            loginAndSelectSiteTurboCore();
+            acceptPolicyUpdateIfPresent(); // v1.55 consent sheet blocks EVERYTHING — clear it first
+            ensureSessionRecordingDisabledIfFreshInstall();
+        }
     }
 
     private void loginAndSelectSiteTurboCore() {
@@ -1640,6 +1796,47 @@ public class BaseTest {
         }
     }
 
+    /**
+     * The liveness watchdog captured a screenshot the moment the app died, on its own
+     * thread. Teardown attaches it: ExtentReportManager hands the body's report test
+     * (created on the timeOut thread) to this one.
+     */
+    private void attachAppDeathForensics(AppLivenessWatchdog.AppDiedError died) {
+        String at = new java.text.SimpleDateFormat("HH:mm:ss.SSS").format(new java.util.Date(died.detectedAtMs()));
+        ExtentReportManager.logWarningWithImage("App death seen at " + at + " (state=" + died.state() + ")",
+                died.screenshotBase64());
+    }
+
+    /**
+     * Failed tests only: this test's slice of the device log (DeviceLogCollector) with its
+     * crash-signature lines up front. {@code fetch} = drain the latest lines first (false
+     * for a dead session: teardown must make no HTTP call). Falls back to the tail the
+     * watchdog captured when the collector is off.
+     */
+    private void attachDeviceLog(boolean fetch, Throwable failure) {
+        try {
+            java.util.List<String> slice = DeviceLogCollector.testSlice(fetch);
+            if (slice.isEmpty() && failure instanceof AppLivenessWatchdog.AppDiedError) {
+                slice = ((AppLivenessWatchdog.AppDiedError) failure).logTail();
+            }
+            if (slice.isEmpty()) return;
+            java.util.List<String> crashes = DeviceLogCollector.testCrashSignatures();
+            StringBuilder html = new StringBuilder("📜 Device log (" + slice.size() + " lines)");
+            if (!crashes.isEmpty()) {
+                html.append("<br/>🧨 <b>Crash signatures:</b><pre>").append(escapeHtml(String.join("\n", crashes))).append("</pre>");
+            }
+            html.append("<details><summary>show log</summary><pre>")
+                    .append(escapeHtml(String.join("\n", slice))).append("</pre></details>");
+            ExtentReportManager.logInfo(html.toString());
+        } catch (Exception e) {
+            System.out.println("⚠️ Could not attach device log: " + e.getMessage());
+        }
+    }
+
+    private static String escapeHtml(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     // ================================================================
     // WAIT HELPER METHODS (CI-safe explicit waits)
     // ================================================================
@@ -1733,25 +1930,27 @@ public class BaseTest {
                                        int timeoutSec, String description) {
         long deadline = System.currentTimeMillis() + (timeoutSec * 1000L);
         int attempt = 0;
-        while (System.currentTimeMillis() < deadline) {
-            attempt++;
-            try {
-                if (Boolean.TRUE.equals(condition.get())) {
-                    if (attempt > 1) {
-                        System.out.println("✓ Condition met on attempt " + attempt + ": " + description);
+        try (CommandDeadline.Scope budget = CommandDeadline.within(timeoutSec * 1000L)) {
+            while (System.currentTimeMillis() < deadline) {
+                attempt++;
+                try {
+                    if (Boolean.TRUE.equals(condition.get())) {
+                        if (attempt > 1) {
+                            System.out.println("✓ Condition met on attempt " + attempt + ": " + description);
+                        }
+                        return true;
                     }
-                    return true;
+                } catch (Exception ignored) {
+                    // Element may not exist yet — keep polling
+                }
+                // Real pause between probes. sleep(250) here is the no-op above, which made
+                // this loop busy-spin (measured 2,800 log lines/sec — 95.6% of a 32MB log).
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
-            } catch (Exception ignored) {
-                // Element may not exist yet — keep polling
-            }
-            // Real pause between probes. sleep(250) here is the no-op above, which made
-            // this loop busy-spin (measured 2,800 log lines/sec — 95.6% of a 32MB log).
-            try {
-                Thread.sleep(250);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                break;
             }
         }
         System.out.println("⚠️ Condition NOT met within " + timeoutSec + "s: " + description);
@@ -1,12 +1,18 @@
 package com.egalvanic.explore;
 
 import com.egalvanic.base.BaseTest;
+import com.egalvanic.utils.AppLivenessWatchdog;
 import com.egalvanic.verify.AssetLoadVerifier;
 import com.egalvanic.verify.CrashDetector;
 import com.egalvanic.verify.UIStateValidator;
+import com.egalvanic.verify.VerificationError;
 import org.testng.SkipException;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * Autonomous exploratory crawl (Phase 3). Disabled by default — it is NOT in any suite
  * XML and additionally guards on {@code RUN_EXPLORATORY=true}, so it never affects normal
@@ -16,6 +22,19 @@ import org.testng.annotations.Test;
  *
  * AI is opt-in: set {@code ANTHROPIC_API_KEY} to enable risk-prioritised actions and
  * screenshot anomaly detection; otherwise it runs as a verifier-backed monkey.
+ *
+ * {@code EXPLORE_MODE=coverage} (default) steers toward untried actions and frontier
+ * screens; {@code EXPLORE_MODE=random} restores the plain monkey.
+ *
+ * {@code EXPLORE_DEVICES="udid@appiumPort@wdaLocalPort,..."} adds parallel workers on
+ * extra simulators sharing one workflow graph (see {@link ParallelExplorer}).
+ *
+ * The graph persists in {@code EXPLORE_GRAPH} (default
+ * reports/exploration/workflow-graph.tsv.gz, {@code none} = start fresh), so each crawl
+ * continues from the map the previous one built. CRITICAL findings are replayed and
+ * delta-minimized ({@code EXPLORE_MINIMIZE_REPLAYS}, default 30 replays per finding, 0 = off)
+ * into reports/exploration/repro-*.trace; {@code EXPLORE_REPLAY=<file>} replays one of those
+ * instead of crawling and fails while the defect still reproduces.
  */
 public class ExploratoryCrawlTest extends BaseTest {
 
@@ -24,28 +43,78 @@ public class ExploratoryCrawlTest extends BaseTest {
         if (!"true".equalsIgnoreCase(System.getenv("RUN_EXPLORATORY"))) {
             throw new SkipException("Exploratory crawl disabled (set RUN_EXPLORATORY=true to enable).");
         }
+        AppLivenessWatchdog.disarm(); // crashes are findings here, and the crawler relaunches after them
 
         loginAndSelectSite(); // reuse the framework's real entry into an authenticated session
 
+        Oracle oracle = new Oracle(new CrashDetector(), new UIStateValidator(), new AssetLoadVerifier());
+        TraceReplayer replayer = new TraceReplayer(new Crawler(), oracle, new InterruptInjector());
+        String replay = System.getenv("EXPLORE_REPLAY");
+        if (replay != null && !replay.isBlank()) {
+            replayRepro(replayer, Path.of(replay));
+            return;
+        }
+
+        String graphEnv = System.getenv("EXPLORE_GRAPH");
+        Path graphFile = "none".equalsIgnoreCase(graphEnv) ? null
+                : Path.of(graphEnv == null || graphEnv.isBlank() ? "reports/exploration/workflow-graph.tsv.gz" : graphEnv);
+        WorkflowGraph graph = graphFile == null ? new WorkflowGraph() : WorkflowGraph.load(graphFile);
+        System.out.println("🗺️ Workflow graph: starting from " + graph.screenCount() + " known screens");
+
         AiClient ai = AiClient.fromEnv(); // null when no key => deterministic monkey + no vision
-        ExploratoryEngine engine = new ExploratoryEngine(
-                new Crawler(),
-                new ActionSelector(ai),
-                new Oracle(new CrashDetector(), new UIStateValidator(), new AssetLoadVerifier()),
-                new VisualAnomalyDetector(ai),
-                new InterruptInjector(),
-                new WorkflowGraph());
+        boolean coverage = !"random".equalsIgnoreCase(System.getenv("EXPLORE_MODE"));
+        List<ParallelExplorer.Device> extra = ParallelExplorer.Device.parse(System.getenv("EXPLORE_DEVICES"));
 
         int minutes = parseEnv("EXPLORE_MINUTES", 20);
         int maxSteps = parseEnv("EXPLORE_MAX_STEPS", 800);
+        ExploreBudget budget = ExploreBudget.of(minutes, maxSteps);
 
-        ExploreReport report = engine.run(ExploreBudget.of(minutes, maxSteps));
+        ExploreReport report;
+        if (extra.isEmpty()) {
+            ExploratoryEngine engine = new ExploratoryEngine(
+                    new Crawler(),
+                    new ActionSelector(ai),
+                    oracle,
+                    new VisualAnomalyDetector(ai),
+                    new InterruptInjector(),
+                    graph,
+                    coverage);
+            report = engine.run(budget);
+        } else {
+            report = new ParallelExplorer(extra, ai, graph, coverage).run(budget);
+        }
+        if (graphFile != null) {
+            try {
+                graph.save(graphFile);
+            } catch (IOException e) {
+                System.out.println("⚠️ Could not save workflow graph: " + e.getMessage());
+            }
+        }
+        int replays = parseEnv("EXPLORE_MINIMIZE_REPLAYS", 30);
+        if (replays > 0) {
+            replayer.minimizeCritical(report, 3, replays, Path.of("reports/exploration"));
+        }
         report.writeArtifact("reports/exploration/crawl-report.txt");
         System.out.println(report.summary());
+        if (ai != null) System.out.println("🧠 " + ai.stats() + "\n🖼️ " + VisualAnomalyDetector.stats());
 
         report.failIfCritical(); // crashes/freezes turn the build RED; lower-severity findings are logged
     }
 
+    private static void replayRepro(TraceReplayer replayer, Path file) {
+        ExploreFinding repro;
+        try {
+            repro = TraceReplayer.read(file);
+        } catch (IOException e) {
+            throw new SkipException("Cannot read repro " + file + ": " + e.getMessage());
+        }
+        if (replayer.reproduces(repro.trace(), repro.kind())) {
+            throw new VerificationError(repro.kind() + " still reproduces in " + repro.trace().size()
+                    + " steps (" + file + "): " + repro.detail());
+        }
+        System.out.println("✅ " + file + " no longer reproduces " + repro.kind());
+    }
+
     private static int parseEnv(String key, int dflt) {
         try { String v = System.getenv(key); return v == null ? dflt : Integer.parseInt(v); }
         catch (NumberFormatException e) { return dflt; }
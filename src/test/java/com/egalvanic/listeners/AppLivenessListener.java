@@ -0,0 +1,31 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.utils.AppLivenessWatchdog;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Arms the {@link AppLivenessWatchdog} for the @Test body only — like
+ * CommandDeadlineListener, configuration methods are never watched: setup's soft
+ * restart and teardown's terminateApp move the app on purpose, and a failure
+ * there would have nothing to abort.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class AppLivenessListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            AppLivenessWatchdog.arm(method.getTestMethod().getMethodName());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            AppLivenessWatchdog.disarm();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.base.BaseTest;
+import com.egalvanic.utils.ResultCache;
+import com.egalvanic.utils.RunHealth;
+import com.egalvanic.utils.TestScheduler;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hands each &lt;test&gt; block's queue to the run's {@link TestScheduler}, in the
+ * order TestNG will run it (which it leaves alone: priorities and authored order
+ * hold, and a class over budget is trimmed from its end). Then reports every
+ * finished test back, so the scheduler's pace and remaining queue stay current for
+ * the per-test re-plan in BaseTest.testSetup.
+ *
+ * Only BaseTest subclasses are scheduled; anything else (the self-tests) and
+ * classes the result cache reuses pass through untouched.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class BudgetSchedulerListener implements IMethodInterceptor, ITestListener {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        List<TestScheduler.Candidate> candidates = new ArrayList<>();
+        // Reused classes cost ~0s and never hit the budget: keep them out of the queue.
+        Set<Class<?>> reused = new HashSet<>();
+        for (Map.Entry<Class<?>, List<String>> c : ResultCacheListener.testsByClass(methods).entrySet()) {
+            if (!ResultCache.reusable(c.getKey(), c.getValue()).isEmpty()) {
+                reused.add(c.getKey());
+            }
+        }
+        for (IMethodInstance mi : methods) {
+            ITestNGMethod m = mi.getMethod();
+            if (BaseTest.class.isAssignableFrom(m.getRealClass()) && !reused.contains(m.getRealClass())) {
+                candidates.add(new TestScheduler.Candidate(m.getRealClass().getName(), m.getMethodName(),
+                    m.getGroups()));
+            }
+        }
+        if (!candidates.isEmpty()) {
+            RunHealth.scheduler().plan(candidates);
+        }
+        return methods;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finished(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finished(result, true);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            return; // the retry is still to come: keep it queued
+        }
+        finished(result, false);
+    }
+
+    private static void finished(ITestResult result, boolean ran) {
+        ITestNGMethod m = result.getMethod();
+        RunHealth.scheduler().finished(m.getRealClass().getName() + "#" + m.getMethodName(), ran);
+    }
+}
@@ -0,0 +1,39 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.utils.CommandDeadline;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Arms the per-command ceiling ({@link CommandDeadline}) for the @Test body.
+ *
+ * GlobalTestTimeout gives every @Test a timeOut (default 360s), but TestNG can
+ * only interrupt the worker — which does nothing while it is parked inside a
+ * 90s Appium HTTP read. Arming the same timeOut as a command deadline means the
+ * in-flight command is abandoned and the body unblocks at the cap, so teardown
+ * starts immediately instead of queueing behind the wedged request.
+ *
+ * Only the @Test body is armed: configuration methods (@BeforeMethod driver
+ * init, @AfterMethod teardown) keep their own budgets and are never cut short
+ * by a test that already used its time. The timeOut read here is the value
+ * AFTER GlobalTestTimeout's transform, so explicit @Test(timeOut=...) wins.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class CommandDeadlineListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            CommandDeadline.beginTest(method.getTestMethod().getTimeOut());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            CommandDeadline.endTest();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.egalvanic.listeners;
 
 import com.egalvanic.constants.AppConstants;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.HalfOpenBreaker;
+import com.egalvanic.utils.ResultCache;
+import com.egalvanic.utils.RunHealth;
 import org.testng.IInvokedMethod;
 import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
 import org.testng.SkipException;
 
@@ -17,7 +21,7 @@ import java.util.function.BooleanSupplier;
  * test burns its full timeout probing a corpse (run 27320962984: 65 tests thrown
  * away this way). This listener counts CONSECUTIVE tests that end in a
  * driver-dead failure/skip; once {@code DEAD_SESSION_BREAKER_N} (default 5) is
- * reached it trips OPEN and skips every remaining test fast, with a message
+ * reached it trips OPEN and skips the following tests fast, with a message
  * pointing at the failed-suites/ rerun for triage. Any healthy outcome —
  * a pass, or a failure/skip with a live session and no session-death signature —
  * resets the count, so ordinary flaky failures never trip it.
@@ -28,6 +32,10 @@ import java.util.function.BooleanSupplier;
  * @AfterMethod teardown quits the driver, so an inactive driver there genuinely
  * means the session died during the test (or setup never produced one).
  *
+ * Tripping is not permanent: the listener opens a {@link HalfOpenBreaker}
+ * (the shared {@link RunHealth} gate in production). After a cool-down BaseTest
+ * runs a recovery step + one canary test; a healthy canary closes the gate.
+ *
  * Gated by env/-D DEAD_SESSION_BREAKER (default true); threshold via
  * DEAD_SESSION_BREAKER_N. Registered via META-INF/services/org.testng.ITestNGListener.
  */
@@ -37,39 +45,57 @@ public class DeadSessionCircuitBreaker implements IInvokedMethodListener {
     private final int threshold;
     private final BooleanSupplier driverAlive;
 
+    private final HalfOpenBreaker gate;
+
     private final AtomicInteger consecutiveDead = new AtomicInteger(0);
-    private volatile boolean tripped = false;
 
     public DeadSessionCircuitBreaker() {
         this(AppConstants.DEAD_SESSION_BREAKER,
              AppConstants.DEAD_SESSION_BREAKER_N,
-             DriverManager::isDriverActive);
+             DriverManager::isDriverActive,
+             RunHealth.breaker());
     }
 
     /** Seam for driver-free self-tests: inject gate, threshold and liveness probe. */
     public DeadSessionCircuitBreaker(boolean enabled, int threshold, BooleanSupplier driverAlive) {
+        this(enabled, threshold, driverAlive, new HalfOpenBreaker(
+                AppConstants.BREAKER_COOLDOWN_SEC * 1000L,
+                AppConstants.BREAKER_COOLDOWN_MAX_SEC * 1000L,
+                AppConstants.BREAKER_MAX_RECOVERIES,
+                System::currentTimeMillis));
+    }
+
+    /** Seam for the half-open self-test: also inject the breaker state machine (and its clock). */
+    public DeadSessionCircuitBreaker(boolean enabled, int threshold, BooleanSupplier driverAlive,
+                                     HalfOpenBreaker gate) {
         this.enabled = enabled;
         this.threshold = threshold;
         this.driverAlive = driverAlive;
+        this.gate = gate;
     }
 
     @Override
     public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
-        if (!enabled || !method.isTestMethod()) {
+        if (!enabled || !method.isTestMethod() || isReused(method)) {
             return;
         }
-        if (tripped) {
+        // OPEN only: HALF_OPEN lets the canary through (BaseTest.testSetup moved the
+        // gate there after the cool-down and ran the recovery step).
+        if (gate.state() == HalfOpenBreaker.State.OPEN) {
             throw new SkipException("Dead-session circuit breaker OPEN: " + threshold
-                    + " consecutive tests ended on a dead Appium session; skipping the rest of"
-                    + " this run instead of burning the per-test timeout on each. Skipped tests"
-                    + " land in failed-suites/latest.xml — triage via rerun-failed-by-date.yml"
-                    + " or `mvn test -DsuiteXmlFile=failed-suites/latest.xml`.");
+                    + " consecutive tests ended on a dead Appium session; skipping fast instead of"
+                    + " burning the per-test timeout on each until a half-open canary proves the"
+                    + " session back. Skipped tests land in failed-suites/latest.xml — triage via"
+                    + " rerun-failed-by-date.yml or `mvn test -DsuiteXmlFile=failed-suites/latest.xml`.");
         }
     }
 
     @Override
     public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
-        if (!enabled || !method.isTestMethod() || tripped) {
+        // While the gate is not CLOSED the canary (not this counter) decides — see
+        // RunHealth.recordCanaryOutcome. Counting resumes from 0 once it closes.
+        // A PASS reused from the result cache says nothing about this session.
+        if (!enabled || !method.isTestMethod() || !gate.isClosed() || isReused(method)) {
             return;
         }
         if (testResult.getStatus() == ITestResult.SUCCESS) {
@@ -79,17 +105,21 @@ public class DeadSessionCircuitBreaker implements IInvokedMethodListener {
         if (looksDead(testResult)) {
             int dead = consecutiveDead.incrementAndGet();
             if (dead >= threshold) {
-                tripped = true;
-                // Also flip the shared RunHealth gate so BaseTest.@BeforeMethod skips the
-                // rest in ~0s. Tripping only THIS listener was not enough: it short-circuits
+                consecutiveDead.set(0);
+                // The production gate IS the shared RunHealth breaker, so BaseTest.@BeforeMethod
+                // skips in ~0s too. Tripping only THIS listener was not enough: it short-circuits
                 // the @Test body but @BeforeMethod still ran initDriver()/WDA-rebuild (~6 min
                 // each), which is why "skipped" tests were still 6 min apart and jobs hit the
                 // 6h cap (run 28246433532).
-                com.egalvanic.utils.RunHealth.tripBreaker(dead
-                        + " consecutive dead/wedged test outcomes");
+                String why = dead + " consecutive dead/wedged test outcomes";
+                if (gate == RunHealth.breaker()) {
+                    RunHealth.tripBreaker(why);
+                } else {
+                    gate.trip(why);
+                }
                 System.out.println("🛑 Dead-session circuit breaker TRIPPED after " + dead
-                        + " consecutive driver-dead/wedged test outcomes — all remaining tests will"
-                        + " be skipped fast (set DEAD_SESSION_BREAKER=false to disable)");
+                        + " consecutive driver-dead/wedged test outcomes — tests skip fast until the"
+                        + " half-open canary (set DEAD_SESSION_BREAKER=false to disable)");
             } else {
                 System.out.println("⚡ Dead-session breaker: " + dead + "/" + threshold
                         + " consecutive driver-dead outcomes");
@@ -100,6 +130,11 @@ public class DeadSessionCircuitBreaker implements IInvokedMethodListener {
         }
     }
 
+    private static boolean isReused(IInvokedMethod method) {
+        ITestNGMethod m = method.getTestMethod();
+        return m != null && ResultCache.isReused(m.getRealClass().getName());
+    }
+
     /**
      * True when the outcome carries a session-death OR session-wedge signature.
      *
@@ -2,6 +2,8 @@ package com.egalvanic.listeners;
 
 import com.egalvanic.constants.AppConstants;
 import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.Telemetry;
+import com.egalvanic.utils.TraceTimeline;
 import io.appium.java_client.appmanagement.ApplicationState;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
@@ -73,6 +75,8 @@ public class EnvironmentRetryAnalyzer implements IRetryAnalyzer {
         }
         result.setAttribute(RETRIED_ATTR, Boolean.TRUE);
         RETRIES_BY_TEST.merge(key, 1, Integer::sum);
+        Telemetry.RETRIES.inc("kind", reason.startsWith("signature") ? "signature" : "app_state");
+        TraceTimeline.instant("retry " + result.getName(), "retry", reason, false);
         System.out.println("🔁 ENV-RETRY: '" + result.getName() + "' failed for an ENVIRONMENTAL reason ("
                 + reason + ") — retrying once; a second identical failure stays RED.");
         recoverForegroundBestEffort();
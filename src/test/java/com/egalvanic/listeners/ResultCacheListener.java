@@ -0,0 +1,47 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.base.BaseTest;
+import com.egalvanic.utils.ResultCache;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides, once per &lt;test&gt; block and before any class starts, which test
+ * classes the {@link ResultCache} reuses: a class whose tests in this run all have
+ * a PASS recorded under unchanged inputs. The order is left alone; BaseTest then
+ * skips a reused class's setup/teardown (IConfigurable) and reports each of its
+ * tests as a cached PASS instead of running the body (IHookable).
+ *
+ * Only BaseTest subclasses are considered; anything else (the self-tests) always runs.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class ResultCacheListener implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        for (Map.Entry<Class<?>, List<String>> c : testsByClass(methods).entrySet()) {
+            ResultCache.reusable(c.getKey(), c.getValue());
+        }
+        return methods;
+    }
+
+    /** BaseTest subclasses in queue order, each with its test methods. */
+    static Map<Class<?>, List<String>> testsByClass(List<IMethodInstance> methods) {
+        Map<Class<?>, List<String>> byClass = new LinkedHashMap<>();
+        for (IMethodInstance mi : methods) {
+            ITestNGMethod m = mi.getMethod();
+            if (BaseTest.class.isAssignableFrom(m.getRealClass())) {
+                byClass.computeIfAbsent(m.getRealClass(), k -> new ArrayList<>()).add(m.getMethodName());
+            }
+        }
+        return byClass;
+    }
+}
@@ -0,0 +1,137 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.Log;
+import com.egalvanic.utils.ResultCache;
+import com.egalvanic.utils.Telemetry;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Feeds {@link Telemetry} with per-test timings and outcomes, and exports it.
+ *
+ * Phases are timed around each invocation on the thread that runs it:
+ * @BeforeMethod = setup, @Test = body, @AfterMethod = teardown. Each lands in
+ * the per-phase/per-class histogram; setup and teardown are attributed to the
+ * test they bracket (setup is held until the body runs; a setup that skipped
+ * the test has no body and only reaches the histogram), so the last-duration
+ * gauge has all three phases per test. Outcomes are counted by status, with a
+ * retried attempt counted as "retried" rather than as a skip, and a PASS reused
+ * from the result cache as "cached".
+ *
+ * Exports at suite end (and every TELEMETRY_INTERVAL_SEC while the suite runs,
+ * when set) to TELEMETRY_DIR. Suite name and the GitHub run identity go out as
+ * resource attributes so nightly snapshots can be told apart.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class TelemetryListener implements IInvokedMethodListener, ITestListener, ISuiteListener {
+
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+    private static final ThreadLocal<Double> PENDING_SETUP = new ThreadLocal<>();
+    private static final ThreadLocal<String> LAST_TEST = new ThreadLocal<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        Telemetry.resource("suite", suite.getName());
+        Telemetry.resource("github.run_id", System.getenv("GITHUB_RUN_ID"));
+        Telemetry.resource("github.job", System.getenv("GITHUB_JOB"));
+        Telemetry.resource("github.ref", System.getenv("GITHUB_REF_NAME"));
+        Telemetry.startIntervalExport(AppConstants.TELEMETRY_INTERVAL_SEC);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Telemetry.stopIntervalExport();
+        if (Telemetry.isEnabled()) {
+            Telemetry.export();
+            Log.info("📈 Telemetry exported: " + AppConstants.TELEMETRY_DIR
+                + " (openmetrics.txt, otlp-metrics.json)");
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        String phase = phase(method);
+        if (phase == null) {
+            return;
+        }
+        if ("setup".equals(phase)) {
+            PENDING_SETUP.remove();
+            LAST_TEST.remove();
+        }
+        STARTED.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        String phase = phase(method);
+        Long started = STARTED.get();
+        if (phase == null || started == null) {
+            return;
+        }
+        STARTED.remove();
+        double seconds = Telemetry.secondsSince(started);
+        ITestNGMethod m = method.getTestMethod();
+        Telemetry.TEST_PHASE_SECONDS.observe(seconds, "phase", phase, "class", m.getRealClass().getSimpleName());
+
+        switch (phase) {
+            case "setup":
+                PENDING_SETUP.set(seconds);
+                break;
+            case "body":
+                String test = m.getRealClass().getSimpleName() + "." + m.getMethodName();
+                LAST_TEST.set(test);
+                Double setup = PENDING_SETUP.get();
+                if (setup != null) {
+                    Telemetry.TEST_LAST_PHASE_SECONDS.set(setup, "test", test, "phase", "setup");
+                    PENDING_SETUP.remove();
+                }
+                Telemetry.TEST_LAST_PHASE_SECONDS.set(seconds, "test", test, "phase", "body");
+                break;
+            default:
+                String last = LAST_TEST.get();
+                if (last != null) {
+                    Telemetry.TEST_LAST_PHASE_SECONDS.set(seconds, "test", last, "phase", "teardown");
+                    LAST_TEST.remove();
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        Telemetry.TESTS.inc("status",
+            ResultCache.isReused(result.getMethod().getRealClass().getName()) ? "cached" : "pass");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        Telemetry.TESTS.inc("status", "fail");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        Telemetry.TESTS.inc("status", result.wasRetried() ? "retried" : "skip");
+    }
+
+    /** setup | body | teardown, or null for class/suite-level configuration. */
+    private static String phase(IInvokedMethod method) {
+        if (method.isTestMethod()) {
+            return "body";
+        }
+        ITestNGMethod m = method.getTestMethod();
+        if (m.isBeforeMethodConfiguration()) {
+            return "setup";
+        }
+        if (m.isAfterMethodConfiguration()) {
+            return "teardown";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.egalvanic.listeners;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.Log;
+import com.egalvanic.utils.TraceTimeline;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Puts each test's phases on the {@link TraceTimeline}: a span for every
+ * @BeforeMethod ("setup"), @Test body (named Class.method, with its status)
+ * and @AfterMethod ("teardown"), on the thread that ran it. Page-object,
+ * command, login and screenshot spans recorded meanwhile nest inside them.
+ *
+ * The trace is flushed to disk after every teardown, so a job killed at the
+ * 6h cap loses at most the test in flight; the file itself is closed by the
+ * shutdown hook, not at suite end, so a later suite in the same JVM keeps
+ * appending to it.
+ *
+ * Registered via META-INF/services/org.testng.ITestNGListener.
+ */
+public class TraceListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final ThreadLocal<TraceTimeline.Span> OPEN = new ThreadLocal<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ITestNGMethod m = method.getTestMethod();
+        String name;
+        if (method.isTestMethod()) {
+            name = m.getRealClass().getSimpleName() + "." + m.getMethodName();
+        } else if (m.isBeforeMethodConfiguration()) {
+            name = "setup";
+        } else if (m.isAfterMethodConfiguration()) {
+            name = "teardown";
+        } else {
+            return;
+        }
+        TraceTimeline.Span span = TraceTimeline.span(name, method.isTestMethod() ? "test" : "config");
+        if (!method.isTestMethod()) {
+            span.arg("method", m.getRealClass().getSimpleName() + "." + m.getMethodName());
+        }
+        OPEN.set(span);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TraceTimeline.Span span = OPEN.get();
+        if (span == null) {
+            return;
+        }
+        OPEN.remove();
+        if (method.isTestMethod()) {
+            span.arg("status", testResult.isSuccess() ? "pass"
+                : testResult.getStatus() == ITestResult.SKIP ? "skip" : "fail");
+        }
+        span.close();
+        if (method.getTestMethod().isAfterMethodConfiguration()) {
+            TraceTimeline.flush();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (TraceTimeline.isEnabled()) {
+            TraceTimeline.flush();
+            Log.info("🧭 Trace timeline: " + AppConstants.TRACE_FILE + " (open in ui.perfetto.dev or chrome://tracing)");
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.explore.AiClient;
+import com.egalvanic.explore.ExploreFinding;
+import com.egalvanic.explore.TraceStep;
+import com.egalvanic.explore.VisualAnomalyDetector;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the AI layer asks each question once, and that most screens
+ * never reach it. Runs against a local stub of the Messages endpoint (JDK HttpServer)
+ * that counts calls and answers after a scripted delay; screenshots are drawn in memory.
+ *
+ * <ul>
+ *   <li>The same label set (in any order) is answered from cache.</li>
+ *   <li>Identical in-flight requests share one HTTP call.</li>
+ *   <li>With every slot busy a caller waits briefly, then proceeds without AI; async and
+ *       cached callers do not wait at all.</li>
+ *   <li>The on-disk store answers a fresh client with no call; a vision verdict only for
+ *       the same model and app build.</li>
+ *   <li>Screenshots of the same screen share a verdict via the perceptual hash.</li>
+ *   <li>The cached ranking never blocks: empty first, ranked on a later visit.</li>
+ *   <li>Vision triage flags blank and clipped renders locally, reuses a verdict only for
+ *       an identical screen hash, and escalates a near-duplicate.</li>
+ * </ul>
+ */
+public class AiClientSelfTest {
+
+    private HttpServer stub;
+    private final AtomicInteger httpCalls = new AtomicInteger();
+    private volatile long delayMs;
+    private volatile String answer;
+
+    @BeforeMethod
+    public void startStub() throws Exception {
+        VisualAnomalyDetector.reset(); // static-per-JVM verdicts — isolate each case
+        httpCalls.set(0);
+        delayMs = 0;
+        answer = "ok";
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        stub.createContext("/v1/messages", ex -> {
+            httpCalls.incrementAndGet();
+            ex.getRequestBody().readAllBytes();
+            try { Thread.sleep(delayMs); } catch (InterruptedException ignored) {}
+            String text = answer.replace("\\", "\\\\").replace("\n", "\\n").replace("\"", "\\\"");
+            byte[] body = ("{\"content\":[{\"type\":\"text\",\"text\":\"" + text + "\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            ex.sendResponseHeaders(200, body.length);
+            ex.getResponseBody().write(body);
+            ex.close();
+        });
+        stub.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() {
+        stub.stop(0);
+    }
+
+    private AiClient client(int maxConcurrent, long backpressureMs, Path store) {
+        return client("stub-model", "1.0 (1)", maxConcurrent, backpressureMs, store);
+    }
+
+    private AiClient client(String model, String appBuild, int maxConcurrent, long backpressureMs, Path store) {
+        URI uri = URI.create("http://127.0.0.1:" + stub.getAddress().getPort() + "/v1/messages");
+        return new AiClient("test-key", model, appBuild, uri, maxConcurrent, backpressureMs, store);
+    }
+
+    @Test
+    public void sameLabelSet_isAskedOnce() {
+        AiClient ai = client(2, 1_000, null);
+        answer = "Button['Delete']";
+        assertEquals(ai.suggestNextActionLabel(List.of("Button['Save']", "Button['Delete']"), "step 1"), "Button['Delete']");
+        assertEquals(ai.suggestNextActionLabel(List.of("Button['Delete']", "Button['Save']"), "step 9"), "Button['Delete']");
+        assertEquals(httpCalls.get(), 1, "label order and step hint must not defeat the cache");
+    }
+
+    @Test
+    public void identicalInFlightRequests_shareOneCall() throws Exception {
+        AiClient ai = client(4, 1_000, null);
+        delayMs = 300;
+        List<CompletableFuture<String>> all = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            all.add(CompletableFuture.supplyAsync(() -> ai.suggestNextActionLabel(List.of("A", "B"), "t")));
+        }
+        for (CompletableFuture<String> f : all) assertEquals(f.get(), "ok");
+        assertEquals(httpCalls.get(), 1);
+    }
+
+    @Test
+    public void saturatedLimiter_shedsAfterBackpressure() {
+        AiClient ai = client(1, 100, null);
+        delayMs = 600;
+        CompletableFuture<String> first = ai.classifyScreenshotAsync(png(1, 10), "a");
+        long t0 = System.nanoTime();
+        String second = ai.suggestNextActionLabel(List.of("X"), "b");
+        long waitedMs = (System.nanoTime() - t0) / 1_000_000;
+        assertNull(second, "no free slot => proceed without AI");
+        assertTrue(waitedMs >= 90 && waitedMs < 500, "bounded backpressure wait, got " + waitedMs + "ms");
+        assertEquals(first.join(), "ok");
+        assertEquals(httpCalls.get(), 1);
+        assertTrue(ai.stats().contains("1 shed"), ai.stats());
+    }
+
+    @Test
+    public void saturatedLimiter_asyncAndCachedCallers_shedWithoutWaiting() {
+        AiClient ai = client(1, 1_000, null);
+        delayMs = 600;
+        CompletableFuture<String> first = ai.classifyScreenshotAsync(png(1, 10), "a");
+        long t0 = System.nanoTime();
+        CompletableFuture<String> second = ai.classifyScreenshotAsync(png(2, 10), "b");
+        List<String> ranking = ai.cachedRanking(List.of("X"), "c");
+        long waitedMs = (System.nanoTime() - t0) / 1_000_000;
+        assertTrue(waitedMs < 200, "a non-blocking caller must not sit out the backpressure window, got " + waitedMs + "ms");
+        assertNull(second.getNow("pending"), "shed at once, not queued");
+        assertTrue(ranking.isEmpty());
+        assertEquals(first.join(), "ok");
+        assertEquals(httpCalls.get(), 1);
+        assertTrue(ai.stats().contains("2 shed"), ai.stats());
+    }
+
+    @Test
+    public void diskStore_answersAFreshClient() throws Exception {
+        Path store = Files.createTempDirectory("ai").resolve("ai-cache.tsv");
+        answer = "first line\n\tsecond";
+        assertEquals(client(2, 1_000, store).suggestNextActionLabel(List.of("A"), "t"), answer);
+        assertEquals(client(2, 1_000, store).suggestNextActionLabel(List.of("A"), "t"), answer);
+        assertEquals(httpCalls.get(), 1, "second client must be served from the store");
+    }
+
+    @Test
+    public void diskStore_keepsVisionVerdictsPerModelAndBuild() throws Exception {
+        Path store = Files.createTempDirectory("ai").resolve("ai-cache.tsv");
+        answer = "overlap";
+        client("stub-model", "1.0 (1)", 2, 1_000, store).classifyScreenshot(png(1, 10), "a");
+        client("stub-model", "1.0 (1)", 2, 1_000, store).classifyScreenshot(png(1, 10), "a");
+        assertEquals(httpCalls.get(), 1, "same model, same build: served from the store");
+        client("stub-model", "1.1 (2)", 2, 1_000, store).classifyScreenshot(png(1, 10), "a");
+        assertEquals(httpCalls.get(), 2, "a new build must be looked at again");
+        client("other-model", "1.1 (2)", 2, 1_000, store).classifyScreenshot(png(1, 10), "a");
+        assertEquals(httpCalls.get(), 3, "a new model must be asked again");
+
+        client("stub-model", "", 2, 1_000, store).classifyScreenshot(png(2, 10), "b");
+        client("stub-model", "", 2, 1_000, store).classifyScreenshot(png(2, 10), "b");
+        assertEquals(httpCalls.get(), 5, "with no known build a vision verdict is not persisted");
+    }
+
+    @Test
+    public void sameScreen_sharesAVisionVerdict() {
+        AiClient ai = client(2, 1_000, null);
+        answer = "blank";
+        assertEquals(ai.classifyScreenshot(png(1, 10), "a"), "blank");
+        assertEquals(ai.classifyScreenshot(png(1, 11), "b"), "blank", "1px caret shift = same screen");
+        assertEquals(httpCalls.get(), 1);
+        ai.classifyScreenshot(png(2, 10), "c");
+        assertEquals(httpCalls.get(), 2, "a different screen must be asked");
+    }
+
+    @Test
+    public void cachedRanking_neverBlocks() throws Exception {
+        AiClient ai = client(2, 1_000, null);
+        delayMs = 200;
+        answer = "1. Button['Delete']\n2. Button['Save']";
+        List<String> labels = List.of("Button['Save']", "Button['Delete']");
+        assertTrue(ai.cachedRanking(labels, "t").isEmpty(), "first visit must not wait for the ranking");
+        for (int i = 0; i < 50 && ai.cachedRanking(labels, "t").isEmpty(); i++) Thread.sleep(20);
+        assertEquals(ai.cachedRanking(labels, "t"), List.of("Button['Delete']", "Button['Save']"));
+        assertEquals(httpCalls.get(), 1);
+    }
+
+    @Test
+    public void blankAndClippedRenders_areFlaggedWithoutACall() {
+        VisualAnomalyDetector v = VisualAnomalyDetector.ofScreenshots(client(2, 1_000, null), () -> encode(blank(false)));
+        ExploreFinding uniform = v.inspect("after tap");
+        assertNotNull(uniform);
+        assertTrue(uniform.detail().startsWith("blank"), uniform.detail());
+
+        v = VisualAnomalyDetector.ofScreenshots(client(2, 1_000, null), () -> encode(blank(true)));
+        ExploreFinding clipped = v.inspect("after tap");
+        assertNotNull(clipped);
+        assertTrue(clipped.detail().startsWith("clipped"), clipped.detail());
+        assertEquals(httpCalls.get(), 0);
+    }
+
+    @Test
+    public void identicalScreens_reuseTheVerdict_nearDuplicatesEscalate() {
+        AiClient ai = client(2, 1_000, null);
+        String[] shot = {png(1, 10)};
+        VisualAnomalyDetector v = VisualAnomalyDetector.ofScreenshots(ai, () -> shot[0]);
+        answer = "overlap: Save button covers the last row";
+        assertNotNull(v.inspect("first visit"));
+        shot[0] = png(1, 150); // caret moved within the same dHash cell: an identical hash
+        ExploreFinding again = v.inspect("second visit");
+        assertNotNull(again, "a known-bad screen stays bad without asking");
+        assertEquals(httpCalls.get(), 1);
+
+        answer = "ok";
+        shot[0] = png(1, 100); // caret crosses a dHash cell: one bit off, a near-duplicate
+        assertNull(v.inspect("same screen, caret moved"), "a near-duplicate gets its own verdict");
+        assertEquals(httpCalls.get(), 2, "a near-duplicate is escalated, not reused");
+        assertTrue(VisualAnomalyDetector.stats().contains("1 reused"), VisualAnomalyDetector.stats());
+    }
+
+    @Test
+    public void asyncVerdicts_keepTheTraceOfTheStepThatCapturedThem() {
+        VisualAnomalyDetector v = VisualAnomalyDetector.ofScreenshots(client(2, 1_000, null), () -> png(3, 10));
+        delayMs = 200;
+        answer = "garbled";
+        List<TraceStep> trace = List.of(new TraceStep("tap:Button['Assets']", null));
+        assertTrue(v.inspectAsync("after Assets", trace).isEmpty(), "the step must not wait for the verdict");
+        List<ExploreFinding> late = v.drain();
+        assertEquals(late.size(), 1);
+        assertEquals(late.get(0).step(), "after Assets");
+        assertEquals(late.get(0).trace(), trace);
+    }
+
+    /** A 200×400 screen: header bar, list rows laid out by {@code layout}, a text caret at {@code caretX}. */
+    private static String png(int layout, int caretX) {
+        BufferedImage img = new BufferedImage(200, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 200, 400);
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 200, 50);
+        for (int r = 0; r < 8; r++) {
+            for (int k = 0; k < 4; k++) { // a "text run": four glyph-ish blocks in distinct shades
+                int shade = 40 + r * 20 + k * 5;
+                g.setColor(new Color(shade, 255 - shade, (shade * 3) % 256));
+                g.fillRect(10 + (layout * 37 + r * 53) % 120 + k * 15, 70 + r * 40, 15, 20);
+            }
+        }
+        g.setColor(Color.BLACK);
+        g.fillRect(caretX, 385, 1, 10);
+        g.dispose();
+        return encode(img);
+    }
+
+    private static BufferedImage blank(boolean withHeader) {
+        BufferedImage img = new BufferedImage(200, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 200, 400);
+        if (withHeader) {
+            for (int x = 0; x < 200; x += 8) {
+                g.setColor(new Color(x, 255 - x, (x * 5) % 256));
+                g.fillRect(x, 0, 8, 45);
+            }
+        }
+        g.dispose();
+        return img;
+    }
+
+    private static String encode(BufferedImage img) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(img, "png", out);
+            return Base64.getEncoder().encodeToString(out.toByteArray());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
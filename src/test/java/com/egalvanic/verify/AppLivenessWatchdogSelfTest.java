@@ -0,0 +1,171 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.AppLivenessWatchdog;
+import com.egalvanic.utils.AppLivenessWatchdog.AppDiedError;
+import com.egalvanic.utils.CommandDeadline;
+import io.appium.java_client.appmanagement.ApplicationState;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.appium.java_client.appmanagement.ApplicationState.NOT_RUNNING;
+import static io.appium.java_client.appmanagement.ApplicationState.RUNNING_IN_BACKGROUND;
+import static io.appium.java_client.appmanagement.ApplicationState.RUNNING_IN_FOREGROUND;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the liveness watchdog turns a mid-test crash into an
+ * immediate, typed failure — and only a real crash. App states are scripted; the
+ * "test body" is a thread parked on a wedged command, as in CommandDeadlineSelfTest.
+ *
+ * <ul>
+ *   <li>NOT_RUNNING trips on the first sample, with forensics captured first.</li>
+ *   <li>A one-sample background blip is tolerated; a sustained one trips.</li>
+ *   <li>A terminate the test issued itself is not a crash until the app is back.</li>
+ *   <li>An unreadable state (dead session) is never reported as an app crash.</li>
+ *   <li>No sample is taken while a command of the test is in flight.</li>
+ *   <li>A trip frees a body parked on a command with the AppDiedError, fails every
+ *       further command, and clears when the body ends.</li>
+ * </ul>
+ */
+public class AppLivenessWatchdogSelfTest {
+
+    private static final CommandPayload FIND =
+        new CommandPayload(DriverCommand.FIND_ELEMENTS, Map.of("using", "id", "value", "x"));
+
+    private final List<AppDiedError> trips = new ArrayList<>();
+
+    @BeforeMethod
+    public void isolateStaticState() {
+        AppLivenessWatchdog.reset(); // static-per-JVM state — isolate each case
+        CommandDeadline.reset();
+        trips.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void cleanUp() {
+        CommandDeadline.reset();
+    }
+
+    private AppLivenessWatchdog watchdog(ApplicationState... states) {
+        Deque<ApplicationState> script = new LinkedList<>(Arrays.asList(states)); // null = unreadable state
+        return new AppLivenessWatchdog("t", script::poll, () -> "iVBORshot",
+                () -> List.of("Terminating app due to uncaught exception"), trips::add);
+    }
+
+    @Test
+    public void crash_tripsOnTheFirstSample_withForensics() {
+        AppLivenessWatchdog w = watchdog(RUNNING_IN_FOREGROUND, RUNNING_IN_FOREGROUND, NOT_RUNNING);
+        assertNull(w.sampleOnce());
+        assertNull(w.sampleOnce());
+        AppDiedError died = w.sampleOnce();
+        assertNotNull(died);
+        assertEquals(died.state(), NOT_RUNNING);
+        assertEquals(died.screenshotBase64(), "iVBORshot");
+        assertEquals(died.logTail(), List.of("Terminating app due to uncaught exception"));
+        assertTrue(died.getMessage().contains("crashed/exited during 't'"), died.getMessage());
+        assertEquals(trips, List.of(died));
+        assertSame(w.sampleOnce(), died, "a tripped watchdog stays tripped and does not trip twice");
+        assertEquals(trips.size(), 1);
+    }
+
+    @Test
+    public void backgroundBlip_isTolerated_sustainedBackgroundTrips() {
+        AppLivenessWatchdog w = watchdog(RUNNING_IN_BACKGROUND, RUNNING_IN_FOREGROUND,
+                RUNNING_IN_BACKGROUND, RUNNING_IN_BACKGROUND);
+        assertNull(w.sampleOnce());
+        assertNull(w.sampleOnce());
+        assertNull(w.sampleOnce());
+        AppDiedError died = w.sampleOnce();
+        assertNotNull(died);
+        assertTrue(died.getMessage().contains("left the foreground"), died.getMessage());
+    }
+
+    @Test
+    public void testIssuedTerminate_isNotACrash_untilTheAppIsBack() throws Exception {
+        AppLivenessWatchdog w = watchdog(RUNNING_IN_FOREGROUND, NOT_RUNNING, NOT_RUNNING,
+                RUNNING_IN_FOREGROUND, NOT_RUNNING);
+        assertNull(w.sampleOnce());
+        AppLivenessWatchdog.noteCommand(new CommandPayload("terminateApp", Map.of("bundleId", "x")));
+        assertNull(w.sampleOnce());
+        assertNull(w.sampleOnce(), "still the test's own terminate");
+        Thread.sleep(5);
+        AppLivenessWatchdog.noteCommand(new CommandPayload("executeScript",
+                Map.of("script", "mobile: queryAppState", "args", List.of())));
+        assertNull(w.sampleOnce(), "relaunched");
+        assertNotNull(w.sampleOnce(), "a read-only script must not excuse the next crash");
+    }
+
+    @Test
+    public void unreadableState_isNeverAnAppCrash() {
+        AppLivenessWatchdog w = watchdog(null, null, null);
+        for (int i = 0; i < 3; i++) assertNull(w.sampleOnce());
+        assertTrue(trips.isEmpty());
+    }
+
+    @Test
+    public void testCommandInFlight_noSample() {
+        int[] probes = {0};
+        boolean[] busy = {true};
+        AppLivenessWatchdog w = new AppLivenessWatchdog("t", () -> { probes[0]++; return NOT_RUNNING; },
+                () -> busy[0], () -> null, List::of, trips::add);
+        assertNull(w.sampleOnce());
+        assertEquals(probes[0], 0, "no queryAppState queued behind the test's own command");
+        assertEquals(w.skippedCount(), 1);
+
+        busy[0] = false;
+        assertNotNull(w.sampleOnce(), "the next idle tick still sees the crash");
+        assertEquals(probes[0], 1);
+    }
+
+    @Test(timeOut = 10_000)
+    public void trip_freesAParkedBody_andFailsEveryFurtherCommand() throws Exception {
+        CommandDeadline.beginTest(60_000);
+        CountDownLatch wedge = new CountDownLatch(1);
+        CompletableFuture<Throwable> body = CompletableFuture.supplyAsync(() -> {
+            try {
+                CommandDeadline.execute(FIND, p -> {
+                    try { wedge.await(); } catch (InterruptedException ignored) {}
+                    return new Response();
+                }, true, 0);
+                return null;
+            } catch (Throwable t) {
+                return t;
+            }
+        });
+        Thread.sleep(200); // let the body park on the wedged command
+
+        AppLivenessWatchdog w = new AppLivenessWatchdog("t", () -> NOT_RUNNING, () -> null, List::of,
+                CommandDeadline::abortTest);
+        long t0 = System.nanoTime();
+        AppDiedError died = w.sampleOnce();
+        Throwable seen = body.get(5, TimeUnit.SECONDS);
+        assertTrue((System.nanoTime() - t0) / 1_000_000 < 2_000, "the body must be freed at once");
+        assertSame(seen, died);
+        assertThrows(AppDiedError.class, () -> CommandDeadline.execute(FIND, p -> new Response(), true, 0));
+        assertFalse(CommandDeadline.isSessionSuspect(), "a dead app is not a wedged session");
+
+        CommandDeadline.endTest();
+        CommandDeadline.execute(FIND, p -> new Response(), true, 0); // teardown runs normally
+        wedge.countDown();
+    }
+}
@@ -0,0 +1,244 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.CommandDeadline;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Driver-free proof that command deadlines turn budgets into REAL ceilings.
+ * Runs on a plain JVM — the "wedged WDA command" is a lambda that blocks on a
+ * latch the way a 90s HTTP read blocks on a dead socket.
+ *
+ * <ul>
+ *   <li>With no budget in force, commands run inline on the caller (zero
+ *       behaviour change for driver init / teardown).</li>
+ *   <li>A wedged command inside a budget scope returns control at the budget,
+ *       cancels the exchange, and marks the session suspect.</li>
+ *   <li>The test timeOut caps commands even with no scope; an inner scope can
+ *       never extend an outer one; the floor protects short probes.</li>
+ *   <li>A caller interrupted by TestNG's timeOut unblocks immediately.</li>
+ *   <li>Suspicion and aborts stay with their session; a thread started inside
+ *       a scope does not inherit its budget.</li>
+ *   <li>A session reports itself busy exactly while a command runs on it.</li>
+ * </ul>
+ */
+public class CommandDeadlineSelfTest {
+
+    private static final CommandPayload FIND =
+        new CommandPayload(DriverCommand.FIND_ELEMENTS, Map.of("using", "id", "value", "x"));
+
+    private CountDownLatch wedge;
+
+    @BeforeMethod
+    public void isolateStaticState() {
+        CommandDeadline.reset(); // static-per-JVM state — isolate each case
+        wedge = new CountDownLatch(1);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void release() {
+        wedge.countDown();
+        CommandDeadline.reset();
+    }
+
+    private Function<CommandPayload, Response> wedged(AtomicReference<Boolean> interrupted) {
+        return p -> {
+            try {
+                wedge.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                if (interrupted != null) {
+                    interrupted.set(true);
+                }
+                Thread.currentThread().interrupt();
+            }
+            return new Response();
+        };
+    }
+
+    private static Function<CommandPayload, Response> takes(long ms) {
+        return p -> {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Response();
+        };
+    }
+
+    @Test
+    public void noBudget_runsInlineOnCaller() {
+        CommandDeadline.endTest(); // CommandDeadlineListener armed this @Test's own timeOut
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        CommandDeadline.execute(FIND, p -> { ranOn.set(Thread.currentThread()); return new Response(); }, true, 0);
+        assertSame(ranOn.get(), caller, "no deadline => no executor hop");
+        assertFalse(CommandDeadline.isSessionSuspect());
+    }
+
+    @Test(timeOut = 10_000)
+    public void wedgedCommand_isAbortedAtBudget_andSessionMarkedSuspect() throws Exception {
+        AtomicReference<Boolean> interrupted = new AtomicReference<>(false);
+        long start = System.currentTimeMillis();
+        try (CommandDeadline.Scope budget = CommandDeadline.within(300)) {
+            assertThrows(TimeoutException.class, () -> CommandDeadline.execute(FIND, wedged(interrupted), true, 0));
+        }
+        long took = System.currentTimeMillis() - start;
+        assertTrue(took < 2_000, "caller must regain control at the 300ms budget, took " + took + "ms");
+        assertTrue(CommandDeadline.isSessionSuspect());
+        assertTrue(CommandDeadline.suspectReason().contains(DriverCommand.FIND_ELEMENTS), CommandDeadline.suspectReason());
+        Thread.sleep(100);
+        assertTrue(interrupted.get(), "the in-flight exchange must be cancelled (executor thread interrupted)");
+    }
+
+    @Test(timeOut = 10_000)
+    public void expiredMonitorProbe_isAbandoned_withoutMarkingTheSession() {
+        try (CommandDeadline.Scope probe = CommandDeadline.probe(300)) {
+            assertThrows(TimeoutException.class, () -> CommandDeadline.execute(FIND, wedged(null), true, 0));
+        }
+        assertFalse(CommandDeadline.isSessionSuspect(), "a probe queued behind the test's command is not a wedge");
+        try (CommandDeadline.Scope budget = CommandDeadline.within(300)) {
+            assertThrows(TimeoutException.class, () -> CommandDeadline.execute(FIND, wedged(null), true, 0));
+        }
+        assertTrue(CommandDeadline.isSessionSuspect(), "closing the probe scope restores normal expiry");
+    }
+
+    @Test(timeOut = 10_000)
+    public void testTimeout_capsCommands_withoutAnyScope() {
+        CommandDeadline.beginTest(300);
+        long start = System.currentTimeMillis();
+        assertThrows(TimeoutException.class, () -> CommandDeadline.execute(FIND, wedged(null), true, 5_000));
+        assertTrue(System.currentTimeMillis() - start < 2_000, "the floor must not stretch the test ceiling");
+        CommandDeadline.endTest();
+    }
+
+    @Test(timeOut = 10_000)
+    public void innerScope_neverExtendsOuter() {
+        long start = System.currentTimeMillis();
+        try (CommandDeadline.Scope outer = CommandDeadline.within(300);
+             CommandDeadline.Scope inner = CommandDeadline.within(60_000)) {
+            assertThrows(TimeoutException.class, () -> CommandDeadline.execute(FIND, wedged(null), true, 0));
+        }
+        assertTrue(System.currentTimeMillis() - start < 2_000, "outer 300ms budget must win over inner 60s");
+    }
+
+    @Test(timeOut = 10_000)
+    public void floor_protectsShortProbes() {
+        try (CommandDeadline.Scope budget = CommandDeadline.within(20)) {
+            CommandDeadline.execute(FIND, takes(150), true, 1_000); // 150ms probe inside a 20ms wait
+        }
+        assertFalse(CommandDeadline.isSessionSuspect(), "a normal probe within the floor is not suspect");
+    }
+
+    @Test
+    public void commandErrors_propagateUnwrapped() {
+        try (CommandDeadline.Scope budget = CommandDeadline.within(5_000)) {
+            assertThrows(NoSuchElementException.class, () -> CommandDeadline.execute(FIND,
+                p -> { throw new NoSuchElementException("absent"); }, true, 0));
+        }
+        assertFalse(CommandDeadline.isSessionSuspect(), "an ordinary miss must not mark the session suspect");
+    }
+
+    @Test(timeOut = 10_000)
+    public void interruptedCaller_unblocksImmediately() throws Exception {
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try (CommandDeadline.Scope budget = CommandDeadline.within(60_000)) {
+                CommandDeadline.execute(FIND, wedged(null), true, 0);
+                fail("wedged command returned");
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        caller.start();
+        Thread.sleep(200);
+        long start = System.currentTimeMillis();
+        caller.interrupt(); // what TestNG does when the @Test timeOut fires
+        caller.join(2_000);
+        assertFalse(caller.isAlive(), "interrupt must free the caller (it used to stay parked in the HTTP read)");
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        assertTrue(thrown.get() instanceof TimeoutException, String.valueOf(thrown.get()));
+        assertTrue(CommandDeadline.isSessionSuspect());
+    }
+
+    @Test(timeOut = 10_000)
+    public void sessionIsBusy_onlyWhileACommandRuns() throws Exception {
+        CommandDeadline.endTest(); // unbudgeted commands count too
+        CountDownLatch started = new CountDownLatch(1);
+        Thread caller = new Thread(() -> CommandDeadline.execute(FIND, p -> {
+            started.countDown();
+            try {
+                wedge.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            return new Response();
+        }, true, 0));
+        assertFalse(CommandDeadline.isSessionBusy());
+        caller.start();
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertTrue(CommandDeadline.isSessionBusy(), "WdaHealthMonitor must see the test's command");
+        assertFalse(new CommandDeadline.Session().isBusy(), "per session");
+        wedge.countDown();
+        caller.join(2_000);
+        assertFalse(CommandDeadline.isSessionBusy());
+    }
+
+    @Test(timeOut = 10_000)
+    public void workerSession_keepsItsSuspicionAndAbortsToItself() {
+        CommandDeadline.Session worker = new CommandDeadline.Session();
+        try (CommandDeadline.Scope budget = CommandDeadline.within(200)) {
+            assertThrows(TimeoutException.class, () -> worker.execute(FIND, wedged(null), true, 0));
+        }
+        assertTrue(worker.isSuspect());
+        assertFalse(CommandDeadline.isSessionSuspect(), "a worker's wedged command must not taint the suite session");
+
+        CommandDeadline.abortTest(new AssertionError("suite app died"));
+        worker.execute(FIND, p -> new Response(), true, 0); // other devices carry on
+        assertThrows(AssertionError.class, () -> CommandDeadline.execute(FIND, p -> new Response(), true, 0));
+    }
+
+    @Test(timeOut = 10_000)
+    public void threadStartedInsideScope_doesNotInheritItsBudget() throws Exception {
+        CommandDeadline.endTest(); // CommandDeadlineListener armed this @Test's own timeOut
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        Thread child;
+        try (CommandDeadline.Scope budget = CommandDeadline.within(1)) {
+            child = new Thread(() -> CommandDeadline.execute(FIND,
+                p -> { ranOn.set(Thread.currentThread()); return new Response(); }, true, 0));
+        }
+        Thread.sleep(20); // the parent's 1ms budget is long spent
+        child.start();
+        child.join(2_000);
+        assertSame(ranOn.get(), child, "no budget on the child => inline, not 'budget already spent'");
+        assertFalse(CommandDeadline.isSessionSuspect());
+    }
+
+    @Test
+    public void disabled_runsInlineEvenInsideBudget() {
+        try (CommandDeadline.Scope budget = CommandDeadline.within(1)) {
+            CommandDeadline.execute(FIND, takes(50), false, 0);
+        }
+        assertFalse(CommandDeadline.isSessionSuspect());
+        assertEquals(CommandDeadline.suspectReason(), null);
+    }
+}
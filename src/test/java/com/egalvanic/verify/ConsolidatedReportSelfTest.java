@@ -0,0 +1,158 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.ConsolidatedReport;
+import com.egalvanic.utils.ConsolidatedReport.ModuleResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The streaming consolidated report over synthetic per-job artifacts: counts match
+ * the TestNG totals, the summary is one row per test method, the HTML keeps the
+ * Python generator's layout, and a 100k-entry run goes through without buffering.
+ */
+public class ConsolidatedReportSelfTest {
+
+    private Path artifacts;
+
+    @BeforeMethod
+    public void createArtifacts() throws IOException {
+        artifacts = Files.createTempDirectory("artifacts");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteArtifacts() throws IOException {
+        try (Stream<Path> walk = Files.walk(artifacts)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void twoJobs_mergeIntoOneReport_andOneSummary() throws Exception {
+        write("auth-report", "com.egalvanic.tests.AuthTest",
+            method("setUp", "PASS", 5, true, null),
+            method("TC_AUTH_001_verifyLoginWithValidCredentials", "PASS", 42_000, false, null),
+            method("TC_AUTH_002_verifyLogout", "FAIL", 61_500, false,
+                "<exception class=\"org.openqa.selenium.TimeoutException\"><message><![CDATA[Expected condition failed: "
+                    + "waiting for element 4f2a-11 (tried for 30 second(s))\nBuild info: 4.11]]></message></exception>"));
+        write("site-report", "com.egalvanic.tests.SiteTest",
+            method("TC_SITE_001_verifySiteList", "SKIP", 0, false, null));
+
+        List<ModuleResult> modules = ConsolidatedReport.collect(artifacts, 2);
+        try {
+            assertEquals(modules.size(), 2);
+            assertEquals(modules.get(0).module(), "Authentication");
+            assertEquals(modules.get(0).total(), 2, "config methods are not tests");
+            assertEquals(modules.get(0).failed(), 1);
+            assertEquals(modules.get(1).skipped(), 1);
+
+            Path summary = artifacts.resolve("summary.tsv");
+            ConsolidatedReport.writeSummary(modules, summary);
+            List<String> rows = Files.readAllLines(summary, StandardCharsets.UTF_8);
+            assertEquals(rows.get(0), ConsolidatedReport.SUMMARY_HEADER);
+            assertEquals(rows.size(), 4);
+            assertEquals(rows.get(2), "Authentication\tcom.egalvanic.tests.AuthTest\tTC_AUTH_002_verifyLogout\tFAIL\t61500\t"
+                + "org.openqa.selenium.TimeoutException: Expected condition failed: waiting for element #f#a-# (tried for # second(s))");
+
+            StringWriter html = new StringWriter();
+            ConsolidatedReport.renderHtml(modules, "123", "main", "o/r", html);
+            String page = html.toString();
+            assertTrue(page.contains("<div class=\"number\">3</div><div class=\"label\">Total Tests</div>"));
+            assertTrue(page.contains("TC_AUTH_001 — Verify Login With Valid Credentials"));
+            assertTrue(page.contains("<span class=\"test-duration\">1m 1s</span>"));
+            assertTrue(page.contains("module-section has-fail"));
+            assertTrue(page.contains("https://github.com/o/r/actions/runs/123"));
+            assertTrue(page.endsWith("</html>\n"));
+        } finally {
+            ConsolidatedReport.deleteSpills(modules);
+        }
+        assertFalse(Files.exists(modules.get(0).spill()), "spills are temp files");
+    }
+
+    @Test
+    public void resultCacheMarker_makesAPassCached() throws Exception {
+        write("auth-report", "com.egalvanic.tests.AuthTest",
+            method("TC_AUTH_001_verifyLogin", "PASS", 3, false,
+                "<reporter-output><line><![CDATA[" + com.egalvanic.utils.ResultCache.REPORT_MARKER
+                    + "Reused PASS from run 7]]></line></reporter-output>"),
+            method("TC_AUTH_002_verifyLogout", "PASS", 9_000, false,
+                "<reporter-output><line><![CDATA[plain log line]]></line></reporter-output>"));
+
+        List<ModuleResult> modules = ConsolidatedReport.collect(artifacts, 1);
+        try {
+            assertEquals(modules.get(0).passed(), 2, "a reused PASS is still a PASS");
+            Path summary = artifacts.resolve("summary.tsv");
+            ConsolidatedReport.writeSummary(modules, summary);
+            List<String> rows = Files.readAllLines(summary, StandardCharsets.UTF_8);
+            assertTrue(rows.get(1).contains("\tTC_AUTH_001_verifyLogin\tCACHED\t"), rows.get(1));
+            assertTrue(rows.get(2).contains("\tTC_AUTH_002_verifyLogout\tPASS\t"), rows.get(2));
+
+            StringWriter html = new StringWriter();
+            ConsolidatedReport.renderHtml(modules, "", "", "", html);
+            assertTrue(html.toString().contains(">CACHED</span>"), "labelled in the page");
+        } finally {
+            ConsolidatedReport.deleteSpills(modules);
+        }
+    }
+
+    @Test
+    public void hundredThousandEntries_streamThroughInPathOrder() throws Exception {
+        int jobs = 20, perJob = 5_000;
+        for (int j = 0; j < jobs; j++) {
+            Path xml = Files.createDirectories(artifacts.resolve("job-%02d/target/surefire-reports"
+                .formatted(j))).resolve("testng-results.xml");
+            try (BufferedWriter w = Files.newBufferedWriter(xml, StandardCharsets.UTF_8)) {
+                w.write("<testng-results><suite><test><class name=\"C" + j + "\">\n");
+                for (int i = 0; i < perJob; i++) {
+                    w.write(method("TC_X_" + i + "_run", i % 100 == 0 ? "FAIL" : "PASS", i, false,
+                        i % 100 == 0 ? "<exception class=\"java.lang.AssertionError\"><message>row " + i + "</message></exception>" : null));
+                }
+                w.write("</class></test></suite></testng-results>\n");
+            }
+        }
+        List<ModuleResult> modules = ConsolidatedReport.collect(artifacts, 4);
+        try {
+            assertEquals(modules.stream().mapToInt(ModuleResult::total).sum(), jobs * perJob);
+            assertEquals(modules.stream().mapToInt(ModuleResult::failed).sum(), jobs * perJob / 100);
+            assertEquals(modules.get(0).module(), "job-00");
+            assertEquals(modules.get(jobs - 1).module(), "job-19");
+            Path summary = artifacts.resolve("summary.tsv");
+            ConsolidatedReport.writeSummary(modules, summary);
+            try (Stream<String> lines = Files.lines(summary)) {
+                assertEquals(lines.filter(l -> l.endsWith("java.lang.AssertionError: row #")).count(), jobs * perJob / 100L,
+                    "one signature for every 'row N' failure");
+            }
+        } finally {
+            ConsolidatedReport.deleteSpills(modules);
+        }
+    }
+
+    private void write(String job, String className, String... methods) throws IOException {
+        Path dir = Files.createDirectories(artifacts.resolve(job).resolve("target/surefire-reports"));
+        Files.writeString(dir.resolve("testng-results.xml"),
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testng-results skipped=\"0\" failed=\"0\" total=\"0\" passed=\"0\">"
+                + "<suite name=\"s\"><test name=\"t\"><class name=\"" + className + "\">\n"
+                + String.join("", methods) + "</class></test></suite></testng-results>\n",
+            StandardCharsets.UTF_8);
+    }
+
+    private static String method(String name, String status, long ms, boolean config, String exception) {
+        return "<test-method status=\"" + status + "\" name=\"" + name + "\" duration-ms=\"" + ms + "\""
+            + (config ? " is-config=\"true\"" : "") + ">"
+            + (exception == null ? "" : exception) + "</test-method>\n";
+    }
+}
@@ -0,0 +1,99 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.DeviceLogCollector;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof of the device-log ring: the "device" is a list the test appends
+ * to, drained like Appium's incremental getLog.
+ *
+ * <ul>
+ *   <li>A test's slice starts at its own marker and never includes the previous test.</li>
+ *   <li>The ring stays bounded; the slice keeps the END of a long test.</li>
+ *   <li>Crash signatures of the app are indexed per test as they arrive; other
+ *       processes' watchdog and exception chatter is not.</li>
+ *   <li>No poll drains the device while a command of the test is in flight.</li>
+ * </ul>
+ */
+public class DeviceLogCollectorSelfTest {
+
+    private static final List<String> APP = List.of("Z Platform-QA", "com.egalvanic.zplatform-QA");
+
+    private final List<String> device = new ArrayList<>();
+    private boolean busy;
+
+    private DeviceLogCollector collector(int capacity) {
+        return new DeviceLogCollector(() -> {
+            List<String> drained = new ArrayList<>(device);
+            device.clear();
+            return drained;
+        }, capacity, APP, () -> busy);
+    }
+
+    @Test
+    public void slice_startsAtTheTestsOwnMarker() {
+        DeviceLogCollector c = collector(100);
+        device.addAll(List.of("previous test: tap", "previous test: ok"));
+        c.pollOnce();
+        long mark = c.mark("test start: AssetTest");
+        device.addAll(List.of("springboard: launch", "app: open Assets"));
+        c.pollOnce();
+        assertEquals(c.since(mark, 400), List.of("──── test start: AssetTest ────", "springboard: launch", "app: open Assets"));
+    }
+
+    @Test
+    public void ring_isBounded_andTheSliceKeepsTheEnd() {
+        DeviceLogCollector c = collector(50);
+        long mark = c.mark("test start: Long");
+        device.addAll(IntStream.range(0, 200).mapToObj(i -> "line " + i).collect(Collectors.toList()));
+        c.pollOnce();
+        assertEquals(c.size(), 50);
+        List<String> slice = c.since(mark, 10);
+        assertEquals(slice.size(), 10);
+        assertEquals(slice.get(9), "line 199");
+        assertEquals(c.tail(3), List.of("line 197", "line 198", "line 199"));
+    }
+
+    @Test
+    public void crashSignatures_areIndexedPerTest() {
+        DeviceLogCollector c = collector(100);
+        device.add("[crashlog] Identifier: com.egalvanic.zplatform-QA Exception Type: EXC_BAD_ACCESS (old test)");
+        c.pollOnce();
+        long mark = c.mark("test start: Crashy");
+        device.addAll(List.of(
+                "Z Platform-QA[812:9031] saving asset",
+                "Z Platform-QA[812:9031] *** Terminating app due to uncaught exception 'NSRangeException'",
+                "assertiond[77:120] Watchdog: process-exit checks scheduled for <com.apple.Maps>",
+                "ReportCrash[901:902] Process Z Platform-QA [812] Exception Type: EXC_CRASH (SIGABRT)",
+                "mediaserverd[55:56] Exception Type: EXC_RESOURCE (wakeups)",
+                "Z Platform-QA[812:9031] unrelated"));
+        c.pollOnce();
+        List<String> hits = c.signaturesSince(mark);
+        assertEquals(hits.size(), 2, hits.toString());
+        assertTrue(hits.get(0).contains("Terminating app"));
+        assertTrue(hits.get(1).contains("EXC_CRASH"), "the app's crash report, not another daemon's");
+        assertEquals(c.signaturesSince(0).size(), 3, "earlier tests' signatures stay indexed");
+    }
+
+    @Test
+    public void testCommandInFlight_noPoll() {
+        DeviceLogCollector c = collector(100);
+        device.add("Z Platform-QA[812:9031] open Assets");
+        busy = true;
+        c.pollOnce();
+        assertEquals(c.size(), 0, "no getLog queued behind the test's own command");
+        assertEquals(c.skippedCount(), 1);
+
+        busy = false;
+        c.pollOnce();
+        assertEquals(c.tail(1), List.of("Z Platform-QA[812:9031] open Assets"), "the lines wait for the next idle poll");
+    }
+}
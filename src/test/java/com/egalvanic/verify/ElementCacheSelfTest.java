@@ -0,0 +1,150 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.ElementCache;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the screen-epoch element cache is USEFUL and SAFE.
+ * Runs on a plain JVM — the "WDA" is a counting lambda standing in for
+ * RemoteWebDriver.execute.
+ *
+ * <ul>
+ *   <li>Repeated singular lookups on an unchanged screen hit WDA ONCE.</li>
+ *   <li>Any screen-changing command (click, W3C actions, mobile: tap) advances
+ *       the epoch, so the next lookup goes back to WDA.</li>
+ *   <li>Read-only commands (getText, rect, queryAppState) do NOT invalidate.</li>
+ *   <li>findElements is never cached (polling loops must see async changes).</li>
+ *   <li>A stale reference drops the cache; the retry re-resolves.</li>
+ * </ul>
+ */
+public class ElementCacheSelfTest {
+
+    private final AtomicInteger wdaCalls = new AtomicInteger();
+    private final Function<CommandPayload, Response> fakeWda = p -> {
+        wdaCalls.incrementAndGet();
+        Response r = new Response();
+        r.setValue(new Object()); // a distinct "element" per real resolution
+        return r;
+    };
+
+    @BeforeMethod
+    public void isolateStaticState() {
+        ElementCache.resetStats(); // static-per-JVM counters — isolate each case
+        wdaCalls.set(0);
+    }
+
+    private static CommandPayload find(String id) {
+        return new CommandPayload(DriverCommand.FIND_ELEMENT, Map.of("using", "accessibility id", "value", id));
+    }
+
+    private static CommandPayload cmd(String name, Map<String, ?> params) {
+        return new CommandPayload(name, params);
+    }
+
+    @Test
+    public void repeatedLookup_onUnchangedScreen_hitsWdaOnce() {
+        ElementCache cache = new ElementCache(true);
+        Response first = cache.execute(find("Save"), fakeWda);
+        for (int i = 0; i < 9; i++) {
+            assertSame(cache.execute(find("Save"), fakeWda), first, "same epoch must reuse the element");
+        }
+        // Read-only traffic between lookups must not invalidate.
+        cache.execute(cmd(DriverCommand.GET_ELEMENT_TEXT, Map.of("id", "e1")), fakeWda);
+        cache.execute(cmd(DriverCommand.GET_ELEMENT_RECT, Map.of("id", "e1")), fakeWda);
+        cache.execute(cmd(DriverCommand.EXECUTE_SCRIPT, Map.of("script", "mobile: queryAppState", "args", Map.of())), fakeWda);
+        assertSame(cache.execute(find("Save"), fakeWda), first);
+
+        assertEquals(wdaCalls.get(), 4, "1 lookup + 3 read-only commands reach WDA; 10 repeats do not");
+        assertEquals(ElementCache.hits(), 10);
+        assertEquals(ElementCache.misses(), 1);
+        assertTrue(ElementCache.summary().contains("90.9%"), ElementCache.summary());
+    }
+
+    @Test
+    public void everyScreenChangingCommand_advancesTheEpoch() {
+        ElementCache cache = new ElementCache(true);
+        CommandPayload[] actions = {
+            cmd(DriverCommand.CLICK_ELEMENT, Map.of("id", "e1")),
+            cmd(DriverCommand.SEND_KEYS_TO_ELEMENT, Map.of("id", "e1", "text", "x")),
+            cmd(DriverCommand.ACTIONS, Map.of("actions", "swipe")),
+            cmd(DriverCommand.EXECUTE_SCRIPT, Map.of("script", "mobile: tap", "args", Map.of())),
+            cmd("activateApp", Map.of("bundleId", "b")),
+            cmd("someFutureCommand", Map.of()), // unknown => treated as mutating
+        };
+        for (CommandPayload action : actions) {
+            Response before = cache.execute(find("Save"), fakeWda);
+            long epoch = cache.currentEpoch();
+            cache.execute(action, fakeWda);
+            assertEquals(cache.currentEpoch(), epoch + 1, action.getName() + " must advance the epoch");
+            assertEquals(cache.size(), 0, action.getName() + " must drop cached elements");
+            assertNotSame(cache.execute(find("Save"), fakeWda), before,
+                "lookup after " + action.getName() + " must re-resolve");
+        }
+    }
+
+    @Test
+    public void pluralLookups_areNeverCached() {
+        ElementCache cache = new ElementCache(true);
+        CommandPayload findAll = cmd(DriverCommand.FIND_ELEMENTS, Map.of("using", "class name", "value", "XCUIElementTypeCell"));
+        for (int i = 0; i < 5; i++) {
+            cache.execute(findAll, fakeWda);
+        }
+        assertEquals(wdaCalls.get(), 5, "existsNow/isElementGone polling must always reach WDA");
+        assertEquals(ElementCache.hits(), 0);
+    }
+
+    @Test
+    public void pageFactoryContextQuery_keepsLookupsCached_andIsCachedItself() {
+        ElementCache cache = new ElementCache(true);
+        CommandPayload context = cmd("getCurrentContextHandle", Map.of());
+        cache.execute(context, fakeWda);
+        Response first = cache.execute(find("Save"), fakeWda);
+        cache.execute(context, fakeWda);                      // the proxy asks again before every lookup
+        assertSame(cache.execute(find("Save"), fakeWda), first);
+        assertEquals(wdaCalls.get(), 2, "one context query + one lookup per screen");
+        cache.execute(cmd("switchToContext", Map.of("name", "WEBVIEW_1")), fakeWda);
+        cache.execute(context, fakeWda);
+        assertEquals(wdaCalls.get(), 4, "a context switch must re-ask");
+        assertEquals(ElementCache.hits(), 1, "only the element lookup counts as a lookup hit");
+        assertEquals(ElementCache.misses(), 1);
+        assertEquals(ElementCache.contextHits(), 1);
+        assertTrue(ElementCache.summary().contains("2 lookups, 1 hits (50.0%)")
+            && ElementCache.summary().contains("3 context queries, 1 cached"), ElementCache.summary());
+    }
+
+    @Test
+    public void staleReference_dropsCache_andRetryReResolves() {
+        ElementCache cache = new ElementCache(true);
+        Response first = cache.execute(find("Save"), fakeWda);
+        assertThrows(StaleElementReferenceException.class, () ->
+            cache.execute(cmd(DriverCommand.GET_ELEMENT_TEXT, Map.of("id", "e1")),
+                p -> { throw new StaleElementReferenceException("gone"); }));
+        assertEquals(ElementCache.invalidations(), 1);
+        assertNotSame(cache.execute(find("Save"), fakeWda), first, "retry after stale must hit WDA again");
+    }
+
+    @Test
+    public void disabled_passesEverythingThrough() {
+        ElementCache cache = new ElementCache(false);
+        for (int i = 0; i < 3; i++) {
+            cache.execute(find("Save"), fakeWda);
+        }
+        assertEquals(wdaCalls.get(), 3);
+        assertEquals(ElementCache.hits() + ElementCache.misses(), 0);
+    }
+}
@@ -0,0 +1,186 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.WireRecorder;
+import com.egalvanic.utils.WireRecorder.Exchange;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A local stand-in for Appium/WDA that replays a {@link WireRecorder} recording,
+ * so page objects run against a real IOSDriver on a plain JVM (no macOS, no
+ * simulator) and their round trips can be counted and timed.
+ *
+ * <ul>
+ *   <li>Requests are matched on {@link WireRecorder#key}: method, session-less path,
+ *       canonical body. Repeats of one request are served in recorded order; the
+ *       last answer then sticks (a polling loop keeps seeing the final screen).</li>
+ *   <li>Session creation and deletion always succeed, recorded or not.</li>
+ *   <li>Unrecorded requests are misses: a find answers "no such element" (or an
+ *       empty list), anything else a null value. {@link #misses} lists them so a
+ *       regression test can insist on none.</li>
+ *   <li>Latency: each answer waits {@code recorded ms × scale + extra ms}
+ *       ({@link #latency}) — 0 by default, for fast deterministic counts.</li>
+ * </ul>
+ */
+public final class FakeWdaServer implements AutoCloseable {
+
+    private static final String NEW_SESSION = "{\"value\":{\"sessionId\":\"replay\",\"capabilities\":"
+            + "{\"platformName\":\"iOS\",\"automationName\":\"XCUITest\"}}}";
+    private static final String NULL_VALUE = "{\"value\":null}";
+    private static final String NO_SUCH_ELEMENT = "{\"value\":{\"error\":\"no such element\","
+            + "\"message\":\"not in the recording\",\"stacktrace\":\"\"}}";
+
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final Map<String, Deque<Exchange>> script = new HashMap<>();
+    private final Map<String, Integer> byRoute = new TreeMap<>();
+    private final List<String> misses = new ArrayList<>();
+    private int roundTrips = 0;
+    private volatile double latencyScale = 0;
+    private volatile long extraLatencyMs = 0;
+
+    private FakeWdaServer(List<Exchange> recording) throws IOException {
+        for (Exchange e : recording) {
+            script.computeIfAbsent(keyOf(e.method(), e.path(), e.body()), k -> new ArrayDeque<>()).addLast(e);
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        pool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fake-wda");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(pool);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Start a server replaying {@code recording} on a free loopback port. */
+    public static FakeWdaServer replay(List<Exchange> recording) throws IOException {
+        return new FakeWdaServer(recording);
+    }
+
+    /** Serve each answer after {@code recorded ms × scale + extraMs}. */
+    public FakeWdaServer latency(double scale, long extraMs) {
+        this.latencyScale = scale;
+        this.extraLatencyMs = extraMs;
+        return this;
+    }
+
+    public String port() {
+        return String.valueOf(server.getAddress().getPort());
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    /** Requests served since the last {@link #resetCounters}, session creation/deletion excluded. */
+    public synchronized int roundTrips() {
+        return roundTrips;
+    }
+
+    /** Round trips per route ("GET /element/:id/displayed"), sorted. */
+    public synchronized Map<String, Integer> roundTripsByRoute() {
+        return new TreeMap<>(byRoute);
+    }
+
+    public synchronized List<String> misses() {
+        return List.copyOf(misses);
+    }
+
+    public synchronized void resetCounters() {
+        roundTrips = 0;
+        byRoute.clear();
+        misses.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    private void handle(HttpExchange http) throws IOException {
+        String method = http.getRequestMethod();
+        String path = WireRecorder.sessionless(http.getRequestURI().getPath());
+        String body = new String(http.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        int status = 200;
+        String answer;
+        long delayMs = extraLatencyMs;
+
+        if ("POST".equals(method) && path.matches("(/wd/hub)?/session")) {
+            Deque<Exchange> recorded = script.get(keyOf(method, path, ""));
+            answer = recorded == null ? NEW_SESSION : recorded.peekFirst().response();
+        } else if ("DELETE".equals(method) && path.endsWith("/session/:session")) {
+            answer = NULL_VALUE;
+        } else {
+            Exchange hit = next(keyOf(method, path, body));
+            synchronized (this) {
+                roundTrips++;
+                byRoute.merge(method + " " + route(path), 1, Integer::sum);
+                if (hit == null) {
+                    misses.add(method + " " + path + " " + body);
+                }
+            }
+            if (hit != null) {
+                status = hit.status();
+                answer = hit.response();
+                delayMs += Math.round(hit.ms() * latencyScale);
+            } else if (path.endsWith("/elements")) {
+                answer = "{\"value\":[]}";
+            } else if (path.endsWith("/element")) {
+                status = 404;
+                answer = NO_SUCH_ELEMENT;
+            } else {
+                answer = NULL_VALUE;
+            }
+        }
+
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+        http.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        http.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = http.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private synchronized Exchange next(String key) {
+        Deque<Exchange> answers = script.get(key);
+        if (answers == null) {
+            return null;
+        }
+        return answers.size() > 1 ? answers.pollFirst() : answers.peekFirst();
+    }
+
+    // POST /session carries the capabilities, which differ per run — match it on the route alone.
+    private static String keyOf(String method, String path, String body) {
+        boolean newSession = "POST".equals(method) && WireRecorder.sessionless(path).matches("(/wd/hub)?/session");
+        return WireRecorder.key(method, path, newSession ? "" : body);
+    }
+
+    private static String route(String path) {
+        return path.replace("/session/:session", "").replaceAll("/element/[^/]+/", "/element/:id/");
+    }
+}
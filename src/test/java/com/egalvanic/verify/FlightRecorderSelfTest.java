@@ -0,0 +1,99 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.ElementCache;
+import com.egalvanic.utils.FlightRecorder;
+import com.egalvanic.utils.ScreenshotUtil;
+import org.openqa.selenium.remote.DriverCommand;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the flight recorder only pays for screenshots that can show
+ * something new, keeps a bounded ring, and encodes nothing until asked to.
+ */
+public class FlightRecorderSelfTest {
+
+    private int shotsTaken;
+
+    private FlightRecorder recorder(int capacity) {
+        shotsTaken = 0;
+        return new FlightRecorder(capacity, () -> new byte[] {(byte) ++shotsTaken});
+    }
+
+    @Test
+    public void unchangedScreen_reusesThePreviousShot() {
+        FlightRecorder r = recorder(10);
+        var first = r.step("open form");
+        r.command("findElement", 40, false);
+        r.command("getElementAttribute", 12, false);
+        var second = r.step("assert title");
+        assertTrue(first.freshShot());
+        assertFalse(second.freshShot(), "lookups alone cannot change the screen");
+        assertSame(second.png(), first.png());
+        assertEquals(second.commands(), List.of("findElement 40ms", "getElementAttribute 12ms"));
+
+        r.command("clickElement", 90, true);
+        var third = r.step("tap save");
+        assertTrue(third.freshShot());
+        assertEquals(r.shots(), 2);
+        assertEquals(shotsTaken, 2);
+    }
+
+    @Test
+    public void ring_keepsTheLastFrames_timelineKeepsEveryStep() {
+        FlightRecorder r = recorder(3);
+        for (int i = 1; i <= 7; i++) {
+            r.command("clickElement", 1, true);
+            r.step("step " + i);
+        }
+        assertEquals(r.frames().stream().map(FlightRecorder.Frame::step).toList(),
+                List.of("step 5", "step 6", "step 7"));
+        assertEquals(r.timeline().size(), 7);
+        assertTrue(r.timeline().get(6).contains("step 7") && r.timeline().get(6).contains("shot"), r.timeline().get(6));
+    }
+
+    @Test
+    public void failedShot_keepsTheLastGoodFrame_andRetries() {
+        int[] calls = {0};
+        FlightRecorder r = new FlightRecorder(5, () -> ++calls[0] == 2 ? null : new byte[] {(byte) calls[0]});
+        var a = r.step("a");
+        r.command("clickElement", 1, true);
+        var b = r.step("b");                       // screenshot failed
+        assertFalse(b.freshShot());
+        assertSame(b.png(), a.png());
+        var c = r.step("c");                       // still owed a shot
+        assertTrue(c.freshShot());
+        assertEquals(calls[0], 3);
+    }
+
+    @Test
+    public void screenChangingCommands_matchTheCacheEpochRule() {
+        assertFalse(ElementCache.mayChangeScreen(DriverCommand.FIND_ELEMENT, Map.of("using", "id", "value", "x")));
+        assertFalse(ElementCache.mayChangeScreen(DriverCommand.SCREENSHOT, Map.of()));
+        assertTrue(ElementCache.mayChangeScreen(DriverCommand.CLICK_ELEMENT, Map.of("id", "e1")));
+    }
+
+    @Test
+    public void failureEncoding_shrinksTheRawFrame() throws Exception {
+        BufferedImage img = new BufferedImage(400, 800, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 400; x++)
+            for (int y = 0; y < 800; y++)
+                img.setRGB(x, y, (x * 7 + y * 13) & 0xFFFFFF);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", png);
+        String encoded = ScreenshotUtil.compressToBase64(png.toByteArray());
+        assertFalse(encoded.startsWith("iVBOR"), "JPEG, not the raw PNG");
+        assertTrue(encoded.length() < png.size(), encoded.length() + " vs " + png.size());
+        assertEquals(ScreenshotUtil.compressToBase64(new byte[] {1, 2, 3}), "AQID", "undecodable bytes pass through");
+    }
+}
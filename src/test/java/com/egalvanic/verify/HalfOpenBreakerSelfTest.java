@@ -0,0 +1,205 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.listeners.DeadSessionCircuitBreaker;
+import com.egalvanic.utils.HalfOpenBreaker;
+import com.egalvanic.utils.RunHealth;
+import org.testng.IInvokedMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that a tripped breaker RECOVERS instead of skipping the rest
+ * of the run. Runs on a plain JVM — the clock is a hand-driven counter.
+ *
+ * <ul>
+ *   <li>OPEN skips until the cool-down elapses, then exactly one canary runs.</li>
+ *   <li>A healthy canary closes the gate; a dead one re-opens it with a doubled
+ *       (capped) cool-down; after maxRecoveries failed canaries it stays OPEN.</li>
+ *   <li>The listener lets the canary through in HALF_OPEN and re-trips on N dead
+ *       outcomes after the gate closed again.</li>
+ * </ul>
+ */
+public class HalfOpenBreakerSelfTest {
+
+    private static final long BASE = 1_000;
+    private static final long MAX = 5_000;
+
+    private long now;
+
+    @BeforeMethod
+    public void isolateStaticState() {
+        RunHealth.reset(); // static-per-JVM state — isolate each case
+        now = 10_000;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseSharedGate() {
+        RunHealth.reset(); // the registered DeadSessionCircuitBreaker reads the same gate
+    }
+
+    private HalfOpenBreaker breaker(int maxRecoveries) {
+        return new HalfOpenBreaker(BASE, MAX, maxRecoveries, () -> now);
+    }
+
+    @Test
+    public void open_skipsUntilCooldown_thenAdmitsOneCanary() {
+        HalfOpenBreaker b = breaker(3);
+        b.trip("self-test");
+        assertFalse(b.allowTest(), "must skip inside the cool-down");
+        now += BASE - 1;
+        assertFalse(b.allowTest());
+        now += 1;
+        assertTrue(b.allowTest(), "cool-down elapsed => half-open");
+        assertEquals(b.state(), HalfOpenBreaker.State.HALF_OPEN);
+        assertTrue(b.canaryPending());
+        assertEquals(b.armCanary(), 1, "first recovery attempt");
+        assertFalse(b.canaryPending(), "only ONE canary per half-open period");
+    }
+
+    @Test
+    public void healthyCanary_closesTheGate_andResetsBackoff() {
+        HalfOpenBreaker b = breaker(3);
+        b.trip("self-test");
+        now += BASE;
+        b.allowTest();
+        b.armCanary();
+        b.recordCanary(false);
+        assertEquals(b.currentCooldownMs(), 2 * BASE);
+        now += 2 * BASE;
+        b.allowTest();
+        assertEquals(b.armCanary(), 2, "second attempt (simulator reset in BaseTest)");
+        b.recordCanary(true);
+        assertTrue(b.isClosed());
+        assertEquals(b.currentCooldownMs(), BASE, "a recovered gate starts again from the base cool-down");
+    }
+
+    @Test
+    public void deadCanary_doublesCooldown_cappedAtMax() {
+        HalfOpenBreaker b = breaker(10);
+        b.trip("self-test");
+        long[] expected = {2 * BASE, 4 * BASE, MAX, MAX};
+        for (long cooldown : expected) {
+            now += b.currentCooldownMs();
+            assertTrue(b.allowTest());
+            b.armCanary();
+            b.recordCanary(false);
+            assertEquals(b.state(), HalfOpenBreaker.State.OPEN);
+            assertEquals(b.currentCooldownMs(), cooldown);
+        }
+    }
+
+    @Test
+    public void exhaustedRecoveries_stayOpenForGood() {
+        HalfOpenBreaker b = breaker(1);
+        b.trip("self-test");
+        now += BASE;
+        b.allowTest();
+        b.armCanary();
+        b.recordCanary(false);
+        now += 3_600_000;
+        assertFalse(b.allowTest(), "no recoveries left => old one-way behaviour");
+        assertTrue(b.recoveriesExhausted());
+        assertEquals(b.msUntilProbe(), -1L);
+    }
+
+    @Test
+    public void zeroRecoveries_isTheOldOneWayBreaker() {
+        HalfOpenBreaker b = breaker(0);
+        b.trip("self-test");
+        now += 3_600_000;
+        assertFalse(b.allowTest());
+    }
+
+    @Test
+    public void verdictWithoutArmedCanary_isIgnored() {
+        HalfOpenBreaker b = breaker(3);
+        b.trip("self-test");
+        now += BASE;
+        b.allowTest();
+        b.recordCanary(true); // e.g. a test that skipped before reaching the canary step
+        assertEquals(b.state(), HalfOpenBreaker.State.HALF_OPEN, "the half-open slot must not be consumed");
+        assertTrue(b.canaryPending());
+    }
+
+    @Test
+    public void listener_letsCanaryThrough_andRetripsAfterClosing() {
+        HalfOpenBreaker gate = breaker(3);
+        DeadSessionCircuitBreaker listener = new DeadSessionCircuitBreaker(true, 2, () -> false /* dead */, gate);
+        IInvokedMethod m = fakeTestMethod();
+        ITestResult dead = fakeResult(ITestResult.FAILURE);
+
+        listener.afterInvocation(m, dead);
+        listener.afterInvocation(m, dead);
+        assertThrows(SkipException.class, () -> listener.beforeInvocation(m, dead));
+
+        now += BASE;
+        assertTrue(gate.allowTest());
+        gate.armCanary();
+        listener.beforeInvocation(m, dead); // HALF_OPEN: the canary runs
+        listener.afterInvocation(m, dead);  // not counted — the canary verdict decides
+        gate.recordCanary(true);
+        assertTrue(gate.isClosed());
+
+        listener.afterInvocation(m, dead);
+        listener.beforeInvocation(m, dead); // 1/2 after closing — still runs
+        listener.afterInvocation(m, dead);
+        assertThrows(SkipException.class, () -> listener.beforeInvocation(m, dead));
+        assertEquals(gate.trips(), 2);
+    }
+
+    @Test
+    public void runHealth_sharedGate_ignoresVerdictWithoutCanary() {
+        HalfOpenBreaker shared = RunHealth.breaker();
+        shared.trip("self-test");
+        assertTrue(RunHealth.isBreakerOpen());
+        assertTrue(RunHealth.shouldFastSkip(), "inside the production cool-down");
+        RunHealth.recordCanaryOutcome(true); // no canary in flight => no-op
+        assertTrue(RunHealth.isBreakerOpen());
+    }
+
+    // ---- Proxy-built TestNG fakes (only the members the breaker reads) ----
+
+    private static ITestResult fakeResult(int status) {
+        return (ITestResult) Proxy.newProxyInstance(
+                HalfOpenBreakerSelfTest.class.getClassLoader(),
+                new Class<?>[]{ITestResult.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStatus": return status;
+                        case "isSuccess": return status == ITestResult.SUCCESS;
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "fake-ITestResult";
+                        default: return method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == int.class ? 0
+                                : method.getReturnType() == long.class ? 0L : null;
+                    }
+                });
+    }
+
+    private static IInvokedMethod fakeTestMethod() {
+        return (IInvokedMethod) Proxy.newProxyInstance(
+                HalfOpenBreakerSelfTest.class.getClassLoader(),
+                new Class<?>[]{IInvokedMethod.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isTestMethod": return true;
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "fake-IInvokedMethod";
+                        default: return method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == long.class ? 0L : null;
+                    }
+                });
+    }
+}
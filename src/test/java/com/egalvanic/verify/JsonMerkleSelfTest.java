@@ -0,0 +1,103 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.JsonMerkle;
+import com.egalvanic.utils.JsonMerkle.Change;
+import com.egalvanic.utils.S3PolicyChecker;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The Merkle policy diff agrees with the normalized-text compare it replaces, and
+ * names the changed path instead of a changed line.
+ *
+ * <ul>
+ *   <li>Over every committed baseline: canonical text == normalizeJson, and a
+ *       reordered, re-indented copy hashes the same.</li>
+ *   <li>A changed principal is reported at {@code Statement[Sid=X].Principal.AWS[1]}.</li>
+ *   <li>A dropped statement is one missing entry, not a shifted tail.</li>
+ * </ul>
+ */
+public class JsonMerkleSelfTest {
+
+    private static final String POLICY = "{\"Version\":\"2012-10-17\",\"Statement\":["
+        + "{\"Sid\":\"PublicRead\",\"Effect\":\"Allow\",\"Principal\":\"*\",\"Action\":\"s3:GetObject\"},"
+        + "{\"Sid\":\"CiCd\",\"Effect\":\"Allow\",\"Principal\":{\"AWS\":[\"arn:aws:iam::1:user/a\",\"arn:aws:iam::1:user/b\"]},"
+        + "\"Action\":[\"s3:PutObject\",\"s3:PutObjectAcl\"]}]}";
+
+    @Test
+    public void everyBaseline_hashesLikeItsNormalizedText() throws Exception {
+        List<Path> baselines;
+        try (Stream<Path> files = Files.walk(Path.of(S3PolicyChecker.getBaselinesDir()))) {
+            baselines = files.filter(p -> p.toString().endsWith(".json")).toList();
+        }
+        assertEquals(baselines.size(), 40);
+        for (Path p : baselines) {
+            String policy = Files.readString(p, StandardCharsets.UTF_8);
+            JsonMerkle.Node tree = JsonMerkle.of(policy);
+            assertEquals(tree.canonical(), S3PolicyChecker.normalizeJson(policy), p.toString());
+            String reordered = reversedStatements(policy);
+            assertTrue(tree.sameAs(JsonMerkle.of(reordered)), p + " reordered must hash the same");
+            assertNull(S3PolicyChecker.driftDiff(policy, reordered), p.toString());
+        }
+    }
+
+    @Test
+    public void changedPrincipal_isReportedAtItsPath() {
+        String drifted = POLICY.replace("user/b", "user/mallory");
+        List<Change> changes = JsonMerkle.diff(JsonMerkle.of(POLICY), JsonMerkle.of(drifted));
+        assertEquals(changes, List.of(new Change("Statement[Sid=CiCd].Principal.AWS[1]",
+            "\"arn:aws:iam::1:user/b\"", "\"arn:aws:iam::1:user/mallory\"")));
+        String report = S3PolicyChecker.driftDiff(POLICY, drifted);
+        assertTrue(report.startsWith("  Statement[Sid=CiCd].Principal.AWS[1]"), report);
+    }
+
+    @Test
+    public void droppedStatement_isOneMissingEntry() {
+        JsonObject root = JsonParser.parseString(POLICY).getAsJsonObject();
+        root.getAsJsonArray("Statement").remove(0);
+        List<Change> changes = JsonMerkle.diff(JsonMerkle.of(POLICY), JsonMerkle.of(root));
+        assertEquals(changes.size(), 1, changes.toString());
+        assertEquals(changes.get(0).path(), "Statement[Sid=PublicRead]");
+        assertNull(changes.get(0).actual());
+    }
+
+    @Test
+    public void orderedArrays_andValueTypes_stayDistinct() {
+        assertFalse(JsonMerkle.of("{\"Action\":[\"a\",\"b\"]}").sameAs(JsonMerkle.of("{\"Action\":[\"b\",\"a\"]}")),
+            "arrays without Sid keep their order, as normalizeJson does");
+        assertFalse(JsonMerkle.of("{\"x\":\"true\"}").sameAs(JsonMerkle.of("{\"x\":true}")));
+        assertFalse(JsonMerkle.of("{\"a\":{\"b\":1}}").sameAs(JsonMerkle.of("{\"a.b\":1}")));
+        assertTrue(JsonMerkle.of("{\"b\":1,\"a\":[1,2]}").sameAs(JsonMerkle.of("{ \"a\": [1, 2], \"b\": 1 }")));
+    }
+
+    @Test
+    public void malformedPolicy_fallsBackToTheTextCompare() {
+        assertNull(S3PolicyChecker.driftDiff("{\"a\": [1,", "{\"a\":[1,"));
+        assertTrue(S3PolicyChecker.driftDiff("{\"a\": [1,", "{\"a\":[2,").contains("EXPECTED:"));
+    }
+
+    private static String reversedStatements(String policy) {
+        JsonObject root = JsonParser.parseString(policy).getAsJsonObject();
+        JsonArray reversed = new JsonArray();
+        JsonArray statements = root.getAsJsonArray("Statement");
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            reversed.add(statements.get(i));
+        }
+        root.add("Statement", reversed);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+}
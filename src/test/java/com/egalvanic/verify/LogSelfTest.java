@@ -0,0 +1,190 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.Log;
+import com.egalvanic.utils.Log.Level;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The logging facade on a plain JVM, its console redirected to a buffer:
+ * <ul>
+ *   <li>the console gets LOG_LEVEL and above; the test's capture gets everything;</li>
+ *   <li>legacy println lines are levelled by shape (⚠️ WARN, indented DEBUG ...),
+ *       and reach the console whatever their level when no test captures them;</li>
+ *   <li>a thread that began no test (TestNG's timeOut worker) logs into the current one;</li>
+ *   <li>the async console keeps order, and a full queue drops console lines only;</li>
+ *   <li>concurrent tests' console lines carry their test id.</li>
+ * </ul>
+ */
+public class LogSelfTest {
+
+    private final ByteArrayOutputStream consoleBytes = new ByteArrayOutputStream();
+
+    @BeforeMethod
+    public void redirectConsole() {
+        consoleBytes.reset();
+        Log.endTest();
+        Log.configureForTest(new PrintStream(consoleBytes, true, StandardCharsets.UTF_8), Level.INFO, 0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restore() {
+        Log.configureForTest(System.out, Level.INFO, 0);
+        Log.reset();
+    }
+
+    private String console() {
+        Log.flush(2_000);
+        return consoleBytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void consoleIsLevelFiltered_captureKeepsEverything() {
+        Log.beginTest("AuthTest.login", "SIM-1");
+        Log.debug("🔍 strategy 2 of 4");
+        Log.info("✅ Logged in");
+        Log.warn("⚠️ Keyboard still up");
+        List<String> captured = Log.endTest();
+
+        assertEquals(console(), "✅ Logged in\n⚠️ Keyboard still up\n");
+        assertEquals(captured.size(), 4, captured.toString()); // "▶ AuthTest.login on SIM-1" + 3
+        assertTrue(captured.get(0).endsWith("DEBUG ▶ AuthTest.login on SIM-1"), captured.get(0));
+        assertTrue(captured.get(1).matches("\\d\\d:\\d\\d:\\d\\d\\.\\d{3} DEBUG 🔍 strategy 2 of 4"), captured.get(1));
+        assertTrue(captured.get(3).contains(" WARN  ⚠️ Keyboard still up"));
+        assertEquals(Log.endTest(), List.of(), "ended");
+    }
+
+    @Test
+    public void legacyPrintln_isLevelledByShape() {
+        assertEquals(Log.classify("❌ Save button not found"), Level.ERROR);
+        assertEquals(Log.classify("⚠️ Retry 2"), Level.WARN);
+        assertEquals(Log.classify("   Strategy 3: predicate"), Level.DEBUG);
+        assertEquals(Log.classify("\tat com.egalvanic.pages.AssetPage.save(AssetPage.java:12)"), Level.DEBUG);
+        assertEquals(Log.classify("📋 Test created: Assets > Create > TC_01"), Level.INFO);
+        assertEquals(Log.classify(""), Level.INFO);
+
+        PrintStream out = Log.captureStream();
+        Log.beginTest("AssetTest.create", null);
+        out.println("📋 Opening asset list");
+        out.print("   ↳ cell 1 of ");
+        out.println("40");
+        out.println("⚠️ Slow list");
+        List<String> captured = Log.endTest();
+        assertEquals(console(), "📋 Opening asset list\n⚠️ Slow list\n");
+        assertTrue(captured.get(2).endsWith("DEBUG    ↳ cell 1 of 40"), "partial prints join into one line: " + captured);
+    }
+
+    @Test
+    public void threadWithoutItsOwnTest_logsIntoTheCurrentOne() throws Exception {
+        Log.beginTest("AssetTest.create", "SIM-1");
+        Thread body = new Thread(() -> Log.debug("🔍 from the timeOut worker"));
+        body.start();
+        body.join();
+        List<String> captured = Log.endTest();
+        assertTrue(captured.get(captured.size() - 1).endsWith("DEBUG 🔍 from the timeOut worker"), captured.toString());
+
+        PrintStream out = Log.captureStream();
+        out.println("   ↳ detail with no test running");
+        assertEquals(console(), "   ↳ detail with no test running\n", "no capture => the console keeps it");
+    }
+
+    @Test
+    public void captureIsARing_ofTheLastLines() {
+        Log.beginTest("Big.test", "");
+        for (int i = 0; i < 10_000; i++) {
+            Log.debug("line " + i);
+        }
+        List<String> captured = Log.endTest();
+        assertTrue(captured.get(0).startsWith("… "), captured.get(0));
+        assertTrue(captured.get(captured.size() - 1).endsWith("line 9999"));
+        assertTrue(captured.size() <= 4_001, "bounded by LOG_TEST_LINES: " + captured.size());
+    }
+
+    @Test
+    public void asyncConsole_keepsOrder_andDropsOnlyWhenFull() {
+        Log.configureForTest(new PrintStream(consoleBytes, true, StandardCharsets.UTF_8), Level.INFO, 100_000);
+        for (int i = 0; i < 5_000; i++) {
+            Log.info("row " + i);
+        }
+        String[] lines = console().split("\n");
+        assertEquals(lines.length, 5_000);
+        assertEquals(lines[4_999], "row 4999");
+        assertEquals(Log.droppedConsoleLines(), 0);
+
+        // A blocked stdout: the 16-line queue fills, callers carry on, the capture keeps all.
+        CountDownLatch release = new CountDownLatch(1);
+        PrintStream stuck = new PrintStream(consoleBytes, true, StandardCharsets.UTF_8) {
+            @Override
+            public void print(Object batch) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.print(batch);
+            }
+        };
+        Log.configureForTest(stuck, Level.INFO, 16);
+        Log.beginTest("Flood.test", "");
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            Log.info("flood " + i);
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        List<String> captured = Log.endTest();
+        release.countDown();
+        assertTrue(ms < 1_000, "appending must not block on a stuck console: " + ms + "ms");
+        assertTrue(Log.droppedConsoleLines() > 900, "dropped " + Log.droppedConsoleLines());
+        assertEquals(captured.size(), 1_001);
+        Log.flush(2_000);
+        assertTrue(consoleBytes.toString(StandardCharsets.UTF_8).contains("console lines dropped"));
+    }
+
+    @Test
+    public void concurrentTests_prefixTheirConsoleLines() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch logged = new CountDownLatch(2);
+        Runnable[] tests = new Runnable[2];
+        for (int t = 0; t < 2; t++) {
+            String id = "T" + t + ".run";
+            tests[t] = () -> {
+                Log.beginTest(id, "SIM-" + id);
+                bothStarted.countDown();
+                try {
+                    bothStarted.await();
+                    Log.info("✅ step from " + id);
+                    logged.countDown();
+                    logged.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Log.endTest();
+            };
+        }
+        Thread a = new Thread(tests[0]);
+        Thread b = new Thread(tests[1]);
+        a.start();
+        b.start();
+        a.join();
+        b.join();
+        String out = console();
+        assertTrue(out.contains("[T0.run] ✅ step from T0.run"), out);
+        assertTrue(out.contains("[T1.run] ✅ step from T1.run"), out);
+
+        Log.beginTest("Solo.run", "");
+        Log.info("✅ alone");
+        Log.endTest();
+        assertFalse(console().contains("[Solo.run]"), "no prefix when one test runs");
+    }
+}
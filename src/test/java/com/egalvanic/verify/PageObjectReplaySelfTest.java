@@ -0,0 +1,110 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.pages.IssuePage;
+import com.egalvanic.pages.WorkOrderPage;
+import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.WireRecorder;
+import com.egalvanic.utils.WireRecorder.Exchange;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.ios.options.XCUITestOptions;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Page objects against a replayed WDA ({@link FakeWdaServer}) — a real IOSDriver and
+ * the suite's full command pipeline (DriverManager.initDriver: element cache, snapshot
+ * profiles, deadlines), no simulator. Round-trip counts are pinned: a page-object change
+ * that adds wire calls to a hot check shows up here, on Linux, in seconds.
+ */
+public class PageObjectReplaySelfTest {
+
+    private FakeWdaServer server;
+
+    private FakeWdaServer start(String fixture) throws Exception {
+        server = FakeWdaServer.replay(WireRecorder.read(
+                Path.of(getClass().getResource("/replay/" + fixture).toURI())));
+        DriverManager.initDriver(null, null, server.port(), null);
+        server.resetCounters(); // session setup (timeouts) is not the page's cost
+        return server;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stop() {
+        DriverManager.forceNullDriver();
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    @Test
+    public void workOrdersHeaderCheck_costsFourRoundTrips() throws Exception {
+        start("work-orders-screen.jsonl");
+        assertTrue(new WorkOrderPage().isWorkOrdersHeaderCorrect());
+        assertEquals(server.misses(), List.of());
+        // The proxy's second context query and second nav-bar lookup are cache hits.
+        assertEquals(server.roundTripsByRoute(), Map.of("GET /context", 1,
+                "POST /element", 1, "GET /element/:id/displayed", 1, "GET /element/:id/attribute/name", 1));
+    }
+
+    @Test
+    public void openTabTap_isServedFromTheRecording_andATapInvalidatesTheLookup() throws Exception {
+        start("issues-open-tab.jsonl");
+        IssuePage issues = new IssuePage();
+        issues.tapOpenTab();
+        issues.tapOpenTab();
+        assertEquals(server.misses(), List.of());
+        assertEquals(server.roundTripsByRoute(), Map.of(
+                "POST /element", 2, "GET /element/:id/rect", 2, "POST /execute/sync", 2),
+                "the mobile: tap changes the screen, so the second press must look the pill up again");
+    }
+
+    @Test
+    public void latencyInjection_replaysRecordedTimings() throws Exception {
+        start("work-orders-screen.jsonl").latency(1.0, 0);
+        long t0 = System.nanoTime();
+        assertTrue(new WorkOrderPage().isStartNewWorkOrderButtonDisplayed());
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        assertEquals(server.roundTrips(), 3);
+        assertTrue(ms >= 12 + 188 + 90, "recorded latencies must be replayed, took " + ms + "ms");
+        System.out.println("⏱️ WorkOrderPage.isStartNewWorkOrderButtonDisplayed: " + server.roundTrips()
+                + " round trips, " + ms + "ms at recorded latency");
+    }
+
+    @Test
+    public void recordingThenReplaying_servesTheSameSession() throws Exception {
+        Path recorded = Files.createTempFile("wire", ".jsonl");
+        String navBar = "type == 'XCUIElementTypeNavigationBar' AND name CONTAINS 'Work Order'";
+        try (FakeWdaServer live = FakeWdaServer.replay(WireRecorder.read(
+                Path.of(getClass().getResource("/replay/work-orders-screen.jsonl").toURI())))) {
+            IOSDriver d = new IOSDriver(ClientConfig.defaultConfig().baseUrl(new URL(live.url()))
+                    .withFilter(new WireRecorder(recorded)), new XCUITestOptions());
+            assertEquals(d.findElement(AppiumBy.iOSNsPredicateString(navBar)).getAttribute("name"), "Work Orders");
+            d.quit();
+        }
+
+        List<Exchange> wire = WireRecorder.read(recorded);
+        assertTrue(wire.stream().anyMatch(e -> e.path().equals("/session/:session/element/wo-nav/attribute/name")),
+                "paths are recorded session-less: " + wire);
+        try (FakeWdaServer replay = FakeWdaServer.replay(wire)) {
+            IOSDriver d = new IOSDriver(ClientConfig.defaultConfig().baseUrl(new URL(replay.url())),
+                    new XCUITestOptions());
+            assertEquals(d.findElement(AppiumBy.iOSNsPredicateString(navBar)).getAttribute("name"), "Work Orders");
+            d.quit();
+            assertEquals(replay.misses(), List.of());
+        } finally {
+            Files.deleteIfExists(recorded);
+        }
+    }
+}
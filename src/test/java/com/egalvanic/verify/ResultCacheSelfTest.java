@@ -0,0 +1,189 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.ResultCache;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The result cache on a temp store and a fake clock: a class is reused only when
+ * every one of its tests has a PASS under unchanged inputs, anything else (a
+ * failure, a new test, a forced run, a new app, age, no app, a run that did not
+ * opt in) runs it all, the
+ * journal survives a torn row, and the fingerprint follows referenced classes.
+ */
+public class ResultCacheSelfTest {
+
+    private static final List<String> METHODS = List.of("login", "logout");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T10:00:00Z"));
+    private Path dir;
+    private Path store;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("result-cache");
+        store = dir.resolve("results.tsv");
+        newRun("app-digest", false);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws Exception {
+        ResultCache.reset();
+        try (var files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.delete(f);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private void newRun(String app, boolean force) {
+        ResultCache.configureForTest(store, app, "1.0 (1)", force, now::get);
+    }
+
+    private void passAll() {
+        for (String m : METHODS) {
+            ResultCache.recordPass(FakeCachedLoginTest.class, m, 42_000, "Auth", "Login", "TC " + m);
+        }
+    }
+
+    private Map<String, ResultCache.Entry> lookup() {
+        return ResultCache.reusable(FakeCachedLoginTest.class, METHODS);
+    }
+
+    @Test
+    public void allPassed_reusedNextRun_withProvenance() {
+        assertTrue(lookup().isEmpty(), "nothing recorded yet");
+        passAll();
+
+        newRun("app-digest", false);
+        Map<String, ResultCache.Entry> hits = lookup();
+        assertEquals(hits.keySet(), Set.copyOf(METHODS));
+        assertTrue(ResultCache.isReused(FakeCachedLoginTest.class.getName()));
+        ResultCache.Entry e = ResultCache.reused(FakeCachedLoginTest.class.getName(), "login");
+        assertNotNull(e);
+        assertEquals(e.testName, "TC login");
+        assertTrue(e.provenance().contains("run local") && e.provenance().contains("took 42s")
+            && e.provenance().contains("app 1.0 (1)"), e.provenance());
+        assertNull(ResultCache.reused(FakeCachedAssetPage.class.getName(), "login"), "undecided class runs");
+    }
+
+    @Test
+    public void offByDefault_nothingIsReused() {
+        passAll();
+        ResultCache.reset(); // back to AppConstants: RESULT_CACHE is opt-in
+        assertFalse(AppConstants.RESULT_CACHE, "RESULT_CACHE must default to false");
+        assertTrue(lookup().isEmpty(), "a run that did not opt in runs everything");
+    }
+
+    @Test
+    public void oneFailureOrNewTest_runsTheWholeClass() {
+        passAll();
+        ResultCache.recordFailure(FakeCachedLoginTest.class, "logout");
+        newRun("app-digest", false);
+        assertTrue(lookup().isEmpty(), "a FAIL tombstone voids the class");
+        assertFalse(ResultCache.isReused(FakeCachedLoginTest.class.getName()));
+
+        passAll();
+        newRun("app-digest", false);
+        assertTrue(ResultCache.reusable(FakeCachedLoginTest.class, List.of("login", "logout", "added")).isEmpty(),
+            "a test with no PASS yet makes the class run");
+    }
+
+    @Test
+    public void forceNewAppAgeOrNoApp_reuseNothing() {
+        passAll();
+
+        newRun("app-digest", true);
+        assertTrue(lookup().isEmpty(), "RESULT_CACHE_FORCE");
+
+        newRun("rebuilt-app", false);
+        assertTrue(lookup().isEmpty(), "different app bundle");
+
+        newRun("", false);
+        assertTrue(lookup().isEmpty(), "no app bundle");
+
+        now.set(now.get().plus(Duration.ofDays(30)));
+        newRun("app-digest", false);
+        assertTrue(lookup().isEmpty(), "older than RESULT_CACHE_MAX_AGE_HOURS");
+    }
+
+    @Test
+    public void journal_survivesTornRow_andCompacts() throws Exception {
+        passAll();
+        ResultCache.recordFailure(FakeCachedLoginTest.class, "logout");
+        ResultCache.recordPass(FakeCachedLoginTest.class, "logout", 1_000, "Auth", "Login", "TC logout");
+        Files.writeString(store, "PASS\tcom.Fake#torn\tabc\tnot-a-time", StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND);
+
+        newRun("app-digest", false);
+        assertEquals(lookup().size(), 2, "last row per test wins; torn row ignored");
+        assertTrue(ResultCache.reused(FakeCachedLoginTest.class.getName(), "logout").provenance().contains("took 1s"),
+            "the PASS after the tombstone");
+        ResultCache.save();
+        assertEquals(Files.readAllLines(store).size(), 2, "one row per cached PASS after save()");
+
+        newRun("app-digest", false);
+        assertEquals(lookup().size(), 2, "compacted journal still reusable");
+    }
+
+    @Test
+    public void fingerprint_followsReferencedClasses() {
+        Set<String> refs = ResultCache.referencedClasses(FakeCachedLoginTest.class);
+        assertTrue(refs.contains(FakeCachedLoginTest.class.getName()));
+        assertTrue(refs.contains(FakeCachedLoginPage.class.getName()), "page object it calls: " + refs);
+        assertTrue(refs.contains(FakeCachedWaits.class.getName()), "transitive: " + refs);
+        assertFalse(refs.contains(FakeCachedAssetPage.class.getName()), "page object it never touches");
+
+        assertNotNull(ResultCache.fingerprint(FakeCachedLoginTest.class));
+        assertFalse(ResultCache.fingerprint(FakeCachedLoginTest.class)
+            .equals(ResultCache.fingerprint(FakeCachedAssetPage.class)), "different closures");
+        newRun("", false);
+        assertNull(ResultCache.fingerprint(FakeCachedLoginTest.class), "no app: nothing to key on");
+    }
+}
+
+/*
+ * Stand-ins for a test class, the page object it drives and one it does not. Top-level
+ * rather than nested: a nested class's constant pool names its nest host, which would
+ * pull every sibling into the closure.
+ */
+class FakeCachedLoginTest {
+    boolean login() {
+        return new FakeCachedLoginPage().submit();
+    }
+}
+
+class FakeCachedLoginPage {
+    boolean submit() {
+        return FakeCachedWaits.settle() > 0;
+    }
+}
+
+class FakeCachedWaits {
+    static int settle() {
+        return 1;
+    }
+}
+
+class FakeCachedAssetPage {
+}
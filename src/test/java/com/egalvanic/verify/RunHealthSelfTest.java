@@ -6,6 +6,7 @@ import com.egalvanic.utils.RunHealth;
 import org.testng.IInvokedMethod;
 import org.testng.ITestResult;
 import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -39,6 +40,11 @@ public class RunHealthSelfTest {
         RunHealth.reset(); // static-per-JVM state — isolate each case
     }
 
+    @AfterMethod(alwaysRun = true)
+    public void releaseSharedGate() {
+        RunHealth.reset(); // the registered DeadSessionCircuitBreaker reads the same gate
+    }
+
     @Test
     public void cleanRun_doesNotFastSkip() {
         assertFalse(RunHealth.shouldFastSkip(), "a healthy run must never fast-skip");
@@ -0,0 +1,256 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.SnapshotProfiles;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that per-screen snapshot profiles get CHEAPER where they
+ * can and never cost a page object an element it needs. Runs on a plain JVM —
+ * "WDA" is a lambda that only finds elements shallower than the depth last
+ * set through setSettings, and charges scripted latency on a fake clock.
+ *
+ * <ul>
+ *   <li>A light screen descends from the global depth to the floor.</li>
+ *   <li>A clamped miss is re-checked at the global depth, returned to the
+ *       caller, and raises that screen's floor — also for a locator the screen
+ *       has never found before.</li>
+ *   <li>A genuinely absent element still misses (no phantom finds), and a poll
+ *       for it is re-checked at the global depth once, not on every poll.</li>
+ *   <li>The snapshot timeout follows measured latency within its bounds.</li>
+ *   <li>An explicit withShallowSnapshots pin is never overridden.</li>
+ * </ul>
+ */
+public class SnapshotProfilesSelfTest {
+
+    private static final int GLOBAL_DEPTH = 40;
+    private static final int GLOBAL_TIMEOUT = 10;
+
+    private final AtomicReference<String> screen = new AtomicReference<>();
+    private final Map<String, Integer> elementDepth = new HashMap<>();
+    private final List<Integer> depthsSet = new ArrayList<>();
+    private long now;
+    private long latencyMs;
+    private int wdaDepth;
+
+    @BeforeMethod
+    public void isolateStaticState() {
+        SnapshotProfiles.reset(); // static-per-JVM profiles — isolate each case
+        screen.set("LightPage.open");
+        elementDepth.clear();
+        depthsSet.clear();
+        now = 0;
+        latencyMs = 200;
+        wdaDepth = GLOBAL_DEPTH;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void release() {
+        SnapshotProfiles.reset();
+    }
+
+    private SnapshotProfiles profiles() {
+        return new SnapshotProfiles(true, GLOBAL_DEPTH, GLOBAL_TIMEOUT, 15, 3, screen::get, () -> now);
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Function<CommandPayload, Response> wda = p -> {
+        Response r = new Response();
+        if ("setSettings".equals(p.getName())) {
+            Map<String, Object> s = (Map<String, Object>) p.getParameters().get("settings");
+            Object depth = s.get("snapshotMaxDepth");
+            if (depth != null) {
+                wdaDepth = (Integer) depth;
+                depthsSet.add(wdaDepth);
+            }
+            return r;
+        }
+        now += latencyMs;
+        Integer at = elementDepth.get(String.valueOf(p.getParameters().get("value")));
+        boolean visible = at != null && at <= wdaDepth;
+        if (DriverCommand.FIND_ELEMENTS.equals(p.getName())) {
+            r.setValue(visible ? List.of(Map.of("ELEMENT", "e1")) : List.of());
+            return r;
+        }
+        if (!visible) {
+            throw new NoSuchElementException("no " + p.getParameters().get("value"));
+        }
+        r.setValue(Map.of("ELEMENT", "e1"));
+        return r;
+    };
+
+    private static CommandPayload find(String id) {
+        return new CommandPayload(DriverCommand.FIND_ELEMENT, Map.of("using", "accessibility id", "value", id));
+    }
+
+    private static CommandPayload findAll(String id) {
+        return new CommandPayload(DriverCommand.FIND_ELEMENTS, Map.of("using", "accessibility id", "value", id));
+    }
+
+    @Test
+    public void lightScreen_descendsToTheFloor() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertEquals(SnapshotProfiles.depthOf("LightPage.open"), 15, SnapshotProfiles.profileOf("LightPage.open"));
+        assertEquals(wdaDepth, 15, "the learned profile must actually be applied to WDA");
+    }
+
+    @Test
+    public void clampedMissOfKnownElement_isRecheckedAndRaisesTheFloor() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        elementDepth.put("Issue row", 27); // deep list row, same screen
+        sp.execute(find("Issue row"), wda); // found at global depth 40 => known
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertTrue(SnapshotProfiles.depthOf("LightPage.open") < 27);
+
+        Response r = sp.execute(find("Issue row"), wda);
+        assertNotNull(r.getValue(), "the caller must get the element, not a clamp-induced miss");
+        int depth = SnapshotProfiles.depthOf("LightPage.open");
+        assertTrue(depth >= 27, "floor must rise above the depth that hid the row, got " + depth);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertTrue(SnapshotProfiles.depthOf("LightPage.open") >= 27, "a raised floor is permanent");
+    }
+
+    @Test
+    public void clampedMissOfANewLocator_isRecheckedToo() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertEquals(SnapshotProfiles.depthOf("LightPage.open"), 15);
+
+        elementDepth.put("Connection row", 22); // first asked for after the descent
+        Response r = sp.execute(findAll("Connection row"), wda);
+        assertEquals(((List<?>) r.getValue()).size(), 1, "never found before is no reason to trust a clamped miss");
+        assertEquals(SnapshotProfiles.depthOf("LightPage.open"), GLOBAL_DEPTH,
+            "no depth is proven short of the global one for it");
+    }
+
+    @Test
+    public void genuinelyAbsentElement_stillMisses() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Spinner", 10);
+        elementDepth.put("Save", 8);
+        sp.execute(findAll("Spinner"), wda);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        elementDepth.remove("Spinner"); // finished loading
+        Response r = sp.execute(findAll("Spinner"), wda);
+        assertTrue(((List<?>) r.getValue()).isEmpty(), "absent must stay absent");
+        assertThrows(NoSuchElementException.class, () -> sp.execute(find("Spinner"), wda));
+        assertEquals(SnapshotProfiles.depthOf("LightPage.open"), 15, "a real absence must not raise the floor");
+    }
+
+    @Test
+    public void pollForAnAbsentElement_isRecheckedOnce_notOnEveryPoll() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        depthsSet.clear();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(((List<?>) sp.execute(findAll("Spinner"), wda).getValue()).isEmpty());
+        }
+        assertEquals(depthsSet, List.of(GLOBAL_DEPTH, 15), "one re-check (there and back), then clamped polls");
+
+        now += 30_000; // past ABSENT_TTL_MS
+        depthsSet.clear();
+        sp.execute(findAll("Spinner"), wda);
+        sp.execute(findAll("Spinner"), wda);
+        assertEquals(depthsSet, List.of(GLOBAL_DEPTH, 15), "an old absence is re-checked once more");
+        assertTrue(SnapshotProfiles.summary().contains("2 completeness re-checks (10 skipped, known absent)"),
+            SnapshotProfiles.summary());
+    }
+
+    @Test
+    public void heavyScreen_descendsImmediately_andKeepsTheGlobalTimeout() {
+        SnapshotProfiles sp = profiles();
+        screen.set("AssetPage.openDetails");
+        elementDepth.put("Edit", 6);
+        latencyMs = 6_000; // past half the 10s snapshot timeout
+        for (int i = 0; i < 3; i++) {
+            sp.execute(find("Edit"), wda);
+        }
+        assertEquals(SnapshotProfiles.depthOf("AssetPage.openDetails"), 25, "one step per heavy lookup");
+        for (int i = 0; i < 5; i++) {
+            sp.execute(find("Edit"), wda);
+        }
+        assertEquals(SnapshotProfiles.timeoutOf("AssetPage.openDetails"), GLOBAL_TIMEOUT, "timeout never exceeds global");
+    }
+
+    @Test
+    public void fastScreen_getsShortTimeout_boundedBelow() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        latencyMs = 100;
+        for (int i = 0; i < 10; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertEquals(SnapshotProfiles.timeoutOf("LightPage.open"), 3, "4x p95 (0.4s) is clamped up to the 3s minimum");
+        latencyMs = 1_500;
+        for (int i = 0; i < 16; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        assertEquals(SnapshotProfiles.timeoutOf("LightPage.open"), 6, "4x p95 of 1.5s");
+    }
+
+    @Test
+    public void explicitPin_isNeverOverridden() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        depthsSet.clear();
+        sp.execute(new CommandPayload("setSettings", Map.of("settings", Map.of("snapshotMaxDepth", 20))), wda);
+        SnapshotProfiles.pin();
+        try {
+            sp.execute(find("Save"), wda);
+            screen.set(null);
+            sp.execute(find("Save"), wda);
+        } finally {
+            SnapshotProfiles.unpin();
+        }
+        assertEquals(depthsSet, List.of(20), "nothing but the explicit clamp may touch the depth while pinned");
+    }
+
+    @Test
+    public void unattributedLookup_runsAtGlobalDepth() {
+        SnapshotProfiles sp = profiles();
+        elementDepth.put("Save", 8);
+        for (int i = 0; i < 40; i++) {
+            sp.execute(find("Save"), wda);
+        }
+        screen.set(null); // test code / heartbeat
+        sp.execute(find("Save"), wda);
+        assertEquals(wdaDepth, GLOBAL_DEPTH);
+    }
+}
@@ -0,0 +1,140 @@
+package com.egalvanic.verify;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.utils.DeviceLogCollector;
+import com.egalvanic.utils.ExtentReportManager;
+import com.egalvanic.utils.FlightRecorder;
+import com.egalvanic.utils.Log;
+import com.egalvanic.utils.ResultCache;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * What a @Test body leaves for its @AfterMethod teardown. Every @Test has a timeOut
+ * (GlobalTestTimeout), so TestNG runs the body on its own worker thread and the
+ * teardown on another — anything BaseTest's teardown reads must cross that gap.
+ * The teardown below does what BaseTest's does and notes what it saw; the second
+ * test checks it.
+ */
+public class TeardownHandoffSelfTest {
+
+    private static final String BODY = "body_runsOnTheTimeOutThread";
+
+    private static String bodyThread;
+    private static String teardownThread;
+    private static final List<String> reportLines = new ArrayList<>();
+    private static final List<String> capturedLog = new ArrayList<>();
+    private static final List<String> deviceLines = new ArrayList<>();
+    private static final List<String> deviceSlice = new ArrayList<>();
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static Path cacheDir;
+
+    @BeforeClass
+    public void reports() throws IOException {
+        ExtentReportManager.initReports();
+        cacheDir = Files.createTempDirectory("handoff-cache");
+        ResultCache.configureForTest(cacheDir.resolve("results.tsv"), "app-digest", "1.0 (1)", false, () -> NOW);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanUp() throws IOException {
+        ResultCache.reset();
+        Files.deleteIfExists(cacheDir.resolve("results.tsv"));
+        Files.deleteIfExists(cacheDir);
+    }
+
+    @BeforeMethod
+    public void setup(Method method) {
+        if (BODY.equals(method.getName())) {
+            Log.beginTest(getClass().getSimpleName() + "." + BODY, "SIM-HANDOFF");
+            DeviceLogCollector.configureForTest(new DeviceLogCollector(() -> {
+                List<String> drained = new ArrayList<>(deviceLines);
+                deviceLines.clear();
+                return drained;
+            }, 100));
+            DeviceLogCollector.markTestStart(BODY);
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void body_runsOnTheTimeOutThread() {
+        bodyThread = Thread.currentThread().getName();
+        ExtentReportManager.createTest("Self-test", "Teardown handoff", "TC_HANDOFF_01 - body on the timeOut thread");
+        FlightRecorder recorder = FlightRecorder.current();
+        if (recorder != null) {
+            recorder.step("🔘 Tap Save");
+        }
+        Log.captureStream().println("   ↳ detail line from the body");
+        synchronized (deviceLines) {
+            deviceLines.add("app: Save tapped");
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown(ITestResult result) {
+        if (!BODY.equals(result.getMethod().getMethodName())) {
+            return;
+        }
+        teardownThread = Thread.currentThread().getName();
+        ExtentReportManager.logFlightRecording(true);
+        ExtentReportManager.logInfo("📜 teardown note");
+        ExtentReportManager.logWarningWithImage("App death seen at 10:00:00.000 (state=1)", "iVBORw0KGgo=");
+        synchronized (deviceLines) {
+            deviceSlice.addAll(DeviceLogCollector.testSlice(true));
+        }
+        DeviceLogCollector.configureForTest(null);
+        ResultCache.recordResult(getClass(), BODY, result.isSuccess(), 1_000);
+        ExtentTest test = ExtentReportManager.currentDetailedTest();
+        if (test != null) {
+            for (com.aventstack.extentreports.model.Log line : test.getModel().getLogs()) {
+                reportLines.add(line.getDetails());
+            }
+        }
+        ExtentReportManager.removeTests();
+        capturedLog.addAll(Log.endTest());
+    }
+
+    @Test(dependsOnMethods = BODY)
+    public void teardown_writesIntoTheBodysReportTest() {
+        assertNotEquals(teardownThread, bodyThread, "a timeOut body runs on its own thread");
+        assertTrue(reportLines.stream().anyMatch(l -> l.contains("📜 teardown note")), reportLines.toString());
+        assertTrue(reportLines.stream().anyMatch(l -> l.contains("App death seen at") && l.contains("<img")),
+            "the watchdog's screenshot reaches the report: " + reportLines);
+        assertTrue(deviceSlice.contains("app: Save tapped"), "the test's device-log slice: " + deviceSlice);
+        if (AppConstants.FLIGHT_RECORDER) {
+            assertTrue(reportLines.stream().anyMatch(l -> l.contains("🎞️ Frame") && l.contains("Tap Save")),
+                "failure frames reach the report: " + reportLines);
+        }
+        assertNull(ExtentReportManager.currentDetailedTest(), "removeTests forgets it on every thread");
+        assertNull(ExtentReportManager.currentTestNames());
+
+        assertTrue(capturedLog.stream().anyMatch(l -> l.endsWith("DEBUG    ↳ detail line from the body")),
+            "the body's lines reach the capture begun in setup: " + capturedLog);
+        assertNull(Log.current(), "endTest from teardown ends it");
+
+        ResultCache.configureForTest(cacheDir.resolve("results.tsv"), "app-digest", "1.0 (1)", false, () -> NOW);
+        Map<String, ResultCache.Entry> cached = ResultCache.reusable(getClass(), List.of(BODY));
+        assertEquals(cached.keySet(), Set.of(BODY), "teardown recorded the PASS under the body's names");
+        assertEquals(cached.get(BODY).testName, "TC_HANDOFF_01 - body on the timeOut thread");
+    }
+}
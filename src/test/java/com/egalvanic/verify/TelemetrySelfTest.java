@@ -0,0 +1,260 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.constants.AppConstants;
+import com.egalvanic.listeners.TelemetryListener;
+import com.egalvanic.utils.DriverManager;
+import com.egalvanic.utils.RunHealth;
+import com.egalvanic.utils.Telemetry;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openqa.selenium.remote.CommandPayload;
+import org.testng.IInvokedMethod;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Telemetry on a plain JVM: the OpenMetrics text and OTLP-JSON a snapshot
+ * exports, the instrumented RunHealth transitions, the command path's exclusion of
+ * the background monitors, and the listener's attribution of setup/body/teardown
+ * to the test they bracket.
+ */
+public class TelemetrySelfTest {
+
+    @BeforeMethod
+    public void freshRegistry() {
+        Telemetry.reset(true);
+        RunHealth.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restore() {
+        RunHealth.reset();
+        Telemetry.reset(AppConstants.TELEMETRY);
+    }
+
+    @Test
+    public void openMetrics_cumulativeBuckets_totalSuffix_escapedLabels() {
+        Telemetry.resource("suite", "Smoke");
+        Telemetry.DRIVER_INIT_FAILURES.inc();
+        Telemetry.DRIVER_INIT_FAILURES.inc();
+        Telemetry.WDA_REBUILDS.inc("trigger", "inline");
+        Telemetry.BREAKER_STATE.set(1);
+        Telemetry.TEST_LAST_PHASE_SECONDS.set(2.5, "test", "Odd\"Name\\.x", "phase", "body");
+        Telemetry.DRIVER_INIT_SECONDS.observe(0.4, "outcome", "success");
+        Telemetry.DRIVER_INIT_SECONDS.observe(7, "outcome", "success");
+        Telemetry.DRIVER_INIT_SECONDS.observe(900, "outcome", "success");
+
+        String text = Telemetry.openMetrics();
+        assertTrue(text.startsWith("# TYPE target info\n# HELP target Run identity\ntarget_info{suite=\"Smoke\"} 1\n"), text);
+        assertTrue(text.contains("# TYPE egalvanic_driver_init_seconds histogram\n"
+            + "# UNIT egalvanic_driver_init_seconds seconds\n"), text);
+        assertTrue(text.contains("egalvanic_driver_init_seconds_bucket{outcome=\"success\",le=\"0.5\"} 1\n"
+            + "egalvanic_driver_init_seconds_bucket{outcome=\"success\",le=\"1\"} 1\n"), text);
+        assertTrue(text.contains("egalvanic_driver_init_seconds_bucket{outcome=\"success\",le=\"10\"} 2\n"), text);
+        assertTrue(text.contains("egalvanic_driver_init_seconds_bucket{outcome=\"success\",le=\"+Inf\"} 3\n"
+            + "egalvanic_driver_init_seconds_count{outcome=\"success\"} 3\n"
+            + "egalvanic_driver_init_seconds_sum{outcome=\"success\"} 907.4\n"), text);
+        assertTrue(text.contains("# TYPE egalvanic_driver_init_failures counter\n"), text);
+        assertTrue(text.contains("\negalvanic_driver_init_failures_total 2\n"), text);
+        assertTrue(text.contains("\negalvanic_wda_rebuilds_total{trigger=\"inline\"} 1\n"), text);
+        assertTrue(text.contains("\negalvanic_breaker_state 1\n"), text);
+        assertTrue(text.contains("egalvanic_test_last_phase_seconds{test=\"Odd\\\"Name\\\\.x\",phase=\"body\"} 2.5\n"), text);
+        assertFalse(text.contains("egalvanic_command_seconds"), "families never recorded are not exported");
+        assertTrue(text.endsWith("\n# EOF\n"));
+    }
+
+    @Test
+    public void otlpJson_perBucketCounts_int64AsStrings_cumulativeSums() {
+        Telemetry.resource("github.run_id", "123");
+        Telemetry.COMMAND_SECONDS.observe(0.004, "command", "findElement");
+        Telemetry.COMMAND_SECONDS.observe(0.004, "command", "findElement");
+        Telemetry.COMMAND_SECONDS.observe(0.3, "command", "findElement");
+        Telemetry.RETRIES.inc("kind", "signature");
+
+        JsonObject root = JsonParser.parseString(Telemetry.otlpJson()).getAsJsonObject();
+        JsonObject rm = root.getAsJsonArray("resourceMetrics").get(0).getAsJsonObject();
+        JsonArray resourceAttrs = rm.getAsJsonObject("resource").getAsJsonArray("attributes");
+        assertEquals(resourceAttrs.get(0).getAsJsonObject().get("key").getAsString(), "service.name");
+        assertEquals(resourceAttrs.get(1).getAsJsonObject().getAsJsonObject("value").get("stringValue").getAsString(), "123");
+
+        JsonArray metrics = rm.getAsJsonArray("scopeMetrics").get(0).getAsJsonObject().getAsJsonArray("metrics");
+        JsonObject command = metrics.get(0).getAsJsonObject();
+        assertEquals(command.get("name").getAsString(), "egalvanic_command_seconds");
+        assertEquals(command.get("unit").getAsString(), "s");
+        JsonObject histogram = command.getAsJsonObject("histogram");
+        assertEquals(histogram.get("aggregationTemporality").getAsInt(), 2);
+        JsonObject point = histogram.getAsJsonArray("dataPoints").get(0).getAsJsonObject();
+        assertEquals(point.get("count").getAsString(), "3");
+        JsonArray counts = point.getAsJsonArray("bucketCounts");
+        assertEquals(counts.size(), point.getAsJsonArray("explicitBounds").size() + 1);
+        assertEquals(counts.get(0).getAsString(), "2", "not cumulative: <= 10ms");
+        assertEquals(counts.get(4).getAsString(), "0", "not cumulative: 100-250ms");
+        assertEquals(counts.get(5).getAsString(), "1", "not cumulative: 250-500ms");
+        assertTrue(point.get("startTimeUnixNano").getAsString().matches("\\d{19}"));
+
+        JsonObject retries = metrics.get(1).getAsJsonObject();
+        assertEquals(retries.get("name").getAsString(), "egalvanic_retries");
+        JsonObject sum = retries.getAsJsonObject("sum");
+        assertTrue(sum.get("isMonotonic").getAsBoolean());
+        JsonObject retry = sum.getAsJsonArray("dataPoints").get(0).getAsJsonObject();
+        assertEquals(retry.getAsJsonArray("attributes").get(0).getAsJsonObject().get("key").getAsString(), "kind");
+        assertEquals(retry.get("asDouble").getAsDouble(), 1.0);
+    }
+
+    @Test
+    public void monitorThreadCommands_areNotTheTests() throws InterruptedException {
+        for (String monitor : new String[] {"wda-health", "app-liveness", "device-log"}) {
+            Thread t = new Thread(() -> DriverManager.observeCommand(
+                new CommandPayload("getAppState", Map.of()), System.nanoTime()), monitor);
+            t.start();
+            t.join();
+        }
+        DriverManager.observeCommand(new CommandPayload("getAppState", Map.of()), System.nanoTime());
+
+        String text = Telemetry.openMetrics();
+        assertTrue(text.contains("egalvanic_command_seconds_count{command=\"getAppState\"} 1\n"),
+            "only the test thread's command is counted: " + text);
+    }
+
+    @Test
+    public void export_writesBothFiles_andDisabledRecordsNothing() throws IOException {
+        Path dir = Files.createTempDirectory("telemetry");
+        try {
+            Telemetry.TESTS.inc("status", "pass");
+            Telemetry.export(dir);
+            assertTrue(Files.readString(dir.resolve("openmetrics.txt")).contains("egalvanic_tests_total{status=\"pass\"} 1"));
+            assertTrue(Files.readString(dir.resolve("otlp-metrics.json")).contains("\"egalvanic_tests\""));
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(files.count(), 2L, "no .tmp left behind");
+            }
+
+            Telemetry.reset(false);
+            Telemetry.TESTS.inc("status", "pass");
+            Telemetry.COMMAND_SECONDS.observe(1, "command", "tap");
+            assertEquals(Telemetry.TESTS.value("status", "pass"), 0.0);
+            assertEquals(Telemetry.openMetrics(), "# EOF\n");
+        } finally {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void runHealth_tripsAndState_areRecorded() {
+        RunHealth.tripBreaker("5 consecutive dead outcomes");
+        RunHealth.tripBreaker("again while open");
+        assertEquals(Telemetry.BREAKER_TRIPS.value(), 1.0, "only the transition to OPEN counts");
+        assertEquals(Telemetry.BREAKER_STATE.value(), 2.0);
+
+        RunHealth.breaker().reset();
+        RunHealth.tripBreaker("wedge");
+        assertEquals(Telemetry.BREAKER_TRIPS.value(), 2.0);
+    }
+
+    @Test
+    public void listener_attributesSetupAndTeardown_toTheTestTheyBracket() throws Exception {
+        TelemetryListener listener = new TelemetryListener();
+        IInvokedMethod setup = fakeInvoked("setup", "testSetup");
+        IInvokedMethod body = fakeInvoked("body", "TC_AUTH_001_login");
+        IInvokedMethod teardown = fakeInvoked("teardown", "testTeardown");
+        ITestResult result = fakeResult();
+
+        listener.beforeInvocation(setup, result);
+        Thread.sleep(20);
+        listener.afterInvocation(setup, result);
+        listener.beforeInvocation(body, result);
+        listener.afterInvocation(body, result);
+        listener.beforeInvocation(teardown, result);
+        listener.afterInvocation(teardown, result);
+
+        // A setup that skips its test has no body: histogram only, nothing attributed.
+        listener.beforeInvocation(setup, result);
+        listener.afterInvocation(setup, result);
+        listener.beforeInvocation(teardown, result);
+        listener.afterInvocation(teardown, result);
+
+        String test = "FakeAuthTest.TC_AUTH_001_login";
+        assertTrue(Telemetry.TEST_LAST_PHASE_SECONDS.value("test", test, "phase", "setup") >= 0.02);
+        assertTrue(Telemetry.TEST_LAST_PHASE_SECONDS.value("test", test, "phase", "body") < 0.02);
+        assertEquals(Telemetry.TEST_PHASE_SECONDS.count("phase", "setup", "class", "FakeAuthTest"), 2);
+        assertEquals(Telemetry.TEST_PHASE_SECONDS.count("phase", "teardown", "class", "FakeAuthTest"), 2);
+        assertEquals(Telemetry.TEST_PHASE_SECONDS.count("phase", "body", "class", "FakeAuthTest"), 1);
+        assertEquals(Telemetry.openMetrics().split("egalvanic_test_last_phase_seconds\\{").length - 1, 3,
+            "three phases for the one test that ran");
+    }
+
+    // ---- Proxy-built TestNG fakes (only the members the listener reads) ----
+
+    /** Not this class: the registered TelemetryListener is timing this self-test's own phases too. */
+    private static final class FakeAuthTest {
+    }
+
+    private static IInvokedMethod fakeInvoked(String phase, String methodName) {
+        ITestNGMethod m = (ITestNGMethod) Proxy.newProxyInstance(
+                TelemetrySelfTest.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRealClass": return FakeAuthTest.class;
+                        case "getMethodName": return methodName;
+                        case "isBeforeMethodConfiguration": return "setup".equals(phase);
+                        case "isAfterMethodConfiguration": return "teardown".equals(phase);
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "fake-ITestNGMethod";
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+        return (IInvokedMethod) Proxy.newProxyInstance(
+                TelemetrySelfTest.class.getClassLoader(),
+                new Class<?>[]{IInvokedMethod.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isTestMethod": return "body".equals(phase);
+                        case "getTestMethod": return m;
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "fake-IInvokedMethod";
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static ITestResult fakeResult() {
+        return (ITestResult) Proxy.newProxyInstance(
+                TelemetrySelfTest.class.getClassLoader(),
+                new Class<?>[]{ITestResult.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "fake-ITestResult";
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        return type == boolean.class ? false
+                : type == int.class ? 0
+                : type == long.class ? 0L
+                : type == double.class ? 0.0 : null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.TestScheduler;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The budget scheduler on a fake clock: history estimates, the queue kept in
+ * TestNG's order, cuts taken from the ends of classes, least valuable first,
+ * early detection of a slow pace, and no cut at all for a run that fits.
+ */
+public class TestSchedulerSelfTest {
+
+    private static final String HISTORY =
+        "module\tclass\tmethod\tstatus\tduration_ms\tfailure_signature\n"
+        + "assets\tA\tfast\tPASS\t10000\t\n"
+        + "assets\tA\tfast\tPASS\t12000\t\n"
+        + "assets\tA\tfast\tPASS\t8000\t\n"
+        + "assets\tA\tslow\tPASS\t300000\t\n"
+        + "assets\tA\tflaky\tPASS\t60000\t\n"
+        + "assets\tA\tflaky\tFAIL\t60000\tTimeout\n"
+        + "assets\tA\tflaky\tSKIP\t0\t\n";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private TestScheduler scheduler(long budgetSec, boolean enabled) throws Exception {
+        TestScheduler.History history = TestScheduler.History.empty().parse(new StringReader(HISTORY));
+        return new TestScheduler(enabled, budgetSec * 1000, 60_000, Set.of("smoke"), history, clock::get);
+    }
+
+    /** A: slow, fast, flaky, new (smoke); B: y, x. 550s of estimates. */
+    private static List<TestScheduler.Candidate> queue() {
+        List<TestScheduler.Candidate> q = new ArrayList<>();
+        q.add(new TestScheduler.Candidate("A", "slow", new String[] {"regression"}));
+        q.add(new TestScheduler.Candidate("A", "fast", new String[] {"regression"}));
+        q.add(new TestScheduler.Candidate("A", "flaky", new String[] {"regression"}));
+        q.add(new TestScheduler.Candidate("A", "new", new String[] {"smoke"}));
+        q.add(new TestScheduler.Candidate("B", "y", new String[] {}));
+        q.add(new TestScheduler.Candidate("B", "x", new String[] {}));
+        return q;
+    }
+
+    private void run(TestScheduler s, String key, long seconds) {
+        assertNull(s.skipReason(key), key + " should run");
+        clock.addAndGet(seconds * 1000);
+        s.finished(key, true);
+    }
+
+    @Test
+    public void history_mediansAndSkipsIgnored_directoriesLoad() throws Exception {
+        TestScheduler s = scheduler(0, true);
+        assertEquals(s.estimateMs("A#fast"), 10_000, "median of 8s/10s/12s");
+        assertEquals(s.estimateMs("A#flaky"), 60_000, "the SKIP row's 0 ms is not a duration");
+        assertEquals(s.estimateMs("A#unknown"), 60_000, "default for a test never seen");
+
+        Path dir = Files.createTempDirectory("history");
+        try {
+            Files.writeString(dir.resolve("results-summary.tsv"), HISTORY);
+            Files.writeString(dir.resolve("notes.txt"), "A\tfast\tPASS\t999999");
+            TestScheduler.History loaded = TestScheduler.History.fromSetting(
+                " " + dir + " , " + dir.resolve("missing.tsv"));
+            assertEquals(loaded.size(), 3, "only *.tsv, missing paths ignored");
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) {
+                    Files.delete(f);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void fittingRun_keepsOrder_andCutsNothing() throws Exception {
+        TestScheduler s = scheduler(20 * 60, true);
+        s.plan(queue());
+        for (String key : List.of("A#slow", "A#fast", "A#flaky", "A#new", "B#y", "B#x")) {
+            run(s, key, s.estimateMs(key) / 1000);
+        }
+        assertEquals(s.remainingCount(), 0);
+
+        TestScheduler off = scheduler(60, false);
+        off.plan(queue());
+        assertNull(off.skipReason("A#slow"));
+    }
+
+    @Test
+    public void overrun_keepsTheQueue_andCutsFromTheEndsOfClasses() throws Exception {
+        TestScheduler s = scheduler(450, true);
+        s.plan(queue());
+        assertEquals(s.remainingKeys(), List.of("A#slow", "A#fast", "A#flaky", "A#new", "B#y", "B#x"),
+            "TestNG's order: priorities and authored order hold");
+        assertEquals(s.projectedFinishMs(), 550_000);
+
+        // Density = value / estimate: fast 1/10s, new 2.5/60s, flaky 2/60s, y and x 1.5/60s, slow 1/300s.
+        // Only tails are candidates: x, then y (B is empty), and 430s fits. A#slow, the least
+        // valuable of all, heads its class and runs.
+        run(s, "A#slow", 300);
+        run(s, "A#fast", 10);
+        run(s, "A#flaky", 60);
+        run(s, "A#new", 60);
+        String reason = s.skipReason("B#y");
+        assertNotNull(reason, "B#x goes first, and still the run would overrun");
+        assertTrue(reason.contains("SUITE_WALL") && reason.contains("8 min"), reason);
+        s.finished("B#y", false);
+        assertNotNull(s.skipReason("B#x"));
+        s.finished("B#x", false);
+        assertEquals(s.remainingCount(), 0);
+        assertTrue(s.projectedFinishMs() <= 450_000, "finished inside the budget: " + s.projectedFinishMs());
+    }
+
+    @Test
+    public void cut_neverTakesATestAheadOfItsClassmates() throws Exception {
+        TestScheduler s = scheduler(5 * 60, true);
+        s.plan(queue());
+        // 550s against 300s: x, y, new, flaky go (tails, lowest density first); 310s - fast's 10s fits.
+        assertNull(s.skipReason("A#slow"), "its class's tail is cut instead");
+    }
+
+    @Test
+    public void slowPace_isCaughtEarly_beforeTheWall() throws Exception {
+        TestScheduler s = scheduler(5 * 60, true);
+        List<TestScheduler.Candidate> q = List.of(
+            new TestScheduler.Candidate("C", "smoke1", new String[] {"smoke"}),
+            new TestScheduler.Candidate("C", "smoke2", new String[] {"smoke"}),
+            new TestScheduler.Candidate("C", "plain", new String[] {}),
+            new TestScheduler.Candidate("C", "smoke3", new String[] {"smoke"}));
+        s.plan(q);
+        assertTrue(s.projectedFinishMs() <= 5 * 60_000, "240s of estimates fit 300s");
+
+        run(s, "C#smoke1", 150); // 2.5x its estimate
+        assertTrue(s.pace() > 1.3, "pace " + s.pace());
+        assertTrue(s.projectedFinishMs() > 5 * 60_000, "overrun projected after ONE test, long before the wall");
+        run(s, "C#smoke2", 60);
+        assertNull(s.skipReason("C#plain"), "with the class's last test cut, plain fits");
+        run(s, "C#plain", 60);
+        assertNotNull(s.skipReason("C#smoke3"), "the end of the class goes, not the test in its middle");
+    }
+}
@@ -0,0 +1,104 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.explore.ExploreFinding;
+import com.egalvanic.explore.TraceMinimizer;
+import com.egalvanic.explore.TraceReplayer;
+import com.egalvanic.explore.TraceStep;
+import com.egalvanic.explore.WorkflowGraph;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that exploratory findings become short, replayable repros and that
+ * the crawl map survives between runs. "Replay" is a predicate over the step list.
+ *
+ * <ul>
+ *   <li>ddmin shrinks a long trace to exactly the steps the failure needs, in order.</li>
+ *   <li>The replay budget is honoured and still yields a failing (if larger) trace.</li>
+ *   <li>Repro files round-trip awkward fuzz input (tabs, quotes, whitespace-only).</li>
+ *   <li>A saved graph loads with the same visit counts, edges and frontiers.</li>
+ * </ul>
+ */
+public class TraceMinimizerSelfTest {
+
+    private static List<TraceStep> steps(int n) {
+        return IntStream.range(0, n).mapToObj(i -> new TraceStep("tap:Button['b" + i + "']", null)).toList();
+    }
+
+    @Test
+    public void ddmin_findsTheMinimalFailingSubsequence() {
+        List<TraceStep> trace = steps(40);
+        TraceStep open = trace.get(7);
+        TraceStep save = trace.get(31);
+        int[] replays = {0};
+        List<TraceStep> min = TraceMinimizer.ddmin(trace, t -> {
+            replays[0]++;
+            int o = t.indexOf(open);
+            return o >= 0 && t.indexOf(save) > o; // crash needs "open" then "save"
+        }, 200);
+        assertEquals(min, List.of(open, save));
+        assertTrue(replays[0] < 60, "memoized ddmin must not brute-force: " + replays[0]);
+    }
+
+    @Test
+    public void ddmin_respectsTheReplayBudget() {
+        List<TraceStep> trace = steps(64);
+        TraceStep culprit = trace.get(50);
+        int[] replays = {0};
+        List<TraceStep> min = TraceMinimizer.ddmin(trace, t -> {
+            replays[0]++;
+            return t.contains(culprit);
+        }, 3);
+        assertTrue(replays[0] <= 3, "budget exceeded: " + replays[0]);
+        assertTrue(min.contains(culprit) && min.size() < trace.size(), "best-so-far must still fail: " + min.size());
+    }
+
+    @Test
+    public void reproFile_roundTripsFuzzInput() throws Exception {
+        List<TraceStep> trace = new ArrayList<>(List.of(
+                new TraceStep("type:TextField['Name']", "O'Brien \"x\"\tand\\more"),
+                new TraceStep("type:TextField['Notes']", "                 "),
+                new TraceStep("type:TextField['Qty']", ""),
+                TraceStep.interrupt("permission:photos=no"),
+                new TraceStep("tap:Button['Save']", null)));
+        Path file = Files.createTempDirectory("repro").resolve("repro-1-CRASH.trace");
+        TraceReplayer.write(file, ExploreFinding.critical("CRASH", "step 9", "app gone\nafter save").withTrace(trace));
+
+        ExploreFinding back = TraceReplayer.read(file);
+        assertEquals(back.kind(), "CRASH");
+        assertEquals(back.trace(), trace);
+        assertTrue(back.trace().get(3).isInterrupt());
+        assertEquals(back.trace().get(3).interruptKind(), "permission:photos=no");
+    }
+
+    @Test
+    public void savedGraph_reloadsWithTheSameMap() throws Exception {
+        WorkflowGraph g = new WorkflowGraph();
+        g.observe("home", List.of("tap:A", "tap:B"));
+        g.record("home", "tap:A", "assets");
+        g.record("home", "tap:A", "assets");
+        g.observe("assets", List.of("tap:Back", "tap:Add"));
+        g.record("assets", "tap:Back", "home");
+        g.record("home", "tap:B", "settings");
+        Path file = Files.createTempDirectory("graph").resolve("workflow-graph.tsv.gz");
+        g.save(file);
+
+        WorkflowGraph back = WorkflowGraph.load(file);
+        assertEquals(back.render(), g.render());
+        assertEquals(back.visits("home", "tap:A"), 2);
+        assertEquals(back.untried("assets"), List.of("tap:Add"));
+        assertEquals(back.firstHopToFrontier("settings"), null, "no edge out of settings is known");
+        assertEquals(back.firstHopToFrontier("home"), "tap:A");
+        assertFalse(back.isFrontier("home"));
+        assertEquals(WorkflowGraph.load(file.resolveSibling("missing.gz")).screenCount(), 0);
+    }
+}
@@ -0,0 +1,203 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.TraceTimeline;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The trace timeline on a plain JVM, page objects played by the nested Fake*Page
+ * classes: spans nest, commands merge into page-object spans per caller, each
+ * device gets its own track, and the output loads both whole and cut short.
+ */
+public class TraceTimelineSelfTest {
+
+    private StringWriter trace;
+
+    /**
+     * Called first thing in each test, not in a @BeforeMethod: the registered
+     * TraceListener is tracing this self-test's own setup span too.
+     */
+    private void traceToBuffer() {
+        trace = new StringWriter();
+        TraceTimeline.configureForTest(trace, TraceTimelineSelfTest.class.getName() + "$Fake");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restore() {
+        TraceTimeline.reset();
+    }
+
+    /** Stands in for a page object: every "command" it issues is attributed to it. */
+    static final class FakeAssetPage {
+        void createAsset() {
+            command("findElement");
+            command("click");
+            new FakeLoginPage().helper(); // page calling page: the OUTERMOST page frame wins
+        }
+
+        void openList() {
+            command("findElements");
+        }
+    }
+
+    static final class FakeLoginPage {
+        void helper() {
+            command("sendKeys");
+        }
+    }
+
+    private static void command(String name) {
+        long t0 = System.nanoTime();
+        TraceTimeline.command(name, t0);
+    }
+
+    @Test
+    public void spansNest_andCommandsMergeIntoPageObjectCalls() {
+        traceToBuffer();
+        TraceTimeline.beginTest("SIM-A");
+        try (TraceTimeline.Span body = TraceTimeline.span("AssetTest.create", "test").arg("attempt", 1)) {
+            FakeAssetPage page = new FakeAssetPage();
+            page.createAsset();
+            page.openList();
+            command("getPageSource"); // from the test itself: no page span
+            try (TraceTimeline.Span shot = TraceTimeline.span("screenshot", "screenshot")) {
+                page.openList();
+            }
+        }
+        List<JsonObject> events = events(close());
+
+        List<JsonObject> pages = byCategory(events, "page");
+        assertEquals(names(pages), List.of("FakeAssetPage.createAsset", "FakeAssetPage.openList",
+            "FakeAssetPage.openList"), "3 commands of createAsset merge; a span edge splits openList");
+        assertEquals(names(byCategory(events, "command")),
+            List.of("findElement", "click", "sendKeys", "findElements", "getPageSource", "findElements"));
+
+        JsonObject body = byCategory(events, "test").get(0);
+        assertEquals(body.getAsJsonObject("args").get("attempt").getAsInt(), 1);
+        JsonObject shot = byCategory(events, "screenshot").get(0);
+        assertInside(pages.get(0), body);
+        assertInside(pages.get(2), shot);
+        assertInside(shot, body);
+        for (JsonObject e : events) {
+            if (!"M".equals(e.get("ph").getAsString())) {
+                assertEquals(e.get("pid"), body.get("pid"), "one device track");
+                assertEquals(e.get("tid").getAsLong(), Thread.currentThread().getId());
+            }
+        }
+    }
+
+    @Test
+    public void eachDeviceGetsItsOwnTrack_andInstantsMarkTheRun() throws Exception {
+        traceToBuffer();
+        Thread other = new Thread(() -> TraceTimeline.beginTest("SIM-B"), "TestNG-test-2");
+        other.start();
+        other.join();
+        // The timeOut body's thread never began a test: it draws on SIM-B's track.
+        Thread body = new Thread(() -> TraceTimeline.span("SiteTest.select", "test").close(), "TestNG-method=select");
+        body.start();
+        body.join();
+        TraceTimeline.beginTest("SIM-A");
+        TraceTimeline.span("teardown", "config").close();
+        TraceTimeline.instant("breaker OPEN", "breaker", "5 consecutive dead outcomes", true);
+        TraceTimeline.instant("retry AssetTest.create", "retry", "signature: Session", false);
+        List<JsonObject> events = events(close());
+
+        List<String> processNames = new ArrayList<>();
+        Set<String> threadNames = new HashSet<>();
+        for (JsonObject e : events) {
+            if ("process_name".equals(e.get("name").getAsString())) {
+                processNames.add(e.getAsJsonObject("args").get("name").getAsString());
+            } else if ("thread_name".equals(e.get("name").getAsString())) {
+                threadNames.add(e.getAsJsonObject("args").get("name").getAsString());
+            }
+        }
+        assertEquals(processNames, List.of("device SIM-B", "device SIM-A"));
+        assertTrue(threadNames.contains("TestNG-method=select"), threadNames.toString());
+
+        JsonObject teardown = byCategory(events, "config").get(0);
+        JsonObject select = byCategory(events, "test").get(0);
+        assertNotEquals(teardown.get("pid"), select.get("pid"), "SIM-A's teardown, SIM-B's body");
+        JsonObject breaker = byCategory(events, "breaker").get(0);
+        assertEquals(breaker.get("s").getAsString(), "g");
+        assertEquals(breaker.get("pid"), teardown.get("pid"));
+        assertEquals(byCategory(events, "retry").get(0).get("s").getAsString(), "t");
+    }
+
+    @Test
+    public void cutShortTrace_stillParses_andDisabledWritesNothing() {
+        traceToBuffer();
+        TraceTimeline.span("setup", "config").arg("method", "Odd\"Name\\x\n").close();
+        TraceTimeline.flush();
+        String partial = trace.toString();
+        assertFalse(partial.contains("]"), "no closing bracket until close()");
+        // The JSON Array Format's closing bracket is optional for the viewers; Gson is stricter.
+        JsonArray parsed = JsonParser.parseString(partial + "]").getAsJsonArray();
+        JsonObject setup = parsed.get(parsed.size() - 1).getAsJsonObject();
+        assertEquals(setup.getAsJsonObject("args").get("method").getAsString(), "Odd\"Name\\x\n");
+        assertEquals(setup.get("ph").getAsString(), "X");
+
+        TraceTimeline.configureForTest(null, "unused");
+        assertFalse(TraceTimeline.isEnabled());
+        TraceTimeline.Span noop = TraceTimeline.span("x", "y").arg("k", "v");
+        noop.close();
+        TraceTimeline.instant("x", "y", null, true);
+        command("findElement");
+        assertTrue(trace.toString().endsWith("\n]\n"), "closed once, nothing after");
+    }
+
+    // ---- helpers ----
+
+    private String close() {
+        TraceTimeline.configureForTest(null, "unused");
+        return trace.toString();
+    }
+
+    private static List<JsonObject> events(String json) {
+        List<JsonObject> out = new ArrayList<>();
+        for (JsonElement e : JsonParser.parseString(json).getAsJsonArray()) {
+            out.add(e.getAsJsonObject());
+        }
+        return out;
+    }
+
+    private static List<JsonObject> byCategory(List<JsonObject> events, String category) {
+        List<JsonObject> out = new ArrayList<>();
+        for (JsonObject e : events) {
+            if (e.has("cat") && category.equals(e.get("cat").getAsString())) {
+                out.add(e);
+            }
+        }
+        out.sort((a, b) -> Long.compare(a.get("ts").getAsLong(), b.get("ts").getAsLong()));
+        return out;
+    }
+
+    private static List<String> names(List<JsonObject> events) {
+        List<String> out = new ArrayList<>();
+        for (JsonObject e : events) {
+            out.add(e.get("name").getAsString());
+        }
+        return out;
+    }
+
+    private static void assertInside(JsonObject inner, JsonObject outer) {
+        long is = inner.get("ts").getAsLong(), ie = is + inner.get("dur").getAsLong();
+        long os = outer.get("ts").getAsLong(), oe = os + outer.get("dur").getAsLong();
+        assertTrue(os <= is && ie <= oe, inner.get("name") + " [" + is + "," + ie + "] not inside "
+            + outer.get("name") + " [" + os + "," + oe + "]");
+    }
+}
@@ -2,11 +2,17 @@ package com.egalvanic.verify;
 
 import org.testng.annotations.Test;
 
+import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
@@ -86,4 +92,99 @@ public class VerifierSelfTest {
                 real.setRGB(x, y, r.nextInt(0xFFFFFF)); // varied content == a rendered page
         assertFalse(ImageAnalysis.analyzeFull(real).looksBlank(), "varied content must NOT read as blank");
     }
+
+    @Test
+    public void directRasterPath_matchesGetRgb_onEveryImageType() {
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_565_RGB};
+        for (int type : types) {
+            BufferedImage img = new BufferedImage(257, 511, type);
+            Random r = new Random(type);
+            for (int x = 0; x < img.getWidth(); x++)
+                for (int y = 0; y < img.getHeight(); y++)
+                    img.setRGB(x, y, 0xFF000000 | r.nextInt(0xFFFFFF));
+            assertSame(ImageAnalysis.analyze(img, 13, 29, 200, 400), referenceAnalyze(img, 13, 29, 200, 400), "type " + type);
+            BufferedImage sub = img.getSubimage(40, 80, 150, 300); // shares the parent raster
+            assertSame(ImageAnalysis.analyzeFull(sub), referenceAnalyze(sub, 0, 0, 150, 300), "subimage of type " + type);
+        }
+    }
+
+    @Test
+    public void subsampledDecode_keepsTheVerdict_atAFractionOfTheSize() throws Exception {
+        BufferedImage screen = new BufferedImage(1290, 2796, BufferedImage.TYPE_INT_RGB);
+        Random r = new Random(3);
+        for (int x = 0; x < 1290; x += 6)
+            for (int y = 0; y < 2796; y += 6)
+                screen.setRGB(x, y, r.nextInt(0xFFFFFF));
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(screen, "png", png);
+
+        BufferedImage small = ImageAnalysis.decodeScreenshot(png.toByteArray());
+        assertTrue(Math.max(small.getWidth(), small.getHeight()) <= ImageAnalysis.DECODE_MAX_DIM,
+                small.getWidth() + "x" + small.getHeight());
+        assertEquals((double) small.getWidth() / small.getHeight(), 1290.0 / 2796, 0.01, "aspect kept");
+        assertEquals(ImageAnalysis.analyzeFull(small).looksBlank(), ImageAnalysis.analyzeFull(screen).looksBlank());
+        assertEquals(ImageAnalysis.decode("not an image".getBytes(), 720), null);
+    }
+
+    @Test
+    public void lumaHistogram_binsEverySample() {
+        BufferedImage img = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        var g = img.getGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 100, 100);   // left half white, right half black
+        g.dispose();
+        int[] hist = ImageAnalysis.lumaHistogram(img, 0, 0, 200, 100, 4);
+        assertEquals(Arrays.stream(hist).sum(), 200 * 100);
+        assertEquals(hist[3], 100 * 100);
+        assertEquals(hist[0], 100 * 100);
+        assertThrows(VerificationError.class, () -> ImageAnalysis.lumaHistogram(img, 0, 0, 10, 10, 0));
+    }
+
+    // ---- CrashDetector freeze check: fingerprint sampling (driver-free core) ----
+
+    @Test
+    public void freezeCheck_stopsAtTheFirstChange_andTimesTheResponse() {
+        var before = new CrashDetector.Fingerprint(7, 0xF0F0L);
+        int[] samples = {0};
+        long ms = CrashDetector.firstChangeMs(() -> ++samples[0] < 3 ? before
+                : new CrashDetector.Fingerprint(7, 0xF0F0L ^ 0xFFFFL), before, 5_000, 20);
+        assertEquals(samples[0], 3, "sampling must stop at the first change");
+        assertTrue(ms >= 30 && ms < 1_000, "time-to-response " + ms + "ms");
+    }
+
+    @Test
+    public void freezeCheck_ignoresACaretBlink_andGivesUpAtTheWindow() {
+        var before = new CrashDetector.Fingerprint(7, 0xF0F0L);
+        long t0 = System.currentTimeMillis();
+        long ms = CrashDetector.firstChangeMs(() -> new CrashDetector.Fingerprint(7, 0xF0F1L), before, 300, 50);
+        assertEquals(ms, -1L, "a 1-bit pixel flicker with an unchanged tree is still frozen");
+        assertTrue(System.currentTimeMillis() - t0 < 1_000, "bounded by the window");
+        long treeOnly = CrashDetector.firstChangeMs(() -> new CrashDetector.Fingerprint(8, 0xF0F0L), before, 300, 50);
+        assertTrue(treeOnly >= 0 && treeOnly < 50, "a tree change alone is a response, on the first sample: " + treeOnly);
+    }
+
+    private static void assertSame(ImageAnalysis.Result fast, ImageAnalysis.Result ref, String what) {
+        assertEquals(fast.uniqueColors(), ref.uniqueColors(), what);
+        assertEquals(fast.stdDev(), ref.stdDev(), 1e-9, what);
+    }
+
+    /** The original getRGB + boxed-set implementation, kept as the oracle for the fast path. */
+    private static ImageAnalysis.Result referenceAnalyze(BufferedImage img, int x, int y, int w, int h) {
+        Set<Integer> colors = new HashSet<>();
+        double sum = 0, sumSq = 0;
+        int n = 0;
+        for (int i = x; i < x + w; i += Math.max(1, w / 64)) {
+            for (int j = y; j < y + h; j += Math.max(1, h / 64)) {
+                int rgb = img.getRGB(i, j);
+                colors.add(rgb & 0xF8F8F8);
+                double lum = 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                sum += lum;
+                sumSq += lum * lum;
+                n++;
+            }
+        }
+        double mean = sum / n;
+        return new ImageAnalysis.Result(colors.size(), Math.sqrt(Math.max(0, sumSq / n - mean * mean)));
+    }
 }
@@ -0,0 +1,132 @@
+package com.egalvanic.verify;
+
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Driver-free proof of the visual baseline check, on screens drawn in memory.
+ *
+ * <ul>
+ *   <li>An unchanged screen matches on tile signatures alone (no pixel pass).</li>
+ *   <li>A changed label fails exactly the tile it sits in; a 1px caret does not fail.</li>
+ *   <li>A masked clock is ignored; the heatmap paints the diff red.</li>
+ *   <li>First run records, later runs compare, a mask file is honoured, and a failure
+ *       writes the heatmap.</li>
+ * </ul>
+ */
+public class VisualDiffSelfTest {
+
+    @Test
+    public void unchangedScreen_takesTheFastPath() {
+        VisualDiff.Result r = VisualDiff.compare(screen("10:41", false, 0), screen("10:41", false, 0), List.of());
+        assertTrue(r.matches(), r.toString());
+        assertTrue(r.fastPath(), "identical render must not need a pixel pass: " + r);
+    }
+
+    @Test
+    public void changedLabel_failsOnlyItsTile_caretDoesNot() {
+        BufferedImage base = screen("10:41", false, 0);
+        VisualDiff.Result caret = VisualDiff.compare(base, screen("10:41", false, 1), List.of());
+        assertTrue(caret.matches(), "a 1px caret is noise: " + caret);
+
+        VisualDiff.Result r = VisualDiff.compare(base, screen("10:41", true, 0), List.of());
+        assertFalse(r.matches());
+        assertEquals(r.failedTiles().size(), 1, r.toString());
+        assertTrue(r.failedTiles().get(0).contains(new Rectangle(LABEL_X, LABEL_Y, 40, 16)), r.failedTiles().toString());
+        assertTrue(r.diffedTiles().size() < VisualDiff.COLS * VisualDiff.ROWS / 4, "only changed tiles are diffed");
+    }
+
+    @Test
+    public void maskedClock_isIgnored_andTheHeatmapShowsTheDiff() {
+        BufferedImage base = screen("10:41", false, 0);
+        BufferedImage now = screen("23:59", true, 0);
+        assertEquals(VisualDiff.compare(base, now, List.of()).failedTiles().size(), 2, "clock + label");
+
+        List<VisualDiff.Region> clock = List.of(VisualDiff.Region.parse("0.35 0 0.3 0.05"));
+        VisualDiff.Result r = VisualDiff.compare(base, now, clock);
+        assertEquals(r.failedTiles().size(), 1, "the clock must not count: " + r);
+
+        BufferedImage heat = VisualDiff.heatmap(base, now, clock, r);
+        int px = heat.getRGB(LABEL_X + 5, LABEL_Y + 5);
+        assertTrue(((px >> 16) & 0xFF) > 200 && ((px >> 8) & 0xFF) < 120, "diff pixel must be red: " + Integer.toHexString(px));
+        int calm = heat.getRGB(W / 2, H - 20);
+        assertEquals((calm >> 16) & 0xFF, calm & 0xFF, "unchanged pixels stay grey");
+    }
+
+    @Test
+    public void sizeMismatch_failsLoudly() {
+        expectThrows(VerificationError.class,
+                () -> VisualDiff.compare(screen("10:41", false, 0), new BufferedImage(W, H + 8, BufferedImage.TYPE_INT_RGB), List.of()));
+    }
+
+    @Test
+    public void verifier_recordsThenCompares_andWritesTheHeatmap() throws Exception {
+        Path root = Files.createTempDirectory("visual");
+        Path env = root.resolve("qa");
+        byte[][] shot = {png(screen("10:41", false, 0))};
+        VisualBaselineVerifier v = new VisualBaselineVerifier(() -> shot[0], env, root.resolve("diff"), false);
+
+        assertNull(v.assertMatchesBaseline("Asset List"), "first run records");
+        assertTrue(Files.exists(env.resolve("Asset_List.png")));
+        assertTrue(v.assertMatchesBaseline("Asset List").fastPath());
+
+        shot[0] = png(screen("23:59", false, 0));
+        Files.writeString(env.resolve("Asset_List.mask"), "# status-bar clock\n0.35 0 0.3 0.05\n");
+        assertTrue(v.assertMatchesBaseline("Asset List").matches(), "mask file must hide the clock");
+
+        shot[0] = png(screen("23:59", true, 0));
+        VerificationError e = expectThrows(VerificationError.class, () -> v.assertMatchesBaseline("Asset List"));
+        assertTrue(e.getMessage().contains("1/72 tiles differ"), e.getMessage());
+        assertTrue(Files.size(root.resolve("diff").resolve("Asset_List-diff.png")) > 0);
+    }
+
+    private static final int W = 300, H = 600, LABEL_X = 105, LABEL_Y = 260;
+
+    /** Status bar with a clock, a nav bar, list rows; {@code renamed} changes one label, {@code caret} draws a caret. */
+    private static BufferedImage screen(String clock, boolean renamed, int caret) {
+        BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(0xF2F2F7));
+        g.fillRect(0, 0, W, H);
+        g.setColor(Color.BLACK);
+        g.drawString(clock, 108, 18); // inside the 0.35..0.65 × 0..0.05 clock region
+        g.setColor(new Color(0x1C4E80));
+        g.fillRect(0, 30, W, 50);
+        for (int row = 0; row < 9; row++) {
+            int y = 100 + row * 50;
+            g.setColor(Color.WHITE);
+            g.fillRect(10, y, W - 20, 40);
+            g.setColor(new Color(30 + row * 10, 30, 60));
+            g.fillRect(20, y + 12, 60 + row * 9, 14);
+        }
+        g.setColor(renamed ? new Color(0xC62828) : new Color(0x2E7D32));
+        g.fillRect(LABEL_X, LABEL_Y, 40, 16);
+        if (caret > 0) {
+            g.setColor(Color.BLACK);
+            g.fillRect(200, 560, 1, 12);
+        }
+        g.dispose();
+        return img;
+    }
+
+    private static byte[] png(BufferedImage img) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.utils.WdaHealthMonitor;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the WDA health monitor flags a DEGRADING session before
+ * it wedges, and leaves healthy (even slow-but-flat) sessions alone. Runs on a
+ * plain JVM — latency comes from scripted fake probes.
+ */
+public class WdaHealthMonitorSelfTest {
+
+    private static final long WEDGE_MS = 10_000;
+
+    private static LongSupplier scripted(long... values) {
+        int[] i = {0};
+        return () -> values[Math.min(i[0]++, values.length - 1)];
+    }
+
+    private static WdaHealthMonitor monitor(String session) {
+        return new WdaHealthMonitor(() -> 20, () -> 0, () -> session, WEDGE_MS);
+    }
+
+    @Test
+    public void healthyFlatLatency_isNeverFlagged() {
+        WdaHealthMonitor m = monitor("s1");
+        for (int i = 0; i < 50; i++) {
+            m.record(20, 400 + (i % 3) * 50);
+        }
+        assertFalse(m.isDegraded(), "steady ~450ms probes are healthy: " + m.degradedReason());
+    }
+
+    @Test
+    public void slowButFlatScreen_isNotFlagged() {
+        WdaHealthMonitor m = monitor("s1");
+        for (int i = 0; i < 20; i++) {
+            m.record(20, 3_500); // heavy screen, but not getting worse
+        }
+        assertFalse(m.isDegraded(), "flat latency below half the wedge threshold is fine: " + m.degradedReason());
+    }
+
+    @Test
+    public void climbingLatency_isFlaggedBeforeTheWedge() {
+        WdaHealthMonitor m = monitor("s1");
+        long[] climb = {300, 320, 310, 900, 1_900, 2_900, 3_800, 4_700};
+        for (long ms : climb) {
+            m.record(20, ms);
+        }
+        assertTrue(m.isDegraded(), "a steady climb toward the wedge must be flagged");
+        assertTrue(m.degradedReason().contains("climbing"), m.degradedReason());
+        // Flagged while the latest probe (4.7s) is still under half the 10s wedge,
+        // i.e. before the recent-median rule would have fired.
+        assertTrue(climb[climb.length - 1] < WEDGE_MS / 2);
+    }
+
+    @Test
+    public void recentMedianNearWedge_isFlagged() {
+        WdaHealthMonitor m = monitor("s1");
+        m.record(20, 6_000);
+        m.record(20, 5_500);
+        assertFalse(m.isDegraded(), "needs 3 samples");
+        m.record(20, 5_200);
+        assertTrue(m.isDegraded(), m.degradedReason());
+    }
+
+    @Test
+    public void twoConsecutiveProbeFailures_areFlagged_butOneIsTolerated() {
+        WdaHealthMonitor m = monitor("s1");
+        m.record(20, 300);
+        m.record(20, -1);
+        m.record(20, 300);
+        m.record(20, 300);
+        m.record(20, 300);
+        assertFalse(m.isDegraded(), "one isolated timeout must not recycle the session: " + m.degradedReason());
+        m.record(-1, -1);
+        assertFalse(m.isDegraded(), m.degradedReason());
+        m.record(20, -1);
+        assertTrue(m.isDegraded());
+        assertTrue(m.degradedReason().contains("consecutive"), m.degradedReason());
+    }
+
+    @Test
+    public void newSession_resetsHistory() {
+        AtomicReference<String> session = new AtomicReference<>("s1");
+        WdaHealthMonitor m = new WdaHealthMonitor(() -> 10,
+            scripted(6_000, 6_000, 6_000, 300, 300, 300), session::get, WEDGE_MS);
+        m.sampleOnce();
+        m.sampleOnce();
+        session.set("s2"); // recycled session: the old samples must not count
+        m.sampleOnce();
+        m.sampleOnce();
+        m.sampleOnce();
+        assertFalse(m.isDegraded(), "history from a recycled session leaked: " + m.degradedReason());
+        assertEquals(m.sampleCount(), 5);
+    }
+
+    @Test
+    public void noSession_noProbe() {
+        int[] probes = {0};
+        WdaHealthMonitor m = new WdaHealthMonitor(() -> { probes[0]++; return 10; },
+            () -> { probes[0]++; return 10; }, () -> null, WEDGE_MS);
+        m.sampleOnce();
+        assertEquals(probes[0], 0, "no active session => heartbeat costs nothing");
+    }
+
+    @Test
+    public void testCommandInFlight_noProbe() {
+        int[] queries = {0};
+        boolean[] busy = {true};
+        WdaHealthMonitor m = new WdaHealthMonitor(() -> 10, () -> { queries[0]++; return 10; },
+            () -> busy[0], () -> "s1", WEDGE_MS);
+        m.sampleOnce();
+        assertEquals(queries[0], 0, "no snapshot queued behind (or ahead of) the test's own command");
+        assertEquals(m.sampleCount(), 0);
+        assertEquals(m.skippedCount(), 1);
+
+        busy[0] = false;
+        m.sampleOnce();
+        assertEquals(queries[0], 1);
+        assertEquals(m.sampleCount(), 1);
+    }
+}
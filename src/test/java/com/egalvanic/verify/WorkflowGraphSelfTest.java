@@ -0,0 +1,194 @@
+package com.egalvanic.verify;
+
+import com.egalvanic.explore.Action;
+import com.egalvanic.explore.ActionSelector;
+import com.egalvanic.explore.Crawler;
+import com.egalvanic.explore.ExploreFinding;
+import com.egalvanic.explore.ExploreReport;
+import com.egalvanic.explore.ParallelExplorer;
+import com.egalvanic.explore.UiNode;
+import com.egalvanic.explore.WorkflowGraph;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Driver-free proof that the coverage-guided crawl prefers NEW ground. Runs on a
+ * plain JVM — screens are hand-built {@link UiNode} lists (no WebElement needed,
+ * the selector never touches it).
+ *
+ * <ul>
+ *   <li>Untried actions are chosen before any visited one.</li>
+ *   <li>A fully explored screen backtracks along the shortest known edge toward a
+ *       screen that still has untried actions.</li>
+ *   <li>No frontier anywhere => least-visited action, never a dead stop.</li>
+ *   <li>Parallel workers sharing one graph are routed to DIFFERENT frontier screens,
+ *       concurrent updates lose nothing, and their findings merge into one report.</li>
+ * </ul>
+ */
+public class WorkflowGraphSelfTest {
+
+    private static UiNode button(String name) {
+        return new UiNode(null, "XCUIElementTypeButton", name, name, false);
+    }
+
+    private static List<String> keys(List<UiNode> nodes) {
+        return nodes.stream().map(ActionSelector::key).toList();
+    }
+
+    @Test
+    public void untriedActions_comeFirst() {
+        WorkflowGraph g = new WorkflowGraph();
+        ActionSelector sel = new ActionSelector(null);
+        List<UiNode> home = List.of(button("Assets"), button("Issues"), button("Settings"));
+        String homeSig = Crawler.signatureOf(home);
+        g.observe(homeSig, keys(home));
+        g.record(homeSig, ActionSelector.key(home.get(0)), "assets-screen");
+        g.record(homeSig, ActionSelector.key(home.get(1)), "issues-screen");
+
+        for (int i = 0; i < 20; i++) {
+            Action a = sel.chooseNovel(home, homeSig, g, "t");
+            assertEquals(a.node().name, "Settings", "the only untried action must win every time");
+        }
+    }
+
+    @Test
+    public void exhaustedScreen_backtracksTowardTheFrontier() {
+        WorkflowGraph g = new WorkflowGraph();
+        ActionSelector sel = new ActionSelector(null);
+        List<UiNode> home = List.of(button("Assets"), button("Settings"));
+        List<UiNode> assets = List.of(button("Back"), button("Add Asset"));
+        List<UiNode> settings = List.of(button("Done"));
+        String h = Crawler.signatureOf(home);
+        String a = Crawler.signatureOf(assets);
+        String s = Crawler.signatureOf(settings);
+
+        g.observe(h, keys(home));
+        g.record(h, "tap:Button['Assets']", a);
+        g.observe(a, keys(assets));                  // "Add Asset" never tried => frontier
+        g.record(a, "tap:Button['Back']", h);
+        g.record(h, "tap:Button['Settings']", s);
+        g.observe(s, keys(settings));
+        g.record(s, "tap:Button['Done']", h);
+
+        assertFalse(g.isFrontier(s));
+        assertTrue(g.isFrontier(a));
+        assertEquals(g.firstHopToFrontier(s), "tap:Button['Done']", "Settings -> Home -> Assets");
+        assertEquals(g.firstHopToFrontier(h), "tap:Button['Assets']");
+
+        Action step = sel.chooseNovel(settings, s, g, "t");
+        assertEquals(step.node().name, "Done");
+        Action next = sel.chooseNovel(home, h, g, "t");
+        assertEquals(next.node().name, "Assets", "Home is exhausted too: keep heading to the frontier");
+        assertEquals(g.frontierCount(), 1);
+    }
+
+    @Test
+    public void noFrontier_fallsBackToLeastVisited() {
+        WorkflowGraph g = new WorkflowGraph();
+        ActionSelector sel = new ActionSelector(null);
+        List<UiNode> only = List.of(button("A"), button("B"));
+        String o = Crawler.signatureOf(only);
+        g.observe(o, keys(only));
+        g.record(o, "tap:Button['A']", o);
+        g.record(o, "tap:Button['A']", o);
+        g.record(o, "tap:Button['B']", o);
+
+        assertNull(g.firstHopToFrontier(o));
+        assertEquals(sel.chooseNovel(only, o, g, "t").node().name, "B");
+        assertEquals(g.visits(o, "tap:Button['A']"), 2);
+    }
+
+    @Test
+    public void signature_isOrderInsensitive_andCountsDistinctScreens() {
+        List<UiNode> x = List.of(button("A"), button("B"));
+        List<UiNode> y = List.of(button("B"), button("A"), button("A"));
+        assertEquals(Crawler.signatureOf(x), Crawler.signatureOf(y));
+        WorkflowGraph g = new WorkflowGraph();
+        g.record(Crawler.signatureOf(x), "tap:Button['A']", Crawler.signatureOf(y));
+        assertEquals(g.screenCount(), 1);
+        assertEquals(g.transitionCount(), 1);
+    }
+
+    @Test
+    public void screensWithCollidingHashCodes_stayDistinct() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        WorkflowGraph g = new WorkflowGraph();
+        g.record("Aa", "tap:Button['A']", "BB");
+        g.record("BB", "tap:Button['B']", "Aa");
+        assertEquals(g.screenCount(), 2, "a persisted map must not merge two screens on a 32-bit hash");
+    }
+
+    @Test
+    public void parallelWorkers_areSentToDifferentFrontiers() {
+        WorkflowGraph g = new WorkflowGraph();
+        g.observe("home", List.of("tap:A", "tap:B"));
+        g.record("home", "tap:A", "screen-a");
+        g.record("home", "tap:B", "screen-b");
+        g.observe("screen-a", List.of("tap:untried-a"));
+        g.observe("screen-b", List.of("tap:untried-b"));
+
+        String first = g.firstHopToFrontier("home", "w1");
+        String second = g.firstHopToFrontier("home", "w2");
+        assertTrue(first != null && second != null);
+        assertFalse(first.equals(second), "two workers must not race to the same frontier: " + first);
+        assertNull(g.firstHopToFrontier("home", "w3"), "every frontier is claimed");
+        assertEquals(g.firstHopToFrontier("home", "w1"), first, "a worker keeps its own claim");
+    }
+
+    @Test(timeOut = 10_000)
+    public void concurrentRecording_losesNoVisits() throws Exception {
+        WorkflowGraph g = new WorkflowGraph();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int w = 0; w < 4; w++) {
+            int worker = w;
+            pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    g.observe("s" + (i % 10), List.of("tap:x", "tap:w" + worker));
+                    g.record("s" + (i % 10), "tap:x", "s" + ((i + 1) % 10));
+                    g.firstHopToFrontier("s" + (i % 10), "w" + worker);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(8, TimeUnit.SECONDS));
+        int total = 0;
+        for (int i = 0; i < 10; i++) total += g.visits("s" + i, "tap:x");
+        assertEquals(total, 2_000);
+        assertEquals(g.screenCount(), 10);
+    }
+
+    @Test
+    public void deviceSpec_andMergedReport() {
+        List<ParallelExplorer.Device> d = ParallelExplorer.Device.parse("UDID-1@4724@8101, UDID-2");
+        assertEquals(d.size(), 2);
+        assertEquals(d.get(0), new ParallelExplorer.Device("UDID-1", "4724", "8101"));
+        assertNull(d.get(1).appiumPort());
+        assertTrue(ParallelExplorer.Device.parse(null).isEmpty());
+
+        ExploreReport a = new ExploreReport();
+        a.add(ExploreFinding.critical("CRASH", "step 3", "gone"));
+        a.setSteps(10);
+        ExploreReport b = new ExploreReport();
+        b.add(ExploreFinding.low("DEAD_END", "step 1", "x"));
+        b.setSteps(7);
+        Map<String, ExploreReport> byWorker = new LinkedHashMap<>();
+        byWorker.put("primary", a);
+        byWorker.put("UDID-1", b);
+        ExploreReport merged = ExploreReport.merge(byWorker, new WorkflowGraph());
+        assertEquals(merged.findings().size(), 2);
+        assertEquals(merged.findings().get(1).step(), "[UDID-1] step 1");
+        assertEquals(merged.count(ExploreFinding.Severity.CRITICAL), 1L);
+        assertTrue(merged.summary().startsWith("Exploratory crawl: 17 steps"), merged.summary());
+    }
+}